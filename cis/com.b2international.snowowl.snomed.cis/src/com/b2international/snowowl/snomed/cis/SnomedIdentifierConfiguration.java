@@ -32,6 +32,7 @@ public class SnomedIdentifierConfiguration {
 	}
 
 	public static final int DEFAULT_ID_GENERATION_ATTEMPTS = 100_000;
+	public static final int DEFAULT_ID_BLOCK_SIZE = 0;
 
 	@JsonProperty(value = "strategy", required = false)
 	private IdGenerationStrategy strategy = IdGenerationStrategy.EMBEDDED;
@@ -58,6 +59,12 @@ public class SnomedIdentifierConfiguration {
 	
 	@JsonProperty(required = false)
 	private int maxIdGenerationAttempts = DEFAULT_ID_GENERATION_ATTEMPTS;
+	
+	// the number of identifiers preallocated per namespace and category by the embedded service, 0 disables preallocation
+	@Min(0)
+	@Max(100_000)
+	@JsonProperty(required = false)
+	private int idBlockSize = DEFAULT_ID_BLOCK_SIZE;
 
 	@Min(1)
 	@JsonProperty(value = "cisNumberOfReauthTries", required = false)
@@ -147,6 +154,14 @@ public class SnomedIdentifierConfiguration {
 		this.maxIdGenerationAttempts = maxIdGenerationAttempts;
 	}
 
+	public int getIdBlockSize() {
+		return idBlockSize;
+	}
+	
+	public void setIdBlockSize(int idBlockSize) {
+		this.idBlockSize = idBlockSize;
+	}
+
 	public void setCisNumberOfReauthTries(int cisNumberOfReauthTries) {
 		this.cisNumberOfReauthTries = cisNumberOfReauthTries;
 	}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.cis.client;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.commons.exceptions.BadRequestException;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifierConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Non-blocking counterpart of {@link CisClient}. Requests are sent over a pooled, asynchronous HTTP connection, so any number of them can
+ * be in flight at the same time; bulk job status is polled on a timer instead of a sleeping request thread.
+ * <p>
+ * Authentication is shared with the blocking client: requests are created with the current token, and an unauthorized response triggers a
+ * new login before the request is sent again.
+ * 
+ * @since 9.5
+ */
+class CisAsyncClient {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CisAsyncClient.class);
+	
+	private static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+	
+	/**
+	 * Creates a request to send, embedding the given authentication token.
+	 */
+	@FunctionalInterface
+	interface RequestFactory {
+		HttpRequestBase create(String token) throws IOException;
+	}
+	
+	private final CisClient client;
+	private final ObjectMapper mapper;
+	private final long numberOfPollTries;
+	private final long timeBetweenPollTries;
+	private final long numberOfReauthTries;
+	
+	private final CloseableHttpAsyncClient asyncClient;
+	private final ExecutorService executor;
+	private final Executor pollDelay;
+
+	public CisAsyncClient(final SnomedIdentifierConfiguration conf, final CisClient client, final ObjectMapper mapper) {
+		this.client = client;
+		this.mapper = mapper;
+		this.numberOfPollTries = conf.getCisNumberOfPollTries();
+		this.timeBetweenPollTries = conf.getCisTimeBetweenPollTries();
+		this.numberOfReauthTries = conf.getCisNumberOfReauthTries();
+		
+		this.asyncClient = HttpAsyncClients.custom()
+				.setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+				.setMaxConnTotal(conf.getCisMaxConnections())
+				.build();
+		this.asyncClient.start();
+		
+		// Response callbacks run on the I/O dispatcher threads; logins and response processing are moved off of them
+		this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+				.setNameFormat("cis-client-%d")
+				.setDaemon(true)
+				.build());
+		this.pollDelay = CompletableFuture.delayedExecutor(timeBetweenPollTries, TimeUnit.MILLISECONDS, executor);
+	}
+	
+	/**
+	 * Sends the request created by the given factory and returns the body of the response.
+	 * 
+	 * @param requestFactory - creates the request for the current authentication token
+	 * @return a future completing with the response body, or exceptionally with a {@link BadRequestException} if CIS rejected the request
+	 */
+	public CompletableFuture<String> execute(final RequestFactory requestFactory) {
+		return execute(requestFactory, numberOfReauthTries);
+	}
+	
+	private CompletableFuture<String> execute(final RequestFactory requestFactory, final long remainingAttempts) {
+		final HttpRequestBase request;
+		try {
+			request = requestFactory.create(client.getToken());
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(new SnowowlRuntimeException("Exception while creating HTTP request.", e));
+		}
+		
+		return send(request).exceptionallyComposeAsync(e -> {
+			final Throwable cause = unwrap(e);
+			
+			if (cause instanceof CisClientException clientException) {
+				final int statusCode = clientException.getStatusCode();
+				if ((statusCode == HttpStatus.SC_UNAUTHORIZED || statusCode == HttpStatus.SC_FORBIDDEN) && remainingAttempts > 1) {
+					LOGGER.warn("Unauthorized response from CIS, retrying request ({} attempt(s) left).", remainingAttempts - 1);
+					client.login();
+					return execute(requestFactory, remainingAttempts - 1);
+				} else {
+					return CompletableFuture.failedFuture(new BadRequestException(clientException.getReasonPhrase(), clientException));
+				}
+			}
+			
+			return CompletableFuture.failedFuture(cause);
+		}, executor);
+	}
+	
+	/**
+	 * Sends the request created by the given factory and parses the body of the response.
+	 * 
+	 * @param requestFactory - creates the request for the current authentication token
+	 * @param type - the type to parse the response body as
+	 * @return a future completing with the parsed response
+	 */
+	public <T> CompletableFuture<T> execute(final RequestFactory requestFactory, final Class<T> type) {
+		return execute(requestFactory).thenApplyAsync(response -> {
+			try {
+				return mapper.readValue(response, type);
+			} catch (IOException e) {
+				throw new SnowowlRuntimeException("Exception while reading CIS response.", e);
+			}
+		}, executor);
+	}
+	
+	/**
+	 * Polls the status of the given bulk job until it finishes, fails, or runs out of poll attempts.
+	 * 
+	 * @param jobId - the identifier of the bulk job
+	 * @return a future completing when the job has finished
+	 */
+	public CompletableFuture<Void> joinBulkJob(final String jobId) {
+		LOGGER.debug("Polling job status with ID {}.", jobId);
+		return pollBulkJob(jobId, numberOfPollTries);
+	}
+	
+	private CompletableFuture<Void> pollBulkJob(final String jobId, final long remainingPollTries) {
+		return execute(token -> client.httpGet(String.format("bulk/jobs/%s?token=%s", jobId, token)), JsonNode.class)
+			.thenCompose(node -> {
+				final JobStatus status = JobStatus.get(node.get("status").asInt());
+				
+				if (JobStatus.FINISHED == status) {
+					return CompletableFuture.completedFuture(null);
+				} else if (JobStatus.ERROR == status) {
+					return CompletableFuture.failedFuture(new SnowowlRuntimeException("Bulk request has ended in error."));
+				} else if (remainingPollTries <= 1) {
+					return CompletableFuture.failedFuture(new SnowowlRuntimeException("Job didn't finish with expected status: " + status));
+				} else {
+					return CompletableFuture.runAsync(() -> {}, pollDelay).thenCompose(unused -> pollBulkJob(jobId, remainingPollTries - 1));
+				}
+			});
+	}
+	
+	private CompletableFuture<String> send(final HttpRequestBase request) {
+		final CompletableFuture<String> result = new CompletableFuture<>();
+		
+		asyncClient.execute(request, new FutureCallback<HttpResponse>() {
+			@Override
+			public void completed(final HttpResponse response) {
+				try {
+					final StatusLine statusLine = response.getStatusLine();
+					final int statusCode = statusLine.getStatusCode();
+					
+					if (statusCode != HttpStatus.SC_OK) {
+						// log non-authentication related errors 
+						if (statusCode != HttpStatus.SC_UNAUTHORIZED && statusCode != HttpStatus.SC_FORBIDDEN) {
+							LOGGER.error("{} {}", statusCode, statusLine.getReasonPhrase());
+						}
+						EntityUtils.consumeQuietly(response.getEntity());
+						result.completeExceptionally(new CisClientException(statusCode, statusLine.getReasonPhrase()));
+					} else {
+						result.complete(EntityUtils.toString(response.getEntity()));
+					}
+				} catch (IOException | RuntimeException e) {
+					result.completeExceptionally(new SnowowlRuntimeException("Exception while reading HTTP response.", e));
+				}
+			}
+			
+			@Override
+			public void failed(final Exception e) {
+				LOGGER.error("Exception while executing HTTP request.", e);
+				result.completeExceptionally(new SnowowlRuntimeException("Exception while executing HTTP request.", e));
+			}
+			
+			@Override
+			public void cancelled() {
+				result.completeExceptionally(new CancellationException("HTTP request was cancelled."));
+			}
+		});
+		
+		return result;
+	}
+	
+	/**
+	 * Waits for the given future and rethrows any failure without the {@link CompletionException} wrapper.
+	 */
+	public static <T> T join(final CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			final Throwable cause = unwrap(e);
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			} else if (cause instanceof Error error) {
+				throw error;
+			} else {
+				throw new SnowowlRuntimeException(cause);
+			}
+		}
+	}
+	
+	private static Throwable unwrap(final Throwable e) {
+		Throwable cause = e;
+		while (cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause;
+	}
+	
+	public void close() {
+		try {
+			asyncClient.close();
+		} catch (IOException e) {
+			LOGGER.warn("Exception while closing asynchronous CIS client.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2019 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,9 +26,14 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpGet;
@@ -49,6 +54,7 @@ import com.b2international.snowowl.core.terminology.ComponentCategory;
 import com.b2international.snowowl.snomed.cis.AbstractSnomedIdentifierService;
 import com.b2international.snowowl.snomed.cis.SnomedIdentifierConfiguration;
 import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
+import com.b2international.snowowl.snomed.cis.client.CisAsyncClient.RequestFactory;
 import com.b2international.snowowl.snomed.cis.domain.IdentifierStatus;
 import com.b2international.snowowl.snomed.cis.domain.SctId;
 import com.b2international.snowowl.snomed.cis.model.*;
@@ -87,6 +93,7 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 	private final ObjectMapper mapper;
 
 	private CisClient client;
+	private CisAsyncClient asyncClient;
 	private boolean disposed;
 
 	public CisSnomedIdentifierService(final SnomedIdentifierConfiguration conf, final ISnomedIdentifierReservationService reservationService, final ObjectMapper mapper) {
@@ -99,6 +106,7 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		this.requestBulkLimit = conf.getRequestBulkLimit();
 		this.mapper = mapper;
 		this.client = new CisClient(conf, mapper);
+		this.asyncClient = new CisAsyncClient(conf, client, mapper);
 
 		// Log in at startup, and keep the token as long as possible
 		login();
@@ -118,21 +126,12 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		LOGGER.debug("Generating {} component IDs for category {}.", quantity, category.getDisplayName());
 
 		HttpPost generateRequest = null;
-		HttpGet recordsRequest = null;
 		try {
 
 			if (quantity > 1) {
 				LOGGER.debug("Sending {} ID bulk generation request.", category.getDisplayName());
 				
-				generateRequest = httpPost(String.format("sct/bulk/generate?token=%s", getToken()), createBulkGenerationData(namespace, category, quantity));
-				final String response = execute(generateRequest);
-				final String jobId = mapper.readValue(response, JsonNode.class).get("id").asText();
-				joinBulkJobPolling(jobId, quantity, getToken());
-	
-				recordsRequest = httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, getToken()));
-				final String recordsResponse = execute(recordsRequest);
-				final JsonNode[] records = mapper.readValue(recordsResponse, JsonNode[].class);
-				return readSctIds(getComponentIds(records));
+				return readSctIds(runBulkJobs(quantity, bulkQuantity -> token -> httpPost(String.format("sct/bulk/generate?token=%s", token), createBulkGenerationData(namespace, category, bulkQuantity))));
 				
 			} else {
 				LOGGER.debug("Sending {} ID single generation request.", category.getDisplayName());
@@ -148,7 +147,6 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 			throw new SnowowlRuntimeException("Caught exception while generating IDs.", e);
 		} finally {
 			release(generateRequest);
-			release(recordsRequest);
 		}
 	}
 	
@@ -176,16 +174,8 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		try {
 			
 			if (availableOrReservedSctIds.size() > 1) {
-				final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(availableOrReservedSctIds.keySet());
-				for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-					currentNamespace = entry.getKey();
-					
-					for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-						LOGGER.debug("Sending bulk registration request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-						registerRequest = httpPost(String.format("sct/bulk/register?token=%s", getToken()), createBulkRegistrationData(bulkIds));
-						execute(registerRequest);
-					}
-				}
+				sendBulkRequests("registration", availableOrReservedSctIds.keySet(), 
+						(namespace, bulkIds) -> token -> httpPost(String.format("sct/bulk/register?token=%s", token), createBulkRegistrationData(bulkIds)));
 				
 			} else {
 				
@@ -218,21 +208,12 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		LOGGER.debug("Reserving {} component IDs for category {}.", quantity, category.getDisplayName());
 
 		HttpPost reserveRequest = null;
-		HttpGet recordsRequest = null;
 		try {
 
 			if (quantity > 1) {
 				LOGGER.debug("Sending {} ID bulk reservation request.", category.getDisplayName());
 	
-				reserveRequest = httpPost(String.format("sct/bulk/reserve?token=%s", getToken()), createBulkReservationData(namespace, category, quantity));
-				final String bulkResponse = execute(reserveRequest);
-				final String jobId = mapper.readValue(bulkResponse, JsonNode.class).get("id").asText();
-				joinBulkJobPolling(jobId, quantity, getToken());
-	
-				recordsRequest = httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, getToken()));
-				final String recordsResponse = execute(recordsRequest);
-				final JsonNode[] records = mapper.readValue(recordsResponse, JsonNode[].class);
-				return readSctIds(getComponentIds(records));
+				return readSctIds(runBulkJobs(quantity, bulkQuantity -> token -> httpPost(String.format("sct/bulk/reserve?token=%s", token), createBulkReservationData(namespace, category, bulkQuantity))));
 			
 			} else {
 				LOGGER.debug("Sending {} ID reservation request.", category.getDisplayName());
@@ -248,7 +229,6 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 			throw new SnowowlRuntimeException("Exception while bulk reserving IDs.", e);
 		} finally {
 			release(reserveRequest);
-			release(recordsRequest);
 		}
 	}
 
@@ -281,16 +261,8 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		try {
 			
 			if (assignedOrReservedSctIds.size() > 1) {
-				final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(assignedOrReservedSctIds.keySet());
-				for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-					currentNamespace = entry.getKey();
-					
-					for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-						LOGGER.debug("Sending bulk release request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-						releaseRequest = httpPut(String.format("sct/bulk/release?token=%s", getToken()), createBulkReleaseData(currentNamespace, bulkIds));
-						execute(releaseRequest);
-					}
-				}
+				sendBulkRequests("release", assignedOrReservedSctIds.keySet(), 
+						(namespace, bulkIds) -> token -> httpPut(String.format("sct/bulk/release?token=%s", token), createBulkReleaseData(namespace, bulkIds)));
 				
 			} else {
 				
@@ -337,16 +309,8 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		try {
 			
 			if (assignedOrPublishedSctIds.size() > 1) {
-				final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(assignedOrPublishedSctIds.keySet());
-				for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-					currentNamespace = entry.getKey();
-					
-					for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-						LOGGER.debug("Sending bulk deprecation request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-						deprecateRequest = httpPut(String.format("sct/bulk/deprecate?token=%s", getToken()), createBulkDeprecationData(currentNamespace, bulkIds));
-						execute(deprecateRequest);
-					}
-				}
+				sendBulkRequests("deprecation", assignedOrPublishedSctIds.keySet(), 
+						(namespace, bulkIds) -> token -> httpPut(String.format("sct/bulk/deprecate?token=%s", token), createBulkDeprecationData(namespace, bulkIds)));
 				
 			} else {
 				
@@ -379,16 +343,8 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 			final Map<String, SctId> sctIdsToPublish = ImmutableMap.copyOf(Maps.filterValues(sctIds, Predicates.not(SctId::isPublished)));
 			if (!sctIdsToPublish.isEmpty()) {
 				if (sctIdsToPublish.size() > 1) {
-					final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(sctIdsToPublish.keySet());
-					for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-						currentNamespace = entry.getKey();
-						
-						for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-							LOGGER.debug("Sending bulk publication request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-							publishRequest = httpPut(String.format("sct/bulk/publish?token=%s", getToken()), createBulkPublishData(currentNamespace, bulkIds));
-							execute(publishRequest);
-						}
-					}
+					sendBulkRequests("publication", sctIdsToPublish.keySet(), 
+							(namespace, bulkIds) -> token -> httpPut(String.format("sct/bulk/publish?token=%s", token), createBulkPublishData(namespace, bulkIds)));
 					
 				} else {
 					
@@ -448,22 +404,22 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 			return Collections.emptyMap();
 		}
 		
-		HttpPost bulkRequest = null;
 		HttpGet singleRequest = null;
 		
 		try {
 
 			if (componentIds.size() > 1) {
 				LOGGER.debug("Sending bulk component ID get request.");
-				final ImmutableMap.Builder<String, SctId> resultBuilder = ImmutableMap.builder();
+				final List<CompletableFuture<SctId[]>> requests = Lists.newArrayList();
 				
 				for (final Collection<String> ids : Iterables.partition(componentIds, requestBulkLimit)) {
 					final String idsAsString = Joiner.on(',').join(ids);
 					final ObjectNode idsAsJson = mapper.createObjectNode().put("sctids", idsAsString);
-					bulkRequest = client.httpPost(String.format("sct/bulk/ids/?token=%s", getToken()), idsAsJson);
-					final String response = execute(bulkRequest);
-					
-					final SctId[] sctIds = mapper.readValue(response, SctId[].class);
+					requests.add(asyncClient.execute(token -> client.httpPost(String.format("sct/bulk/ids/?token=%s", token), idsAsJson), SctId[].class));
+				}
+				
+				final ImmutableMap.Builder<String, SctId> resultBuilder = ImmutableMap.builder();
+				for (final SctId[] sctIds : joinAll(requests)) {
 					final Map<String, SctId> sctIdMap = Maps.uniqueIndex(Arrays.asList(sctIds), SctId::getSctid); 
 					resultBuilder.putAll(sctIdMap);
 				}
@@ -484,7 +440,6 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		} catch (IOException e) {
 			throw new SnowowlRuntimeException("Exception while getting IDs.", e);
 		} finally {
-			release(bulkRequest);
 			release(singleRequest);
 		}
 	}
@@ -556,38 +511,54 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		}
 	}
 
-	private void joinBulkJobPolling(final String jobId, final int quantity, final String token) {
-		HttpGet request = null;
-		JobStatus status = JobStatus.PENDING;
-
-		try {
-			LOGGER.debug("Polling job status with ID {}.", jobId);
-
-			request = httpGet(String.format("bulk/jobs/%s?token=%s", jobId, token));
-
-			for (long pollTry = numberOfPollTries; pollTry > 0; pollTry--) {
-				final String response = execute(request);
-				final JsonNode node = mapper.readValue(response, JsonNode.class);
-				status = JobStatus.get(node.get("status").asInt());
-
-				if (JobStatus.FINISHED == status) {
-					break;
-				} else if (JobStatus.ERROR == status) {
-					throw new SnowowlRuntimeException("Bulk request has ended in error.");
-				} else {
-					Thread.sleep(timeBetweenPollTries);
-				}
+	/**
+	 * Splits the requested quantity into bulk jobs of at most {@link #requestBulkLimit} items, runs the jobs concurrently and collects the
+	 * component IDs of all job records.
+	 */
+	private Set<String> runBulkJobs(final int quantity, final IntFunction<RequestFactory> jobRequestFactory) {
+		final List<CompletableFuture<Set<String>>> jobs = Lists.newArrayList();
+		for (int remaining = quantity; remaining > 0; remaining -= requestBulkLimit) {
+			jobs.add(runBulkJob(jobRequestFactory.apply(Math.min(remaining, requestBulkLimit))));
+		}
+		
+		final ImmutableSet.Builder<String> componentIds = ImmutableSet.builder();
+		joinAll(jobs).forEach(componentIds::addAll);
+		return componentIds.build();
+	}
+	
+	private CompletableFuture<Set<String>> runBulkJob(final RequestFactory jobRequest) {
+		return asyncClient.execute(jobRequest, JsonNode.class)
+			.thenCompose(job -> {
+				final String jobId = job.get("id").asText();
+				return asyncClient.joinBulkJob(jobId)
+					.thenCompose(unused -> asyncClient.execute(token -> httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, token)), JsonNode[].class));
+			})
+			.thenApply(this::getComponentIds);
+	}
+	
+	/**
+	 * Sends the bulk requests for the given component IDs concurrently, one for each namespace and partition of at most
+	 * {@link #requestBulkLimit} IDs, and waits for all of them to complete.
+	 */
+	private void sendBulkRequests(final String operation, final Set<String> componentIds, final BiFunction<String, Collection<String>, RequestFactory> requestFactory) {
+		final List<CompletableFuture<String>> requests = Lists.newArrayList();
+		
+		final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(componentIds);
+		for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
+			final String namespace = entry.getKey();
+			
+			for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
+				LOGGER.debug("Sending bulk {} request for namespace {} with size {}.", operation, namespace, bulkIds.size());
+				requests.add(asyncClient.execute(requestFactory.apply(namespace, bulkIds)));
 			}
-
-		} catch (Exception e) {
-			throw new SnowowlRuntimeException("Exception while polling job status.", e);
-		} finally {
-			release(request);
 		}
 		
-		if (JobStatus.FINISHED != status) {
-			throw new SnowowlRuntimeException("Job didn't finish with expected status: " + status); 
-		} 
+		joinAll(requests);
+	}
+	
+	private static <T> List<T> joinAll(final List<CompletableFuture<T>> futures) {
+		CisAsyncClient.join(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)));
+		return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
 	}
 
 	private Set<String> getComponentIds(final JsonNode[] records) {
@@ -674,6 +645,11 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 
 	@Override
 	public void dispose() {
+		if (null != asyncClient) {
+			asyncClient.close();
+			asyncClient = null;
+		}
+		
 		if (null != client) {
 			client.logout();
 			client.close();
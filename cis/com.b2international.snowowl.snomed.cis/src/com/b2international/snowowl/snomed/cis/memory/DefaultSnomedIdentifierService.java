@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -64,6 +64,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 	private final Index store;
 	private final ItemIdGenerationStrategy generationStrategy;
+	private final SctIdBlockAllocator blockAllocator;
 
 	/*
 	 * Tests only
@@ -83,6 +84,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		super(reservationService, config);
 		this.store = store;
 		this.generationStrategy = generationStrategy;
+		this.blockAllocator = config.getIdBlockSize() > 0 ? new SctIdBlockAllocator(this::generateIds, config.getIdBlockSize()) : null;
 	}
 
 	@Override
@@ -98,7 +100,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 		LOGGER.debug("Generating {} component IDs for category {}.", quantity, category.getDisplayName());
 
-		final Set<String> componentIds = generateIds(namespace, category, quantity);
+		final Set<String> componentIds = allocateIds(namespace, category, quantity);
 		final Map<String, SctId> sctIds = FluentIterable.from(componentIds).toMap(componentId -> buildSctId(componentId, IdentifierStatus.ASSIGNED));
 		putSctIds(sctIds.values());
 		return sctIds;
@@ -123,6 +125,10 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		
 		putSctIds(availableOrReservedSctIds.values());
 		
+		if (blockAllocator != null) {
+			blockAllocator.discard(availableOrReservedSctIds.keySet());
+		}
+		
 		return ImmutableMap.copyOf(sctIds);
 	}
 
@@ -139,7 +145,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 		LOGGER.debug("Reserving {} component IDs for category {}.", quantity, category.getDisplayName());
 
-		final Set<String> componentIds = generateIds(namespace, category, quantity);
+		final Set<String> componentIds = allocateIds(namespace, category, quantity);
 		final Map<String, SctId> sctIds = FluentIterable.from(componentIds).toMap(componentId -> buildSctId(componentId, IdentifierStatus.RESERVED));
 		putSctIds(sctIds.values());
 		return ImmutableMap.copyOf(sctIds);
@@ -235,6 +241,17 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		return true;
 	}
 
+	private Set<String> allocateIds(final String namespace, final ComponentCategory category, final int quantity) {
+		if (blockAllocator != null) {
+			final Set<String> allocatedIds = blockAllocator.allocate(namespace, category, quantity);
+			if (allocatedIds != null) {
+				return allocatedIds;
+			}
+		}
+		
+		return generateIds(namespace, category, quantity);
+	}
+	
 	private Set<String> generateIds(final String namespace, final ComponentCategory category, final int quantity) {
 		final Set<String> generatedComponentIds = newLinkedHashSet(); // important to keep order of generated ids
 		final int maxAttempts = getConfig().getMaxIdGenerationAttempts();
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.cis.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Hands out identifiers from preallocated blocks, one chain of blocks per namespace and component category. Identifiers in a block are
+ * already checked against reservations and the identifier store when the block is allocated, so concurrent callers only have to claim a
+ * slice of the current block with a compare-and-set on its cursor.
+ * <p>
+ * When half of a block is claimed, the next block of the chain is allocated in the background. Identifiers registered by other means are
+ * recorded on every block that is being allocated or still has unclaimed identifiers, and are skipped when claiming from these blocks. Chains
+ * whose allocation failed are discarded; callers receive <code>null</code> in this case and are expected to fall back to generating
+ * identifiers directly.
+ * 
+ * @since 9.5
+ */
+public final class SctIdBlockAllocator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SctIdBlockAllocator.class);
+	
+	@FunctionalInterface
+	public interface BlockGenerator {
+		Set<String> generate(String namespace, ComponentCategory category, int quantity);
+	}
+	
+	private record Key(String namespace, ComponentCategory category) {
+	}
+	
+	private final class Block {
+		
+		private final Key key;
+		private final AtomicInteger cursor = new AtomicInteger();
+		private final AtomicReference<CompletableFuture<Block>> successor = new AtomicReference<>();
+		// identifiers registered while this block is live, never handed out from this block
+		private final Set<String> discardedIds = ConcurrentHashMap.newKeySet();
+		// set once the identifiers of the block are generated, before the block is published to claiming threads
+		private volatile ImmutableSet<String> idSet;
+		private volatile ImmutableList<String> ids;
+		
+		private Block(final Key key) {
+			this.key = key;
+		}
+		
+		private void fill(final Set<String> generatedIds) {
+			final ImmutableSet<String> idSet = ImmutableSet.copyOf(generatedIds);
+			this.ids = idSet.asList();
+			this.idSet = idSet;
+			// identifiers discarded during generation that did not end up in the block no longer need to be remembered
+			discardedIds.retainAll(idSet);
+		}
+		
+		/**
+		 * Claims at most <code>quantity</code> identifiers from this block and adds the ones that were not discarded to the given list.
+		 * 
+		 * @return the number of identifiers taken from the block, <code>0</code> if the block is exhausted
+		 */
+		private int claim(final int quantity, final List<String> claimedIds) {
+			int start;
+			int end;
+			do {
+				start = cursor.get();
+				if (start >= ids.size()) {
+					liveBlocks.remove(this);
+					return 0;
+				}
+				end = Math.min(start + quantity, ids.size());
+			} while (!cursor.compareAndSet(start, end));
+			
+			for (final String id : ids.subList(start, end)) {
+				if (!discardedIds.contains(id)) {
+					claimedIds.add(id);
+				}
+			}
+			
+			if (end == ids.size()) {
+				liveBlocks.remove(this);
+			}
+			
+			if (end * 2 >= ids.size()) {
+				successor();
+			}
+			
+			return end - start;
+		}
+		
+		private void discard(final Set<String> componentIds) {
+			final ImmutableSet<String> idSet = this.idSet;
+			if (idSet == null) {
+				// still being generated, any of the identifiers might end up in the block
+				discardedIds.addAll(componentIds);
+			} else {
+				componentIds.stream().filter(idSet::contains).forEach(discardedIds::add);
+			}
+		}
+		
+		/*
+		 * Makes this block and its successor unavailable for claiming, once the chain they belong to is abandoned.
+		 */
+		private void retire() {
+			if (ids != null) {
+				cursor.set(ids.size());
+			}
+			liveBlocks.remove(this);
+			final CompletableFuture<Block> next = successor.get();
+			if (next != null) {
+				next.thenAccept(Block::retire);
+			}
+		}
+		
+		private CompletableFuture<Block> successor() {
+			final CompletableFuture<Block> existing = successor.get();
+			if (existing != null) {
+				return existing;
+			}
+			
+			final CompletableFuture<Block> next = new CompletableFuture<>();
+			if (!successor.compareAndSet(null, next)) {
+				return successor.get();
+			}
+			
+			executor.execute(() -> {
+				try {
+					next.complete(newBlock(key));
+				} catch (final Throwable e) {
+					next.completeExceptionally(e);
+				}
+			});
+			
+			return next;
+		}
+	}
+	
+	private final BlockGenerator generator;
+	private final int blockSize;
+	private final ConcurrentMap<Key, AtomicReference<Block>> chains = new ConcurrentHashMap<>();
+	// blocks that are being generated or have unclaimed identifiers
+	private final Set<Block> liveBlocks = ConcurrentHashMap.newKeySet();
+	private final ExecutorService executor;
+	
+	public SctIdBlockAllocator(final BlockGenerator generator, final int blockSize) {
+		this.generator = generator;
+		this.blockSize = blockSize;
+		this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+				.setNameFormat("sctid-block-allocator-%d")
+				.setDaemon(true)
+				.build());
+	}
+	
+	/**
+	 * Claims the requested number of identifiers from the preallocated blocks of the given namespace and category.
+	 * 
+	 * @param namespace - the namespace identifier, <code>null</code> or empty for the international namespace
+	 * @param category - the component category
+	 * @param quantity - the number of identifiers to return
+	 * @return the claimed identifiers in generation order, or <code>null</code> if the request is larger than a block or blocks can not be
+	 *         allocated for the namespace and category
+	 */
+	public Set<String> allocate(final String namespace, final ComponentCategory category, final int quantity) {
+		if (quantity > blockSize) {
+			return null;
+		}
+		
+		final Key key = new Key(Strings.nullToEmpty(namespace), category);
+		final List<String> claimedIds = new ArrayList<>(quantity);
+		
+		try {
+			
+			while (claimedIds.size() < quantity) {
+				// look up the chain on every iteration, it might have been replaced after a failed allocation 
+				final AtomicReference<Block> chain = chains.computeIfAbsent(key, k -> new AtomicReference<>(newBlock(k)));
+				final Block block = chain.get();
+				if (block.claim(quantity - claimedIds.size(), claimedIds) == 0) {
+					// Every caller that finds the block exhausted waits for the same successor and tries to install it
+					chain.compareAndSet(block, block.successor().join());
+				}
+			}
+			
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Couldn't allocate identifier block for category {} in namespace '{}', falling back to direct generation.", category, key.namespace(), e);
+			final AtomicReference<Block> chain = chains.remove(key);
+			if (chain != null) {
+				chain.get().retire();
+			}
+			return null;
+		}
+		
+		return ImmutableSet.copyOf(claimedIds);
+	}
+	
+	/**
+	 * Records identifiers that were registered by other means, so that they are not handed out from blocks that contain them or are being
+	 * allocated at the moment. Blocks allocated after this call check the identifier store, so they will not contain the identifiers.
+	 * 
+	 * @param componentIds - the registered identifiers
+	 */
+	public void discard(final Set<String> componentIds) {
+		if (componentIds.isEmpty()) {
+			return;
+		}
+		
+		liveBlocks.forEach(block -> block.discard(componentIds));
+	}
+	
+	private Block newBlock(final Key key) {
+		final Block block = new Block(key);
+		// the block has to be live before generation starts, so registrations made during generation are recorded on it
+		liveBlocks.add(block);
+		try {
+			block.fill(generator.generate(key.namespace(), key.category(), blockSize));
+		} catch (final RuntimeException e) {
+			liveBlocks.remove(block);
+			throw e;
+		}
+		return block;
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.commons.collections;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * An {@link Iterator} that consumes a (slow, typically I/O bound) source iterator on a background thread and keeps up to a configured number of
+ * elements ready for the caller, so that producing the next element overlaps with processing the current one.
+ * <p>
+ * The source iterator is only accessed from the background thread, and it is not started until the first call to {@link #hasNext()}. Failures
+ * of the source are rethrown to the caller once all elements produced before the failure have been returned. Callers that stop iterating
+ * before reaching the end must {@link #close() close} the iterator to stop the background producer.
+ *
+ * @since 9.5
+ * @param <T> - the type of the elements
+ */
+public final class PrefetchingIterator<T> extends AbstractIterator<T> implements AutoCloseable {
+
+	private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+			.setNameFormat("prefetch-%d")
+			.setDaemon(true)
+			.build());
+
+	private static final Object END = new Object();
+
+	private static final long OFFER_TIMEOUT_MILLIS = 100L;
+
+	private final Iterator<? extends T> source;
+	private final BlockingQueue<Object> queue;
+	private final ExecutorService executor;
+
+	private Future<?> producer;
+	private volatile boolean closed;
+	private volatile Throwable failure;
+
+	/**
+	 * @param source - the source iterator to prefetch elements from
+	 * @param lookAhead - the maximum number of elements fetched ahead of the caller, must be positive
+	 */
+	public PrefetchingIterator(Iterator<? extends T> source, int lookAhead) {
+		this(source, lookAhead, DEFAULT_EXECUTOR);
+	}
+
+	/**
+	 * @param source - the source iterator to prefetch elements from
+	 * @param lookAhead - the maximum number of elements fetched ahead of the caller, must be positive
+	 * @param executor - the executor to run the background producer on
+	 */
+	public PrefetchingIterator(Iterator<? extends T> source, int lookAhead, ExecutorService executor) {
+		if (lookAhead < 1) {
+			throw new IllegalArgumentException("Look-ahead must be positive, was: " + lookAhead);
+		}
+		this.source = source;
+		this.queue = new ArrayBlockingQueue<>(lookAhead);
+		this.executor = executor;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T computeNext() {
+		if (closed) {
+			return endOfData();
+		}
+
+		if (producer == null) {
+			producer = executor.submit(this::produce);
+		}
+
+		final Object next;
+		try {
+			next = queue.take();
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the next prefetched element", e);
+		}
+
+		if (next == END) {
+			closed = true;
+			if (failure != null) {
+				Throwables.throwIfUnchecked(failure);
+				throw new RuntimeException(failure);
+			}
+			return endOfData();
+		}
+
+		return (T) next;
+	}
+
+	/**
+	 * Stops the background producer and discards all prefetched elements. Subsequent calls to {@link #hasNext()} return <code>false</code>.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		if (producer != null) {
+			producer.cancel(true);
+		}
+		queue.clear();
+	}
+
+	private void produce() {
+		try {
+			while (!closed && source.hasNext()) {
+				if (!offer(source.next())) {
+					return;
+				}
+			}
+		} catch (Throwable e) {
+			failure = e;
+		}
+		offer(END);
+	}
+
+	private boolean offer(Object element) {
+		try {
+			while (!queue.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (closed) {
+					return false;
+				}
+			}
+			return true;
+		} catch (InterruptedException e) {
+			// cancelled by close()
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.benchmark;
+
+import static com.b2international.index.query.Expressions.exactMatch;
+import static com.b2international.index.query.Expressions.match;
+import static com.b2international.index.query.Expressions.matchAnyLong;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.b2international.index.Doc;
+import com.b2international.index.query.Expression;
+import com.b2international.index.revision.Revision;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * SNOMED CT shaped revision documents used by the benchmark suites. They mimic the fields that drive the most frequently executed queries
+ * (hierarchy and attribute lookups), without depending on the actual SNOMED CT bundles.
+ *
+ * @since 9.5
+ */
+public final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+	}
+
+	@Doc(revisionHash = { BenchmarkConcept.Fields.ACTIVE, BenchmarkConcept.Fields.PARENTS, BenchmarkConcept.Fields.ANCESTORS })
+	public static final class BenchmarkConcept extends Revision {
+
+		public static final class Fields extends Revision.Fields {
+			public static final String ACTIVE = "active";
+			public static final String MODULE_ID = "moduleId";
+			public static final String PARENTS = "parents";
+			public static final String ANCESTORS = "ancestors";
+		}
+
+		public static final class Expressions extends Revision.Expressions {
+
+			public static Expression active() {
+				return match(Fields.ACTIVE, true);
+			}
+
+			public static Expression moduleId(String moduleId) {
+				return exactMatch(Fields.MODULE_ID, moduleId);
+			}
+
+			public static Expression parents(Collection<Long> parentIds) {
+				return matchAnyLong(Fields.PARENTS, parentIds);
+			}
+
+			public static Expression ancestors(Collection<Long> ancestorIds) {
+				return matchAnyLong(Fields.ANCESTORS, ancestorIds);
+			}
+
+		}
+
+		private final boolean active;
+		private final String moduleId;
+		private final List<Long> parents;
+		private final List<Long> ancestors;
+
+		@JsonCreator
+		public BenchmarkConcept(
+				@JsonProperty(Revision.Fields.ID) final String id,
+				@JsonProperty(Fields.ACTIVE) final boolean active,
+				@JsonProperty(Fields.MODULE_ID) final String moduleId,
+				@JsonProperty(Fields.PARENTS) final List<Long> parents,
+				@JsonProperty(Fields.ANCESTORS) final List<Long> ancestors) {
+			super(id);
+			this.active = active;
+			this.moduleId = moduleId;
+			this.parents = parents;
+			this.ancestors = ancestors;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public String getModuleId() {
+			return moduleId;
+		}
+
+		public List<Long> getParents() {
+			return parents;
+		}
+
+		public List<Long> getAncestors() {
+			return ancestors;
+		}
+
+	}
+
+	@Doc(revisionHash = { BenchmarkRelationship.Fields.TYPE_ID, BenchmarkRelationship.Fields.DESTINATION_ID })
+	public static final class BenchmarkRelationship extends Revision {
+
+		public static final class Fields extends Revision.Fields {
+			public static final String SOURCE_ID = "sourceId";
+			public static final String TYPE_ID = "typeId";
+			public static final String DESTINATION_ID = "destinationId";
+		}
+
+		private final String sourceId;
+		private final String typeId;
+		private final String destinationId;
+
+		@JsonCreator
+		public BenchmarkRelationship(
+				@JsonProperty(Revision.Fields.ID) final String id,
+				@JsonProperty(Fields.SOURCE_ID) final String sourceId,
+				@JsonProperty(Fields.TYPE_ID) final String typeId,
+				@JsonProperty(Fields.DESTINATION_ID) final String destinationId) {
+			super(id);
+			this.sourceId = sourceId;
+			this.typeId = typeId;
+			this.destinationId = destinationId;
+		}
+
+		public String getSourceId() {
+			return sourceId;
+		}
+
+		public String getTypeId() {
+			return typeId;
+		}
+
+		public String getDestinationId() {
+			return destinationId;
+		}
+
+	}
+
+}
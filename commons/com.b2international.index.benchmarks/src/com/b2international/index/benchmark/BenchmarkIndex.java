@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.benchmark;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.b2international.commons.options.MetadataImpl;
+import com.b2international.index.DefaultIndex;
+import com.b2international.index.Index;
+import com.b2international.index.Indexes;
+import com.b2international.index.benchmark.BenchmarkFixtures.BenchmarkConcept;
+import com.b2international.index.benchmark.BenchmarkFixtures.BenchmarkRelationship;
+import com.b2international.index.mapping.Mappings;
+import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.DefaultRevisionIndex;
+import com.b2international.index.revision.Revision;
+import com.b2international.index.revision.RevisionBranch;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.StagingArea;
+import com.b2international.index.revision.TimestampProvider;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Shared embedded revision index populated with a deterministic, SNOMED CT shaped synthetic dataset. The dataset is generated only once per JVM,
+ * benchmark suites share it via {@link #getInstance()}.
+ * <p>
+ * The generated branch hierarchy is {@code MAIN -> MAIN/project -> MAIN/project/task}, each child branch having a few commits of its own, so that
+ * branch-aware searches have to evaluate multiple segments.
+ *
+ * @since 9.5
+ */
+public final class BenchmarkIndex {
+
+	public static final String MAIN = RevisionBranch.MAIN_PATH;
+	public static final String PROJECT = MAIN + "/project";
+	public static final String TASK = PROJECT + "/task";
+
+	public static final String AUTHOR = "benchmark";
+
+	public static final long ROOT_ID = 138875005L;
+	public static final String CORE_MODULE_ID = "900000000000207008";
+	public static final String EXTENSION_MODULE_ID = "1000001102";
+	public static final List<String> ATTRIBUTE_TYPE_IDS = ImmutableList.of("116680003", "363698007", "116676008", "246075003", "370135005");
+
+	/**
+	 * Java system property to configure the number of synthetic concepts (default is 50 000).
+	 */
+	public static final String CONCEPT_COUNT_PROPERTY = "so.benchmark.concepts";
+
+	private static final int DEFAULT_CONCEPT_COUNT = 50_000;
+	private static final int MAX_PARENTS = 3;
+	private static final int ATTRIBUTES_PER_CONCEPT = 2;
+	private static final int BRANCH_COMMITS = 10;
+	private static final int BRANCH_COMMIT_SIZE = 100;
+	private static final int COMMIT_BATCH_SIZE = 10_000;
+	private static final long SEED = 1234L;
+
+	private static BenchmarkIndex instance;
+
+	private final Index index;
+	private final RevisionIndex revisionIndex;
+	private final long[] conceptIds;
+	private final Map<Long, List<Long>> parentsById;
+	private final Map<Long, List<Long>> ancestorsById;
+	private final AtomicLong nextId;
+
+	private BenchmarkIndex(int conceptCount) {
+		final ObjectMapper mapper = new ObjectMapper();
+		mapper.setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
+		this.index = new DefaultIndex(Indexes.createIndexClient("benchmark-" + UUID.randomUUID().toString(), mapper, new Mappings(BenchmarkConcept.class, BenchmarkRelationship.class)));
+		this.revisionIndex = new DefaultRevisionIndex(index, new TimestampProvider.Default(), mapper);
+		this.revisionIndex.admin().create();
+
+		this.conceptIds = new long[conceptCount];
+		this.parentsById = new HashMap<>(conceptCount);
+		this.ancestorsById = new HashMap<>(conceptCount);
+		this.nextId = new AtomicLong(ROOT_ID + conceptCount + 1);
+
+		populate(new Random(SEED));
+	}
+
+	public static synchronized BenchmarkIndex getInstance() {
+		if (instance == null) {
+			instance = new BenchmarkIndex(Integer.getInteger(CONCEPT_COUNT_PROPERTY, DEFAULT_CONCEPT_COUNT));
+		}
+		return instance;
+	}
+
+	private void populate(Random random) {
+		// concepts can only have parents with a lower index, which guarantees an acyclic hierarchy rooted at ROOT_ID
+		final List<Revision> batch = new ArrayList<>(COMMIT_BATCH_SIZE);
+		for (int i = 0; i < conceptIds.length; i++) {
+			final long conceptId = ROOT_ID + i;
+			conceptIds[i] = conceptId;
+
+			final List<Long> parents;
+			final List<Long> ancestors;
+			if (i == 0) {
+				parents = List.of();
+				ancestors = List.of();
+			} else {
+				final SortedSet<Long> parentSet = new TreeSet<>();
+				final int numberOfParents = 1 + random.nextInt(Math.min(i, MAX_PARENTS));
+				while (parentSet.size() < numberOfParents) {
+					parentSet.add(conceptIds[random.nextInt(i)]);
+				}
+				final SortedSet<Long> ancestorSet = new TreeSet<>();
+				for (Long parentId : parentSet) {
+					ancestorSet.addAll(parentsById.get(parentId));
+					ancestorSet.addAll(ancestorsById.get(parentId));
+				}
+				parents = ImmutableList.copyOf(parentSet);
+				ancestors = ImmutableList.copyOf(ancestorSet);
+			}
+
+			parentsById.put(conceptId, parents);
+			ancestorsById.put(conceptId, ancestors);
+			batch.add(new BenchmarkConcept(Long.toString(conceptId), true, CORE_MODULE_ID, parents, ancestors));
+
+			if (i > 0) {
+				for (int a = 0; a < ATTRIBUTES_PER_CONCEPT; a++) {
+					final String typeId = ATTRIBUTE_TYPE_IDS.get(random.nextInt(ATTRIBUTE_TYPE_IDS.size()));
+					final String destinationId = Long.toString(conceptIds[random.nextInt(i)]);
+					batch.add(new BenchmarkRelationship(Long.toString(nextId.getAndIncrement()), Long.toString(conceptId), typeId, destinationId));
+				}
+			}
+
+			if (batch.size() >= COMMIT_BATCH_SIZE) {
+				commit(MAIN, batch);
+				batch.clear();
+			}
+		}
+
+		if (!batch.isEmpty()) {
+			commit(MAIN, batch);
+		}
+
+		// add a few commits on each level of the branch hierarchy to produce multiple segments to search in
+		revisionIndex.branching().createBranch(MAIN, "project", new MetadataImpl(), false);
+		populateBranch(PROJECT, random);
+		revisionIndex.branching().createBranch(PROJECT, "task", new MetadataImpl(), false);
+		populateBranch(TASK, random);
+	}
+
+	private void populateBranch(String branch, Random random) {
+		for (int c = 0; c < BRANCH_COMMITS; c++) {
+			final List<Revision> batch = new ArrayList<>(BRANCH_COMMIT_SIZE);
+			for (int i = 0; i < BRANCH_COMMIT_SIZE; i++) {
+				batch.add(newConcept(EXTENSION_MODULE_ID, conceptIds[random.nextInt(conceptIds.length)]));
+			}
+			commit(branch, batch);
+		}
+	}
+
+	/**
+	 * Creates a new synthetic concept (with a new unique identifier) as the child of the given parent concept.
+	 *
+	 * @param moduleId
+	 * @param parentId
+	 * @return
+	 */
+	public BenchmarkConcept newConcept(String moduleId, long parentId) {
+		final SortedSet<Long> ancestors = new TreeSet<>(parentsById.get(parentId));
+		ancestors.addAll(ancestorsById.get(parentId));
+		return new BenchmarkConcept(Long.toString(nextId.getAndIncrement()), true, moduleId, List.of(parentId), ImmutableList.copyOf(ancestors));
+	}
+
+	/**
+	 * Commits the given documents (with their ID as key) to the specified branch.
+	 *
+	 * @param branch
+	 * @param documents
+	 * @return the resulting commit
+	 */
+	public Commit commit(String branch, Collection<? extends Revision> documents) {
+		final StagingArea staging = revisionIndex.prepareCommit(branch);
+		documents.forEach(staging::stageNew);
+		return staging.commit(revisionIndex.branching().currentTime(), AUTHOR, "Benchmark commit");
+	}
+
+	public RevisionIndex revisionIndex() {
+		return revisionIndex;
+	}
+
+	/**
+	 * @return the underlying (not revision-aware) index, to evaluate hand-made revision filters against
+	 */
+	public Index index() {
+		return index;
+	}
+
+	/**
+	 * @return a concept ID that has a considerable amount of descendants (one of the direct children of the root concept)
+	 */
+	public long getLargeHierarchyId() {
+		return conceptIds[1];
+	}
+
+	/**
+	 * @param random
+	 * @return a random concept ID from the generated dataset
+	 */
+	public long getRandomConceptId(Random random) {
+		return conceptIds[random.nextInt(conceptIds.length)];
+	}
+
+	/**
+	 * @param random
+	 * @return a random attribute type ID from the generated dataset
+	 */
+	public String getRandomAttributeTypeId(Random random) {
+		return ATTRIBUTE_TYPE_IDS.get(random.nextInt(ATTRIBUTE_TYPE_IDS.size()));
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.b2international.index.Hits;
+import com.b2international.index.benchmark.BenchmarkFixtures.BenchmarkConcept;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+
+/**
+ * Measures the latency of branch-aware revision searches on MAIN and on a task branch two levels below MAIN. The difference between the two
+ * reflects the cost of evaluating the revision visibility filter of deeper branches.
+ *
+ * @since 9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BranchSearchBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+	private static final int PAGE_SIZE = 1_000;
+
+	@Param({ BenchmarkIndex.MAIN, BenchmarkIndex.TASK })
+	public String branch;
+
+	private BenchmarkIndex index;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		index = BenchmarkIndex.getInstance();
+		random = new Random(branch.hashCode());
+	}
+
+	@Benchmark
+	public BenchmarkConcept getById() {
+		final String id = Long.toString(index.getRandomConceptId(random));
+		return index.revisionIndex().read(branch, searcher -> searcher.get(BenchmarkConcept.class, id));
+	}
+
+	@Benchmark
+	public Iterable<BenchmarkConcept> getByIds() {
+		final List<String> ids = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			ids.add(Long.toString(index.getRandomConceptId(random)));
+		}
+		return index.revisionIndex().read(branch, searcher -> searcher.get(BenchmarkConcept.class, ids));
+	}
+
+	@Benchmark
+	public Hits<BenchmarkConcept> searchActiveByModule() {
+		return index.revisionIndex().read(branch, searcher -> searcher.search(Query.select(BenchmarkConcept.class)
+				.where(Expressions.bool()
+					.filter(BenchmarkConcept.Expressions.active())
+					.filter(BenchmarkConcept.Expressions.moduleId(BenchmarkIndex.CORE_MODULE_ID))
+					.build())
+				.limit(PAGE_SIZE)
+				.build()));
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.benchmark;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.b2international.index.Hits;
+import com.b2international.index.benchmark.BenchmarkFixtures.BenchmarkConcept;
+import com.b2international.index.benchmark.BenchmarkFixtures.BenchmarkRelationship;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.Revision;
+import com.b2international.index.revision.RevisionSearcher;
+
+/**
+ * Measures the index queries that ECL hierarchy and refinement operators are evaluated to on SNOMED CT shaped documents:
+ * <ul>
+ * <li>{@code << X} - concepts with X as their ID, parent or ancestor</li>
+ * <li>{@code <! X} - concepts with X as their parent</li>
+ * <li>{@code >> X} - the concept itself along with all of its parents and ancestors</li>
+ * <li>{@code << X : type = << Y} - descendants of X that are the source of a relationship with the given type and a destination from the
+ * descendants of Y</li>
+ * </ul>
+ * 
+ * @since 9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HierarchyQueryBenchmark {
+
+	private static final int PAGE_SIZE = 10_000;
+
+	@Param({ BenchmarkIndex.MAIN, BenchmarkIndex.TASK })
+	public String branch;
+
+	private BenchmarkIndex index;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		index = BenchmarkIndex.getInstance();
+		random = new Random(branch.hashCode());
+	}
+
+	@Benchmark
+	public Set<String> descendantsOrSelfOfLargeHierarchy() {
+		return index.revisionIndex().read(branch, searcher -> descendantsOrSelf(searcher, index.getLargeHierarchyId()));
+	}
+
+	@Benchmark
+	public Set<String> descendantsOrSelfOfRandomConcept() {
+		return index.revisionIndex().read(branch, searcher -> descendantsOrSelf(searcher, index.getRandomConceptId(random)));
+	}
+
+	@Benchmark
+	public Set<String> childrenOfRandomConcept() {
+		final long conceptId = index.getRandomConceptId(random);
+		return index.revisionIndex().read(branch, searcher -> ids(searcher, BenchmarkConcept.class, BenchmarkConcept.Expressions.parents(List.of(conceptId))));
+	}
+
+	@Benchmark
+	public Set<String> ancestorsOrSelfOfRandomConcept() {
+		final String conceptId = Long.toString(index.getRandomConceptId(random));
+		return index.revisionIndex().read(branch, searcher -> {
+			final BenchmarkConcept concept = searcher.get(BenchmarkConcept.class, conceptId);
+			final Set<String> ancestorsOrSelf = newHashSet(conceptId);
+			concept.getParents().forEach(parentId -> ancestorsOrSelf.add(Long.toString(parentId)));
+			concept.getAncestors().forEach(ancestorId -> ancestorsOrSelf.add(Long.toString(ancestorId)));
+			return ancestorsOrSelf;
+		});
+	}
+
+	@Benchmark
+	public Set<String> refinementOfLargeHierarchy() {
+		final String typeId = index.getRandomAttributeTypeId(random);
+		final long destinationFocusId = index.getRandomConceptId(random);
+		return index.revisionIndex().read(branch, searcher -> {
+			final Set<String> focusConceptIds = descendantsOrSelf(searcher, index.getLargeHierarchyId());
+			final Set<String> destinationIds = descendantsOrSelf(searcher, destinationFocusId);
+			
+			final Set<String> sourceIds = searcher.stream(Query.select(String[].class)
+					.from(BenchmarkRelationship.class)
+					.fields(BenchmarkRelationship.Fields.ID, BenchmarkRelationship.Fields.SOURCE_ID)
+					.where(Expressions.bool()
+						.filter(Expressions.exactMatch(BenchmarkRelationship.Fields.TYPE_ID, typeId))
+						.filter(Expressions.matchAny(BenchmarkRelationship.Fields.DESTINATION_ID, destinationIds))
+						.build())
+					.limit(PAGE_SIZE)
+					.build())
+				.flatMap(Hits::stream)
+				.map(sourceAndId -> sourceAndId[1])
+				.collect(Collectors.toSet());
+			
+			sourceIds.retainAll(focusConceptIds);
+			return sourceIds;
+		});
+	}
+
+	private Set<String> descendantsOrSelf(RevisionSearcher searcher, long conceptId) {
+		final Set<String> descendantsOrSelf = ids(searcher, BenchmarkConcept.class, Expressions.bool()
+				.should(BenchmarkConcept.Expressions.parents(List.of(conceptId)))
+				.should(BenchmarkConcept.Expressions.ancestors(List.of(conceptId)))
+				.build());
+		descendantsOrSelf.add(Long.toString(conceptId));
+		return descendantsOrSelf;
+	}
+
+	private Set<String> ids(RevisionSearcher searcher, Class<? extends Revision> type, Expression where) {
+		return searcher.stream(Query.select(String.class)
+					.from(type)
+					.fields(Revision.Fields.ID)
+					.where(where)
+					.limit(PAGE_SIZE)
+					.build())
+				.flatMap(Hits::stream)
+				.collect(Collectors.toSet());
+	}
+
+}
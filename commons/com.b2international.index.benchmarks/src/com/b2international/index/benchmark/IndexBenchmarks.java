@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.benchmark;
+
+import static org.junit.Assert.assertFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark suites when running them from the Maven build (see the {@code skipBenchmarks} property in this module's POM).
+ * <p>
+ * Benchmarks run in the same (OSGi) JVM as the test runtime, since forked JMH runs cannot reconstruct the bundle classpath. Results are written
+ * to the JSON file specified via the {@value #RESULT_FILE_PROPERTY} system property, so the output of two runs can be compared with any JMH
+ * result visualizer or diff tool.
+ *
+ * @since 9.5
+ */
+public class IndexBenchmarks {
+
+	/**
+	 * Java system property to configure the location of the JSON result file.
+	 */
+	public static final String RESULT_FILE_PROPERTY = "so.benchmark.result";
+	
+	/**
+	 * Java system property to configure a regular expression that selects the benchmarks to run (by default all benchmarks are executed).
+	 */
+	public static final String INCLUDES_PROPERTY = "so.benchmark.includes";
+	
+	private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+	
+	@Test
+	public void run() throws Exception {
+		final Path resultFile = Paths.get(System.getProperty(RESULT_FILE_PROPERTY, DEFAULT_RESULT_FILE));
+		Files.createDirectories(resultFile.toAbsolutePath().getParent());
+		
+		final Options options = new OptionsBuilder()
+				.include(System.getProperty(INCLUDES_PROPERTY, ".*"))
+				.forks(0)
+				.warmupIterations(3)
+				.measurementIterations(5)
+				.shouldFailOnError(true)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile.toString())
+				.build();
+		
+		final Collection<RunResult> results = new Runner(options).run();
+		assertFalse("No benchmarks were executed", results.isEmpty());
+	}
+	
+}
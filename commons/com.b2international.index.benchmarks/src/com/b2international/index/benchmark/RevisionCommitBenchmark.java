@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.b2international.commons.options.MetadataImpl;
+import com.b2international.index.benchmark.BenchmarkFixtures.BenchmarkConcept;
+import com.b2international.index.revision.Commit;
+
+/**
+ * Measures {@link com.b2international.index.revision.StagingArea#commit(long, String, String) commit} throughput with differently sized
+ * change sets. Each iteration commits to a fresh child branch of MAIN to keep the branch's own segment count stable between iterations.
+ *
+ * @since 9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RevisionCommitBenchmark {
+
+	private static final AtomicInteger BRANCH_COUNTER = new AtomicInteger();
+
+	@Param({ "10", "1000", "10000" })
+	public int commitSize;
+
+	private BenchmarkIndex index;
+	private Random random;
+	private String branch;
+	private List<BenchmarkConcept> concepts;
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		index = BenchmarkIndex.getInstance();
+		random = new Random(commitSize);
+	}
+
+	@Setup(Level.Iteration)
+	public void setupIteration() {
+		branch = index.revisionIndex().branching().createBranch(BenchmarkIndex.MAIN, "commit-" + BRANCH_COUNTER.incrementAndGet(), new MetadataImpl(), false);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		concepts = new ArrayList<>(commitSize);
+		for (int i = 0; i < commitSize; i++) {
+			concepts.add(index.newConcept(BenchmarkIndex.EXTENSION_MODULE_ID, index.getRandomConceptId(random)));
+		}
+	}
+
+	@Benchmark
+	public Commit commit() {
+		return index.commit(branch, concepts);
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.b2international.commons.options.MetadataImpl;
+import com.b2international.index.Hits;
+import com.b2international.index.benchmark.BenchmarkFixtures.BenchmarkConcept;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.BaseRevisionBranching;
+import com.b2international.index.revision.RevisionBranch;
+import com.b2international.index.revision.RevisionBranchRef;
+
+/**
+ * Measures branch-aware searches on a branch that received a number of task branches, each merged and deleted afterwards, which is how most
+ * branches end up with deep segment lists. Compares the revision filter of the branch with its compacted form (both evaluated directly
+ * against the index) and with a regular revision index read, which uses the cached compacted filter.
+ *
+ * @since 9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RevisionFilterBenchmark {
+
+	private static final int TASK_COMMIT_SIZE = 10;
+	private static final int PAGE_SIZE = 1_000;
+
+	@Param({ "10", "100" })
+	public int mergedTasks;
+
+	private BenchmarkIndex index;
+	private String branch;
+	private Expression revisionFilter;
+	private Expression compactRevisionFilter;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		index = BenchmarkIndex.getInstance();
+		
+		final BaseRevisionBranching branching = index.revisionIndex().branching();
+		final Random random = new Random(mergedTasks);
+		branch = branching.createBranch(BenchmarkIndex.MAIN, "filters-" + mergedTasks, new MetadataImpl(), false);
+		
+		final Map<Long, Long> deletedBranchHeads = new HashMap<>(mergedTasks);
+		for (int t = 0; t < mergedTasks; t++) {
+			final String task = branching.createBranch(branch, "task-" + t, new MetadataImpl(), false);
+			final BenchmarkConcept[] concepts = new BenchmarkConcept[TASK_COMMIT_SIZE];
+			for (int i = 0; i < TASK_COMMIT_SIZE; i++) {
+				concepts[i] = index.newConcept(BenchmarkIndex.EXTENSION_MODULE_ID, index.getRandomConceptId(random));
+			}
+			index.commit(task, List.of(concepts));
+			branching.prepareMerge(task, branch).merge();
+			branching.delete(task);
+			
+			final RevisionBranch deletedTask = branching.getBranch(task);
+			deletedBranchHeads.put(deletedTask.getId(), deletedTask.getHeadTimestamp());
+		}
+		
+		final RevisionBranchRef ref = branching.getBranch(branch).ref();
+		revisionFilter = ref.toRevisionFilter();
+		compactRevisionFilter = ref.toCompactRevisionFilter(deletedBranchHeads);
+	}
+
+	@Benchmark
+	public Hits<BenchmarkConcept> searchWithRevisionFilter() {
+		return searchRaw(revisionFilter);
+	}
+
+	@Benchmark
+	public Hits<BenchmarkConcept> searchWithCompactRevisionFilter() {
+		return searchRaw(compactRevisionFilter);
+	}
+
+	@Benchmark
+	public Hits<BenchmarkConcept> searchWithCachedRevisionFilter() {
+		return index.revisionIndex().read(branch, searcher -> searcher.search(Query.select(BenchmarkConcept.class)
+				.where(activeInExtension())
+				.limit(PAGE_SIZE)
+				.build()));
+	}
+
+	private Hits<BenchmarkConcept> searchRaw(Expression filter) {
+		return index.index().read(searcher -> searcher.search(Query.select(BenchmarkConcept.class)
+				.where(Expressions.bool()
+					.filter(filter)
+					.filter(activeInExtension())
+					.build())
+				.limit(PAGE_SIZE)
+				.build()));
+	}
+
+	private static Expression activeInExtension() {
+		return Expressions.bool()
+				.filter(BenchmarkConcept.Expressions.active())
+				.filter(BenchmarkConcept.Expressions.moduleId(BenchmarkIndex.EXTENSION_MODULE_ID))
+				.build();
+	}
+
+}
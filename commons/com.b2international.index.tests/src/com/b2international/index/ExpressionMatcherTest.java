@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.index.Fixtures.Data;
+import com.b2international.index.mapping.DocumentMapping;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.ExpressionMatcher;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+
+/**
+ * Checks that in-memory evaluation of expressions returns the same documents as the index does.
+ * 
+ * @since 9.5
+ */
+public class ExpressionMatcherTest extends BaseIndexTest {
+
+	private DocumentMapping mapping;
+	
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return List.of(Data.class);
+	}
+	
+	@Before
+	public void setup() {
+		mapping = index().admin().getIndexMapping().getMapping(Data.class);
+		
+		final Data data1 = new Data(KEY1);
+		data1.setField1("field1_1");
+		data1.setField2("field2_1");
+		data1.setLongWrapper(10L);
+		data1.setIntField(1);
+		
+		final Data data2 = new Data(KEY2);
+		data2.setField1("field1_2");
+		data2.setLongWrapper(20L);
+		data2.setIntField(2);
+		
+		final Data data3 = new Data("key3");
+		data3.setField1("other");
+		data3.setField2("field2_3");
+		data3.setIntField(3);
+		
+		indexDocuments(data1, data2, data3);
+	}
+	
+	@Test
+	public void exactMatch() throws Exception {
+		assertSameMatches(Expressions.exactMatch("field1", "field1_1"));
+		assertSameMatches(Expressions.exactMatch("longWrapper", 20L));
+		assertSameMatches(Expressions.match("intField", 3));
+	}
+	
+	@Test
+	public void matchAny() throws Exception {
+		assertSameMatches(Expressions.matchAny("field1", Set.of("field1_1", "other")));
+		assertSameMatches(Expressions.matchAnyLong("longWrapper", Set.of(10L, 30L)));
+		assertSameMatches(Expressions.matchAnyInt("intField", Set.of(2, 3)));
+	}
+	
+	@Test
+	public void matchAnyNumberOnKeywordField() throws Exception {
+		final Data data4 = new Data("key4");
+		data4.setField1("42");
+		indexDocuments(data4);
+		
+		// numeric terms are converted to their string form when matched against a keyword field
+		assertSameMatches(Expressions.matchAnyLong("field1", Set.of(42L, 7L)));
+		assertSameMatches(Expressions.matchAnyInt("field1", Set.of(42, 7)));
+	}
+	
+	@Test
+	public void prefixAndRange() throws Exception {
+		assertSameMatches(Expressions.prefixMatch("field1", "field1_"));
+		assertSameMatches(Expressions.matchRange("longWrapper", 10L, 20L, false, true));
+		assertSameMatches(Expressions.exists("field2"));
+	}
+	
+	@Test
+	public void bool() throws Exception {
+		assertSameMatches(Expressions.bool()
+				.filter(Expressions.prefixMatch("field1", "field1_"))
+				.mustNot(Expressions.exists("field2"))
+				.build());
+		assertSameMatches(Expressions.bool()
+				.should(Expressions.exactMatch("field1", "other"))
+				.should(Expressions.exactMatch("longWrapper", 10L))
+				.should(Expressions.match("intField", 2))
+				.setMinimumNumberShouldMatch(2)
+				.build());
+		assertSameMatches(Expressions.bool()
+				.filter(Expressions.matchAll())
+				.should(Expressions.exactMatch("field2", "field2_1"))
+				.should(Expressions.matchNone())
+				.build());
+	}
+	
+	@Test
+	public void unsupportedExpressions() throws Exception {
+		assertNull(ExpressionMatcher.create(mapping, Expressions.matchTextAll("analyzedField.text", "term")));
+		assertNull(ExpressionMatcher.create(mapping, Expressions.exactMatch("unindexedValue", "value")));
+		assertNull(ExpressionMatcher.create(mapping, Expressions.bool()
+				.filter(Expressions.exactMatch("field1", "field1_1"))
+				.filter(Expressions.regexp("field2", "field2_.*"))
+				.build()));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void assertSameMatches(Expression expression) {
+		final ExpressionMatcher matcher = ExpressionMatcher.create(mapping, expression);
+		assertNotNull(matcher);
+		
+		final Set<String> expectedIds = search(Query.select(String.class)
+				.from(Data.class)
+				.fields("id")
+				.where(expression)
+				.limit(10)
+				.build())
+			.stream()
+			.collect(Collectors.toSet());
+		
+		final Set<String> actualIds = search(Query.select(Map.class)
+				.from(Data.class)
+				.where(Expressions.matchAll())
+				.limit(10)
+				.build())
+			.stream()
+			.map(source -> (Map<String, Object>) source)
+			.filter(matcher::matches)
+			.map(source -> (String) source.get("id"))
+			.collect(Collectors.toSet());
+		
+		assertEquals(expression.toString(), expectedIds, actualIds);
+	}
+	
+}
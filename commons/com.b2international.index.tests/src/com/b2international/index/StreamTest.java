@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Test;
@@ -115,6 +116,37 @@ public class StreamTest extends BaseIndexTest {
 		assertThat(hits).hasSize(NUM_DOCS);
 	}
 	
+	@Test
+	public void searchAndReturnAllHitsWithPrefetchingStream() throws Exception {
+		indexDocs(NUM_DOCS);
+		List<Data> hits = newArrayListWithExpectedSize(NUM_DOCS);
+		
+		final Query<Data> query = Query.select(Data.class)
+			.where(Expressions.matchAll())
+			.limit(1000)
+			.build();
+		
+		try (Stream<Hits<Data>> pages = index().read(searcher -> searcher.stream(query, 2))) {
+			pages.forEachOrdered(page -> hits.addAll(page.getHits()));
+		}
+		assertThat(hits).hasSize(NUM_DOCS);
+		assertThat(hits.stream().map(Data::getId).distinct().count()).isEqualTo(NUM_DOCS);
+	}
+	
+	@Test
+	public void closePrefetchingStreamEarly() throws Exception {
+		indexDocs(NUM_DOCS);
+		
+		final Query<Data> query = Query.select(Data.class)
+			.where(Expressions.matchAll())
+			.limit(100)
+			.build();
+		
+		try (Stream<Hits<Data>> pages = index().read(searcher -> searcher.stream(query, 2))) {
+			assertThat(pages.limit(3).mapToInt(page -> page.getHits().size()).sum()).isEqualTo(300);
+		}
+	}
+	
 	private void indexDocs(int numberOfDocs) {
 		final List<Data> docsToIndex = new ArrayList<>(numberOfDocs);
 		for (int i = 0; i < numberOfDocs; i++) {
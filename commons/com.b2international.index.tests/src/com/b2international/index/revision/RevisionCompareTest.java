@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -335,4 +335,52 @@ public class RevisionCompareTest extends BaseRevisionIndexTest {
 		);
 	}
 	
+	@Test
+	public void compareBranchAfterNewCommits() throws Exception {
+		final String branch = createBranch(MAIN, "a");
+		final RevisionData rev1 = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		indexRevision(branch, rev1);
+		
+		assertThat(index().compare(MAIN, branch).getDetails()).containsOnly(
+			RevisionCompareDetail.componentChange(Operation.ADD, ROOT, rev1.getObjectId())
+		);
+		
+		// property changes of a new component are not reported, new components are reported
+		indexChange(branch, rev1, new RevisionData(STORAGE_KEY1, "field1Changed", "field2"));
+		final RevisionData rev2 = new RevisionData(STORAGE_KEY2, "field1", "field2");
+		indexRevision(branch, rev2);
+		// changes on the base branch are not part of the compare
+		indexRevision(MAIN, new RevisionData("main1", "field1", "field2"));
+		
+		final RevisionCompare compare = index().compare(MAIN, branch);
+		assertThat(compare.getDetails()).containsOnly(
+			RevisionCompareDetail.componentChange(Operation.ADD, ROOT, rev1.getObjectId()),
+			RevisionCompareDetail.componentChange(Operation.ADD, ROOT, rev2.getObjectId())
+		);
+		assertThat(compare.getTotalAdded()).isEqualTo(2);
+		
+		// repeated compare without new commits returns the same result
+		assertThat(index().compare(MAIN, branch).getDetails()).isEqualTo(compare.getDetails());
+	}
+	
+	@Test
+	public void compareBranchAfterChangeThenDelete() throws Exception {
+		final RevisionData rev1 = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		indexRevision(MAIN, rev1);
+		final String branch = createBranch(MAIN, "a");
+		final RevisionData rev2 = new RevisionData(STORAGE_KEY1, "field1Changed", "field2");
+		indexChange(branch, rev1, rev2);
+		
+		assertThat(index().compare(MAIN, branch).getDetails()).containsOnly(
+			RevisionCompareDetail.propertyChange(Operation.CHANGE, rev2.getObjectId(), "field1", "field1", "field1Changed")
+		);
+		
+		deleteRevision(branch, RevisionData.class, STORAGE_KEY1);
+		
+		// removal replaces the previously reported property change
+		assertThat(index().compare(MAIN, branch).getDetails()).containsOnly(
+			RevisionCompareDetail.componentChange(Operation.REMOVE, ROOT, rev1.getObjectId())
+		);
+	}
+	
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionFixtures.RevisionData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Streams;
+
+/**
+ * @since 9.5
+ */
+public class RevisionFilterCompactionTest extends BaseRevisionIndexTest {
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableList.<Class<?>>of(RevisionData.class);
+	}
+	
+	@Test
+	public void compactFilterMatchesSameRevisions() throws Exception {
+		final RevisionData onMain = new RevisionData(STORAGE_KEY1, "main", "field2");
+		indexRevision(MAIN, onMain);
+		
+		// changed twice on a, so the first change is revised on a itself
+		final String a = createBranch(MAIN, "a");
+		final RevisionData onA = new RevisionData(STORAGE_KEY2, "a", "field2");
+		indexRevision(a, onA);
+		indexChange(a, onA, new RevisionData(STORAGE_KEY2, "aChanged", "field2"));
+		branching().prepareMerge(a, MAIN).merge();
+		
+		// revises a revision created on MAIN
+		final String b = createBranch(MAIN, "b");
+		indexChange(b, onMain, new RevisionData(STORAGE_KEY1, "b", "field2"));
+		branching().prepareMerge(b, MAIN).merge();
+		
+		final String c = createBranch(MAIN, "c");
+		indexRevision(c, new RevisionData(STORAGE_KEY3, "c", "field2"));
+		branching().prepareMerge(c, MAIN).merge();
+		
+		final String d = createBranch(MAIN, "d");
+		indexRevision(d, new RevisionData(STORAGE_KEY4, "d", "field2"));
+		branching().prepareMerge(d, MAIN).merge();
+		
+		// d keeps receiving changes after the merge, so its segment can not be widened
+		indexRevision(d, new RevisionData("5", "d", "field2"));
+		for (String branch : List.of(a, b, c)) {
+			branching().delete(branch);
+		}
+		
+		final Map<Long, Long> deletedBranchHeads = List.of(a, b, c).stream()
+				.map(this::getBranch)
+				.collect(Collectors.toMap(RevisionBranch::getId, RevisionBranch::getHeadTimestamp));
+		
+		for (String branch : List.of(MAIN, d)) {
+			final RevisionBranchRef ref = getBranch(branch).ref();
+			final Expression compactFilter = ref.toCompactRevisionFilter(deletedBranchHeads);
+			
+			assertEquals(getRevisions(ref.toRevisionFilter()), getRevisions(compactFilter));
+			assertEquals(getRevisions(ref.toRevisionFilter()), getRevisions(ref.toCompactRevisionFilter(Map.of())));
+		}
+		
+		assertNotEquals(getBranch(MAIN).ref().toRevisionFilter(), getBranch(MAIN).ref().toCompactRevisionFilter(deletedBranchHeads));
+		assertEquals(List.of("1:b", "2:aChanged", "3:c", "4:d"), getRevisions(getBranch(MAIN).ref().toCompactRevisionFilter(deletedBranchHeads)));
+	}
+	
+	private List<String> getRevisions(Expression filter) {
+		return Streams.stream(searchRaw(Query.select(RevisionData.class)
+					.where(filter)
+					.limit(Integer.MAX_VALUE)
+					.build()))
+				.map(revision -> revision.getId() + ":" + revision.getField1())
+				.sorted()
+				.collect(Collectors.toList());
+	}
+	
+}
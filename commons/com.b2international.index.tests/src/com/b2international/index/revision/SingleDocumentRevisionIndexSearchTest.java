@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,14 @@ package com.b2international.index.revision;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.assertj.core.api.Condition;
 import org.junit.Test;
 
+import com.b2international.index.IndexClientFactory;
 import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Query;
@@ -32,6 +36,7 @@ import com.b2international.index.revision.RevisionFixtures.RevisionData;
 import com.b2international.index.revision.RevisionFixtures.ScoredData;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
 /**
@@ -271,4 +276,69 @@ public class SingleDocumentRevisionIndexSearchTest extends BaseRevisionIndexTest
 		assertThat(matches).containsOnly(data);
 	}
 	
+	@Test
+	public void multiGetWithRepeatedAndMissingKeys() throws Exception {
+		final RevisionData first = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		final RevisionData second = new RevisionData(STORAGE_KEY2, "field1", "field2");
+		
+		indexRevision(MAIN, first, second);
+		
+		index().read(MAIN, searcher -> {
+			assertThat(searcher.get(RevisionData.class, List.of(STORAGE_KEY1, STORAGE_KEY2, STORAGE_KEY1, STORAGE_KEY3))).containsOnly(first, second);
+			// served from the searcher's document cache
+			assertThat(searcher.get(RevisionData.class, List.of(STORAGE_KEY1, STORAGE_KEY3))).containsOnly(first);
+			assertThat(searcher.get(RevisionData.class, STORAGE_KEY2)).isEqualTo(second);
+			assertThat(searcher.get(RevisionData.class, STORAGE_KEY3)).isNull();
+			return null;
+		});
+	}
+	
+	@Test
+	public void multiGetKeepsInputOrder() throws Exception {
+		final RevisionData first = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		final RevisionData second = new RevisionData(STORAGE_KEY2, "field1", "field2");
+		final RevisionData third = new RevisionData(STORAGE_KEY3, "field1", "field2");
+		
+		indexRevision(MAIN, first, second, third);
+		
+		index().read(MAIN, searcher -> {
+			assertThat(searcher.get(RevisionData.class, List.of(STORAGE_KEY3, STORAGE_KEY1))).containsExactly(third, first);
+			// cached and fetched revisions are returned in the order of the requested IDs
+			assertThat(searcher.get(RevisionData.class, List.of(STORAGE_KEY2, STORAGE_KEY1, nextId(), STORAGE_KEY3))).containsExactly(second, first, third);
+			return null;
+		});
+	}
+	
+	@Test
+	public void cachedRevisionsAreNotShared() throws Exception {
+		final RevisionData first = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		
+		indexRevision(MAIN, first);
+		
+		index().read(MAIN, searcher -> {
+			final RevisionData fetched = searcher.get(RevisionData.class, STORAGE_KEY1);
+			final RevisionData cached = searcher.get(RevisionData.class, STORAGE_KEY1);
+			final RevisionData cachedFromMultiGet = Iterables.getOnlyElement(searcher.get(RevisionData.class, List.of(STORAGE_KEY1)));
+			// each lookup returns its own instance, callers modifying it do not affect other callers
+			assertThat(cached).isEqualTo(fetched).isNotSameAs(fetched);
+			assertThat(cachedFromMultiGet).isEqualTo(fetched).isNotSameAs(cached);
+			return null;
+		});
+	}
+	
+	@Test
+	public void multiGetWithMoreThanMaxTermsCount() throws Exception {
+		final RevisionData first = new RevisionData(STORAGE_KEY1, "field1", "field2");
+		final RevisionData second = new RevisionData(STORAGE_KEY2, "field1", "field2");
+		
+		indexRevision(MAIN, first, second);
+		
+		final List<String> keys = IntStream.rangeClosed(0, 2 * IndexClientFactory.DEFAULT_MAX_TERMS_COUNT)
+				.mapToObj(Integer::toString)
+				.collect(Collectors.toList());
+		
+		final Iterable<RevisionData> matches = index().read(MAIN, searcher -> searcher.get(RevisionData.class, keys));
+		assertThat(matches).containsOnly(first, second);
+	}
+	
 }
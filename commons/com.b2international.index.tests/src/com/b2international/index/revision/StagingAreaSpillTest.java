@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.b2international.index.Doc;
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionFixtures.RevisionData;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @since 9.5
+ */
+public class StagingAreaSpillTest extends BaseRevisionIndexTest {
+
+	private static final int HIGH_WATERMARK = 5;
+
+	@Doc
+	public static final class MutableData extends Revision {
+		
+		private String value;
+		
+		@JsonCreator
+		public MutableData(
+				@JsonProperty(Revision.Fields.ID) final String id, 
+				@JsonProperty("value") final String value) {
+			super(id);
+			this.value = value;
+		}
+		
+		public String getValue() {
+			return value;
+		}
+		
+		public void setValue(String value) {
+			this.value = value;
+		}
+		
+	}
+	
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return List.of(RevisionData.class, MutableData.class);
+	}
+
+	@Override
+	protected Map<String, Object> getIndexSettings() {
+		return Map.of(
+			IndexClientFactory.RESULT_WINDOW_KEY, ""+IndexClientFactory.DEFAULT_RESULT_WINDOW,
+			IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, 2,
+			IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, HIGH_WATERMARK,
+			IndexClientFactory.COMMIT_SPILL_KEY, true
+		);
+	}
+
+	@Test
+	public void stageNewBeyondWatermark() throws Exception {
+		final List<RevisionData> revisions = IntStream.range(0, HIGH_WATERMARK * 3)
+				.mapToObj(i -> new RevisionData(nextId(), "field1-" + i, "field2-" + i))
+				.collect(Collectors.toList());
+
+		StagingArea staging = index().prepareCommit(MAIN);
+		revisions.forEach(staging::stageNew);
+
+		assertEquals(revisions.size(), staging.getNumberOfStagedObjects());
+		assertEquals(Set.copyOf(revisions), staging.getNewObjects(RevisionData.class).collect(Collectors.toSet()));
+
+		final RevisionData lastRevision = revisions.get(revisions.size() - 1);
+		assertEquals(lastRevision, staging.getNewObject(RevisionData.class, lastRevision.getId()));
+
+		staging.commit(currentTime(), USER_ID, "Commit spilled revisions");
+
+		final Set<RevisionData> committed = Set.copyOf(search(MAIN, Query.select(RevisionData.class).where(Expressions.matchAll()).limit(revisions.size()).build()).getHits());
+		assertEquals(Set.copyOf(revisions), committed);
+	}
+
+	@Test
+	public void stageChangeBeyondWatermark() throws Exception {
+		final List<RevisionData> revisions = IntStream.range(0, HIGH_WATERMARK * 2)
+				.mapToObj(i -> new RevisionData(nextId(), "field1-" + i, "field2-" + i))
+				.collect(Collectors.toList());
+		commit(MAIN, revisions);
+
+		StagingArea staging = index().prepareCommit(MAIN);
+		for (RevisionData revision : revisions) {
+			staging.stageChange(revision, new RevisionData(revision.getId(), revision.getField1() + "-changed", revision.getField2()));
+		}
+
+		final RevisionData lastRevision = revisions.get(revisions.size() - 1);
+		final StagingArea.RevisionDiff diff = staging.getChangedRevisionDiff(RevisionData.class, lastRevision.getId());
+		assertEquals(lastRevision, diff.oldRevision);
+		assertTrue(diff.hasRevisionPropertyChanges("field1"));
+		assertEquals(revisions.size(), staging.getChangedRevisions(RevisionData.class, Set.of("field1")).count());
+
+		staging.commit(currentTime(), USER_ID, "Commit spilled changes");
+
+		final RevisionData changed = getRevision(MAIN, RevisionData.class, lastRevision.getId());
+		assertNotNull(changed);
+		assertEquals(lastRevision.getField1() + "-changed", changed.getField1());
+	}
+
+	@Test
+	public void stageRemoveOfSpilledChange() throws Exception {
+		final List<RevisionData> revisions = IntStream.range(0, HIGH_WATERMARK * 2)
+				.mapToObj(i -> new RevisionData(nextId(), "field1-" + i, "field2-" + i))
+				.collect(Collectors.toList());
+		commit(MAIN, revisions);
+
+		StagingArea staging = index().prepareCommit(MAIN);
+		for (RevisionData revision : revisions) {
+			staging.stageChange(revision, new RevisionData(revision.getId(), revision.getField1() + "-changed", revision.getField2()));
+		}
+		final RevisionData lastRevision = revisions.get(revisions.size() - 1);
+		staging.stageRemove(lastRevision);
+
+		// removal registers the original revision, not the spilled change
+		assertEquals(List.of(lastRevision), staging.getRemovedObjects(RevisionData.class).collect(Collectors.toList()));
+
+		staging.commit(currentTime(), USER_ID, "Remove spilled change");
+		assertNull(getRevision(MAIN, RevisionData.class, lastRevision.getId()));
+	}
+
+	@Test
+	public void hookChangesOfSpilledObjectsAreKept() throws Exception {
+		final List<MutableData> documents = IntStream.range(0, HIGH_WATERMARK * 3)
+				.mapToObj(i -> new MutableData(nextId(), "value-" + i))
+				.collect(Collectors.toList());
+		final String lastId = documents.get(documents.size() - 1).getId();
+		
+		withHook((Hooks.PreCommitHook) staging -> {
+			// spilled objects are handed out as the same instance during the hook
+			assertSame(staging.getNewObject(MutableData.class, lastId), staging.getNewObject(MutableData.class, lastId));
+			staging.getNewObjects(MutableData.class).forEach(data -> data.setValue(data.getValue() + "-hook"));
+		});
+		withHook((Hooks.PreCommitHook) staging -> {
+			// changes made by the previous hook are visible to the next one
+			assertTrue(staging.getNewObjects(MutableData.class).allMatch(data -> data.getValue().endsWith("-hook")));
+		});
+		
+		StagingArea staging = index().prepareCommit(MAIN);
+		documents.forEach(staging::stageNew);
+		staging.commit(currentTime(), USER_ID, "Commit spilled documents changed by hooks");
+		
+		for (MutableData document : documents) {
+			assertEquals(document.getValue() + "-hook", getRevision(MAIN, MutableData.class, document.getId()).getValue());
+		}
+	}
+	
+	@Test
+	public void mergeBeyondWatermark() throws Exception {
+		final List<RevisionData> revisions = IntStream.range(0, HIGH_WATERMARK * 2)
+				.mapToObj(i -> new RevisionData(nextId(), "field1-" + i, "field2-" + i))
+				.collect(Collectors.toList());
+		commit(MAIN, revisions);
+		
+		final String branchA = createBranch(MAIN, "a");
+		commit(branchA, revisions.stream()
+				.map(revision -> new RevisionData(revision.getId(), revision.getField1() + "-changed", revision.getField2()))
+				.collect(Collectors.toList()));
+		final List<RevisionData> newRevisions = IntStream.range(0, HIGH_WATERMARK * 2)
+				.mapToObj(i -> new RevisionData(nextId(), "new-field1-" + i, "new-field2-" + i))
+				.collect(Collectors.toList());
+		commit(branchA, newRevisions);
+		
+		// a change on MAIN turns the merge into a non fast-forward merge which stages the changes of the branch
+		final RevisionData mainRevision = new RevisionData(nextId(), "main", "main");
+		indexRevision(MAIN, mainRevision);
+		
+		branching().prepareMerge(branchA, MAIN).merge();
+		
+		final List<RevisionData> merged = search(MAIN, Query.select(RevisionData.class).where(Expressions.matchAll()).limit(100).build()).getHits();
+		// previous versions of the changed revisions are revised on MAIN, every revision is visible only once
+		assertEquals(revisions.size() + newRevisions.size() + 1, merged.size());
+		for (RevisionData revision : revisions) {
+			assertEquals(revision.getField1() + "-changed", getRevision(MAIN, RevisionData.class, revision.getId()).getField1());
+		}
+		for (RevisionData revision : newRevisions) {
+			assertEquals(revision, getRevision(MAIN, RevisionData.class, revision.getId()));
+		}
+		assertEquals(mainRevision, getRevision(MAIN, RevisionData.class, mainRevision.getId()));
+	}
+
+}
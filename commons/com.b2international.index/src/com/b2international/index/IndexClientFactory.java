@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -145,6 +145,12 @@ public interface IndexClientFactory {
 	 */
 	String COMMIT_WATERMARK_HIGH_KEY = "commit.watermark.high";
 	
+	/**
+	 * Configuration key to enable spilling staged objects to memory-mapped temporary files once the number of staged objects reaches the high commit watermark.
+	 * @since 9.5
+	 */
+	String COMMIT_SPILL_KEY = "commit.spill";
+	
 	/**
 	 * Configuration key to override type mappings in an index if required for customization, external configuration, etc. It allows to partially
 	 * update (patch) the type mapping provided by Snow Owl to override certain features, experiment, etc.
@@ -242,6 +248,12 @@ public interface IndexClientFactory {
 	 * Default amount of commit details indicating high watermark
 	 */
 	int DEFAULT_COMMIT_WATERMARK_HIGH_VALUE = 50_000;
+	
+	/**
+	 * Staged objects are kept on the heap by default
+	 * @since 9.5
+	 */
+	boolean DEFAULT_COMMIT_SPILL = false;
 
 	/**
 	 * Default number_of_shards value for all indices.
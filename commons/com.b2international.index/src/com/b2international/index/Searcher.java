@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.b2international.index;
 import java.io.IOException;
 import java.util.stream.Stream;
 
+import com.b2international.commons.collections.PrefetchingIterator;
 import com.b2international.commons.metric.Metrics;
 import com.b2international.index.aggregations.Aggregation;
 import com.b2international.index.aggregations.AggregationBuilder;
@@ -97,6 +98,24 @@ public interface Searcher {
 		return Streams.stream(new SearchAfterIterator<T>(this, query)); 
 	}
 	
+	/**
+	 * Returns a {@link Stream} that computes all matches of the given query, returning them in chunks defined in the query limit. Up to
+	 * <code>prefetch</code> subsequent pages are loaded on a background thread while the current page is being consumed. The returned
+	 * {@link Stream} should be closed if it is not fully consumed, to stop loading further pages.
+	 * 
+	 * @param query
+	 * @param prefetch - the maximum number of pages to load ahead of the consumer, <code>0</code> disables prefetching
+	 * @return
+	 * @since 9.5
+	 */
+	default <T> Stream<Hits<T>> stream(Query<T> query, int prefetch) {
+		if (prefetch < 1) {
+			return stream(query);
+		}
+		final PrefetchingIterator<Hits<T>> iterator = new PrefetchingIterator<>(new SearchAfterIterator<T>(this, query), prefetch);
+		return Streams.stream(iterator).onClose(iterator::close);
+	}
+	
 	/**
 	 * Optionally injectable {@link Metrics} to measure query performance.
 	 * 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
+import com.b2international.commons.metric.Metrics;
 import com.b2international.index.mapping.DocumentMapping;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -52,4 +53,13 @@ public interface Writer {
 	Searcher searcher();
 
 	boolean isEmpty();
+	
+	/**
+	 * Optionally injectable {@link Metrics} to measure write throughput.
+	 * 
+	 * @param metrics
+	 * @since 9.5
+	 */
+	default void setMetrics(Metrics metrics) {
+	}
 }
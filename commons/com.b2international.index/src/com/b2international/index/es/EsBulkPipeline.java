@@ -0,0 +1,430 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse.Failure;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
+
+import com.b2international.commons.metric.Metrics;
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.IndexException;
+import com.b2international.index.es.admin.EsIndexAdmin;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Long-lived bulk write pipeline shared by all {@link EsDocumentWriter writers} of an index.
+ * <p>
+ * The number of actions (and bytes) sent in a single bulk request is adjusted based on the observed response times of the cluster and the number of
+ * rejected requests. Batches start from the configured {@link IndexClientFactory#BULK_ACTIONS_SIZE bulk action size}, get halved when the cluster
+ * responds slowly or rejects (part of) a request with <code>429 Too Many Requests</code>, and grow back gradually while responses are fast. Rejected
+ * items are retried with an exponential delay.
+ * <p>
+ * The number of bulk requests in flight is bounded by the {@link IndexClientFactory#COMMIT_CONCURRENCY_LEVEL commit concurrency level} across all
+ * concurrent commits, writers block when all permits are in use until an earlier request completes.
+ * <p>
+ * Bulk updates and deletes (update/delete by query) are executed on a shared executor with at most
+ * {@link IndexClientFactory#INDEX_BY_QUERY_CONCURRENCY_LEVEL} threads.
+ *
+ * @since 9.5
+ */
+public final class EsBulkPipeline {
+
+	/**
+	 * Bulk responses slower than this will halve the batch size.
+	 */
+	private static final long SLOW_RESPONSE_MILLIS = 5_000L;
+
+	/**
+	 * Bulk responses faster than this will grow the batch size.
+	 */
+	private static final long FAST_RESPONSE_MILLIS = 1_000L;
+
+	/**
+	 * The batch size never goes below the configured maximum divided by this value, and grows by the same amount after each fast response.
+	 */
+	private static final int BATCH_SIZE_STEPS = 16;
+
+	private static final int MAX_RETRIES = 6;
+	private static final long INITIAL_RETRY_DELAY_MILLIS = 500L;
+	private static final long MAX_RETRY_DELAY_MILLIS = 15_000L;
+
+	private final EsIndexAdmin admin;
+	private final Semaphore inFlightRequests;
+	private final AtomicInteger batchActions;
+	private final ListeningExecutorService indexByQueryExecutor;
+	private final ScheduledExecutorService retryExecutor;
+
+	// live throughput counters of the pipeline since its creation
+	private final LongAdder totalDocs = new LongAdder();
+	private final LongAdder totalBytes = new LongAdder();
+	private final LongAdder totalRejections = new LongAdder();
+
+	public EsBulkPipeline(EsIndexAdmin admin) {
+		this.admin = admin;
+		this.inFlightRequests = new Semaphore(Math.max(1, getSetting(IndexClientFactory.COMMIT_CONCURRENCY_LEVEL)), true);
+		this.batchActions = new AtomicInteger(getMaxBatchActions());
+
+		final int indexByQueryThreads = Math.max(1, getSetting(IndexClientFactory.INDEX_BY_QUERY_CONCURRENCY_LEVEL));
+		final ThreadPoolExecutor indexByQueryPool = new ThreadPoolExecutor(indexByQueryThreads, indexByQueryThreads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				new ThreadFactoryBuilder().setNameFormat(admin.name() + "-bulk-by-query-%d").setDaemon(true).build());
+		indexByQueryPool.allowCoreThreadTimeOut(true);
+		this.indexByQueryExecutor = MoreExecutors.listeningDecorator(indexByQueryPool);
+
+		final ScheduledThreadPoolExecutor retryPool = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat(admin.name() + "-bulk-retry-%d").setDaemon(true).build());
+		retryPool.setKeepAliveTime(60L, TimeUnit.SECONDS);
+		retryPool.allowCoreThreadTimeOut(true);
+		this.retryExecutor = retryPool;
+	}
+
+	/**
+	 * @return the shared executor to use for bulk updates and deletes
+	 */
+	public ListeningExecutorService indexByQueryExecutor() {
+		return indexByQueryExecutor;
+	}
+
+	/**
+	 * Opens a new bulk session which collects index and delete requests of a single commit.
+	 *
+	 * @param metrics - the metrics to report the throughput of the session to when it gets closed
+	 * @return a new {@link Session}
+	 */
+	public Session open(Metrics metrics) {
+		return new Session(metrics);
+	}
+
+	/**
+	 * @return the number of actions to collect in a single bulk request, based on the recent responses of the cluster
+	 */
+	public int getBatchActions() {
+		final int max = getMaxBatchActions();
+		final int current = batchActions.get();
+		return Math.min(max, Math.max(getMinBatchActions(max), current));
+	}
+
+	/**
+	 * @return the maximum size of a single bulk request in bytes, scaled together with the number of actions
+	 */
+	public long getBatchBytes() {
+		final long maxBytes = getSetting(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB) * 1024L * 1024L;
+		return Math.max(1L, maxBytes * getBatchActions() / getMaxBatchActions());
+	}
+
+	public long getTotalDocs() {
+		return totalDocs.sum();
+	}
+
+	public long getTotalBytes() {
+		return totalBytes.sum();
+	}
+
+	public long getTotalRejections() {
+		return totalRejections.sum();
+	}
+
+	private void onResponse(int numberOfActions, long elapsedMillis) {
+		if (elapsedMillis > SLOW_RESPONSE_MILLIS) {
+			shrink("slow response (" + elapsedMillis + " ms)");
+		} else if (elapsedMillis < FAST_RESPONSE_MILLIS && numberOfActions >= getBatchActions()) {
+			// grow only when the batch was full, partial batches (flushes at type boundaries) tell nothing about the optimal size
+			final int max = getMaxBatchActions();
+			batchActions.updateAndGet(current -> Math.min(max, current + getMinBatchActions(max)));
+		}
+	}
+
+	private void onRejection() {
+		totalRejections.increment();
+		shrink("rejected request");
+	}
+
+	private void shrink(String reason) {
+		final int max = getMaxBatchActions();
+		final int newBatchActions = batchActions.updateAndGet(current -> Math.max(getMinBatchActions(max), Math.min(max, current) / 2));
+		admin.log().debug("Reducing bulk request size to '{}' actions due to {}.", newBatchActions, reason);
+	}
+
+	private int getMaxBatchActions() {
+		return Math.max(1, getSetting(IndexClientFactory.BULK_ACTIONS_SIZE));
+	}
+
+	private static int getMinBatchActions(int max) {
+		return Math.max(1, max / BATCH_SIZE_STEPS);
+	}
+
+	private int getSetting(String key) {
+		final Object value = admin.settings().get(key);
+		return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(String.valueOf(value));
+	}
+
+	private static boolean isRejection(Throwable e) {
+		return (e instanceof ElasticsearchStatusException ess && RestStatus.TOO_MANY_REQUESTS == ess.status())
+				|| e instanceof EsRejectedExecutionException;
+	}
+
+	private static long getRetryDelayMillis(int attempt) {
+		return Math.min(MAX_RETRY_DELAY_MILLIS, INITIAL_RETRY_DELAY_MILLIS << Math.min(attempt, 10));
+	}
+
+	/**
+	 * Collects index and delete requests into bulk requests and sends them through the pipeline. Sessions are not thread-safe, but requests sent by
+	 * them complete asynchronously. A session should be used by a single commit and {@link #close(long, TimeUnit) closed} at the end of it.
+	 */
+	public final class Session {
+
+		private final Metrics metrics;
+		private final long startNanos = System.nanoTime();
+
+		// one party is the owner of the session, others are in-flight or scheduled bulk requests
+		private final Phaser pending = new Phaser(1);
+		private final List<Failure> failures = new CopyOnWriteArrayList<>();
+		private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+		private final Map<String, IndexStats> statsByIndex = new ConcurrentHashMap<>();
+
+		private BulkRequest current = new BulkRequest();
+
+		private Session(Metrics metrics) {
+			this.metrics = metrics;
+		}
+
+		/**
+		 * Adds a request to the current batch. Sends the batch when it reaches the current batch size, blocking the caller until the pipeline has
+		 * capacity for it.
+		 *
+		 * @param request
+		 */
+		public void add(DocWriteRequest<?> request) {
+			current.add(request);
+			if (current.numberOfActions() >= getBatchActions() || current.estimatedSizeInBytes() >= getBatchBytes()) {
+				flush();
+			}
+		}
+
+		/**
+		 * Sends the current batch, if it has any requests, without waiting for its completion.
+		 */
+		public void flush() {
+			if (current.numberOfActions() == 0) {
+				return;
+			}
+			final BulkRequest request = current;
+			current = new BulkRequest();
+			pending.register();
+			send(request, 0);
+		}
+
+		/**
+		 * Sends the remaining requests and waits until all requests of this session complete.
+		 *
+		 * @param timeout
+		 * @param unit
+		 * @return the item level failures reported by the cluster
+		 * @throws IndexException - if a bulk request failed as a whole, or did not complete in time
+		 */
+		public List<Failure> close(long timeout, TimeUnit unit) {
+			flush();
+			try {
+				pending.awaitAdvanceInterruptibly(pending.arrive(), timeout, unit);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IndexException("Interrupted bulk processing part of the commit", e);
+			} catch (TimeoutException e) {
+				throw new IndexException("Bulk processing part of the commit did not complete in time", e);
+			}
+
+			reportMetrics();
+
+			if (!errors.isEmpty()) {
+				final IndexException e = new IndexException("Failed to send bulk requests to the cluster. Check the logs for further details.", errors.get(0));
+				errors.stream().skip(1).forEach(e::addSuppressed);
+				throw e;
+			}
+			return failures;
+		}
+
+		private void send(BulkRequest request, int attempt) {
+			try {
+				inFlightRequests.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				errors.add(e);
+				pending.arriveAndDeregister();
+				throw new IndexException("Interrupted while waiting for bulk capacity", e);
+			}
+
+			admin.log().trace("Sending bulk request to cluster '{}', batch '{}', index '{}'", request.getDescription(), request.numberOfActions(), request.getIndices());
+			final long sendNanos = System.nanoTime();
+			try {
+				admin.client().bulkAsync(request, new ActionListener<BulkResponse>() {
+					@Override
+					public void onResponse(BulkResponse response) {
+						inFlightRequests.release();
+						try {
+							handleResponse(request, response, attempt, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendNanos));
+						} finally {
+							pending.arriveAndDeregister();
+						}
+					}
+
+					@Override
+					public void onFailure(Exception e) {
+						inFlightRequests.release();
+						try {
+							handleFailure(request, e, attempt);
+						} finally {
+							pending.arriveAndDeregister();
+						}
+					}
+				});
+			} catch (RuntimeException e) {
+				inFlightRequests.release();
+				errors.add(e);
+				pending.arriveAndDeregister();
+				throw e;
+			}
+		}
+
+		private void handleResponse(BulkRequest request, BulkResponse response, int attempt, long elapsedMillis) {
+			admin.log().trace("Successfully sent bulk request to cluster '{}' ({}) in {}, index '{}'.", request.getDescription(), request.numberOfActions(), response.getTook(), request.getIndices());
+
+			final List<DocWriteRequest<?>> rejected = Lists.newArrayList();
+			if (response.hasFailures()) {
+				for (BulkItemResponse itemResponse : response.getItems()) {
+					if (itemResponse.isFailed()) {
+						final Failure failure = itemResponse.getFailure();
+						if (RestStatus.TOO_MANY_REQUESTS == failure.getStatus() && attempt < MAX_RETRIES) {
+							rejected.add(request.requests().get(itemResponse.getItemId()));
+						} else {
+							failures.add(failure);
+						}
+					}
+				}
+			}
+
+			final int succeeded = request.numberOfActions() - rejected.size();
+			final long bytes = rejected.isEmpty() ? request.estimatedSizeInBytes() : request.estimatedSizeInBytes() * succeeded / request.numberOfActions();
+			totalDocs.add(succeeded);
+			totalBytes.add(bytes);
+			getStats(request).record(succeeded, bytes, elapsedMillis);
+
+			if (rejected.isEmpty()) {
+				onResponse(request.numberOfActions(), elapsedMillis);
+			} else {
+				final BulkRequest retry = new BulkRequest();
+				rejected.forEach(retry::add);
+				retry(retry, attempt);
+			}
+		}
+
+		private void handleFailure(BulkRequest request, Exception e, int attempt) {
+			if (isRejection(e) && attempt < MAX_RETRIES) {
+				retry(request, attempt);
+			} else {
+				admin.log().error("Failed bulk request '{}'", request.getDescription(), e);
+				errors.add(e);
+			}
+		}
+
+		private void retry(BulkRequest request, int attempt) {
+			onRejection();
+			getStats(request).rejections.increment();
+
+			final long delay = getRetryDelayMillis(attempt);
+			admin.log().debug("Retrying '{}' rejected bulk actions in {} ms (attempt {})", request.numberOfActions(), delay, attempt + 1);
+			// register the retry before the rejected request arrives so the session cannot complete in between
+			pending.register();
+			try {
+				retryExecutor.schedule(() -> {
+					try {
+						send(request, attempt + 1);
+					} catch (RuntimeException e) {
+						admin.log().error("Failed to retry bulk request '{}'", request.getDescription(), e);
+					}
+				}, delay, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				errors.add(e);
+				pending.arriveAndDeregister();
+			}
+		}
+
+		private IndexStats getStats(BulkRequest request) {
+			return statsByIndex.computeIfAbsent(request.getIndices().toString(), key -> new IndexStats());
+		}
+
+		/*
+		 * Metrics implementations are not necessarily thread-safe, measurements are collected during the session and reported by the owner thread at the end.
+		 */
+		private void reportMetrics() {
+			final long elapsedMillis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+			long docs = 0L;
+			long bytes = 0L;
+			for (Map.Entry<String, IndexStats> entry : statsByIndex.entrySet()) {
+				final String indices = entry.getKey();
+				final IndexStats stats = entry.getValue();
+				metrics.withLongMetric(String.format("%s.bulk_response_time", indices), stats.responseTime.sum());
+				metrics.withIntegerMetric(String.format("%s.bulk_call_count", indices), stats.calls.intValue());
+				metrics.withLongMetric(String.format("%s.bulk_docs", indices), stats.docs.sum());
+				metrics.withLongMetric(String.format("%s.bulk_bytes", indices), stats.bytes.sum());
+				metrics.withIntegerMetric(String.format("%s.bulk_rejections", indices), stats.rejections.intValue());
+				docs += stats.docs.sum();
+				bytes += stats.bytes.sum();
+			}
+
+			if (docs > 0L) {
+				final long docsPerSec = docs * 1000L / elapsedMillis;
+				final long bytesPerSec = bytes * 1000L / elapsedMillis;
+				metrics.withMetric(String.format("%s.bulk_docs_per_sec", admin.name()), docsPerSec, Math::max);
+				metrics.withMetric(String.format("%s.bulk_bytes_per_sec", admin.name()), bytesPerSec, Math::max);
+				admin.log().trace("Sent '{}' documents ({} bytes) in {} ms, {} docs/sec, {} bytes/sec, current batch size '{}'", docs, bytes, elapsedMillis, docsPerSec, bytesPerSec, getBatchActions());
+			}
+		}
+
+	}
+
+	private static final class IndexStats {
+
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder docs = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final LongAdder responseTime = new LongAdder();
+		private final LongAdder rejections = new LongAdder();
+
+		void record(int docs, long bytes, long responseTime) {
+			this.calls.increment();
+			this.docs.add(docs);
+			this.bytes.add(bytes);
+			this.responseTime.add(responseTime);
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,25 +22,20 @@ import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.elasticsearch.action.DocWriteRequest.OpType;
-import org.elasticsearch.action.bulk.*;
 import org.elasticsearch.action.bulk.BulkItemResponse.Failure;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.UUIDs;
-import org.elasticsearch.common.unit.ByteSizeUnit;
-import org.elasticsearch.common.unit.ByteSizeValue;
-import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.XContentType;
 
 import com.b2international.commons.StringUtils;
+import com.b2international.commons.metric.Metrics;
 import com.b2international.index.*;
 import com.b2international.index.es.admin.EsIndexAdmin;
 import com.b2international.index.es.admin.IndexMapping;
-import com.b2international.index.es.client.EsClient;
 import com.b2international.index.mapping.DocumentMapping;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -62,6 +57,7 @@ public class EsDocumentWriter implements Writer {
 	private final Table<Class<?>, String, Object> indexOperations = HashBasedTable.create();
 	private final Multimap<Class<?>, String> deleteOperations = HashMultimap.create();
 	private final ObjectMapper mapper;
+	private Metrics metrics = Metrics.NOOP;
 	private List<BulkUpdate<?>> bulkUpdateOperations = newArrayList();
 	private List<BulkDelete<?>> bulkDeleteOperations = newArrayList();
 	
@@ -80,6 +76,11 @@ public class EsDocumentWriter implements Writer {
 		this.generateDocIds = generateDocIds;
 	}
 	
+	@Override
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
 	@Override
 	public void put(Object object) {
 		DocumentMapping mapping = this.indexMapping.getMapping(object.getClass());
@@ -136,15 +137,14 @@ public class EsDocumentWriter implements Writer {
 		}
 		
 		final Set<DocumentMapping> mappingsToRefresh = Collections.synchronizedSet(newHashSet());
-		final EsClient client = admin.client();
+		final EsBulkPipeline pipeline = admin.bulkPipeline();
 		
 		// apply bulk updates first
-		final ListeningExecutorService executor;
 		admin.log().trace("Applying bulk updates ({}) and deletes ({})...", bulkUpdateOperations.size(), bulkDeleteOperations.size());
 		
+		final ListeningExecutorService executor;
 		if (bulkUpdateOperations.size() > 1 || bulkDeleteOperations.size() > 1) {
-			final int threads = Math.min(getIndexByQueryConcurrencyLevel(), Math.max(bulkUpdateOperations.size(), bulkDeleteOperations.size()));
-			executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(threads));
+			executor = pipeline.indexByQueryExecutor();
 		} else {
 			executor = MoreExecutors.newDirectExecutorService();
 		}
@@ -164,10 +164,10 @@ public class EsDocumentWriter implements Writer {
 			}));
 		}
 		try {
-			executor.shutdown();
 			Futures.allAsList(updateFutures).get();
-			executor.awaitTermination(10, TimeUnit.SECONDS);
 		} catch (InterruptedException | ExecutionException e) {
+			// the executor is shared, cancel the remaining updates of this commit only
+			updateFutures.forEach(future -> future.cancel(true));
 			admin.log().error("Couldn't execute bulk updates", e);
 			throw new IndexException("Couldn't execute bulk updates", e);
 		}
@@ -176,34 +176,7 @@ public class EsDocumentWriter implements Writer {
 		final List<Failure> bulkIndexFailures = new ArrayList<>();
 		if (!indexOperations.isEmpty() || !deleteOperations.isEmpty()) {
 			admin.log().trace("Applying writes ({}) and deletes ({})...", indexOperations.size(), deleteOperations.size());
-			final BulkProcessor processor = client.bulk(new BulkProcessor.Listener() {
-				@Override
-				public void beforeBulk(long executionId, BulkRequest request) {
-					admin.log().trace("Sending bulk request to cluster '{}', batch '{}', index '{}'", request.getDescription(), request.numberOfActions(), request.getIndices());
-				}
-				
-				@Override
-				public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
-					admin.log().error("Failed bulk request '{}'", request.getDescription(), failure);
-				}
-				
-				@Override
-				public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
-					admin.log().trace("Successfully sent bulk request to cluster '{}' ({}) in {}, index '{}'.", request.getDescription(), request.numberOfActions(), response.getTook(), request.getIndices());
-					if (response.hasFailures()) {
-						for (BulkItemResponse itemResponse : response.getItems()) {
-							if (itemResponse.isFailed()) {
-								bulkIndexFailures.add(itemResponse.getFailure());
-							}
-						}
-					}
-				}
-			})
-			.setConcurrentRequests(getConcurrencyLevel())
-			.setBulkActions((int) admin.settings().get(IndexClientFactory.BULK_ACTIONS_SIZE))
-			.setBulkSize(new ByteSizeValue((int) admin.settings().get(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB), ByteSizeUnit.MB))
-			.setBackoffPolicy(BackoffPolicy.constantBackoff(TimeValue.timeValueSeconds(15), 4))
-			.build();
+			final EsBulkPipeline.Session session = pipeline.open(metrics);
 			
 			for (Class<?> type : ImmutableSet.copyOf(indexOperations.rowKeySet())) {
 				final Map<String, Object> indexOperationsForType = indexOperations.row(type);
@@ -227,16 +200,16 @@ public class EsDocumentWriter implements Writer {
 						if (!generateDocIds || !mapping.isAutoGeneratedId()) {
 							indexRequest.id(id);
 						}
-						processor.add(indexRequest);
+						session.add(indexRequest);
 					}
 				}
 	
 				for (String id : deleteOperations.removeAll(type)) {
-					processor.add(new DeleteRequest(typeIndex, id));
+					session.add(new DeleteRequest(typeIndex, id));
 				}
 				
-				// Flush processor between index boundaries
-				processor.flush();
+				// Flush session between index boundaries
+				session.flush();
 			}
 			
 			// Remaining delete operations can be executed on their own
@@ -247,18 +220,14 @@ public class EsDocumentWriter implements Writer {
 				mappingsToRefresh.add(mapping);
 				
 				for (String id : deleteOperations.removeAll(type)) {
-					processor.add(new DeleteRequest(typeIndex, id));
+					session.add(new DeleteRequest(typeIndex, id));
 				}
 
-				// Flush processor between index boundaries
-				processor.flush();
+				// Flush session between index boundaries
+				session.flush();
 			}
 
-			try {
-				processor.awaitClose(5, TimeUnit.MINUTES);
-			} catch (InterruptedException e) {
-				throw new IndexException("Interrupted bulk processing part of the commit", e);
-			}
+			bulkIndexFailures.addAll(session.close(5, TimeUnit.MINUTES));
 		}
 
 		// refresh the indexes after successfuly commit
@@ -278,14 +247,6 @@ public class EsDocumentWriter implements Writer {
 		return indexOperations.isEmpty() && deleteOperations.isEmpty() && bulkUpdateOperations.isEmpty() && bulkDeleteOperations.isEmpty();
 	}
 
-	private int getConcurrencyLevel() {
-		return (int) admin.settings().get(IndexClientFactory.COMMIT_CONCURRENCY_LEVEL);
-	}
-	
-	private int getIndexByQueryConcurrencyLevel() {
-		return (int) admin.settings().get(IndexClientFactory.INDEX_BY_QUERY_CONCURRENCY_LEVEL);
-	}
-
 	/*
 	 * Testing only, dumps a text representation of all operations to the console
 	 */
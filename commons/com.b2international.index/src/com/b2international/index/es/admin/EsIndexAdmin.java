@@ -64,6 +64,7 @@ import com.b2international.commons.json.Json;
 import com.b2international.commons.time.TimeUtil;
 import com.b2international.index.*;
 import com.b2international.index.admin.IndexAdmin;
+import com.b2international.index.es.EsBulkPipeline;
 import com.b2international.index.es.EsDocumentSearcher;
 import com.b2international.index.es.EsDocumentWriter;
 import com.b2international.index.es.HitConverter.SourceAsJsonNodeHitConverter;
@@ -111,7 +112,8 @@ public final class EsIndexAdmin implements IndexAdmin {
 		IndexClientFactory.CLUSTER_PASSWORD,
 		IndexClientFactory.CLUSTER_SSL_CONTEXT,
 		IndexClientFactory.COMMIT_WATERMARK_LOW_KEY,
-		IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY
+		IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY,
+		IndexClientFactory.COMMIT_SPILL_KEY
 	);
 	
 	private static final String TEMP_REINDEX_NAME_PATTERN = "%s-migrate-to-v%s";
@@ -134,6 +136,9 @@ public final class EsIndexAdmin implements IndexAdmin {
 	// optionally available Elasticsearch 8 client API
 	private Es8Client es8Client;
 	
+	// shared bulk write pipeline, created on first use
+	private volatile EsBulkPipeline bulkPipeline;
+	
 	private int indent = 0;
 
 	public EsIndexAdmin(EsClient client, ObjectMapper mapper, String name, Mappings mappings, Map<String, Object> settings) {
@@ -158,6 +163,7 @@ public final class EsIndexAdmin implements IndexAdmin {
 		this.settings.putIfAbsent(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB, IndexClientFactory.DEFAULT_BULK_ACTIONS_SIZE_IN_MB);
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_LOW_VALUE);
 		this.settings.putIfAbsent(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE);
+		this.settings.putIfAbsent(IndexClientFactory.COMMIT_SPILL_KEY, IndexClientFactory.DEFAULT_COMMIT_SPILL);
 		
 		final String prefix = (String) settings.getOrDefault(IndexClientFactory.INDEX_PREFIX, IndexClientFactory.DEFAULT_INDEX_PREFIX);
 		this.prefix = prefix.isEmpty() ? "" : prefix + ".";
@@ -923,6 +929,21 @@ public final class EsIndexAdmin implements IndexAdmin {
 		return client;
 	}
 	
+	/**
+	 * @return the bulk write pipeline shared by all writers of this index
+	 * @since 9.5
+	 */
+	public EsBulkPipeline bulkPipeline() {
+		if (bulkPipeline == null) {
+			synchronized (this) {
+				if (bulkPipeline == null) {
+					bulkPipeline = new EsBulkPipeline(this);
+				}
+			}
+		}
+		return bulkPipeline;
+	}
+	
 	@Override
 	public Es8Client es8Client() throws UnsupportedOperationException {
 		if (es8Client == null) {
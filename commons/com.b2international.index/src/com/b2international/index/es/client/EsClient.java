@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,10 @@ import static com.google.common.base.Preconditions.checkState;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -76,6 +79,16 @@ public interface EsClient extends AutoCloseable {
 	
 	BulkProcessor.Builder bulk(BulkProcessor.Listener listener);
 	
+	/**
+	 * Sends the given bulk request to the cluster without blocking the caller. The listener is notified on a client thread when the request
+	 * completes, so it should not perform any blocking operations.
+	 * 
+	 * @param req - the bulk request to send
+	 * @param listener - the listener to notify about the response or failure
+	 * @since 9.5
+	 */
+	void bulkAsync(BulkRequest req, ActionListener<BulkResponse> listener);
+	
 	BulkByScrollResponse updateByQuery(String index, int batchSize, Script script, QueryBuilder query) throws IOException;
 	
 	BulkByScrollResponse deleteByQuery(String index, int batchSize, QueryBuilder query) throws IOException;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,9 +26,12 @@ import java.io.IOException;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkProcessor.Builder;
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -146,6 +149,12 @@ public final class EsHttpClient extends EsClientBase {
 		checkAvailable();
 		return BulkProcessor.builder((req, actionListener) -> clientExt.bulkAsync(req, EXTENDED_DEFAULT, actionListener), listener);
 	}
+	
+	@Override
+	public void bulkAsync(BulkRequest req, ActionListener<BulkResponse> listener) {
+		checkAvailable();
+		clientExt.bulkAsync(req, EXTENDED_DEFAULT, listener);
+	}
 
 	@Override
 	public GetResponse get(GetRequest req) throws IOException {
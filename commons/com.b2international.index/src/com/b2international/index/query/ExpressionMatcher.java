@@ -0,0 +1,262 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import com.b2international.index.mapping.DocumentMapping;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterables;
+
+/**
+ * Evaluates an {@link Expression} against the source of a single document in memory, so that several expressions can be tested against the
+ * documents returned by a single scan of the index instead of running a separate query for each of them.
+ * <p>
+ * Only the subset of expressions with unambiguous term-level semantics is supported: {@link BoolExpression}s, {@link MatchAll},
+ * {@link MatchNone}, and exact, set, prefix and range predicates on scalar (or collection of scalar) fields of the document that are indexed as
+ * keywords, numbers or booleans. Expressions referring to analyzed text, nested documents, field aliases or scripts can not be matched.
+ * 
+ * @since 9.5
+ */
+public final class ExpressionMatcher {
+
+	private final Predicate<Map<String, Object>> predicate;
+	private final SortedSet<String> fields;
+
+	private ExpressionMatcher(Predicate<Map<String, Object>> predicate, SortedSet<String> fields) {
+		this.predicate = predicate;
+		this.fields = fields;
+	}
+	
+	/**
+	 * @param source - the source of a document of the mapped type, as returned when selecting {@link Map} 
+	 * @return <code>true</code> if the document matches the expression, <code>false</code> otherwise
+	 */
+	public boolean matches(Map<String, Object> source) {
+		return predicate.test(source);
+	}
+	
+	/**
+	 * @return the document fields the expression refers to
+	 */
+	public SortedSet<String> getFields() {
+		return fields;
+	}
+	
+	/**
+	 * Creates a matcher for the given expression.
+	 * 
+	 * @param mapping - the mapping of the documents the expression is evaluated against
+	 * @param expression - the expression to evaluate
+	 * @return the matcher, or <code>null</code> if the expression contains clauses that can not be evaluated in memory
+	 */
+	public static ExpressionMatcher create(DocumentMapping mapping, Expression expression) {
+		final SortedSet<String> fields = new TreeSet<>();
+		final Predicate<Map<String, Object>> predicate = compile(mapping, expression, fields);
+		return predicate == null ? null : new ExpressionMatcher(predicate, ImmutableSortedSet.copyOf(fields));
+	}
+
+	private static Predicate<Map<String, Object>> compile(DocumentMapping mapping, Expression expression, Set<String> fields) {
+		if (expression instanceof MatchAll) {
+			return source -> true;
+		} else if (expression instanceof MatchNone) {
+			return source -> false;
+		} else if (expression instanceof BoolExpression) {
+			return compile(mapping, (BoolExpression) expression, fields);
+		} else if (expression instanceof com.b2international.index.query.Predicate) {
+			final String field = ((com.b2international.index.query.Predicate) expression).getField();
+			if (!isTermField(mapping, field)) {
+				return null;
+			}
+			
+			final Predicate<Object> valuePredicate = compileValuePredicate(expression);
+			if (valuePredicate == null) {
+				return null;
+			}
+			
+			fields.add(field);
+			return source -> anyValueMatches(source.get(field), valuePredicate);
+		} else {
+			return null;
+		}
+	}
+
+	private static Predicate<Map<String, Object>> compile(DocumentMapping mapping, BoolExpression bool, Set<String> fields) {
+		final List<Predicate<Map<String, Object>>> required = compileAll(mapping, bool.mustClauses(), bool.filterClauses(), fields);
+		final List<Predicate<Map<String, Object>>> prohibited = compileAll(mapping, bool.mustNotClauses(), List.of(), fields);
+		final List<Predicate<Map<String, Object>>> optional = compileAll(mapping, bool.shouldClauses(), List.of(), fields);
+		if (required == null || prohibited == null || optional == null) {
+			return null;
+		}
+		
+		final int minShouldMatch = optional.isEmpty() ? 0 : bool.minShouldMatch();
+		return source -> {
+			for (Predicate<Map<String, Object>> clause : required) {
+				if (!clause.test(source)) {
+					return false;
+				}
+			}
+			
+			for (Predicate<Map<String, Object>> clause : prohibited) {
+				if (clause.test(source)) {
+					return false;
+				}
+			}
+			
+			int matchingShouldClauses = 0;
+			for (Predicate<Map<String, Object>> clause : optional) {
+				if (matchingShouldClauses >= minShouldMatch) {
+					break;
+				}
+				if (clause.test(source)) {
+					matchingShouldClauses++;
+				}
+			}
+			
+			return matchingShouldClauses >= minShouldMatch;
+		};
+	}
+	
+	private static List<Predicate<Map<String, Object>>> compileAll(DocumentMapping mapping, List<Expression> clauses, List<Expression> additionalClauses, Set<String> fields) {
+		final List<Predicate<Map<String, Object>>> predicates = new ArrayList<>(clauses.size() + additionalClauses.size());
+		for (Expression clause : Iterables.concat(clauses, additionalClauses)) {
+			final Predicate<Map<String, Object>> predicate = compile(mapping, clause, fields);
+			if (predicate == null) {
+				return null;
+			}
+			predicates.add(predicate);
+		}
+		return predicates;
+	}
+	
+	private static boolean isTermField(DocumentMapping mapping, String field) {
+		// Only fields that are stored as-is in the source, and indexed as keywords (not aliases, which might be analyzed) are supported
+		return mapping.getSelectableFields().contains(field)
+				&& !mapping.isNestedMapping(field)
+				&& !mapping.isObject(field)
+				&& !mapping.isMap(field)
+				&& mapping.isDocValuesEnabled(field);
+	}
+	
+	private static Predicate<Object> compileValuePredicate(Expression expression) {
+		if (expression instanceof StringPredicate || expression instanceof LongPredicate || expression instanceof IntPredicate || expression instanceof BooleanPredicate) {
+			final Object argument = ((SingleArgumentPredicate<?>) expression).getArgument();
+			return value -> valueEquals(value, argument);
+		} else if (expression instanceof PrefixPredicate) {
+			final Set<String> prefixes = ((PrefixPredicate) expression).values();
+			return value -> value instanceof String && prefixes.stream().anyMatch(((String) value)::startsWith);
+		} else if (expression instanceof StringSetPredicate) {
+			final Set<String> values = ((StringSetPredicate) expression).values();
+			return value -> values.contains(String.valueOf(value));
+		} else if (expression instanceof LongSetPredicate) {
+			final Set<Long> values = ((LongSetPredicate) expression).values();
+			final Set<String> terms = toTerms(values);
+			return value -> value instanceof Number ? values.contains(((Number) value).longValue()) : terms.contains(String.valueOf(value));
+		} else if (expression instanceof IntSetPredicate) {
+			final Set<Integer> values = ((IntSetPredicate) expression).values();
+			final Set<String> terms = toTerms(values);
+			return value -> value instanceof Number ? values.contains(((Number) value).intValue()) : terms.contains(String.valueOf(value));
+		} else if (expression instanceof RangePredicate<?>) {
+			return compileRange((RangePredicate<?>) expression);
+		} else {
+			return null;
+		}
+	}
+
+	/*
+	 * Numeric terms queries against keyword fields match the string representation of the numbers, eg. IDs stored as strings
+	 */
+	private static Set<String> toTerms(Set<? extends Number> values) {
+		final Set<String> terms = new HashSet<>(values.size());
+		for (Number value : values) {
+			terms.add(String.valueOf(value));
+		}
+		return terms;
+	}
+
+	private static Predicate<Object> compileRange(RangePredicate<?> range) {
+		final Object lower = range.lower();
+		final Object upper = range.upper();
+		if (!isComparableBound(lower) || !isComparableBound(upper)) {
+			return null;
+		}
+		
+		return value -> {
+			if (lower != null) {
+				final Integer result = compare(value, lower);
+				if (result == null || result < 0 || (result == 0 && !range.isIncludeLower())) {
+					return false;
+				}
+			}
+			if (upper != null) {
+				final Integer result = compare(value, upper);
+				if (result == null || result > 0 || (result == 0 && !range.isIncludeUpper())) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+	
+	private static boolean isComparableBound(Object bound) {
+		return bound == null || bound instanceof String || bound instanceof Long || bound instanceof Integer;
+	}
+
+	private static Integer compare(Object value, Object bound) {
+		if (value instanceof Number && bound instanceof Number) {
+			return Long.compare(((Number) value).longValue(), ((Number) bound).longValue());
+		} else if (value instanceof String && bound instanceof String) {
+			return ((String) value).compareTo((String) bound);
+		} else {
+			return null;
+		}
+	}
+	
+	private static boolean valueEquals(Object value, Object argument) {
+		if (value instanceof Number && argument instanceof Number) {
+			return ((Number) value).longValue() == ((Number) argument).longValue();
+		} else if (value == null) {
+			return false;
+		} else {
+			// Term queries against numeric and boolean fields accept their string representation as well
+			return Objects.equals(String.valueOf(value), String.valueOf(argument));
+		}
+	}
+	
+	private static boolean anyValueMatches(Object fieldValue, Predicate<Object> valuePredicate) {
+		if (fieldValue instanceof Collection<?>) {
+			for (Object value : (Collection<?>) fieldValue) {
+				if (value != null && valuePredicate.test(value)) {
+					return true;
+				}
+			}
+			return false;
+		} else {
+			// Missing fields do not match any term-level query
+			return fieldValue != null && valuePredicate.test(fieldValue);
+		}
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,9 +20,15 @@ import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.b2international.index.*;
 import com.b2international.index.mapping.DocumentMapping;
@@ -35,23 +41,74 @@ import com.b2international.index.query.SortBy.Order;
 import com.b2international.index.revision.RevisionCompare.Builder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @since 4.7
  */
 public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks {
 
+	private static final int MAX_MULTI_GET_THREADS = 4;
+	private static final int MULTI_GET_QUEUE_SIZE = 64;
+
 	private final Index index;
 	private final BaseRevisionBranching branching;
 	private final RevisionIndexAdmin admin;
 	private final ObjectMapper mapper;
 	private final List<Hooks.Hook> hooks = newArrayList();
+	private final RevisionCompareCache compareCache = new RevisionCompareCache();
+	private final RevisionFilterCache filterCache;
+	private final ListeningExecutorService multiGetExecutor;
+	private final ExecutorService filterRefreshExecutor;
 
 	public DefaultRevisionIndex(Index index, TimestampProvider timestampProvider, ObjectMapper mapper) {
 		this.index = index;
 		this.mapper = mapper;
 		this.admin = new RevisionIndexAdmin(this, index.admin());
 		this.branching = new DefaultRevisionBranching(this, timestampProvider);
+		this.multiGetExecutor = createMultiGetExecutor(index.name());
+		this.filterRefreshExecutor = createFilterRefreshExecutor(index.name());
+		this.filterCache = new RevisionFilterCache(branching, filterRefreshExecutor);
+	}
+	
+	/*
+	 * Fetches the ID partitions of large multi-get requests in parallel. The queue is bounded, when it is full (or the executor has been shut down
+	 * concurrently) the searcher fetches the partition on its own thread instead. Idle threads are released, so an index that is not closed
+	 * explicitly does not keep threads alive.
+	 */
+	private static ListeningExecutorService createMultiGetExecutor(String name) {
+		final int threads = Math.min(MAX_MULTI_GET_THREADS, Runtime.getRuntime().availableProcessors());
+		final ThreadPoolExecutor multiGetPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(MULTI_GET_QUEUE_SIZE),
+				new ThreadFactoryBuilder().setNameFormat(name + "-multi-get-%d").setDaemon(true).build(),
+				(task, executor) -> task.run());
+		multiGetPool.allowCoreThreadTimeOut(true);
+		return MoreExecutors.listeningDecorator(multiGetPool);
+	}
+	
+	/*
+	 * Collects the head timestamps of deleted branches for the revision filter cache. At most one refresh is scheduled at a time, so a single
+	 * thread is sufficient, and it is released when idle.
+	 */
+	private static ExecutorService createFilterRefreshExecutor(String name) {
+		final ThreadPoolExecutor filterRefreshPool = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				new ThreadFactoryBuilder().setNameFormat(name + "-revision-filter-refresh-%d").setDaemon(true).build());
+		filterRefreshPool.allowCoreThreadTimeOut(true);
+		return filterRefreshPool;
+	}
+	
+	/**
+	 * Releases the worker threads held by this revision index. Searchers fetch the revisions on their own thread after the index has been closed,
+	 * and revision filters are no longer compacted further.
+	 * 
+	 * @since 9.5
+	 */
+	public void close() {
+		MoreExecutors.shutdownAndAwaitTermination(multiGetExecutor, 10L, TimeUnit.SECONDS);
+		MoreExecutors.shutdownAndAwaitTermination(filterRefreshExecutor, 10L, TimeUnit.SECONDS);
 	}
 	
 	@Override
@@ -100,7 +157,7 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	
 	@Override
 	public <T> T read(final RevisionBranchRef branch, final RevisionIndexRead<T> read) {
-		return index.read(index -> read.execute(new DefaultRevisionSearcher(branch, index)));
+		return index.read(index -> read.execute(new DefaultRevisionSearcher(branch, index, filterCache::get, mapper, DefaultRevisionSearcher.DEFAULT_MAX_CACHED_DOCUMENTS, multiGetExecutor)));
 	}
 	
 	/**
@@ -152,26 +209,67 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 			final RevisionBranchRef baseOfCompareRef = base.intersection(compare);
 			final RevisionBranchRef compareRef = compare.difference(base);
 
-			final Builder result = RevisionCompare.builder(baseOfCompareRef, compareRef, options);
+			if (base.branchId() == compare.branchId()) {
+				return RevisionCompare.builder(baseOfCompareRef, compareRef, options).build();
+			}
+			
+			Stopwatch w = Stopwatch.createStarted();
+			admin.log().trace("Comparing changes between {} -> {}.", base, compare);
+			
+			final RevisionCompareCache.Key cacheKey = compareCache.toKey(compareRef, options);
+			final RevisionCompareCache.State cachedState = cacheKey != null ? compareCache.get(cacheKey) : null;
+			final RevisionSegment headSegment = RevisionCompareCache.getHeadSegment(compareRef);
 			
-			if (base.branchId() != compare.branchId()) {
-				Stopwatch w = Stopwatch.createStarted();
-				admin.log().trace("Comparing changes between {} -> {}.", base, compare);
-				doRevisionCompare(searcher, compareRef, result);
-				admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
+			final Builder result;
+			final long lastAppliedTimestamp;
+			if (cachedState != null && cachedState.getLastAppliedTimestamp() <= headSegment.end()) {
+				// continue from the last compare point, apply only the commits made on the compared branch since then
+				result = RevisionCompare.builder(baseOfCompareRef, compareRef, options, cachedState.copyDetails());
+				if (cachedState.getLastAppliedTimestamp() < headSegment.end()) {
+					final RevisionSegment newCommitsSegment = new RevisionSegment(headSegment.branchId(), cachedState.getLastAppliedTimestamp() + 1L, headSegment.end());
+					lastAppliedTimestamp = Math.max(cachedState.getLastAppliedTimestamp(), doRevisionCompare(searcher, Collections.singleton(newCommitsSegment), headSegment, result));
+				} else {
+					lastAppliedTimestamp = cachedState.getLastAppliedTimestamp();
+				}
+			} else {
+				result = RevisionCompare.builder(baseOfCompareRef, compareRef, options);
+				lastAppliedTimestamp = doRevisionCompare(searcher, compareRef.segments(), headSegment, result);
 			}
-
+			
+			if (cacheKey != null && (cachedState == null || cachedState.getLastAppliedTimestamp() <= lastAppliedTimestamp)) {
+				compareCache.put(cacheKey, lastAppliedTimestamp, result.getDetails());
+			}
+			
+			admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
 			return result.build();
 		});
 	}
 	
-	private void doRevisionCompare(Searcher searcher, RevisionBranchRef compareRef, RevisionCompare.Builder result) throws IOException {
-		if (compareRef.segments().isEmpty()) {
-			return;
+	/*
+	 * Drops all cached compare states, required when the underlying commit documents get cleared or deleted.
+	 */
+	void invalidateCompareCache() {
+		compareCache.invalidateAll();
+	}
+	
+	/*
+	 * Drops all cached revision filters, required when the underlying branch documents get cleared or deleted.
+	 */
+	void invalidateRevisionFilterCache() {
+		filterCache.invalidateAll();
+	}
+	
+	/*
+	 * Applies all commits made in the given segments to the compare result in chronological order and returns the timestamp of the last commit applied from the head segment.
+	 */
+	private long doRevisionCompare(Searcher searcher, Collection<RevisionSegment> segments, RevisionSegment headSegment, RevisionCompare.Builder result) throws IOException {
+		long lastAppliedTimestamp = headSegment != null ? headSegment.start() - 1L : -1L;
+		if (segments.isEmpty()) {
+			return lastAppliedTimestamp;
 		}
 		ExpressionBuilder compareCommitsQuery = Expressions.bool();
 		
-		for (RevisionSegment segment : compareRef.segments()) {
+		for (RevisionSegment segment : segments) {
 			String segmentBranch = getBranchPath(searcher, segment.branchId());
 			compareCommitsQuery.should(Expressions.bool()
 					.filter(Commit.Expressions.timestampRange(segment.start(), segment.end()))
@@ -179,6 +277,8 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 					.build());
 		}
 		
+		final String headBranch = headSegment != null ? getBranchPath(searcher, headSegment.branchId()) : null;
+		
 		// apply commits happened on the compareRef segments in chronological order
 		AfterWhereBuilder<Commit> query = Query.select(Commit.class)
 			.where(compareCommitsQuery.build())
@@ -193,9 +293,19 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 				query.searchAfter(hits.getSearchAfter());
 			}
 			hits = searcher.search(query.build());
-			hits.forEach(result::apply);
+			for (Commit commit : hits) {
+				result.apply(commit);
+				if (headBranch != null 
+						&& headBranch.equals(commit.getBranch()) 
+						&& commit.getTimestamp() >= headSegment.start() 
+						&& commit.getTimestamp() <= headSegment.end()) {
+					lastAppliedTimestamp = Math.max(lastAppliedTimestamp, commit.getTimestamp());
+				}
+			}
 			processedCommits += hits.getLimit();
 		} while (processedCommits < hits.getTotal());
+		
+		return lastAppliedTimestamp;
 	}
 
 	private String getBranchPath(Searcher searcher, long branchId) throws IOException {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,13 @@ package com.b2international.index.revision;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import com.b2international.commons.metric.Metrics;
 import com.b2international.index.Hits;
+import com.b2international.index.IndexException;
 import com.b2international.index.Searcher;
 import com.b2international.index.aggregations.Aggregation;
 import com.b2international.index.aggregations.AggregationBuilder;
@@ -31,23 +33,66 @@ import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Knn;
 import com.b2international.index.query.Query;
-import com.google.common.collect.ImmutableList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 /**
  * @since 4.7
  */
 public final class DefaultRevisionSearcher implements RevisionSearcher {
 
+	/**
+	 * The default number of revisions a searcher keeps in memory after fetching them by ID.
+	 */
+	public static final int DEFAULT_MAX_CACHED_DOCUMENTS = 5_000;
+	
+	// Marks IDs that were looked up, but are not visible on the branch
+	private static final CachedRevision MISSING = new CachedRevision(null, null, null);
+	
 	private final RevisionBranchRef branch;
 	private final Searcher searcher;
 	private final int maxTermsCount;
+	private final Function<RevisionBranchRef, Expression> revisionFilterProvider;
+	private final ObjectMapper mapper;
+	private final ListeningExecutorService multiGetExecutor;
+	private final Map<DocumentKey, CachedRevision> documentCache;
 
 	public DefaultRevisionSearcher(RevisionBranchRef branch, Searcher searcher) {
+		this(branch, searcher, RevisionBranchRef::toRevisionFilter, null, 0, null);
+	}
+	
+	/**
+	 * @param branch - the branch reference to query
+	 * @param searcher - the underlying searcher
+	 * @param revisionFilterProvider - computes (or looks up) the filter that restricts revision queries to the given branch reference
+	 * @param mapper - serializes cached revisions, so each lookup returns its own instance
+	 * @param maxCachedDocuments - the number of revisions to keep in memory after fetching them by ID, <code>0</code> disables caching
+	 * @param multiGetExecutor - fetches the ID partitions of large multi-get requests in parallel, owned by the revision index, <code>null</code>
+	 *            fetches partitions sequentially
+	 * @since 9.5
+	 */
+	public DefaultRevisionSearcher(RevisionBranchRef branch, Searcher searcher, Function<RevisionBranchRef, Expression> revisionFilterProvider, ObjectMapper mapper, int maxCachedDocuments, ListeningExecutorService multiGetExecutor) {
+		checkArgument(maxCachedDocuments == 0 || mapper != null, "An object mapper is required to cache revisions");
 		this.branch = branch;
 		this.searcher = searcher;
 		this.maxTermsCount = ((EsDocumentSearcher) searcher).maxTermsCount();
+		this.revisionFilterProvider = revisionFilterProvider;
+		this.mapper = mapper;
+		this.multiGetExecutor = multiGetExecutor;
+		// the branch reference points to a fixed timestamp, so fetched revisions do not change during the lifetime of this searcher
+		this.documentCache = maxCachedDocuments > 0 ? Collections.synchronizedMap(new LinkedHashMap<DocumentKey, CachedRevision>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<DocumentKey, CachedRevision> eldest) {
+				return size() > maxCachedDocuments;
+			}
+		}) : null;
 	}
 	
 	@Override
@@ -63,8 +108,14 @@ public final class DefaultRevisionSearcher implements RevisionSearcher {
 	@Override
 	public <T> T get(Class<T> type, String key) throws IOException {
 		if (Revision.class.isAssignableFrom(type)) {
+			final CachedRevision cached = getCached(type, key);
+			if (cached != null) {
+				return cached == MISSING ? null : cached.read(mapper, type);
+			}
 			final Query<T> query = Query.select(type).where(Expressions.exactMatch(Revision.Fields.ID, key)).limit(2).build();
-			return Iterables.getOnlyElement(search(query), null);
+			final T hit = Iterables.getOnlyElement(search(query), null);
+			putCached(type, key, hit);
+			return hit;
 		} else {
 			return searcher.get(type, key);
 		}
@@ -75,20 +126,86 @@ public final class DefaultRevisionSearcher implements RevisionSearcher {
 		if (Iterables.isEmpty(keys)) {
 			return Collections.emptySet();
 		} else if (Revision.class.isAssignableFrom(type)) {
-			List<String> allKeys = ImmutableList.copyOf(keys);
-			if (allKeys.size() > maxTermsCount) {
-				List<T> results = Lists.newArrayListWithExpectedSize(allKeys.size());
-				for (List<String> currentKeys : Lists.partition(allKeys, maxTermsCount)) {
-					results.addAll(search(Query.select(type).where(Expressions.matchAny(Revision.Fields.ID, currentKeys)).limit(currentKeys.size()).build()).getHits());
+			final Set<String> allKeys = ImmutableSet.copyOf(keys);
+			final Map<String, T> resultsByKey = Maps.newHashMapWithExpectedSize(allKeys.size());
+			final List<String> missingKeys = new ArrayList<>();
+			for (String key : allKeys) {
+				final CachedRevision cached = getCached(type, key);
+				if (cached == null) {
+					missingKeys.add(key);
+				} else if (cached != MISSING) {
+					resultsByKey.put(key, cached.read(mapper, type));
+				}
+			}
+			
+			if (!missingKeys.isEmpty()) {
+				for (T hit : fetch(type, missingKeys)) {
+					resultsByKey.put(((Revision) hit).getId(), hit);
+				}
+				if (documentCache != null) {
+					for (String key : missingKeys) {
+						putCached(type, key, resultsByKey.get(key));
+					}
+				}
+			}
+			
+			// revisions are returned in the order of the requested IDs, regardless of whether they were cached or fetched (and in which partition)
+			final List<T> results = Lists.newArrayListWithExpectedSize(resultsByKey.size());
+			for (String key : allKeys) {
+				final T result = resultsByKey.get(key);
+				if (result != null) {
+					results.add(result);
 				}
-				return results;
-			} else {
-				return search(Query.select(type).where(Expressions.matchAny(Revision.Fields.ID, allKeys)).limit(allKeys.size()).build());
 			}
+			return results;
 		} else {
 			return searcher.get(type, keys);
 		}
 	}
+	
+	/*
+	 * Fetches the given revisions in batches of at most maxTermsCount IDs, running the batches in parallel if there is more than one.
+	 */
+	private <T> List<T> fetch(Class<T> type, List<String> keys) throws IOException {
+		final List<List<String>> partitions = Lists.partition(keys, maxTermsCount);
+		if (partitions.size() == 1 || multiGetExecutor == null) {
+			final List<T> results = Lists.newArrayListWithExpectedSize(keys.size());
+			for (List<String> currentKeys : partitions) {
+				results.addAll(search(Query.select(type).where(Expressions.matchAny(Revision.Fields.ID, currentKeys)).limit(currentKeys.size()).build()).getHits());
+			}
+			return results;
+		}
+		
+		final List<ListenableFuture<List<T>>> futures = new ArrayList<>(partitions.size());
+		for (List<String> currentKeys : partitions) {
+			futures.add(multiGetExecutor.submit(() -> search(Query.select(type).where(Expressions.matchAny(Revision.Fields.ID, currentKeys)).limit(currentKeys.size()).build()).getHits()));
+		}
+		
+		try {
+			final List<T> results = Lists.newArrayListWithExpectedSize(keys.size());
+			Futures.allAsList(futures).get().forEach(results::addAll);
+			return results;
+		} catch (InterruptedException | ExecutionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IndexException("Couldn't fetch revisions by ID", e);
+		}
+	}
+	
+	private CachedRevision getCached(Class<?> type, String key) {
+		return documentCache != null ? documentCache.get(new DocumentKey(type, key)) : null;
+	}
+	
+	private void putCached(Class<?> type, String key, Object document) throws IOException {
+		if (documentCache != null) {
+			documentCache.put(new DocumentKey(type, key), document != null ? CachedRevision.of((Revision) document, mapper) : MISSING);
+		}
+	}
 
 	@Override
 	public <T> Hits<T> search(Query<T> query) throws IOException {
@@ -133,7 +250,30 @@ public final class DefaultRevisionSearcher implements RevisionSearcher {
 	}
 	
 	public final Expression getRevisionFilter() {
-		return branch.toRevisionFilter();
+		return revisionFilterProvider.apply(branch);
+	}
+	
+	private record DocumentKey(Class<?> type, String id) {
+	}
+	
+	/*
+	 * Revisions are mutable, so the cache keeps their serialized form and each lookup deserializes a new instance. The created and revised
+	 * branch points are read-only JSON properties, they are restored separately.
+	 */
+	private record CachedRevision(byte[] source, RevisionBranchPoint created, List<RevisionBranchPoint> revised) {
+		
+		static CachedRevision of(Revision revision, ObjectMapper mapper) throws IOException {
+			return new CachedRevision(mapper.writeValueAsBytes(revision), revision.getCreated(), revision.getRevised() == null ? List.of() : List.copyOf(revision.getRevised()));
+		}
+		
+		<T> T read(ObjectMapper mapper, Class<T> type) throws IOException {
+			final T document = mapper.readValue(source, type);
+			final Revision revision = (Revision) document;
+			revision.setCreated(created);
+			revision.setRevised(revised);
+			return document;
+		}
+		
 	}
 		
 }
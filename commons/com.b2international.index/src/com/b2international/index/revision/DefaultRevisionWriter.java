@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import static com.google.common.collect.Maps.newHashMap;
 import java.io.IOException;
 import java.util.*;
 
+import com.b2international.commons.metric.Metrics;
 import com.b2international.index.BulkDelete;
 import com.b2international.index.BulkUpdate;
 import com.b2international.index.Update;
@@ -64,6 +65,11 @@ public class DefaultRevisionWriter implements RevisionWriter {
 		this.revised = new RevisionBranchPoint(branch.branchId(), Long.MAX_VALUE);
 	}
 
+	@Override
+	public void setMetrics(Metrics metrics) {
+		index.setMetrics(metrics);
+	}
+
 	@Override
 	public void put(Object object) {
 		if (object instanceof Revision) {
@@ -133,6 +133,10 @@ public abstract class Revision {
 		this.created = created;
 	}
 	
+	final void setRevised(List<RevisionBranchPoint> revised) {
+		this.revised = revised;
+	}
+	
 	protected final RevisionBranchPoint getCreated() {
 		return created;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -113,6 +113,7 @@ public final class RevisionBranch extends MetadataHolderImpl {
 		public static final String NAME_ALIASES = "nameAliases";
 		public static final String PARENT_PATH = "parentPath";
 		public static final String METADATA = "metadata";
+		public static final String DELETED = "deleted";
 		
 		// derived fields
 		public static final String PATH = "path";
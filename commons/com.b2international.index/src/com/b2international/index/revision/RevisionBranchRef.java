@@ -117,6 +117,60 @@ public final class RevisionBranchRef {
 		return query.filter(created.build()).build();
 	}
 
+	/**
+	 * Returns a revision filter that matches the same revisions as {@link #toRevisionFilter()}, but uses fewer clauses on deep branch hierarchies.
+	 * No revision can be created on a deleted branch after its head, so created ranges of deleted branches that reach the head of the branch are
+	 * widened to cover the rest of the branch, and consecutive widened ranges are collapsed into a single address range. Revised ranges are kept
+	 * per segment, as revisions that are still visible on a deleted branch carry the unrevised marker of that branch.
+	 * 
+	 * @param deletedBranchHeads - the head timestamps of (some of the) deleted branches by branch ID
+	 * @return
+	 */
+	public Expression toCompactRevisionFilter(Map<Long, Long> deletedBranchHeads) {
+		if (isEmpty()) {
+			return Expressions.matchNone();
+		}
+		
+		final ExpressionBuilder query = Expressions.bool();
+		final ExpressionBuilder created = Expressions.bool();
+		
+		// created ranges of widened segments end after the last possible timestamp, so they can be joined with the segment of the next branch
+		String createdFrom = null;
+		String createdTo = null;
+		long previousBranchId = -1L;
+		boolean previousWidened = false;
+		
+		for (RevisionSegment segment : segments) {
+			final boolean widened = isWidened(segment, deletedBranchHeads);
+			final boolean adjacent = segment.start() == 0L && segment.branchId() == previousBranchId + 1;
+			
+			if (createdFrom == null || !previousWidened || !adjacent) {
+				addRange(created, createdFrom, createdTo);
+				createdFrom = segment.getStartAddress();
+			}
+			createdTo = widened ? RevisionBranchPoint.toIpv6(segment.branchId(), -1L) : segment.getEndAddress();
+			query.mustNot(segment.toRangeExpression(Revision.Fields.REVISED));
+			
+			previousBranchId = segment.branchId();
+			previousWidened = widened;
+		}
+		
+		addRange(created, createdFrom, createdTo);
+		
+		return query.filter(created.build()).build();
+	}
+
+	private static boolean isWidened(RevisionSegment segment, Map<Long, Long> deletedBranchHeads) {
+		final Long head = deletedBranchHeads.get(segment.branchId());
+		return head != null && segment.end() >= head;
+	}
+	
+	private static void addRange(ExpressionBuilder created, String from, String to) {
+		if (from != null) {
+			created.should(Expressions.matchRange(Revision.Fields.CREATED, from, to));
+		}
+	}
+
 	public Expression toCreatedInFilter() {
 		if (isEmpty()) {
 			return Expressions.matchNone();
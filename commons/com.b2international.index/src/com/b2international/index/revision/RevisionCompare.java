@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -30,7 +31,11 @@ import com.b2international.commons.collections.Collections3;
 public final class RevisionCompare {
 
 	static Builder builder(RevisionBranchRef base, RevisionBranchRef compare, RevisionCompareOptions options) {
-		return new Builder(base, compare, options);
+		return new Builder(base, compare, options, new TreeMap<>());
+	}
+	
+	static Builder builder(RevisionBranchRef base, RevisionBranchRef compare, RevisionCompareOptions options, TreeMap<String, RevisionCompareDetail> initialDetails) {
+		return new Builder(base, compare, options, initialDetails);
 	}
 	
 	static class Builder {
@@ -38,13 +43,21 @@ public final class RevisionCompare {
 		private final RevisionBranchRef base;
 		private final RevisionBranchRef compare;
 		
-		private final TreeMap<String, RevisionCompareDetail> detailsByComponent = new TreeMap<>();
+		private final TreeMap<String, RevisionCompareDetail> detailsByComponent;
 		private final RevisionCompareOptions options;
 		
-		Builder(RevisionBranchRef base, RevisionBranchRef compare, RevisionCompareOptions options) {
+		Builder(RevisionBranchRef base, RevisionBranchRef compare, RevisionCompareOptions options, TreeMap<String, RevisionCompareDetail> detailsByComponent) {
 			this.base = base;
 			this.compare = compare;
 			this.options = options;
+			this.detailsByComponent = detailsByComponent;
+		}
+		
+		/**
+		 * @return the details collected so far, keyed by their {@link RevisionCompareDetail#key()}
+		 */
+		SortedMap<String, RevisionCompareDetail> getDetails() {
+			return Collections.unmodifiableSortedMap(detailsByComponent);
 		}
 		
 		public Builder apply(Commit commit) {
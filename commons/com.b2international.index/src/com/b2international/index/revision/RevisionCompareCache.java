@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSortedSet;
+
+/**
+ * Keeps the accumulated compare details of recently compared branches, so that subsequent compares of the same branch only need to apply the
+ * commits that were made on the compared branch since the last compare, instead of replaying all commits of the branch again.
+ * <p>
+ * A cached state is identified by the compared branch, its head segment start and all other (ancestor) segments of the compare ref, plus the
+ * options that affect the collected details. Compares with an ID filter are not cached.
+ *
+ * @since 9.5
+ */
+final class RevisionCompareCache {
+
+	/**
+	 * Upper limit of the total number of cached compare details (across all cached compares).
+	 */
+	private static final long MAX_CACHED_DETAILS = 1_000_000L;
+
+	private final Cache<Key, State> states = CacheBuilder.newBuilder()
+			.maximumWeight(MAX_CACHED_DETAILS)
+			.weigher((Key key, State state) -> state.details.size() + 1)
+			.expireAfterAccess(30, TimeUnit.MINUTES)
+			.build();
+
+	/**
+	 * @param compareRef
+	 * @param options
+	 * @return the cache key for the given compare, or <code>null</code> if the compare cannot be computed incrementally
+	 */
+	Key toKey(RevisionBranchRef compareRef, RevisionCompareOptions options) {
+		if (options.getIds() != null) {
+			return null;
+		}
+
+		final RevisionSegment headSegment = getHeadSegment(compareRef);
+		if (headSegment == null) {
+			return null;
+		}
+
+		final ImmutableSortedSet.Builder<RevisionSegment> ancestorSegments = ImmutableSortedSet.naturalOrder();
+		for (RevisionSegment segment : compareRef.segments()) {
+			if (segment == headSegment) {
+				continue;
+			}
+			// new commits can only be appended to the compare state if they come after all commits of other segments
+			if (segment.end() >= headSegment.start()) {
+				return null;
+			}
+			ancestorSegments.add(segment);
+		}
+
+		return new Key(compareRef.branchId(), headSegment.start(), ancestorSegments.build(), options.isIncludeComponentChanges(), options.isIncludeDerivedComponentChanges(), options.getTypes());
+	}
+
+	State get(Key key) {
+		return states.getIfPresent(key);
+	}
+
+	void put(Key key, long lastAppliedTimestamp, SortedMap<String, RevisionCompareDetail> details) {
+		states.put(key, new State(lastAppliedTimestamp, new TreeMap<>(details)));
+	}
+
+	void invalidateAll() {
+		states.invalidateAll();
+	}
+
+	long size() {
+		return states.size();
+	}
+
+	static RevisionSegment getHeadSegment(RevisionBranchRef compareRef) {
+		return compareRef.segments()
+				.stream()
+				.filter(segment -> segment.branchId() == compareRef.branchId())
+				.findFirst()
+				.orElse(null);
+	}
+
+	record Key(
+		long branchId,
+		long headStart,
+		SortedSet<RevisionSegment> ancestorSegments,
+		boolean includeComponentChanges,
+		boolean includeDerivedComponentChanges,
+		Set<String> types) {
+	}
+
+	static final class State {
+
+		private final long lastAppliedTimestamp;
+		private final SortedMap<String, RevisionCompareDetail> details;
+
+		private State(long lastAppliedTimestamp, SortedMap<String, RevisionCompareDetail> details) {
+			this.lastAppliedTimestamp = lastAppliedTimestamp;
+			this.details = details;
+		}
+
+		/**
+		 * @return the timestamp of the last commit on the head segment that has been applied to this state
+		 */
+		long getLastAppliedTimestamp() {
+			return lastAppliedTimestamp;
+		}
+
+		/**
+		 * @return a mutable copy of the cached details
+		 */
+		TreeMap<String, RevisionCompareDetail> copyDetails() {
+			return new TreeMap<>(details);
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Keeps the compacted revision filters of recently queried branch references, so that repeated queries on the same branch and timestamp send
+ * identical filters to the index, which can then be served from the node query cache instead of being evaluated again.
+ * <p>
+ * Compaction relies on the head timestamps of deleted branches, which are collected in the background whenever a branch changes (eg. after a
+ * merge, rebase or delete). A deleted branch never receives new commits, reopening it allocates a new branch ID, so collected heads never need
+ * to be invalidated, only extended. Until a deleted branch is collected, filters referring to it are simply less compact.
+ * <p>
+ * Refreshes run on an executor owned by the revision index, once it is shut down no more branch heads are collected.
+ *
+ * @since 9.5
+ */
+final class RevisionFilterCache {
+
+	private static final long MAX_CACHED_FILTERS = 1_000L;
+	
+	private final BaseRevisionBranching branching;
+	private final Executor refreshExecutor;
+	
+	private final Cache<RevisionBranchRef, Expression> filters = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_FILTERS)
+			.expireAfterAccess(30, TimeUnit.MINUTES)
+			.build();
+	
+	private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+	private final AtomicLong generation = new AtomicLong();
+	private volatile Map<Long, Long> deletedBranchHeads = ImmutableMap.of();
+	private volatile boolean initialized;
+	
+	RevisionFilterCache(BaseRevisionBranching branching, Executor refreshExecutor) {
+		this.branching = branching;
+		this.refreshExecutor = refreshExecutor;
+		this.branching.addBranchChangeListener(branchPath -> scheduleRefresh());
+	}
+	
+	Expression get(RevisionBranchRef ref) {
+		if (!initialized) {
+			scheduleRefresh();
+		}
+		return filters.asMap().computeIfAbsent(ref, key -> key.toCompactRevisionFilter(deletedBranchHeads));
+	}
+
+	/*
+	 * Drops all collected branch heads and cached filters, required when branch IDs can get reused, ie. when the branch documents get cleared.
+	 */
+	synchronized void invalidateAll() {
+		generation.incrementAndGet();
+		deletedBranchHeads = ImmutableMap.of();
+		initialized = false;
+		filters.invalidateAll();
+	}
+	
+	private void scheduleRefresh() {
+		if (refreshScheduled.compareAndSet(false, true)) {
+			try {
+				refreshExecutor.execute(this::refresh);
+			} catch (RejectedExecutionException e) {
+				// the revision index has been closed, the flag stays set so the already collected branch heads are used from now on
+			}
+		}
+	}
+	
+	private void refresh() {
+		refreshScheduled.set(false);
+		final long currentGeneration = generation.get();
+		
+		final Map<Long, Long> collectedHeads = new HashMap<>();
+		try {
+			for (RevisionBranch branch : branching.search(Query.select(RevisionBranch.class)
+					.where(Expressions.match(RevisionBranch.Fields.DELETED, true))
+					.limit(Integer.MAX_VALUE)
+					.build())) {
+				collectedHeads.put(branch.getId(), branch.getHeadTimestamp());
+			}
+		} catch (RuntimeException e) {
+			// the index might not be available (yet), filters stay less compact until the next successful refresh
+			return;
+		}
+		
+		synchronized (this) {
+			if (currentGeneration != generation.get()) {
+				return;
+			}
+			initialized = true;
+			collectedHeads.keySet().removeAll(deletedBranchHeads.keySet());
+			if (!collectedHeads.isEmpty()) {
+				deletedBranchHeads = ImmutableMap.<Long, Long>builder()
+						.putAll(deletedBranchHeads)
+						.putAll(collectedHeads)
+						.build();
+				// existing filters are still correct, but recompute them to benefit from the newly collected branches
+				filters.invalidateAll();
+			}
+		}
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -74,11 +74,31 @@ public final class RevisionIndexAdmin implements IndexAdmin {
 	@Override
 	public void delete() {
 		rawIndexAdmin.delete();
+		invalidateCompareCache();
+		invalidateRevisionFilterCache();
 	}
 
 	@Override
 	public void clear(Collection<Class<?>> types) {
 		rawIndexAdmin.clear(types);
+		if (types.contains(Commit.class)) {
+			invalidateCompareCache();
+		}
+		if (types.contains(RevisionBranch.class)) {
+			invalidateRevisionFilterCache();
+		}
+	}
+	
+	private void invalidateCompareCache() {
+		if (index instanceof DefaultRevisionIndex defaultRevisionIndex) {
+			defaultRevisionIndex.invalidateCompareCache();
+		}
+	}
+	
+	private void invalidateRevisionFilterCache() {
+		if (index instanceof DefaultRevisionIndex defaultRevisionIndex) {
+			defaultRevisionIndex.invalidateRevisionFilterCache();
+		}
 	}
 
 	@Override
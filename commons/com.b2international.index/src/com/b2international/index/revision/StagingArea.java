@@ -33,6 +33,7 @@ import org.elasticsearch.common.UUIDs;
 
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.Pair;
+import com.b2international.commons.metric.Metrics;
 import com.b2international.index.BulkUpdate;
 import com.b2international.index.IndexClientFactory;
 import com.b2international.index.IndexException;
@@ -70,8 +71,13 @@ public final class StagingArea {
 	private final int maxTermsCount;
 	private final int commitWatermarkLow;
 	private final int commitWatermarkHigh;
+	private final boolean commitSpill;
 
 	private Map<ObjectId, StagedObject> stagedObjects;
+	// staged objects beyond the high commit watermark are kept in this buffer when spilling is enabled
+	private StagingSpillBuffer spillBuffer;
+	// spilled objects deserialized during the current commit phase
+	private List<SpilledStagedObject> materializedObjects;
 
 	private SortedSet<RevisionBranchPoint> mergeSources;
 	private RevisionBranchRef mergeFromBranchRef;
@@ -79,6 +85,7 @@ public final class StagingArea {
 	private SetMultimap<Class<?>, String> revisionsToReviseOnMergeSource;
 	private SetMultimap<Class<?>, String> externalRevisionsToReviseOnMergeSource;
 	private Object context;
+	private Metrics metrics = Metrics.NOOP;
 	
 	StagingArea(DefaultRevisionIndex index, String branchPath, ObjectMapper mapper) {
 		this.index = index;
@@ -88,6 +95,7 @@ public final class StagingArea {
 		this.maxTermsCount = Integer.parseInt((String) index.admin().settings().get(IndexClientFactory.MAX_TERMS_COUNT_KEY));
 		this.commitWatermarkLow = (int) index.admin().settings().get(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY);
 		this.commitWatermarkHigh = (int) index.admin().settings().get(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY);
+		this.commitSpill = Boolean.parseBoolean(String.valueOf(index.admin().settings().getOrDefault(IndexClientFactory.COMMIT_SPILL_KEY, IndexClientFactory.DEFAULT_COMMIT_SPILL)));
 		rollback();
 	}
 	
@@ -121,6 +129,16 @@ public final class StagingArea {
 		return this;
 	}
 	
+	/**
+	 * @param metrics - the metrics to report write throughput of the commit to
+	 * @return this class for method chaining
+	 * @since 9.5
+	 */
+	public StagingArea withMetrics(Metrics metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+	
 	/**
 	 * @return a context object passed during {@link RevisionIndex#prepareCommit(String, Object)}
 	 */
@@ -356,12 +374,18 @@ public final class StagingArea {
 		if (!isDirty() && !isMerge()) {
 			return null;
 		}
+		// each pre-commit hook runs in its own phase, changes made to spilled objects are kept when the phase ends
+		releaseSpilledObjects();
+		
 		// run pre-commit hooks
 		final List<Hook> hooks = index.getHooks(); // get a snapshot of the current hooks so we use the same hooks before and after commit
 		hooks.stream()
 			.filter(PreCommitHook.class::isInstance)
 			.map(PreCommitHook.class::cast)
-			.forEach(hook -> hook.run(this));
+			.forEach(hook -> {
+				hook.run(this);
+				releaseSpilledObjects();
+			});
 		
 		// commit the registered changes
 		final Commit commit = index.write(branchPath, timestamp, writer -> doCommit(commitGroupId, timestamp, author, commitComment, writer));
@@ -376,6 +400,7 @@ public final class StagingArea {
 	}
 
 	private Commit doCommit(String commitGroupId, long timestamp, String author, String commitComment, RevisionWriter writer) throws IOException {
+		writer.setMetrics(metrics);
 		Commit.Builder commit = Commit.builder();
 
 		final Multimap<ObjectId, ObjectId> newComponentsByContainer = HashMultimap.create();
@@ -397,6 +422,7 @@ public final class StagingArea {
 				} else {
 					removedComponentsByContainer.put(ObjectId.rootOf(DocumentMapping.getDocType(object.getClass())), key);
 				}
+				release(value);
 			}
 		});
 
@@ -428,6 +454,7 @@ public final class StagingArea {
 				} else {
 					newComponentsByContainer.put(ObjectId.rootOf(DocumentMapping.getDocType(document.getClass())), key);
 				}
+				release(value);
 			}
 		});
 		
@@ -453,6 +480,7 @@ public final class StagingArea {
 					writer.put(rev);
 
 					if (!revisionDiff.hasChanges()) {
+						release(value);
 						return;
 					}
 
@@ -472,6 +500,7 @@ public final class StagingArea {
 					writer.put(object);
 					changedComponentsByContainer.put(ObjectId.rootOf(DocumentMapping.getDocType(object.getClass())), key);
 				}
+				release(value);
 			}
 		});
 		
@@ -545,7 +574,7 @@ public final class StagingArea {
 			stagedObjects.entrySet().forEach( entry -> {
 				ObjectId key = entry.getKey();
 				StagedObject value = entry.getValue();
-				if (!(value.getObject() instanceof Revision)) {
+				if (!Revision.class.isAssignableFrom(value.getObjectType())) {
 					String componentType = key.type();
 					switch (value.stageKind) {
 					case ADDED:
@@ -695,6 +724,8 @@ public final class StagingArea {
 	
 	private void clear() {
 		stagedObjects = newHashMap();
+		spillBuffer = null;
+		materializedObjects = newArrayList();
 		revisionsToReviseOnMergeSource = HashMultimap.create();
 		externalRevisionsToReviseOnMergeSource = HashMultimap.create();
 	}
@@ -748,13 +779,13 @@ public final class StagingArea {
 			if (!currentStagedObject.isCommit() && currentStagedObject.getObject() instanceof Revision && newDocument instanceof Revision) {
 				RevisionDiff diff = new RevisionDiff((Revision) currentStagedObject.getObject(), (Revision) newDocument);
 				if (diff.hasChanges()) {
-					stagedObjects.put(objectId, changed(newDocument, diff, commit));
+					stage(objectId, changed(newDocument, diff, commit));
 				}
 			} else {
-				stagedObjects.put(objectId, added(newDocument, null, commit));
+				stage(objectId, added(newDocument, null, commit));
 			}
 		} else {
-			stagedObjects.put(objectId, added(newDocument, null, commit));
+			stage(objectId, added(newDocument, null, commit));
 		}
 		return this;
 	}
@@ -787,9 +818,9 @@ public final class StagingArea {
 		ObjectId id = ObjectId.toObjectId(changedRevision, changedRevision.getId());
 		if (stagedObjects.containsKey(id)) {
 			StagedObject currentObject = stagedObjects.get(id);
-			stagedObjects.put(id, currentObject.withObject(changedRevision, commit));
+			stage(id, currentObject.withObject(changedRevision, commit));
 		} else {
-			stagedObjects.put(id, changed(changedRevision, new RevisionDiff(oldRevision, changedRevision), commit));
+			stage(id, changed(changedRevision, new RevisionDiff(oldRevision, changedRevision), commit));
 		}
 		return this;
 	}
@@ -838,13 +869,58 @@ public final class StagingArea {
 		ObjectId objectId = ObjectId.toObjectId(removed, key);
 		StagedObject stagedObject = stagedObjects.get(objectId);
 		if (stagedObject != null && stagedObject.isChanged()) {
-			stagedObjects.put(objectId, removed(stagedObject.getDiff().oldRevision, null, commit));			
+			stage(objectId, removed(stagedObject.getDiff().oldRevision, null, commit));			
 		} else {
-			stagedObjects.put(ObjectId.toObjectId(removed, key), removed(removed, null, commit));			
+			stage(objectId, removed(removed, null, commit));			
 		}
 		return this;
 	}
 	
+	/*
+	 * Registers the staged object, spilling it into the off-heap buffer when the number of staged objects reached the high commit watermark and spilling is enabled.
+	 */
+	private void stage(ObjectId objectId, StagedObject stagedObject) {
+		if (commitSpill && stagedObjects.size() >= commitWatermarkHigh) {
+			if (spillBuffer == null) {
+				spillBuffer = new StagingSpillBuffer();
+				index.admin().log().info("high commit watermark [{}] reached while staging changes on [{}], spilling further staged objects to disk", commitWatermarkHigh, branchPath);
+			}
+			stagedObjects.put(objectId, spill(stagedObject));
+		} else {
+			stagedObjects.put(objectId, stagedObject);
+		}
+	}
+	
+	private StagedObject spill(StagedObject stagedObject) {
+		if (stagedObject instanceof SpilledStagedObject) {
+			return stagedObject;
+		}
+		return new SpilledStagedObject(stagedObject.stageKind, stagedObject.isCommit(), stagedObject.getObject(), stagedObject.getDiff());
+	}
+	
+	/*
+	 * Ends the current commit phase. Spilled objects handed out during the phase are written back to the spill buffer, so changes made to them
+	 * are kept, and released from the heap.
+	 */
+	private void releaseSpilledObjects() {
+		if (materializedObjects.isEmpty()) {
+			return;
+		}
+		for (SpilledStagedObject spilledObject : materializedObjects) {
+			spilledObject.release(true);
+		}
+		materializedObjects = newArrayList();
+	}
+	
+	/*
+	 * Releases a spilled object as soon as it has been written to the index, objects are not modified after that point.
+	 */
+	private void release(StagedObject stagedObject) {
+		if (stagedObject instanceof SpilledStagedObject spilledObject) {
+			spilledObject.release(false);
+		}
+	}
+	
 	/**
 	 * Mark the object registered with the given type and ID revised on the current merge source.
 	 * 
@@ -1367,7 +1443,7 @@ public final class StagingArea {
 		ADDED, CHANGED, REMOVED
 	}
 	
-	final class StagedObject {
+	class StagedObject {
 		
 		private final Object object;
 		private final StageKind stageKind;
@@ -1383,6 +1459,7 @@ public final class StagingArea {
 		
 		public StagedObject withObject(Object newObject, boolean commit) {
 			if (isChanged()) {
+				final RevisionDiff diff = getDiff();
 				return new StagedObject(stageKind, newObject, diff != null ? new RevisionDiff(diff.oldRevision, (Revision) newObject) : null, commit);
 			} else if (isAdded()) {
 				return new StagedObject(stageKind, newObject, null, commit);
@@ -1407,6 +1484,10 @@ public final class StagingArea {
 			return object;
 		}
 		
+		public Class<?> getObjectType() {
+			return object.getClass();
+		}
+		
 		public boolean isCommit() {
 			return commit;
 		}
@@ -1417,6 +1498,115 @@ public final class StagingArea {
 		
 	}
 	
+	/*
+	 * Staged object with its payload serialized into the spill buffer. The payload is deserialized once per commit phase, every caller gets the same
+	 * instance during the phase, and changes made to it are written back when the phase ends. The old revision of a change, the revision branch
+	 * points of the payload (these are not deserialized by the mapper) and the computed diffs stay on the heap.
+	 */
+	private final class SpilledStagedObject extends StagedObject {
+		
+		private final Class<?> objectType;
+		private final Revision oldRevision;
+		private long objectHandle = -1L;
+		private RevisionBranchPoint created;
+		private List<RevisionBranchPoint> revised;
+		
+		private JsonDiff rawDiff;
+		private JsonDiff diff;
+		private Map<String, RevisionPropertyDiff> propertyChanges;
+		
+		private Object materializedObject;
+		private RevisionDiff materializedDiff;
+		
+		private SpilledStagedObject(StageKind stageKind, boolean commit, Object object, RevisionDiff diff) {
+			super(stageKind, null, null, commit);
+			this.objectType = object.getClass();
+			this.oldRevision = diff != null ? diff.oldRevision : null;
+			if (diff != null) {
+				keepComputedDiffs(diff);
+			}
+			write(object);
+		}
+		
+		@Override
+		public Object getObject() {
+			if (materializedObject == null) {
+				materializedObject = read();
+				materializedObjects.add(this);
+			}
+			return materializedObject;
+		}
+		
+		@Override
+		public Class<?> getObjectType() {
+			return objectType;
+		}
+		
+		@Override
+		public RevisionDiff getDiff() {
+			if (oldRevision == null) {
+				return null;
+			}
+			if (materializedDiff == null) {
+				materializedDiff = new RevisionDiff(oldRevision, (Revision) getObject());
+				materializedDiff.rawDiff = rawDiff;
+				materializedDiff.diff = diff;
+				materializedDiff.propertyChanges = propertyChanges;
+			}
+			return materializedDiff;
+		}
+		
+		private void release(boolean writeBack) {
+			if (materializedObject == null) {
+				return;
+			}
+			if (writeBack) {
+				write(materializedObject);
+			}
+			if (materializedDiff != null) {
+				keepComputedDiffs(materializedDiff);
+			}
+			materializedObject = null;
+			materializedDiff = null;
+		}
+		
+		private void keepComputedDiffs(RevisionDiff revisionDiff) {
+			this.rawDiff = revisionDiff.rawDiff;
+			this.diff = revisionDiff.diff;
+			this.propertyChanges = revisionDiff.propertyChanges;
+		}
+		
+		private void write(Object object) {
+			if (object instanceof Revision rev) {
+				created = rev.getCreated();
+				revised = rev.getRevised();
+			}
+			try {
+				final byte[] bytes = mapper.writeValueAsBytes(object);
+				// unchanged objects are not appended again
+				if (objectHandle == -1L || !Arrays.equals(bytes, spillBuffer.read(objectHandle))) {
+					objectHandle = spillBuffer.write(bytes);
+				}
+			} catch (IOException e) {
+				throw new IndexException("Couldn't spill staged object " + object, e);
+			}
+		}
+		
+		private Object read() {
+			try {
+				final Object object = mapper.readValue(spillBuffer.read(objectHandle), objectType);
+				if (object instanceof Revision rev) {
+					rev.setCreated(created);
+					rev.setRevised(revised);
+				}
+				return object;
+			} catch (IOException e) {
+				throw new IndexException("Couldn't read spilled staged object of type " + objectType.getName(), e);
+			}
+		}
+		
+	}
+	
 	private StagedObject added(Object object, RevisionDiff diff, boolean commit) {
 		return new StagedObject(StageKind.ADDED, object, diff, commit);
 	}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.revision;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.b2international.index.IndexException;
+import com.google.common.collect.Lists;
+
+/**
+ * Append-only byte record store backed by memory-mapped temporary files. Used by {@link StagingArea} to keep serialized staged objects out of the
+ * Java heap when a commit grows beyond the high commit watermark.
+ * <p>
+ * Each chunk is mapped from its own temporary file which is deleted right after the mapping is created, the mapped pages are released when the
+ * buffer becomes unreachable, so abandoned staging areas do not leave files behind. Replaced records are not reclaimed until the buffer is
+ * discarded at the end of the commit.
+ *
+ * @since 9.5
+ */
+final class StagingSpillBuffer {
+
+	private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+	private final List<MappedByteBuffer> chunks = Lists.newArrayList();
+	private MappedByteBuffer current;
+	private long bytesWritten;
+
+	/**
+	 * Appends a record to the buffer.
+	 *
+	 * @param bytes
+	 * @return a handle which can be used to {@link #read(long) read} the record back
+	 */
+	public long write(byte[] bytes) {
+		final int recordSize = Integer.BYTES + bytes.length;
+		if (current == null || current.remaining() < recordSize) {
+			current = allocate(Math.max(CHUNK_SIZE, recordSize));
+			chunks.add(current);
+		}
+		final long handle = ((long) (chunks.size() - 1) << 32) | current.position();
+		current.putInt(bytes.length);
+		current.put(bytes);
+		bytesWritten += recordSize;
+		return handle;
+	}
+
+	/**
+	 * @param handle - a handle returned by {@link #write(byte[])}
+	 * @return the bytes of the record
+	 */
+	public byte[] read(long handle) {
+		final MappedByteBuffer chunk = chunks.get((int) (handle >>> 32));
+		final int position = (int) handle;
+		final byte[] bytes = new byte[chunk.getInt(position)];
+		chunk.get(position + Integer.BYTES, bytes);
+		return bytes;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	private static MappedByteBuffer allocate(int size) {
+		try {
+			final Path file = Files.createTempFile("staging-spill", ".bin");
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+				return channel.map(MapMode.READ_WRITE, 0, size);
+			}
+		} catch (IOException e) {
+			throw new IndexException("Couldn't allocate spill buffer for staged objects", e);
+		}
+	}
+
+}
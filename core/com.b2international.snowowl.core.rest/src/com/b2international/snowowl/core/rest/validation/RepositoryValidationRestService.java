@@ -112,6 +112,7 @@ public abstract class RepositoryValidationRestService extends AbstractRestServic
 					ValidationConfiguration.IS_UNPUBLISHED_ONLY, validationInput.isUnpublishedOnly()
 				))
 				.setRuleIds(validationInput.getRuleIds())
+				.setIncremental(validationInput.isIncremental())
 				.build(validationInput.getPath())
 				.runAsJobWithRestart(uniqueJobId, String.format("Validating '%s'", validationInput.getPath()))
 				.execute(getBus())
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,7 @@ import com.b2international.snowowl.core.uri.ResourceURIWithQueryTest;
 import com.b2international.snowowl.core.validation.ValidationRuleApiTest;
 import com.b2international.snowowl.core.validation.ValidationThreadPoolTest;
 import com.b2international.snowowl.core.validation.ValidationWhiteListApiTest;
+import com.b2international.snowowl.core.validation.ValidationWhiteListLookupTest;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 
 /**
@@ -76,6 +77,7 @@ import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 	MergeConflictSerializationTest.class,
 	ImportResponseSerializationTest.class,
 	ValidationThreadPoolTest.class,
+	ValidationWhiteListLookupTest.class,
 	SearchResourceRequestTest.class,
 	CodeSystemTest.class,
 	GroovyScriptEngineTest.class,
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.core.ComponentIdentifier;
+
+/**
+ * @since 9.5
+ */
+public class ValidationWhiteListLookupTest {
+
+	private static final String RULE_1 = "rule1";
+	private static final String RULE_2 = "rule2";
+	
+	@Test
+	public void numericIdentifiers() throws Exception {
+		final ValidationWhiteListLookup whiteList = new ValidationWhiteListLookup();
+		whiteList.add(RULE_1, ComponentIdentifier.of("concept", "138875005"));
+		
+		assertTrue(whiteList.contains(RULE_1, ComponentIdentifier.of("concept", "138875005")));
+		assertFalse(whiteList.contains(RULE_1, ComponentIdentifier.of("description", "138875005")));
+		assertFalse(whiteList.contains(RULE_2, ComponentIdentifier.of("concept", "138875005")));
+		assertFalse(whiteList.contains(RULE_1, ComponentIdentifier.of("concept", "404684003")));
+	}
+	
+	@Test
+	public void nonNumericIdentifiers() throws Exception {
+		final ValidationWhiteListLookup whiteList = new ValidationWhiteListLookup();
+		whiteList.add(RULE_1, ComponentIdentifier.of("member", "0b6f1a9e-4b5c-4f5e-8e8d-8f4d3c2b1a00"));
+		whiteList.add(RULE_1, ComponentIdentifier.of("concept", "0123"));
+		whiteList.add(RULE_1, ComponentIdentifier.of("concept", "12345678901234567890"));
+		
+		assertTrue(whiteList.contains(RULE_1, ComponentIdentifier.of("member", "0b6f1a9e-4b5c-4f5e-8e8d-8f4d3c2b1a00")));
+		assertTrue(whiteList.contains(RULE_1, ComponentIdentifier.of("concept", "0123")));
+		assertTrue(whiteList.contains(RULE_1, ComponentIdentifier.of("concept", "12345678901234567890")));
+		// leading zeros are significant
+		assertFalse(whiteList.contains(RULE_1, ComponentIdentifier.of("concept", "123")));
+		assertFalse(whiteList.contains(RULE_2, ComponentIdentifier.of("member", "0b6f1a9e-4b5c-4f5e-8e8d-8f4d3c2b1a00")));
+	}
+	
+}
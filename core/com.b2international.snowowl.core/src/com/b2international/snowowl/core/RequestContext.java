@@ -1,5 +1,5 @@
 /*
- * Copyright 2022-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2022-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,7 +44,7 @@ public final class RequestContext extends DelegatingContext implements Metrics {
 	}
 	
 	@Override
-	public <T> void withMetric(String metricKey, T value, BiFunction<T, T, T> merge) {
+	public synchronized <T> void withMetric(String metricKey, T value, BiFunction<T, T, T> merge) {
 		if (this.metrics == null) {
 			this.metrics = new HashMap<>(2);
 		}
@@ -52,7 +52,7 @@ public final class RequestContext extends DelegatingContext implements Metrics {
 	}
 	
 	@Override
-	public Map<String, Object> getMeasurements() {
+	public synchronized Map<String, Object> getMeasurements() {
 		return metrics;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2019-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.IExecutionListener;
 import com.b2international.snowowl.eventbus.IHandler;
 import com.b2international.snowowl.eventbus.IMessage;
 import com.google.common.collect.ImmutableMap;
@@ -129,5 +130,20 @@ public class AuthorizedEventBus implements IEventBus {
 	public long getSucceededMessages(String tag) {
 		return bus.getSucceededMessages(tag);
 	}
+	
+	@Override
+	public Set<String> getLanes() {
+		return bus.getLanes();
+	}
+	
+	@Override
+	public long getLaneQueueSize(String lane) {
+		return bus.getLaneQueueSize(lane);
+	}
+	
+	@Override
+	public void setExecutionListener(IExecutionListener listener) {
+		bus.setExecutionListener(listener);
+	}
 
 }
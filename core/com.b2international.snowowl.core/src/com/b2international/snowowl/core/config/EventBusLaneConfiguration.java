@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.config;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import com.b2international.snowowl.eventbus.EventBusLane;
+import com.b2international.snowowl.eventbus.EventBusLane.RejectionPolicy;
+
+/**
+ * Configuration of a dedicated executor lane of the server event bus.
+ * 
+ * @since 9.5
+ * @see EventBusLane
+ */
+public class EventBusLaneConfiguration {
+
+	@NotEmpty
+	private String name;
+	
+	@NotNull
+	private List<String> addresses = List.of();
+	
+	@NotNull
+	private List<String> tags = List.of();
+	
+	@Min(1)
+	private int maxThreads = 4;
+	
+	@Min(1)
+	private int queueSize = 1_000;
+	
+	@Min(Thread.MIN_PRIORITY)
+	@Max(Thread.MAX_PRIORITY)
+	private int priority = Thread.NORM_PRIORITY;
+	
+	@NotNull
+	private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+	
+	/**
+	 * The name of the lane. Messages sent with a lane header of the same value are processed in this lane.
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Event bus addresses whose messages are processed in this lane
+	 */
+	public List<String> getAddresses() {
+		return addresses;
+	}
+	
+	/**
+	 * Message tags whose messages are processed in this lane
+	 */
+	public List<String> getTags() {
+		return tags;
+	}
+	
+	/**
+	 * The maximum number of workers processing the messages of this lane concurrently
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+	
+	/**
+	 * The maximum number of messages waiting for a worker in this lane
+	 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+	
+	/**
+	 * The thread priority of the workers of this lane
+	 */
+	public int getPriority() {
+		return priority;
+	}
+	
+	/**
+	 * The action to take when a message arrives while all workers are busy and the queue is full
+	 */
+	public RejectionPolicy getRejectionPolicy() {
+		return rejectionPolicy;
+	}
+	
+	public void setName(String name) {
+		this.name = name;
+	}
+	
+	public void setAddresses(List<String> addresses) {
+		this.addresses = addresses;
+	}
+	
+	public void setTags(List<String> tags) {
+		this.tags = tags;
+	}
+	
+	public void setMaxThreads(int maxThreads) {
+		this.maxThreads = maxThreads;
+	}
+	
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+	
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+	
+	public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+		this.rejectionPolicy = rejectionPolicy;
+	}
+	
+	public EventBusLane toLane() {
+		return EventBusLane.builder(name)
+				.addresses(addresses)
+				.tags(tags)
+				.maxThreads(maxThreads)
+				.queueSize(queueSize)
+				.priority(priority)
+				.rejectionPolicy(rejectionPolicy)
+				.build();
+	}
+}
@@ -80,6 +80,8 @@ public class IndexConfiguration implements PagingSettingsProvider {
 	@Min(5_000)
 	@Max(IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE)
 	private int commitWatermarkHigh = IndexClientFactory.DEFAULT_COMMIT_WATERMARK_HIGH_VALUE;
+	
+	private boolean commitSpill = IndexClientFactory.DEFAULT_COMMIT_SPILL;
 
 	@JsonIgnore
 	private SSLContext sslContext;
@@ -234,6 +236,17 @@ public class IndexConfiguration implements PagingSettingsProvider {
 		this.commitWatermarkLow = commitWatermarkLow;
 	}
 	
+	public boolean isCommitSpill() {
+		return commitSpill;
+	}
+	
+	/**
+	 * @param commitSpill - <code>true</code> to keep staged objects beyond the high commit watermark in memory-mapped temporary files instead of the heap
+	 */
+	public void setCommitSpill(boolean commitSpill) {
+		this.commitSpill = commitSpill;
+	}
+	
 	@VisibleForTesting
 	public SSLContext getSslContext() {
 		return sslContext;
@@ -292,6 +305,7 @@ public class IndexConfiguration implements PagingSettingsProvider {
 		settings.put(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB, getBulkActionSizeInMb());
 		settings.put(IndexClientFactory.COMMIT_WATERMARK_LOW_KEY, getCommitWatermarkLow());
 		settings.put(IndexClientFactory.COMMIT_WATERMARK_HIGH_KEY, getCommitWatermarkHigh());
+		settings.put(IndexClientFactory.COMMIT_SPILL_KEY, isCommitSpill());
 	}
 	
 	@JsonIgnore
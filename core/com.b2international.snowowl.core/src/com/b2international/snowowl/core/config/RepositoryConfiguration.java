@@ -15,6 +15,9 @@
  */
 package com.b2international.snowowl.core.config;
 
+import java.util.List;
+
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -23,6 +26,7 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotEmpty;
 
 import com.b2international.snowowl.core.domain.PagingSettingsProvider;
+import com.b2international.snowowl.eventbus.EventBusExecutionMode;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.net.HostAndPort;
@@ -54,6 +58,16 @@ public class RepositoryConfiguration implements PagingSettingsProvider {
 	@Min(1)
 	private int maxThreads = 200;
 	
+	@Valid
+	@NotNull
+	private List<EventBusLaneConfiguration> lanes = List.of();
+	
+	@NotNull
+	private EventBusExecutionMode executionMode = EventBusExecutionMode.WORKERS;
+	
+	@Min(0)
+	private int maxConcurrencyPerAddress = 0;
+	
 	@Min(10)
 	@Max(1000)
 	private int mergeMaxResults = 100;
@@ -140,6 +154,55 @@ public class RepositoryConfiguration implements PagingSettingsProvider {
 		this.maxThreads = maxThreads;
 	}
 	
+	/**
+	 * @return the dedicated executor lanes of the underlying event bus instance
+	 */
+	@JsonProperty
+	public List<EventBusLaneConfiguration> getLanes() {
+		return lanes;
+	}
+	
+	/**
+	 * @param lanes - the dedicated executor lanes of the underlying event bus instance
+	 */
+	@JsonProperty
+	public void setLanes(List<EventBusLaneConfiguration> lanes) {
+		this.lanes = lanes;
+	}
+	
+	/**
+	 * @return the execution mode of the underlying event bus instance
+	 */
+	@JsonProperty
+	public EventBusExecutionMode getExecutionMode() {
+		return executionMode;
+	}
+	
+	/**
+	 * @param executionMode - the execution mode of the underlying event bus instance
+	 */
+	@JsonProperty
+	public void setExecutionMode(EventBusExecutionMode executionMode) {
+		this.executionMode = executionMode;
+	}
+	
+	/**
+	 * @return the maximum number of messages handled concurrently for a single address when the event bus runs on virtual threads, 
+	 * <code>0</code> means {@link #getMaxThreads() maxThreads}
+	 */
+	@JsonProperty
+	public int getMaxConcurrencyPerAddress() {
+		return maxConcurrencyPerAddress;
+	}
+	
+	/**
+	 * @param maxConcurrencyPerAddress - the maximum number of messages handled concurrently for a single address when the event bus runs on virtual threads
+	 */
+	@JsonProperty
+	public void setMaxConcurrencyPerAddress(int maxConcurrencyPerAddress) {
+		this.maxConcurrencyPerAddress = maxConcurrencyPerAddress;
+	}
+	
 	@JsonProperty("index")
 	public IndexConfiguration getIndexConfiguration() {
 		return indexConfiguration;
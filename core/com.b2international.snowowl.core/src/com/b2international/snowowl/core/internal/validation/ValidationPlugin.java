@@ -26,6 +26,7 @@ import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.index.BulkDelete;
 import com.b2international.index.Index;
 import com.b2international.index.Indexes;
 import com.b2international.index.mapping.Mappings;
@@ -40,6 +41,7 @@ import com.b2international.snowowl.core.setup.ConfigurationRegistry;
 import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.core.setup.Plugin;
 import com.b2international.snowowl.core.validation.ValidationRequests;
+import com.b2international.snowowl.core.validation.ValidationRuleCheckpoint;
 import com.b2international.snowowl.core.validation.ValidationRuleDirectoryProvider;
 import com.b2international.snowowl.core.validation.eval.GroovyScriptValidationRuleEvaluator;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
@@ -87,7 +89,7 @@ public final class ValidationPlugin extends Plugin {
 			final Index validationIndex = Indexes.createIndex(
 				VALIDATIONS_INDEX, 
 				mapper, 
-				new Mappings(ValidationIssue.class, ValidationRule.class, ValidationWhiteList.class), 
+				new Mappings(ValidationIssue.class, ValidationRule.class, ValidationWhiteList.class, ValidationRuleCheckpoint.class), 
 				env.service(IndexSettings.class).forIndex(env.service(RepositoryConfiguration.class).getIndexConfiguration(), VALIDATIONS_INDEX)
 			);
 			
@@ -160,6 +162,7 @@ public final class ValidationPlugin extends Plugin {
 						ValidationRule.class, rulesToDelete,
 						ValidationIssue.class, issuesToDelete
 					));
+					writer.bulkDelete(new BulkDelete<>(ValidationRuleCheckpoint.class, Expressions.matchAny(ValidationRuleCheckpoint.Fields.RULE_ID, rulesToDelete)));
 				}
 				
 				writer.commit();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,10 @@ package com.b2international.snowowl.core.repository;
 
 import java.nio.file.Path;
 import java.security.cert.CertificateException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLException;
 
@@ -43,16 +46,23 @@ import com.b2international.snowowl.core.plugin.Component;
 import com.b2international.snowowl.core.setup.ConfigurationRegistry;
 import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.core.setup.Plugin;
+import com.b2international.snowowl.eventbus.EventBusExecutionMode;
+import com.b2international.snowowl.eventbus.EventBusLane;
 import com.b2international.snowowl.eventbus.EventBusUtil;
 import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.IExecutionListener;
+import com.b2international.snowowl.eventbus.IMessage;
 import com.b2international.snowowl.eventbus.netty.EventBusNettyUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HostAndPort;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
@@ -84,8 +94,10 @@ public final class RepositoryPlugin extends Plugin {
 		RepositoryConfiguration repositoryConfiguration = configuration.getModuleConfig(RepositoryConfiguration.class);
 		env.services().registerService(RepositoryConfiguration.class, repositoryConfiguration);
 		int maxThreads = repositoryConfiguration.getMaxThreads();
-		LOG.debug("Preparing EventBus communication (maxThreads={})", maxThreads);
-		env.services().registerService(IEventBus.class, EventBusUtil.getBus("server", maxThreads));
+		final List<EventBusLane> lanes = repositoryConfiguration.getLanes().stream().map(EventBusLaneConfiguration::toLane).toList();
+		final EventBusExecutionMode executionMode = repositoryConfiguration.getExecutionMode();
+		LOG.debug("Preparing EventBus communication (maxThreads={}, executionMode={}, lanes={})", maxThreads, executionMode, lanes);
+		env.services().registerService(IEventBus.class, EventBusUtil.getBus("server", maxThreads, lanes, executionMode, repositoryConfiguration.getMaxConcurrencyPerAddress()));
 		// initialize Notification support
 		env.services().registerService(Notifications.class, new Notifications(env.service(IEventBus.class)));
 		env.services().registerService(RepositoryCommitNotificationSender.class, new RepositoryCommitNotificationSender());
@@ -142,6 +154,7 @@ public final class RepositoryPlugin extends Plugin {
 			final IEventBus eventBus = env.service(IEventBus.class);
 			// Add event bus based request metrics
 			registerRequestMetrics(registry, eventBus);
+			registerLaneMetrics(registry, eventBus);
 			
 			final boolean gzip = configuration.isGzip();
 			final RepositoryConfiguration repositoryConfiguration = configuration.getModuleConfig(RepositoryConfiguration.class);
@@ -243,6 +256,81 @@ public final class RepositoryPlugin extends Plugin {
 		
 	}
 	
+	private void registerLaneMetrics(MeterRegistry registry, IEventBus eventBus) {
+		// without configured lanes every message runs on the default lane, which is already covered by the request metrics
+		if (eventBus.getLanes().size() <= 1) {
+			return;
+		}
+		
+		for (final String lane : eventBus.getLanes()) {
+			Gauge.builder("eventbus.lane.queued", eventBus, bus -> bus.getLaneQueueSize(lane))
+					.description("The approximate number of messages waiting for a worker in the event bus lane")
+					.tag("lane", lane)
+					.register(registry);
+		}
+		
+		eventBus.setExecutionListener(new LaneMetricsListener(registry));
+	}
+	
+	/**
+	 * Records lane wait and service times. Meters are tagged by lane and message tag only, both of which have a small, fixed set of values;
+	 * message addresses are not used as tags, since replies are delivered to a random address each.
+	 */
+	private static final class LaneMetricsListener implements IExecutionListener {
+		
+		private record MeterKey(String lane, String tag) {
+		}
+		
+		private final MeterRegistry registry;
+		private final Map<MeterKey, Timer> waitTimers = new ConcurrentHashMap<>();
+		private final Map<MeterKey, Timer> serviceTimers = new ConcurrentHashMap<>();
+		private final Map<MeterKey, Counter> rejectedCounters = new ConcurrentHashMap<>();
+		
+		private LaneMetricsListener(MeterRegistry registry) {
+			this.registry = registry;
+		}
+		
+		@Override
+		public void onExecuted(String lane, IMessage message, long waitNanos, long serviceNanos) {
+			if (IMessage.TAG_REPLY.equals(message.tag())) {
+				return;
+			}
+			
+			final MeterKey key = toKey(lane, message);
+			
+			waitTimers.computeIfAbsent(key, k -> Timer.builder("eventbus.lane.wait")
+					.description("The time messages spend waiting for a worker in the event bus lane")
+					.tags("lane", k.lane(), "tag", k.tag())
+					.publishPercentileHistogram()
+					.register(registry))
+				.record(waitNanos, TimeUnit.NANOSECONDS);
+			
+			serviceTimers.computeIfAbsent(key, k -> Timer.builder("eventbus.lane.service")
+					.description("The time spent processing messages in the event bus lane")
+					.tags("lane", k.lane(), "tag", k.tag())
+					.publishPercentileHistogram()
+					.register(registry))
+				.record(serviceNanos, TimeUnit.NANOSECONDS);
+		}
+		
+		@Override
+		public void onRejected(String lane, IMessage message) {
+			if (IMessage.TAG_REPLY.equals(message.tag())) {
+				return;
+			}
+			
+			rejectedCounters.computeIfAbsent(toKey(lane, message), k -> Counter.builder("eventbus.lane.rejected")
+					.description("The total number of messages rejected by the event bus lane")
+					.tags("lane", k.lane(), "tag", k.tag())
+					.register(registry))
+				.increment();
+		}
+		
+		private static MeterKey toKey(String lane, IMessage message) {
+			return new MeterKey(lane, Strings.isNullOrEmpty(message.tag()) ? "none" : message.tag());
+		}
+	}
+	
 	@Override
 	public void run(SnowOwlConfiguration configuration, Environment env) throws Exception {
 		if (env.isServer()) {
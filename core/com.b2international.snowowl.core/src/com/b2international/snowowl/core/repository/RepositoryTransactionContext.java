@@ -31,6 +31,7 @@ import com.b2international.commons.exceptions.AlreadyExistsException;
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.commons.exceptions.ConflictException;
 import com.b2international.commons.exceptions.CycleDetectedException;
+import com.b2international.commons.metric.Metrics;
 import com.b2international.index.Index;
 import com.b2international.index.IndexException;
 import com.b2international.index.Searcher;
@@ -86,7 +87,9 @@ public final class RepositoryTransactionContext extends DelegatingBranchContext
 		this.author = author;
 		this.commitComment = commitComment;
 		this.parentLockContext = parentLockContext;
-		this.staging = context.service(RevisionIndex.class).prepareCommit(path()).withContext(this);
+		this.staging = context.service(RevisionIndex.class).prepareCommit(path())
+				.withContext(this)
+				.withMetrics(optionalService(Metrics.class).orElse(Metrics.NOOP));
 		bind(StagingArea.class, this.staging);
 	}
 	
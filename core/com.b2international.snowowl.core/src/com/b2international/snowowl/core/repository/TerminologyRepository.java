@@ -80,6 +80,13 @@ public final class TerminologyRepository extends ServiceContext implements Repos
 		return repositoryId;
 	}
 	
+	@Override
+	protected void doDispose() {
+		if (hasBinding(RevisionIndex.class) && service(RevisionIndex.class) instanceof DefaultRevisionIndex revisionIndex) {
+			revisionIndex.close();
+		}
+	}
+	
 	private RevisionIndex initIndex(final ServiceProvider context, Mappings mappings) {
 		final ObjectMapper mapper = context.service(ObjectMapper.class);
 		
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2021-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.b2international.commons.collections.PrefetchingIterator;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.domain.PageableCollectionResource;
 import com.b2international.snowowl.core.events.AsyncRequest;
@@ -53,6 +54,29 @@ public abstract class SearchPageableCollectionResourceRequestBuilder<B extends S
 	public final Stream<R> streamAsync(IEventBus bus, Function<B, AsyncRequest<R>> build) {
 		return Streams.stream(new SearchResourceRequestIterator<B, R>(getSelf(), (builder) -> build.apply(builder).execute(bus).getSync(3, TimeUnit.MINUTES)));
 	}
+	
+	/**
+	 * Same as {@link #streamAsync(IEventBus, Function)}, but requests up to <code>prefetch</code> subsequent pages in the background while the
+	 * current page is being consumed. The returned {@link Stream} should be closed if it is not fully consumed, to stop requesting further
+	 * pages.
+	 * 
+	 * @param bus
+	 * @param build
+	 * @param prefetch - the maximum number of pages to request ahead of the consumer, <code>0</code> disables prefetching
+	 * @return
+	 * @since 9.5
+	 */
+	public final Stream<R> streamAsync(IEventBus bus, Function<B, AsyncRequest<R>> build, int prefetch) {
+		if (prefetch < 1) {
+			return streamAsync(bus, build);
+		}
+		final PrefetchingIterator<R> iterator = new PrefetchingIterator<>(new SearchResourceRequestIterator<B, R>(getSelf(), (builder) -> build.apply(builder).execute(bus).getSync(3, TimeUnit.MINUTES)), prefetch);
+		return Streams.stream(iterator).onClose(iterator::close);
+	}
+	
+	public final Stream<R> streamAsync(ServiceProvider context, Function<B, AsyncRequest<R>> build, int prefetch) {
+		return streamAsync(context.service(IEventBus.class), build, prefetch);
+	}
 
 	public final <T> Promise<Collection<T>> transformAsync(ServiceProvider context, Function<B, AsyncRequest<R>> build, Function<R, Stream<T>> transform) {
 		return transformAsync(context.service(IEventBus.class), build, transform);
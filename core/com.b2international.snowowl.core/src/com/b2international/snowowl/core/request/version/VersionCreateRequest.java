@@ -43,12 +43,14 @@ import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.locks.Locks;
+import com.b2international.snowowl.core.plugin.ClassPathScanner;
 import com.b2international.snowowl.core.repository.RepositoryRequests;
 import com.b2international.snowowl.core.request.*;
 import com.b2international.snowowl.core.request.SearchResourceRequest.Sort;
 import com.b2international.snowowl.core.terminology.TerminologyRegistry;
 import com.b2international.snowowl.core.uri.ResourceURLSchemaSupport;
 import com.b2international.snowowl.core.version.Version;
+import com.b2international.snowowl.core.version.VersionCreatedListener;
 import com.b2international.snowowl.core.version.VersionDocument;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -152,6 +154,8 @@ public final class VersionCreateRequest implements Request<RepositoryContext, Bo
 		}
 		
 		final IProgressMonitor monitor = SubMonitor.convert(context.service(IProgressMonitor.class), TASK_WORK_STEP);
+		final List<ResourceURI> createdVersions = new ArrayList<>(resourcesToVersion.size());
+		final Boolean result;
 
 		try (Locks<RepositoryContext> locks = Locks.forContext(CREATE_VERSION).by(submitter).on(resourcesToVersion).lock(context)) {
 			// inject a custom TimestampProvider instance into the ctx so we use the same timestamp across all repositories when versioning
@@ -167,9 +171,10 @@ public final class VersionCreateRequest implements Request<RepositoryContext, Bo
 			RepositoryContext lockContext = locks.ctx().inject().bind(TimestampProvider.class, versioningTimestampProvider).build();
 			
 			// create a version for the resource
-			return new BranchSnapshotContentRequest<>(Branch.MAIN_PATH,
+			result = new BranchSnapshotContentRequest<>(Branch.MAIN_PATH,
 					new ResourceRepositoryCommitRequestBuilder()
 					.setBody(tx -> {
+						createdVersions.clear();
 						// perform tooling/content versions first for each resource to version
 						resourcesToVersion.forEach(resourceToVersion -> {
 							// version components in the given repository
@@ -216,6 +221,8 @@ public final class VersionCreateRequest implements Request<RepositoryContext, Bo
 									.resourceSnapshot(resourceToVersion)
 									.status(Resource.ACTIVE_STATUS)
 									.build());
+							
+							createdVersions.add(resourceToVersion.getResourceURI().withPath(version));
 						});
 						return Boolean.TRUE;
 					})
@@ -228,6 +235,21 @@ public final class VersionCreateRequest implements Request<RepositoryContext, Bo
 				monitor.done();
 			}
 		}
+		
+		notifyVersionCreated(context, createdVersions);
+		return result;
+	}
+	
+	private void notifyVersionCreated(RepositoryContext context, List<ResourceURI> createdVersions) {
+		context.optionalService(ClassPathScanner.class).ifPresent(scanner -> {
+			for (VersionCreatedListener listener : scanner.getComponentsByInterface(VersionCreatedListener.class)) {
+				try {
+					listener.onVersionCreated(context, List.copyOf(createdVersions));
+				} catch (RuntimeException e) {
+					context.log().warn("Version created listener '{}' failed for versions {}", listener.getClass().getSimpleName(), createdVersions, e);
+				}
+			}
+		});
 	}
 	
 	private String buildVersionUrl(RepositoryContext context, TerminologyResource resourceToVersion) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,7 +31,18 @@ import org.slf4j.LoggerFactory;
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.collections.Collections3;
 import com.b2international.commons.exceptions.BadRequestException;
+import com.b2international.index.Hits;
 import com.b2international.index.Writer;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Expressions.ExpressionBuilder;
+import com.b2international.index.query.Query;
+import com.b2international.index.query.SortBy;
+import com.b2international.index.query.SortBy.Order;
+import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.CommitDetail;
+import com.b2international.index.revision.RevisionBranchRef;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.ComponentIdentifier;
 import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.TerminologyResource;
@@ -45,12 +56,15 @@ import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.internal.validation.ValidationThreadPool;
 import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.validation.eval.ScopedEvaluation;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.eval.ValidationRuleVisitor;
+import com.b2international.snowowl.core.validation.eval.ValidationScan;
 import com.b2international.snowowl.core.validation.issue.ValidationIssue;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueDetailExtension;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueDetailExtensionProvider;
-import com.b2international.snowowl.core.validation.issue.ValidationIssues;
 import com.b2international.snowowl.core.validation.rule.ValidationRule;
+import com.b2international.snowowl.core.validation.rule.ValidationRule.CheckType;
 import com.b2international.snowowl.core.validation.rule.ValidationRuleSearchRequestBuilder;
 import com.b2international.snowowl.core.validation.rule.ValidationRules;
 import com.b2international.snowowl.core.validation.whitelist.ValidationWhiteListSearchRequestBuilder;
@@ -66,15 +80,29 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 	private static final long serialVersionUID = -2254266211853070728L;
 	private static final Logger LOG = LoggerFactory.getLogger("validation");
 	private static final long POLL_INTERVAL_MAX = 1000L;
+	
+	/**
+	 * The maximum number of changed components to evaluate rules for incrementally, larger change sets are validated in full.
+	 */
+	private static final int MAX_INCREMENTAL_SCOPE_SIZE = 10_000;
+	private static final int COMMIT_PAGE_SIZE = 100;
+	
+	/**
+	 * The maximum number of issue changes of a rule kept in memory before writing them to the index.
+	 */
+	private static final int PERSIST_BATCH_SIZE = 10_000;
 
 	private static final class IssuesToPersist {
 	
 		public final String ruleId;
 		public final Collection<ValidationIssueDetails> issueDetails;
+		// null if the rule has been evaluated on the entire branch
+		public final Set<String> evaluatedComponentIds;
 	
 		@SuppressWarnings("unchecked")
-		public IssuesToPersist(final String ruleId, final Collection<?> evaluationResult) {
+		public IssuesToPersist(final String ruleId, final Collection<?> evaluationResult, final Set<String> evaluatedComponentIds) {
 			this.ruleId = ruleId;
+			this.evaluatedComponentIds = evaluatedComponentIds;
 			if (evaluationResult.iterator().hasNext() && evaluationResult.iterator().next() instanceof ValidationIssueDetails) {
 				this.issueDetails = (Collection<ValidationIssueDetails>) evaluationResult;
 			} else {
@@ -90,6 +118,7 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 	private String resultId;
 	private Set<String> ruleIds;
 	private Map<String, Object> ruleParameters;
+	private boolean incremental;
 
 	ValidateRequest() {}
 
@@ -107,6 +136,10 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 			: ImmutableMap.copyOf(ruleParameters);
 	}
 
+	void setIncremental(final boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	@Override
 	public ValidationResult execute(final BranchContext context) {
 		return context.service(ValidationRepository.class).write(writer -> doValidate(context, writer));
@@ -148,6 +181,16 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 		final BlockingQueue<IssuesToPersist> issuesToPersistQueue = Queues.newLinkedBlockingDeque();
 		final List<Promise<Object>> validationPromises = Lists.newArrayList();
 		
+		// Checkpoints can only be recorded for the current state of a branch, not for a point in time or a range of changes
+		final RevisionBranchRef branch = incremental ? getValidatedRef(context) : null;
+		final Map<String, ValidationRuleCheckpoint> checkpoints = (branch != null) 
+				? fetchCheckpoints(index, resourceURI, knownRuleIds) 
+				: Map.of();
+		final Map<Long, Optional<Set<String>>> changedComponentIdsByTimestamp = new HashMap<>();
+		final Map<String, String> fingerprintsByRuleId = new HashMap<>();
+		final Map<String, ValidationRuleVisitor> visitorsByRuleId = new LinkedHashMap<>();
+		final Map<String, CheckType> checkTypesByRuleId = new HashMap<>();
+		
 		// Evaluate selected rules
 		for (final ValidationRule rule : rules) {
 			checkMonitor(monitor);
@@ -159,21 +202,44 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 				continue;
 			}
 			
-			validationPromises.add(pool.submit(rule.getCheckType(), () -> {
-				checkMonitor(monitor);
-				final Stopwatch w = Stopwatch.createStarted();
-				try {
-					LOG.info("Executing rule '{}'...", rule.getId());
-					final List<?> evaluationResponse = evaluator.eval(context, rule, ruleParameters);
-					issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), evaluationResponse));
-					LOG.info("Execution of rule '{}' successfully completed in '{}'.", rule.getId(), w);
-				} catch (final Exception e) {
-					LOG.error("Execution of rule '{}' failed after '{}'.", rule.getId(), w, e);
+			final String fingerprint = getFingerprint(rule);
+			fingerprintsByRuleId.put(rule.getId(), fingerprint);
+			
+			final Set<String> scope = getIncrementalScope(context, branch, checkpoints.get(rule.getId()), fingerprint, changedComponentIdsByTimestamp);
+			if (scope != null && scope.isEmpty()) {
+				LOG.info("Skipping rule '{}', no components have changed since the last validation.", rule.getId());
+				issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), List.of(), Set.of()));
+				continue;
+			}
+			
+			if (scope == null) {
+				final ValidationRuleVisitor visitor = prepareVisitor(context, evaluator, rule);
+				if (visitor != null) {
+					visitorsByRuleId.put(rule.getId(), visitor);
+					checkTypesByRuleId.put(rule.getId(), rule.getCheckType());
+					continue;
 				}
-			}));
+			}
+			
+			validationPromises.add(submitRule(context, pool, evaluator, rule, scope, issuesToPersistQueue));
+		}
+		
+		// Rules scanning the same type of documents are evaluated together, the rest is evaluated on their own
+		for (final ValidationScan scan : ValidationScan.group(visitorsByRuleId, checkTypesByRuleId::get)) {
+			visitorsByRuleId.keySet().removeAll(scan.getRuleIds());
+			validationPromises.add(submitScan(context, pool, scan, issuesToPersistQueue));
+		}
+		
+		for (final ValidationRule rule : rules) {
+			if (visitorsByRuleId.containsKey(rule.getId())) {
+				final ValidationRuleEvaluator evaluator = ValidationRuleEvaluator.Registry.get(rule.getType());
+				validationPromises.add(submitRule(context, pool, evaluator, rule, null, issuesToPersistQueue));
+			}
 		}
 
-		final Multimap<String, ComponentIdentifier> whiteListedEntries = fetchWhiteListEntries(context, ruleIds);
+		final ValidationWhiteListLookup whiteList = fetchWhiteListEntries(context, ruleIds);
+		final Map<String, String> toolingIdsByRuleId = rules.stream()
+			.collect(Collectors.toMap(ValidationRule::getId, ValidationRule::getToolingId));
 		final Promise<List<Object>> promise = Promise.all(validationPromises);
 
 		while (!promise.isDone() || !issuesToPersistQueue.isEmpty()) {
@@ -192,82 +258,12 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 					// persist new issues generated by rules so far, extending them using the Issue Extension API
 					int persistedIssues = 0;
 
-					final Multimap<String, ValidationIssue> issuesToExtendByToolingId = HashMultimap.create();
 					for (final IssuesToPersist newIssues : Iterables.consumingIterable(issuesToPersist)) {
 						final String ruleId = newIssues.ruleId;
-						final List<ValidationIssue> existingIssues = ValidationRequests.issues()
-							.prepareSearch()
-							.setLimit(context.getPageSize())
-							.filterByResultId(resultId)
-							.filterByResourceUri(resourceURI)
-							.filterByRule(ruleId)
-							.stream(context)
-							.flatMap(ValidationIssues::stream)
-							.collect(Collectors.toList());
-
-						final Set<String> issueIdsToDelete = Sets.newHashSet();
-						final Map<ComponentIdentifier, ValidationIssue> existingIssuesByComponentIdentifier = new HashMap<>();
-
-						for (final ValidationIssue issue : existingIssues) {
-							if (existingIssuesByComponentIdentifier.containsKey(issue.getAffectedComponent())) {
-								issueIdsToDelete.add(issue.getId());
-							} else {
-								existingIssuesByComponentIdentifier.put(issue.getAffectedComponent(), issue);
-							}
-						}
-
-						// Remove whitelist entries as we are going through the Multimap rule-by-rule 
-						final Collection<ComponentIdentifier> ruleWhiteListEntries = whiteListedEntries.removeAll(ruleId);
-						final String toolingId = rules.stream()
-							.filter(rule -> ruleId.equals(rule.getId()))
-							.findFirst()
-							.get()
-							.getToolingId();
+						persistedIssues += persistIssues(context, index, resourceURI, toolingIdsByRuleId.get(ruleId), whiteList, newIssues);
 						
-						for (final ValidationIssueDetails issueDetails : newIssues.issueDetails) {
-							final ValidationIssue validationIssue;
-							final ComponentIdentifier componentIdentifier = issueDetails.getAffectedComponentId();
-							final ValidationIssue issueToCopy = existingIssuesByComponentIdentifier.remove(componentIdentifier);
-							
-							if (issueToCopy == null) {
-								validationIssue = new ValidationIssue(
-									IDs.base62UUID(),
-									resultId,
-									ruleId,
-									ComponentURI.of(resourceURI, componentIdentifier),
-									ruleWhiteListEntries.contains(componentIdentifier));
-							} else {
-								validationIssue = new ValidationIssue(
-									issueToCopy.getId(),
-									issueToCopy.getResultId(),
-									issueToCopy.getRuleId(),
-									ComponentURI.of(resourceURI, issueToCopy.getAffectedComponent()),
-									ruleWhiteListEntries.contains(issueToCopy.getAffectedComponent()));	
-							}
-							
-							validationIssue.putDetails(ValidationIssueDetails.DETAIL_HIGHLIGHT, issueDetails.getStylingDetails());
-							validationIssue.putDetails(ValidationIssueDetails.DETAIL_ACTION, issueDetails.getSuggestedAction());
-							validationIssue.putDetails(ValidationIssueDetails.DETAIL_ACTION_COMPONENTS, issueDetails.getSuggestedComponents());
-
-							issuesToExtendByToolingId.put(toolingId, validationIssue);
-							persistedIssues++; 
-						}
-
-						existingIssues.stream()
-							.filter(issue -> existingIssuesByComponentIdentifier.containsKey(issue.getAffectedComponent()))
-							.forEach(issue -> issueIdsToDelete.add(issue.getId()));
-
-						if (!issueIdsToDelete.isEmpty()) {
-							index.removeAll(Collections.singletonMap(ValidationIssue.class, issueIdsToDelete));
-						}
-					}
-
-					for (final String toolingId : issuesToExtendByToolingId.keySet()) {
-						final ValidationIssueDetailExtension extensions = context.service(ValidationIssueDetailExtensionProvider.class).getExtensions(toolingId);
-						final Collection<ValidationIssue> issues = issuesToExtendByToolingId.removeAll(toolingId);
-						extensions.extendIssues(context, issues, ruleParameters);
-						for (final ValidationIssue issue : issues) {
-							index.put(issue);
+						if (branch != null) {
+							index.put(new ValidationRuleCheckpoint(resultId, ruleId, resourceURI, branch.base(), branch.head(), fingerprintsByRuleId.get(ruleId)));
 						}
 					}
 
@@ -288,13 +284,333 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 		return new ValidationResult(context.info().id(), context.path());
 	}
 	
+	/*
+	 * Replaces the existing issues of a rule with the new ones. New issues are sorted by affected component and merged with existing issues 
+	 * streamed in the same order, so existing issues are never loaded all at once; changes are written in bounded batches.
+	 */
+	private int persistIssues(
+			final BranchContext context, 
+			final Writer index, 
+			final ResourceURI resourceURI, 
+			final String toolingId, 
+			final ValidationWhiteListLookup whiteList, 
+			final IssuesToPersist newIssues) throws IOException {
+		
+		final String ruleId = newIssues.ruleId;
+		final List<Map.Entry<String, ValidationIssueDetails>> sortedIssueDetails = new ArrayList<>(newIssues.issueDetails.size());
+		for (final ValidationIssueDetails issueDetails : newIssues.issueDetails) {
+			sortedIssueDetails.add(Maps.immutableEntry(ComponentURI.of(resourceURI, issueDetails.getAffectedComponentId()).toString(), issueDetails));
+		}
+		sortedIssueDetails.sort(Map.Entry.comparingByKey());
+		
+		final PeekingIterator<ValidationIssue> existingIssues = Iterators.peekingIterator(streamExistingIssues(context, index, resourceURI, newIssues));
+		final IssueBulkWriter writer = new IssueBulkWriter(context, index, toolingId);
+		int persistedIssues = 0;
+		String previousKey = null;
+		
+		for (final Map.Entry<String, ValidationIssueDetails> entry : sortedIssueDetails) {
+			final String key = entry.getKey();
+			if (key.equals(previousKey)) {
+				// A component is reported at most once per rule
+				continue;
+			}
+			previousKey = key;
+			
+			// Existing issues of components that are no longer reported, and duplicates of the previous component are removed 
+			while (existingIssues.hasNext() && existingIssues.peek().getAffectedComponentURI().toString().compareTo(key) < 0) {
+				writer.remove(existingIssues.next().getId());
+			}
+			
+			final ValidationIssueDetails issueDetails = entry.getValue();
+			final ValidationIssue validationIssue;
+			final ComponentIdentifier componentIdentifier = issueDetails.getAffectedComponentId();
+			
+			if (existingIssues.hasNext() && existingIssues.peek().getAffectedComponentURI().toString().equals(key)) {
+				final ValidationIssue issueToCopy = existingIssues.next();
+				validationIssue = new ValidationIssue(
+					issueToCopy.getId(),
+					issueToCopy.getResultId(),
+					issueToCopy.getRuleId(),
+					ComponentURI.of(resourceURI, issueToCopy.getAffectedComponent()),
+					whiteList.contains(ruleId, issueToCopy.getAffectedComponent()));
+			} else {
+				validationIssue = new ValidationIssue(
+					IDs.base62UUID(),
+					resultId,
+					ruleId,
+					ComponentURI.of(resourceURI, componentIdentifier),
+					whiteList.contains(ruleId, componentIdentifier));
+			}
+			
+			validationIssue.putDetails(ValidationIssueDetails.DETAIL_HIGHLIGHT, issueDetails.getStylingDetails());
+			validationIssue.putDetails(ValidationIssueDetails.DETAIL_ACTION, issueDetails.getSuggestedAction());
+			validationIssue.putDetails(ValidationIssueDetails.DETAIL_ACTION_COMPONENTS, issueDetails.getSuggestedComponents());
+			
+			writer.put(validationIssue);
+			persistedIssues++;
+		}
+		
+		while (existingIssues.hasNext()) {
+			writer.remove(existingIssues.next().getId());
+		}
+		
+		writer.flush();
+		return persistedIssues;
+	}
+	
+	private Iterator<ValidationIssue> streamExistingIssues(final BranchContext context, final Writer index, final ResourceURI resourceURI, final IssuesToPersist newIssues) {
+		if (newIssues.evaluatedComponentIds != null && newIssues.evaluatedComponentIds.isEmpty()) {
+			return Collections.emptyIterator();
+		}
+		
+		final ExpressionBuilder where = Expressions.bool()
+			.filter(Expressions.exactMatch(ValidationIssue.Fields.RESULT_ID, resultId))
+			.filter(Expressions.exactMatch(ValidationIssue.Fields.RESOURCE_URI, resourceURI.toString()))
+			.filter(Expressions.exactMatch(ValidationIssue.Fields.RULE_ID, newIssues.ruleId));
+		
+		if (newIssues.evaluatedComponentIds != null) {
+			// Only replace the issues of components the rule has been evaluated for, keep the rest
+			where.filter(Expressions.matchAny(ValidationIssue.Fields.AFFECTED_COMPONENT_ID, newIssues.evaluatedComponentIds));
+		}
+		
+		// Issues written while merging always sort before the last page read, so they are never returned again
+		return index.searcher()
+			.stream(Query.select(ValidationIssue.class)
+				.where(where.build())
+				.sortBy(SortBy.field(ValidationIssue.Fields.AFFECTED_COMPONENT_URI, Order.ASC))
+				.limit(context.getPageSize())
+				.build())
+			.flatMap(Hits::stream)
+			.iterator();
+	}
+	
+	/*
+	 * Collects issue changes of a single rule and writes them to the index whenever the batch is full.
+	 */
+	private final class IssueBulkWriter {
+		
+		private final BranchContext context;
+		private final Writer index;
+		private final String toolingId;
+		private final List<ValidationIssue> issuesToPut = new ArrayList<>();
+		private final Set<String> issueIdsToRemove = new HashSet<>();
+		
+		private IssueBulkWriter(final BranchContext context, final Writer index, final String toolingId) {
+			this.context = context;
+			this.index = index;
+			this.toolingId = toolingId;
+		}
+		
+		void put(final ValidationIssue issue) throws IOException {
+			issuesToPut.add(issue);
+			flushIfFull();
+		}
+		
+		void remove(final String issueId) throws IOException {
+			issueIdsToRemove.add(issueId);
+			flushIfFull();
+		}
+		
+		private void flushIfFull() throws IOException {
+			if (issuesToPut.size() + issueIdsToRemove.size() >= PERSIST_BATCH_SIZE) {
+				flush();
+				index.commit();
+			}
+		}
+		
+		void flush() {
+			if (!issueIdsToRemove.isEmpty()) {
+				index.remove(ValidationIssue.class, Set.copyOf(issueIdsToRemove));
+				issueIdsToRemove.clear();
+			}
+			
+			if (!issuesToPut.isEmpty()) {
+				final ValidationIssueDetailExtension extensions = context.service(ValidationIssueDetailExtensionProvider.class).getExtensions(toolingId);
+				extensions.extendIssues(context, issuesToPut, ruleParameters);
+				issuesToPut.forEach(index::put);
+				issuesToPut.clear();
+			}
+		}
+		
+	}
+	
+	private Promise<Object> submitRule(
+			final BranchContext context, 
+			final ValidationThreadPool pool, 
+			final ValidationRuleEvaluator evaluator, 
+			final ValidationRule rule, 
+			final Set<String> scope, 
+			final BlockingQueue<IssuesToPersist> issuesToPersistQueue) {
+		
+		return pool.submit(rule.getCheckType(), () -> {
+			checkMonitor(context.monitor());
+			final Stopwatch w = Stopwatch.createStarted();
+			try {
+				final ScopedEvaluation scopedEvaluation;
+				if (scope != null) {
+					LOG.info("Executing rule '{}' on '{}' changed components...", rule.getId(), scope.size());
+					scopedEvaluation = evaluator.eval(context, rule, ruleParameters, scope);
+				} else {
+					scopedEvaluation = null;
+				}
+				
+				if (scopedEvaluation != null) {
+					issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), scopedEvaluation.getIssues(), scopedEvaluation.getEvaluatedComponentIds()));
+				} else {
+					LOG.info("Executing rule '{}'...", rule.getId());
+					final List<?> evaluationResponse = evaluator.eval(context, rule, ruleParameters);
+					issuesToPersistQueue.offer(new IssuesToPersist(rule.getId(), evaluationResponse, null));
+				}
+				LOG.info("Execution of rule '{}' successfully completed in '{}'.", rule.getId(), w);
+			} catch (final Exception e) {
+				LOG.error("Execution of rule '{}' failed after '{}'.", rule.getId(), w, e);
+			}
+		});
+	}
+	
+	private Promise<Object> submitScan(
+			final BranchContext context, 
+			final ValidationThreadPool pool, 
+			final ValidationScan scan, 
+			final BlockingQueue<IssuesToPersist> issuesToPersistQueue) {
+		
+		return pool.submit(scan.getCheckType(), () -> {
+			checkMonitor(context.monitor());
+			final Stopwatch w = Stopwatch.createStarted();
+			final String documentType = scan.getDocumentType().getSimpleName();
+			try {
+				LOG.info("Executing rules '{}' with a shared scan of '{}' documents...", scan.getRuleIds(), documentType);
+				scan.execute(context).forEach((ruleId, issues) -> issuesToPersistQueue.offer(new IssuesToPersist(ruleId, issues, null)));
+				LOG.info("Shared scan of '{}' documents successfully completed in '{}'.", documentType, w);
+			} catch (final Exception e) {
+				LOG.error("Shared scan of '{}' documents for rules '{}' failed after '{}'.", documentType, scan.getRuleIds(), w, e);
+			}
+		});
+	}
+	
+	private ValidationRuleVisitor prepareVisitor(final BranchContext context, final ValidationRuleEvaluator evaluator, final ValidationRule rule) {
+		try {
+			return evaluator.prepareVisitor(context, rule, ruleParameters);
+		} catch (final Exception e) {
+			// Evaluating the rule on its own reports the failure if it is not specific to the shared scan
+			LOG.debug("Couldn't prepare rule '{}' for a shared scan, evaluating it on its own.", rule.getId(), e);
+			return null;
+		}
+	}
+	
 	private void checkMonitor(IProgressMonitor monitor) {
 		if (monitor.isCanceled()) {
 			throw new OperationCanceledException();
 		}
 	}
 
-	private Multimap<String, ComponentIdentifier> fetchWhiteListEntries(final BranchContext context, final Set<String> ruleIds) {
+	/*
+	 * Returns the reference the rules are evaluated against, so that the recorded checkpoints match the validated content even if new commits
+	 * arrive on the branch during validation
+	 */
+	private RevisionBranchRef getValidatedRef(final BranchContext context) {
+		final String path = context.path();
+		if (RevisionIndex.isBranchAtPath(path) || RevisionIndex.isBaseRefPath(path) || RevisionIndex.isRevRangePath(path)) {
+			return null;
+		}
+		return context.service(RevisionSearcher.class).ref();
+	}
+	
+	private String getFingerprint(final ValidationRule rule) {
+		// Issues computed by an earlier version of the rule or with different parameters can not be updated incrementally
+		return IDs.sha1(String.join("|", rule.getType(), rule.getImplementation(), new TreeMap<>(ruleParameters).toString()));
+	}
+	
+	private Map<String, ValidationRuleCheckpoint> fetchCheckpoints(final Writer index, final ResourceURI resourceURI, final Set<String> ruleIds) throws IOException {
+		if (ruleIds.isEmpty()) {
+			return Map.of();
+		}
+		
+		return index.searcher()
+			.search(Query.select(ValidationRuleCheckpoint.class)
+				.where(Expressions.bool()
+					.filter(Expressions.exactMatch(ValidationRuleCheckpoint.Fields.RESULT_ID, resultId))
+					.filter(Expressions.exactMatch(ValidationRuleCheckpoint.Fields.RESOURCE_URI, resourceURI.toString()))
+					.filter(Expressions.matchAny(ValidationRuleCheckpoint.Fields.RULE_ID, ruleIds))
+					.build())
+				.limit(ruleIds.size())
+				.build())
+			.stream()
+			.collect(Collectors.toMap(ValidationRuleCheckpoint::getRuleId, checkpoint -> checkpoint));
+	}
+	
+	/*
+	 * Returns the IDs of components changed on the branch since the checkpoint, or null if the rule has to be evaluated on the entire branch
+	 */
+	private Set<String> getIncrementalScope(final BranchContext context, 
+			final RevisionBranchRef branch, 
+			final ValidationRuleCheckpoint checkpoint, 
+			final String fingerprint, 
+			final Map<Long, Optional<Set<String>>> changedComponentIdsByTimestamp) {
+		
+		if (branch == null || checkpoint == null) {
+			return null;
+		}
+		
+		// Rebasing replaces the content inherited from the parent, commit documents of the branch do not cover those changes
+		if (checkpoint.getBaseTimestamp() != branch.base() 
+				|| checkpoint.getHeadTimestamp() > branch.head() 
+				|| !fingerprint.equals(checkpoint.getFingerprint())) {
+			return null;
+		}
+		
+		return changedComponentIdsByTimestamp
+			.computeIfAbsent(checkpoint.getHeadTimestamp(), since -> fetchChangedComponentIds(context, branch, since))
+			.orElse(null);
+	}
+	
+	private Optional<Set<String>> fetchChangedComponentIds(final BranchContext context, final RevisionBranchRef branch, final long since) {
+		if (since >= branch.head()) {
+			return Optional.of(Set.of());
+		}
+		
+		final Set<String> changedComponentIds = new HashSet<>();
+		final boolean scopeAvailable = context.service(RevisionIndex.class).index().read(searcher -> {
+			final Iterator<Hits<Commit>> pages = searcher.stream(Query.select(Commit.class)
+					.where(Expressions.bool()
+						.filter(Commit.Expressions.branches(branch.path()))
+						.filter(Commit.Expressions.timestampRange(since + 1, branch.head()))
+						.build())
+					.limit(COMMIT_PAGE_SIZE)
+					.build())
+				.iterator();
+			
+			while (pages.hasNext()) {
+				for (final Commit commit : pages.next()) {
+					// Fast-forward merges (eg. rebasing a branch with no changes of its own) do not list the components they bring in
+					if (commit.isMergeCommit()) {
+						LOG.info("Changes have been merged into '{}' since '{}', validating the entire branch.", branch.path(), since);
+						return false;
+					}
+					
+					for (final CommitDetail detail : commit.getDetails()) {
+						if (detail.getObjects() != null) {
+							changedComponentIds.addAll(detail.getObjects());
+						}
+						if (detail.getComponents() != null) {
+							detail.getComponents().forEach(changedComponentIds::addAll);
+						}
+					}
+				}
+				
+				if (changedComponentIds.size() > MAX_INCREMENTAL_SCOPE_SIZE) {
+					LOG.info("More than '{}' components have changed on '{}' since '{}', validating the entire branch.", MAX_INCREMENTAL_SCOPE_SIZE, branch.path(), since);
+					return false;
+				}
+			}
+			
+			return true;
+		});
+		
+		return scopeAvailable ? Optional.of(changedComponentIds) : Optional.empty();
+	}
+
+	private ValidationWhiteListLookup fetchWhiteListEntries(final BranchContext context, final Set<String> ruleIds) {
 		// Fetch all whitelist entries to determine whether an issue is whitelisted already or not
 		final ValidationWhiteListSearchRequestBuilder whiteListReq = ValidationRequests.whiteList()
 			.prepareSearch()
@@ -305,13 +621,13 @@ final class ValidateRequest implements Request<BranchContext, ValidationResult>,
 			whiteListReq.filterByRuleIds(ruleIds);
 		}
 
-		final Multimap<String, ComponentIdentifier> whiteListedEntries = HashMultimap.create();
+		final ValidationWhiteListLookup whiteList = new ValidationWhiteListLookup();
 		
 		whiteListReq.stream(context)
 			.flatMap(ValidationWhiteLists::stream)
-			.forEach(whitelist -> whiteListedEntries.put(whitelist.getRuleId(), whitelist.getComponentIdentifier()));
+			.forEach(whitelist -> whiteList.add(whitelist.getRuleId(), whitelist.getComponentIdentifier()));
 
-		return whiteListedEntries;
+		return whiteList;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,6 +35,7 @@ public final class ValidateRequestBuilder
 	private String resultId = ValidationRequests.SHARED_VALIDATION_RESULT_ID;
 	private Collection<String> ruleIds;
 	private Map<String, Object> ruleParameters;
+	private boolean incremental;
 	
 	public ValidateRequestBuilder setResultId(final String resultId) {
 		this.resultId = resultId;
@@ -51,12 +52,27 @@ public final class ValidateRequestBuilder
 		return getSelf();
 	}
 
+	/**
+	 * Enables incremental validation. Rules that have been evaluated on the same branch and result before are only re-evaluated for the
+	 * components changed since (and the components depending on them), if their evaluator supports it; the results are merged into the
+	 * existing issues. Other rules are evaluated on the entire branch.
+	 * 
+	 * @param incremental
+	 * @return
+	 * @since 9.5
+	 */
+	public ValidateRequestBuilder setIncremental(final boolean incremental) {
+		this.incremental = incremental;
+		return getSelf();
+	}
+
 	@Override
 	protected Request<BranchContext, ValidationResult> doBuild() {
 		final ValidateRequest validateRequest = new ValidateRequest();
 		validateRequest.setResultId(resultId);
 		validateRequest.setRuleIds(ruleIds);
 		validateRequest.setRuleParameters(ruleParameters);
+		validateRequest.setIncremental(incremental);
 		return validateRequest;
 	}
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation;
+
+import java.io.Serializable;
+
+import com.b2international.index.Doc;
+import com.b2international.index.ID;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.id.IDs;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Records the state of a branch that the issues of a validation rule reflect in a validation result. Incremental validation runs use it to
+ * re-evaluate the rule only for the components that changed since.
+ * 
+ * @since 9.5
+ */
+@Doc
+public final class ValidationRuleCheckpoint implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @since 9.5
+	 */
+	public static final class Fields {
+		public static final String ID = "id";
+		public static final String RESULT_ID = "resultId";
+		public static final String RULE_ID = "ruleId";
+		public static final String RESOURCE_URI = "resourceURI";
+	}
+	
+	@ID
+	private final String id;
+	private final String resultId;
+	private final String ruleId;
+	private final ResourceURI resourceURI;
+	private final long baseTimestamp;
+	private final long headTimestamp;
+	private final String fingerprint;
+
+	@JsonCreator
+	public ValidationRuleCheckpoint(
+			@JsonProperty("id") final String id,
+			@JsonProperty("resultId") final String resultId,
+			@JsonProperty("ruleId") final String ruleId,
+			@JsonProperty("resourceURI") final ResourceURI resourceURI,
+			@JsonProperty("baseTimestamp") final long baseTimestamp,
+			@JsonProperty("headTimestamp") final long headTimestamp,
+			@JsonProperty("fingerprint") final String fingerprint) {
+		this.id = id;
+		this.resultId = resultId;
+		this.ruleId = ruleId;
+		this.resourceURI = resourceURI;
+		this.baseTimestamp = baseTimestamp;
+		this.headTimestamp = headTimestamp;
+		this.fingerprint = fingerprint;
+	}
+	
+	public ValidationRuleCheckpoint(
+			final String resultId,
+			final String ruleId,
+			final ResourceURI resourceURI,
+			final long baseTimestamp,
+			final long headTimestamp,
+			final String fingerprint) {
+		this(toId(resultId, ruleId, resourceURI), resultId, ruleId, resourceURI, baseTimestamp, headTimestamp, fingerprint);
+	}
+	
+	/**
+	 * @param resultId
+	 * @param ruleId
+	 * @param resourceURI
+	 * @return the identifier of the checkpoint of the given rule in the given validation result
+	 */
+	public static String toId(final String resultId, final String ruleId, final ResourceURI resourceURI) {
+		return IDs.sha1(String.join("|", resultId, ruleId, resourceURI.toString()));
+	}
+	
+	public String getId() {
+		return id;
+	}
+	
+	public String getResultId() {
+		return resultId;
+	}
+	
+	public String getRuleId() {
+		return ruleId;
+	}
+	
+	public ResourceURI getResourceURI() {
+		return resourceURI;
+	}
+	
+	/**
+	 * @return the base timestamp of the validated branch, a different value means that the branch has been rebased since
+	 */
+	public long getBaseTimestamp() {
+		return baseTimestamp;
+	}
+	
+	/**
+	 * @return the head timestamp of the validated branch at the start of the validation run
+	 */
+	public long getHeadTimestamp() {
+		return headTimestamp;
+	}
+	
+	/**
+	 * @return a hash of the rule implementation and the rule parameters the issues were computed with
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+	
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(getClass())
+			.add("id", id)
+			.add("resultId", resultId)
+			.add("ruleId", ruleId)
+			.add("resourceURI", resourceURI)
+			.add("baseTimestamp", baseTimestamp)
+			.add("headTimestamp", headTimestamp)
+			.add("fingerprint", fingerprint)
+			.toString();
+	}
+	
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.core.ComponentIdentifier;
+
+/**
+ * Answers whether a component is whitelisted for a rule while validating. Numeric component identifiers (eg. SNOMED CT identifiers) are kept
+ * in primitive sets per rule and component type, so that large whitelists do not have to be held as individual objects.
+ * 
+ * @since 9.5
+ */
+final class ValidationWhiteListLookup {
+
+	// Longer identifiers might not fit into a long
+	private static final int MAX_NUMERIC_ID_LENGTH = 18;
+	
+	private final Map<String, Map<String, LongSet>> numericIdsByRuleAndComponentType = new HashMap<>();
+	private final Map<String, Set<ComponentIdentifier>> otherComponentsByRule = new HashMap<>();
+
+	public void add(String ruleId, ComponentIdentifier component) {
+		final String componentId = component.getComponentId();
+		if (isNumeric(componentId)) {
+			numericIdsByRuleAndComponentType.computeIfAbsent(ruleId, key -> new HashMap<>())
+				.computeIfAbsent(component.getComponentType(), key -> PrimitiveSets.newLongOpenHashSet())
+				.add(Long.parseLong(componentId));
+		} else {
+			otherComponentsByRule.computeIfAbsent(ruleId, key -> new HashSet<>()).add(component);
+		}
+	}
+	
+	public boolean contains(String ruleId, ComponentIdentifier component) {
+		final String componentId = component.getComponentId();
+		if (isNumeric(componentId)) {
+			final Map<String, LongSet> numericIdsByComponentType = numericIdsByRuleAndComponentType.get(ruleId);
+			if (numericIdsByComponentType == null) {
+				return false;
+			}
+			final LongSet numericIds = numericIdsByComponentType.get(component.getComponentType());
+			return numericIds != null && numericIds.contains(Long.parseLong(componentId));
+		} else {
+			final Set<ComponentIdentifier> otherComponents = otherComponentsByRule.get(ruleId);
+			return otherComponents != null && otherComponents.contains(component);
+		}
+	}
+	
+	private static boolean isNumeric(String componentId) {
+		// Identifiers with leading zeros would not survive the round trip to a long
+		if (componentId == null || componentId.isEmpty() || componentId.length() > MAX_NUMERIC_ID_LENGTH || componentId.charAt(0) == '0') {
+			return false;
+		}
+		
+		for (int i = 0; i < componentId.length(); i++) {
+			final char c = componentId.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation.eval;
+
+import java.util.List;
+import java.util.Set;
+
+import com.b2international.snowowl.core.validation.rule.ValidationRule;
+
+/**
+ * The result of evaluating a {@link ValidationRule} on a subset of the components of a branch.
+ * 
+ * @since 9.5
+ * @see ValidationRuleEvaluator#eval(com.b2international.snowowl.core.domain.BranchContext, ValidationRule, java.util.Map, Set)
+ */
+public final class ScopedEvaluation {
+
+	private final Set<String> evaluatedComponentIds;
+	private final List<?> issues;
+
+	public ScopedEvaluation(Set<String> evaluatedComponentIds, List<?> issues) {
+		this.evaluatedComponentIds = evaluatedComponentIds;
+		this.issues = issues;
+	}
+	
+	/**
+	 * @return the IDs of all components the rule has been evaluated for; existing issues of these components are replaced by {@link #getIssues()},
+	 *         issues of other components are left unchanged
+	 */
+	public Set<String> getEvaluatedComponentIds() {
+		return evaluatedComponentIds;
+	}
+	
+	/**
+	 * @return the issues found among the evaluated components, in the same form as returned by
+	 *         {@link ValidationRuleEvaluator#eval(com.b2international.snowowl.core.domain.BranchContext, ValidationRule, java.util.Map)}
+	 */
+	public List<?> getIssues() {
+		return issues;
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -86,6 +86,46 @@ public interface ValidationRuleEvaluator {
 	 * @throws Exception
 	 */
 	List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception;
+	
+	/**
+	 * Evaluate the given rule only for the given components and the components depending on them (eg. the descriptions of a concept).
+	 * Evaluators that can not restrict the evaluation of a rule return <code>null</code>, in which case the rule is evaluated on the entire
+	 * branch with {@link #eval(BranchContext, ValidationRule, Map)}.
+	 * 
+	 * @param context
+	 *            - the branch context where the evaluation should run
+	 * @param rule
+	 *            - the rule to evaluate
+	 * @param params
+	 *            - parameters for the rule evaluators
+	 * @param componentIds
+	 *            - the IDs of the components to evaluate the rule for, including components that no longer exist
+	 * @return the result of the scoped evaluation, or <code>null</code> if this evaluator does not support scoped evaluation of the rule
+	 * @throws Exception
+	 * @since 9.5
+	 */
+	default ScopedEvaluation eval(BranchContext context, ValidationRule rule, Map<String, Object> params, Set<String> componentIds) throws Exception {
+		return null;
+	}
+	
+	/**
+	 * Prepare the given rule for evaluation on the entire branch as part of a {@link ValidationScan}, together with other rules that scan the
+	 * same type of documents. Evaluators that can not express a rule as a visitor of individual documents return <code>null</code>, in which
+	 * case the rule is evaluated on its own with {@link #eval(BranchContext, ValidationRule, Map)}.
+	 * 
+	 * @param context
+	 *            - the branch context where the evaluation should run
+	 * @param rule
+	 *            - the rule to evaluate
+	 * @param params
+	 *            - parameters for the rule evaluators
+	 * @return the prepared rule, or <code>null</code> if this evaluator can not evaluate the rule as part of a shared scan
+	 * @throws Exception
+	 * @since 9.5
+	 */
+	default ValidationRuleVisitor prepareVisitor(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception {
+		return null;
+	}
 
 	/**
 	 * Unique type identifier of this validation rule evaluator. The type should represent the kind of rules that this evaluator can evaluate using
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation.eval;
+
+import java.util.List;
+import java.util.Map;
+
+import com.b2international.index.query.Expression;
+import com.b2international.snowowl.core.validation.rule.ValidationRule;
+
+/**
+ * A {@link ValidationRule} prepared for evaluation as part of a {@link ValidationScan}, which streams the documents of a single type once
+ * for all rules that scan the same type.
+ * 
+ * @since 9.5
+ * @see ValidationRuleEvaluator#prepareVisitor(com.b2international.snowowl.core.domain.BranchContext, ValidationRule, Map)
+ */
+public interface ValidationRuleVisitor {
+
+	/**
+	 * @return the type of documents this rule reports issues for
+	 */
+	Class<?> getDocumentType();
+	
+	/**
+	 * @return an expression matching (at least) all documents this rule may report an issue for; the scan visits the union of these
+	 */
+	Expression getExpression();
+	
+	/**
+	 * Called for each document of the scan, including documents matched by other rules only.
+	 * 
+	 * @param source
+	 *            - the source of the document
+	 */
+	void visit(Map<String, Object> source);
+	
+	/**
+	 * @return the issues found among the visited documents, in the same form as returned by
+	 *         {@link ValidationRuleEvaluator#eval(com.b2international.snowowl.core.domain.BranchContext, ValidationRule, Map)}
+	 */
+	List<?> getIssues();
+	
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.validation.eval;
+
+import java.util.*;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Expressions.ExpressionBuilder;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.validation.rule.ValidationRule.CheckType;
+
+/**
+ * Evaluates a set of {@link ValidationRuleVisitor}s that scan the same type of documents with a single pass over the index. Documents
+ * matching any of the rules are streamed once and passed to every rule, instead of each rule running a separate query.
+ * 
+ * @since 9.5
+ */
+public final class ValidationScan {
+
+	private static final Logger LOG = LoggerFactory.getLogger("validation");
+	
+	private record ScanKey(Class<?> documentType, CheckType checkType) {}
+	
+	private final Class<?> documentType;
+	private final CheckType checkType;
+	private final Map<String, ValidationRuleVisitor> visitorsByRuleId;
+
+	private ValidationScan(Class<?> documentType, CheckType checkType, Map<String, ValidationRuleVisitor> visitorsByRuleId) {
+		this.documentType = documentType;
+		this.checkType = checkType;
+		this.visitorsByRuleId = visitorsByRuleId;
+	}
+	
+	public Class<?> getDocumentType() {
+		return documentType;
+	}
+	
+	/**
+	 * @return the check type shared by all rules of this scan
+	 */
+	public CheckType getCheckType() {
+		return checkType;
+	}
+	
+	public Set<String> getRuleIds() {
+		return visitorsByRuleId.keySet();
+	}
+	
+	/**
+	 * Streams the documents matching any of the rules of this scan and visits them with each rule.
+	 * 
+	 * @param context
+	 * @return the issues found by each rule, keyed by rule ID; rules that failed while visiting a document are logged and left out
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Map<String, List<?>> execute(BranchContext context) {
+		final Map<String, ValidationRuleVisitor> activeVisitors = new LinkedHashMap<>(visitorsByRuleId);
+		final ExpressionBuilder where = Expressions.bool();
+		activeVisitors.values().forEach(visitor -> where.should(visitor.getExpression()));
+		
+		final Query<Map> query = Query.select(Map.class)
+			.from(documentType)
+			.where(where.build())
+			.limit(context.getPageSize())
+			.withScores(false)
+			.build();
+		
+		query.stream(context.service(RevisionSearcher.class)).forEachOrdered(page -> {
+			for (Map source : page) {
+				final Iterator<Map.Entry<String, ValidationRuleVisitor>> visitors = activeVisitors.entrySet().iterator();
+				while (visitors.hasNext()) {
+					final Map.Entry<String, ValidationRuleVisitor> entry = visitors.next();
+					try {
+						entry.getValue().visit(source);
+					} catch (RuntimeException e) {
+						LOG.error("Execution of rule '{}' failed while scanning '{}' documents.", entry.getKey(), documentType.getSimpleName(), e);
+						visitors.remove();
+					}
+				}
+			}
+		});
+		
+		final Map<String, List<?>> issuesByRuleId = new LinkedHashMap<>();
+		activeVisitors.forEach((ruleId, visitor) -> issuesByRuleId.put(ruleId, visitor.getIssues()));
+		return issuesByRuleId;
+	}
+	
+	/**
+	 * Groups the given rules by the type of documents they scan and by their check type, so that each scan is scheduled the same way as its
+	 * rules would be on their own. Rules that do not share their document type and check type with any other rule are not included, as they
+	 * do not benefit from a shared scan.
+	 * 
+	 * @param visitorsByRuleId
+	 * @param checkTypeByRuleId
+	 * @return the scans to execute
+	 */
+	public static List<ValidationScan> group(Map<String, ValidationRuleVisitor> visitorsByRuleId, Function<String, CheckType> checkTypeByRuleId) {
+		final Map<ScanKey, Map<String, ValidationRuleVisitor>> visitorsByScan = new LinkedHashMap<>();
+		visitorsByRuleId.forEach((ruleId, visitor) -> {
+			final ScanKey key = new ScanKey(visitor.getDocumentType(), checkTypeByRuleId.apply(ruleId));
+			visitorsByScan.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(ruleId, visitor);
+		});
+		
+		final List<ValidationScan> scans = new ArrayList<>();
+		visitorsByScan.forEach((key, visitors) -> {
+			if (visitors.size() > 1) {
+				scans.add(new ValidationScan(key.documentType(), key.checkType(), visitors));
+			}
+		});
+		return scans;
+	}
+	
+}
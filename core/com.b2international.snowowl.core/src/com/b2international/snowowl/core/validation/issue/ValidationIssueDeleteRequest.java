@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2019-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 
 import com.b2international.commons.CompareUtils;
 import com.b2international.index.BulkDelete;
+import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.snowowl.core.ServiceProvider;
@@ -27,6 +28,7 @@ import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.internal.validation.ValidationRepository;
 import com.b2international.snowowl.core.validation.ValidationDeleteNotification;
 import com.b2international.snowowl.core.validation.ValidationRequests;
+import com.b2international.snowowl.core.validation.ValidationRuleCheckpoint;
 import com.b2international.snowowl.core.validation.rule.ValidationRule;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -83,7 +85,10 @@ final class ValidationIssueDeleteRequest implements Request<ServiceProvider, Boo
 		
 		return context.service(ValidationRepository.class).write(writer -> {
 			
-			writer.bulkDelete(new BulkDelete<>(ValidationIssue.class, query.build()));
+			final Expression where = query.build();
+			writer.bulkDelete(new BulkDelete<>(ValidationIssue.class, where));
+			// Checkpoints use the same field names, subsequent incremental runs have to start from scratch
+			writer.bulkDelete(new BulkDelete<>(ValidationRuleCheckpoint.class, where));
 			writer.commit();
 			
 			new ValidationDeleteNotification(resourceURIs, toolingIds, resultIds).publish(context.service(IEventBus.class));
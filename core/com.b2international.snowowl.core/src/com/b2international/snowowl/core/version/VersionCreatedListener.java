@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.version;
+
+import java.util.List;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.plugin.Component;
+
+/**
+ * Extension point for components that need to act on newly created resource versions, eg. to precompute derived content that stays the
+ * same for the entire lifetime of the version. Implementations should be annotated with {@link Component} to be picked up automatically.
+ * <p>
+ * Listeners are notified after the versioning commit succeeded and all locks have been released. Failures are logged and do not affect
+ * the outcome of the versioning request, so long-running work should be moved off the calling thread.
+ * 
+ * @since 9.5
+ */
+public interface VersionCreatedListener {
+
+	/**
+	 * @param context - the context of the versioning request
+	 * @param versions - the URIs of the created versions (in the form of <code>resourceType/resourceId/version</code>)
+	 */
+	void onVersionCreated(ServiceProvider context, List<ResourceURI> versions);
+	
+}
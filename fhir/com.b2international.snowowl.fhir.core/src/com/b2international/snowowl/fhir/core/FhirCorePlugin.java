@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core;
+
+import java.nio.file.Path;
+
+import com.b2international.snowowl.core.config.SnowOwlConfiguration;
+import com.b2international.snowowl.core.plugin.Component;
+import com.b2international.snowowl.core.setup.Environment;
+import com.b2international.snowowl.core.setup.Plugin;
+import com.b2international.snowowl.fhir.core.request.codesystem.FhirCodeSystemHierarchyIndexCache;
+import com.b2international.snowowl.fhir.core.request.conceptmap.FhirConceptMapTranslationSnapshotStore;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpansionSnapshotStore;
+
+/**
+ * @since 9.5
+ */
+@Component
+public final class FhirCorePlugin extends Plugin {
+
+	/**
+	 * The maximum number of code system versions with a hierarchy index kept in memory.
+	 */
+	private static final int MAXIMUM_INDEXED_VERSIONS = 16;
+	
+	/**
+	 * The maximum number of ValueSet or ConceptMap version snapshots kept in memory.
+	 */
+	private static final int MAXIMUM_CACHED_SNAPSHOTS = 64;
+	
+	private static final String SNAPSHOTS_FOLDER = "fhir-snapshots";
+
+	@Override
+	public void run(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		if (env.isServer()) {
+			env.services().registerService(FhirCodeSystemHierarchyIndexCache.class, new FhirCodeSystemHierarchyIndexCache(MAXIMUM_INDEXED_VERSIONS));
+			
+			final Path snapshotsPath = env.getDataPath().resolve(SNAPSHOTS_FOLDER);
+			env.services().registerService(FhirValueSetExpansionSnapshotStore.class, new FhirValueSetExpansionSnapshotStore(snapshotsPath.resolve("valuesets"), MAXIMUM_CACHED_SNAPSHOTS));
+			env.services().registerService(FhirConceptMapTranslationSnapshotStore.class, new FhirConceptMapTranslationSnapshotStore(snapshotsPath.resolve("conceptmaps"), MAXIMUM_CACHED_SNAPSHOTS));
+			env.services().registerService(FhirVersionSnapshotBuilder.class, new FhirVersionSnapshotBuilder(env));
+		}
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hl7.fhir.r5.model.ConceptMap;
+import org.hl7.fhir.r5.model.ValueSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.fhir.r5.operations.ConceptMapTranslateParameters;
+import com.b2international.fhir.r5.operations.ValueSetExpandParameters;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.fhir.core.request.FhirRequests;
+import com.b2international.snowowl.fhir.core.request.conceptmap.FhirConceptMapTranslationSnapshot;
+import com.b2international.snowowl.fhir.core.request.conceptmap.FhirConceptMapTranslationSnapshotStore;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpander;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpansionSnapshot;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpansionSnapshotStore;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Precomputes expansion snapshots of ValueSet versions and translation snapshots of ConceptMap versions in the background, using the
+ * regular FHIR operations. Snapshots are computed one at a time; until a snapshot is available, requests are served by evaluating the
+ * resource as usual.
+ * 
+ * @since 9.5
+ */
+public final class FhirVersionSnapshotBuilder {
+
+	private static final Logger LOG = LoggerFactory.getLogger(FhirVersionSnapshotBuilder.class);
+	
+	private static final String VALUE_SET_RESOURCE_TYPE = "valuesets";
+	private static final String CONCEPT_MAP_RESOURCE_TYPE = "conceptmaps";
+	
+	private static final int PAGE_SIZE = 1_000;
+	
+	/**
+	 * Expansions and maps larger than this are not worth keeping in a single snapshot.
+	 */
+	private static final int MAXIMUM_SNAPSHOT_SIZE = 1_000_000;
+	
+	private final ServiceProvider context;
+	private final ExecutorService executor;
+	
+	public FhirVersionSnapshotBuilder(final ServiceProvider context) {
+		this.context = context;
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("fhir-version-snapshots-%d")
+				.setDaemon(true)
+				.build());
+	}
+	
+	/**
+	 * Discards any existing snapshots of the given versions and schedules computing them again.
+	 * 
+	 * @param versions - the URIs of the created versions
+	 */
+	public void schedule(final List<ResourceURI> versions) {
+		for (final ResourceURI version : versions) {
+			if (VALUE_SET_RESOURCE_TYPE.equals(version.getResourceType())) {
+				context.optionalService(FhirValueSetExpansionSnapshotStore.class).ifPresent(store -> {
+					store.delete(version);
+					executor.execute(() -> buildValueSetSnapshot(store, version));
+				});
+			} else if (CONCEPT_MAP_RESOURCE_TYPE.equals(version.getResourceType())) {
+				context.optionalService(FhirConceptMapTranslationSnapshotStore.class).ifPresent(store -> {
+					store.delete(version);
+					executor.execute(() -> buildConceptMapSnapshot(store, version));
+				});
+			}
+		}
+	}
+	
+	private void buildValueSetSnapshot(final FhirValueSetExpansionSnapshotStore store, final ResourceURI version) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		try {
+			final FhirValueSetExpansionSnapshot.Builder snapshot = FhirValueSetExpansionSnapshot.builder();
+			final ValueSetExpandParameters parameters = new ValueSetExpandParameters()
+					.setUrl(version.withoutResourceType())
+					.setCount(PAGE_SIZE);
+			
+			while (true) {
+				final ValueSet valueSet = FhirRequests.valueSets().prepareExpand()
+						.setParameters(parameters)
+						.buildAsync()
+						.execute(context);
+				
+				if (!valueSet.hasExpansion()) {
+					// the ValueSet can not be expanded by its tooling
+					return;
+				}
+				
+				final List<ValueSet.ValueSetExpansionContainsComponent> contains = valueSet.getExpansion().getContains();
+				snapshot.add(contains);
+				
+				if (snapshot.size() > MAXIMUM_SNAPSHOT_SIZE) {
+					LOG.info("Skipping expansion snapshot of '{}', it contains more than {} codes.", version, MAXIMUM_SNAPSHOT_SIZE);
+					return;
+				}
+				
+				final String searchAfter = (String) valueSet.getExpansion().getExtensionString(FhirValueSetExpander.EXTENSION_AFTER_PROPERTY_URL);
+				if (contains.size() < PAGE_SIZE || searchAfter == null) {
+					break;
+				}
+				
+				parameters.setAfter(searchAfter);
+			}
+			
+			store.put(version, snapshot.build(System.currentTimeMillis()));
+			LOG.info("Stored expansion snapshot of '{}' with {} codes in {}", version, snapshot.size(), stopwatch);
+		} catch (RuntimeException e) {
+			LOG.warn("Couldn't compute expansion snapshot of '{}'.", version, e);
+		}
+	}
+	
+	private void buildConceptMapSnapshot(final FhirConceptMapTranslationSnapshotStore store, final ResourceURI version) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		try {
+			final String versionId = version.withoutResourceType();
+			final ConceptMap conceptMap = FhirRequests.conceptMaps().prepareGet(versionId)
+					.setElements(ImmutableList.<String>builder()
+							.addAll(R5ObjectFields.ConceptMap.MANDATORY)
+							.add(R5ObjectFields.ConceptMap.GROUP)
+							.build())
+					.buildAsync()
+					.execute(context);
+			
+			final FhirConceptMapTranslationSnapshot.Builder snapshot = FhirConceptMapTranslationSnapshot.builder();
+			for (final ConceptMap.ConceptMapGroupComponent group : conceptMap.getGroup()) {
+				final String system = group.getSource();
+				for (final ConceptMap.SourceElementComponent element : group.getElement()) {
+					if (!element.hasCode()) {
+						continue;
+					}
+					
+					final ConceptMapTranslateParameters parameters = new ConceptMapTranslateParameters()
+							.setUrl(versionId)
+							.setSourceCode(element.getCode());
+					
+					if (system != null) {
+						parameters.setSystem(system);
+					}
+					
+					snapshot.put(system, element.getCode(), FhirRequests.conceptMaps().prepareTranslate()
+							.setParameters(parameters)
+							.buildAsync()
+							.execute(context));
+					
+					if (snapshot.size() > MAXIMUM_SNAPSHOT_SIZE) {
+						LOG.info("Skipping translation snapshot of '{}', it maps more than {} codes.", version, MAXIMUM_SNAPSHOT_SIZE);
+						return;
+					}
+				}
+			}
+			
+			store.put(version, snapshot.build());
+			LOG.info("Stored translation snapshot of '{}' with {} codes in {}", version, snapshot.size(), stopwatch);
+		} catch (RuntimeException e) {
+			LOG.warn("Couldn't compute translation snapshot of '{}'.", version, e);
+		}
+	}
+	
+}
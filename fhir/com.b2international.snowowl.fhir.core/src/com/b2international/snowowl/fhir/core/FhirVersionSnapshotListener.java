@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core;
+
+import java.util.List;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.plugin.Component;
+import com.b2international.snowowl.core.version.VersionCreatedListener;
+
+/**
+ * Schedules snapshot computation for newly created ValueSet and ConceptMap versions.
+ * 
+ * @since 9.5
+ * @see FhirVersionSnapshotBuilder
+ */
+@Component
+public final class FhirVersionSnapshotListener implements VersionCreatedListener {
+
+	@Override
+	public void onVersionCreated(ServiceProvider context, List<ResourceURI> versions) {
+		context.optionalService(FhirVersionSnapshotBuilder.class).ifPresent(builder -> builder.schedule(versions));
+	}
+	
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * Base class of disk-backed stores keeping precomputed content of immutable resource versions. Each snapshot is stored in its own
+ * compressed file, keyed by the URI of the resource version. Recently used snapshots are kept in memory (softly referenced, so they can be
+ * reclaimed under memory pressure).
+ * <p>
+ * Failures are logged and reported as a missing snapshot, as the content can always be computed from the index.
+ * 
+ * @param <T> - the snapshot type
+ * @since 9.5
+ */
+public abstract class FhirResourceSnapshotStore<T> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(FhirResourceSnapshotStore.class);
+	
+	private static final int MAGIC = 0x46534E50; // "FSNP"
+	private static final int VERSION = 1;
+	
+	private static final String EXTENSION = ".snapshot";
+	
+	private final Path directory;
+	private final Cache<ResourceURI, Optional<T>> snapshots;
+
+	protected FhirResourceSnapshotStore(final Path directory, final int maximumCachedSnapshots) {
+		this.directory = directory;
+		this.snapshots = CacheBuilder.newBuilder()
+				.maximumSize(maximumCachedSnapshots)
+				.softValues()
+				.build();
+	}
+	
+	/**
+	 * @param versionUri - the URI of the resource version
+	 * @return the snapshot of the given resource version, or an empty {@link Optional} if no snapshot has been stored (yet)
+	 */
+	public final Optional<T> get(final ResourceURI versionUri) {
+		if (versionUri.isHead() || versionUri.isLatest() || versionUri.isNext()) {
+			return Optional.empty();
+		}
+		
+		try {
+			return snapshots.get(versionUri, () -> read(versionUri));
+		} catch (ExecutionException e) {
+			LOG.warn("Couldn't load snapshot of '{}'.", versionUri, e.getCause());
+			return Optional.empty();
+		}
+	}
+	
+	/**
+	 * Stores the snapshot of the given resource version, replacing any previously stored snapshot.
+	 * 
+	 * @param versionUri - the URI of the resource version
+	 * @param snapshot - the snapshot to store
+	 */
+	public final void put(final ResourceURI versionUri, final T snapshot) {
+		final Path file = getFile(versionUri);
+		Path tempFile = null;
+		try {
+			Files.createDirectories(directory);
+			tempFile = Files.createTempFile(directory, "snapshot", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeSnapshot(out, snapshot);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOG.warn("Couldn't store snapshot of '{}'.", versionUri, e);
+			deleteQuietly(tempFile);
+		} finally {
+			snapshots.invalidate(versionUri);
+		}
+	}
+	
+	/**
+	 * Removes the snapshot of the given resource version, if it exists.
+	 * 
+	 * @param versionUri - the URI of the resource version
+	 */
+	public final void delete(final ResourceURI versionUri) {
+		deleteQuietly(getFile(versionUri));
+		snapshots.invalidate(versionUri);
+	}
+	
+	private Optional<T> read(final ResourceURI versionUri) throws IOException {
+		final Path file = getFile(versionUri);
+		if (!Files.isRegularFile(file)) {
+			return Optional.empty();
+		}
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				LOG.warn("Discarding snapshot of '{}' with unknown format.", versionUri);
+				deleteQuietly(file);
+				return Optional.empty();
+			}
+			return Optional.of(readSnapshot(in));
+		}
+	}
+	
+	private Path getFile(final ResourceURI versionUri) {
+		return directory.resolve(Hashing.murmur3_128().hashString(versionUri.toString(), StandardCharsets.UTF_8) + EXTENSION);
+	}
+	
+	private static void deleteQuietly(final Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			LOG.debug("Couldn't delete '{}'.", file, e);
+		}
+	}
+	
+	protected abstract void writeSnapshot(DataOutputStream out, T snapshot) throws IOException;
+	
+	protected abstract T readSnapshot(DataInputStream in) throws IOException;
+	
+	/**
+	 * Writes a string that may be <code>null</code>.
+	 */
+	protected static void writeNullableString(final DataOutputStream out, final String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+	
+	/**
+	 * Reads a string written by {@link #writeNullableString(DataOutputStream, String)}.
+	 */
+	protected static String readNullableString(final DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
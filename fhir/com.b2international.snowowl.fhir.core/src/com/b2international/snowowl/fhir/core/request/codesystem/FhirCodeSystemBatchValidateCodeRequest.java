@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.codesystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hl7.fhir.r5.model.CodeSystem;
+import org.hl7.fhir.r5.model.Coding;
+
+import com.b2international.fhir.r5.operations.CodeSystemValidateCodeParameters;
+import com.b2international.fhir.r5.operations.CodeSystemValidateCodeResultParameters;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.domain.Concept;
+import com.b2international.snowowl.core.events.Request;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Validates multiple codes at once. Requests targeting the same code system (version) resolve the code system only once, and share a
+ * single concept search per display language, instead of executing separate {@link FhirCodeSystemValidateCodeRequest}s.
+ * 
+ * @since 9.5
+ */
+final class FhirCodeSystemBatchValidateCodeRequest implements Request<ServiceProvider, List<CodeSystemValidateCodeResultParameters>> {
+
+	private static final long serialVersionUID = 1L;
+
+	@NotNull
+	@JsonProperty
+	private final List<CodeSystemValidateCodeParameters> parameters;
+	
+	FhirCodeSystemBatchValidateCodeRequest(List<CodeSystemValidateCodeParameters> parameters) {
+		this.parameters = parameters;
+	}
+	
+	@Override
+	public List<CodeSystemValidateCodeResultParameters> execute(ServiceProvider context) {
+		final CodeSystemValidateCodeResultParameters[] results = new CodeSystemValidateCodeResultParameters[parameters.size()];
+		
+		// group requests by code system URL and version, then by display language
+		final Map<List<String>, Map<String, List<Integer>>> requestsByCodeSystem = new LinkedHashMap<>();
+		for (int i = 0; i < parameters.size(); i++) {
+			final CodeSystemValidateCodeParameters item = parameters.get(i);
+			requestsByCodeSystem
+				.computeIfAbsent(Arrays.asList(item.extractUrl(), item.extractVersion()), key -> new LinkedHashMap<>())
+				.computeIfAbsent(FhirRequest.extractLocales(item.getDisplayLanguage()), key -> new ArrayList<>())
+				.add(i);
+		}
+		
+		for (final Map<String, List<Integer>> requestsByLocales : requestsByCodeSystem.values()) {
+			final int firstRequest = requestsByLocales.values().iterator().next().get(0);
+			final FhirCodeSystemValidateCodeRequest codeSystemRequest = new FhirCodeSystemValidateCodeRequest(parameters.get(firstRequest));
+			final CodeSystem codeSystem = codeSystemRequest.getCodeSystem(context);
+			final Optional<FhirCodeSystemHierarchyIndex> hierarchyIndex = codeSystemRequest.getHierarchyIndex(context, codeSystem);
+			
+			requestsByLocales.forEach((locales, requests) -> {
+				final List<Map<String, Coding>> codingsById = new ArrayList<>(requests.size());
+				final List<Coding> allCodings = new ArrayList<>();
+				for (final int request : requests) {
+					final Map<String, Coding> requestCodings = FhirCodeSystemValidateCodeRequest.collectCodingsToValidate(parameters.get(request));
+					codingsById.add(requestCodings);
+					allCodings.addAll(requestCodings.values());
+				}
+				
+				final Map<String, Concept> conceptsById = FhirCodeSystemValidateCodeRequest.fetchConcepts(context, codeSystem, hierarchyIndex, allCodings, locales);
+				
+				for (int i = 0; i < requests.size(); i++) {
+					results[requests.get(i)] = FhirCodeSystemValidateCodeRequest.validate(codingsById.get(i), hierarchyIndex, conceptsById);
+				}
+			});
+		}
+		
+		return List.of(results);
+	}
+	
+}
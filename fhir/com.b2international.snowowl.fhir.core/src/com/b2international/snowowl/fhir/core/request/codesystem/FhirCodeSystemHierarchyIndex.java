@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.codesystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.b2international.snowowl.core.domain.Concept;
+
+/**
+ * An immutable, memory-resident index of all codes and their ancestors in a single code system version. Answers code existence and
+ * subsumption questions without accessing the underlying terminology index.
+ * <p>
+ * Codes are kept in a sorted array; the ancestors of each code (including its direct parents) are kept as sorted arrays of positions in the
+ * code array, so both operations are binary searches.
+ *
+ * @since 9.5
+ */
+public final class FhirCodeSystemHierarchyIndex {
+
+	private static final int[] EMPTY_ARRAY = new int[0];
+
+	private final String[] codes;
+	private final int[][] ancestors;
+
+	private FhirCodeSystemHierarchyIndex(final String[] codes, final int[][] ancestors) {
+		this.codes = codes;
+		this.ancestors = ancestors;
+	}
+
+	/**
+	 * @return the number of codes in this index
+	 */
+	public int size() {
+		return codes.length;
+	}
+
+	/**
+	 * @param code
+	 * @return <code>true</code> if the code exists in the indexed code system version (regardless of its status), <code>false</code> otherwise
+	 */
+	public boolean contains(final String code) {
+		return indexOf(code) >= 0;
+	}
+
+	/**
+	 * @param subType
+	 * @param superType
+	 * @return <code>true</code> if both codes exist and <code>superType</code> is an ancestor of <code>subType</code>, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean isSubsumedBy(final String subType, final String superType) {
+		final int subTypeIndex = indexOf(subType);
+		if (subTypeIndex < 0) {
+			return false;
+		}
+
+		final int superTypeIndex = indexOf(superType);
+		if (superTypeIndex < 0) {
+			return false;
+		}
+
+		return Arrays.binarySearch(ancestors[subTypeIndex], superTypeIndex) >= 0;
+	}
+
+	private int indexOf(final String code) {
+		return (code == null) ? -1 : Arrays.binarySearch(codes, code);
+	}
+
+	/**
+	 * Builds an index from all concepts of a code system version. Parent and ancestor IDs are both registered as ancestors; references to
+	 * codes that are not part of the given concepts are ignored.
+	 *
+	 * @param concepts - the concepts of the code system version, with parent and ancestor IDs populated
+	 * @return the built index
+	 */
+	public static FhirCodeSystemHierarchyIndex build(final Stream<Concept> concepts) {
+		final Map<String, List<String>> ancestorIdsByCode = new HashMap<>();
+		concepts.forEach(concept -> {
+			final List<String> ancestorIds = new ArrayList<>();
+			if (concept.getParentIds() != null) {
+				ancestorIds.addAll(concept.getParentIds());
+			}
+			if (concept.getAncestorIds() != null) {
+				ancestorIds.addAll(concept.getAncestorIds());
+			}
+			ancestorIdsByCode.put(concept.getId(), ancestorIds);
+		});
+
+		final String[] codes = ancestorIdsByCode.keySet().toArray(String[]::new);
+		Arrays.sort(codes);
+
+		final int[][] ancestors = new int[codes.length][];
+		for (int i = 0; i < codes.length; i++) {
+			final int[] ancestorIndexes = ancestorIdsByCode.get(codes[i])
+					.stream()
+					.mapToInt(ancestorId -> Arrays.binarySearch(codes, ancestorId))
+					.filter(index -> index >= 0)
+					.sorted()
+					.distinct()
+					.toArray();
+
+			ancestors[i] = (ancestorIndexes.length == 0) ? EMPTY_ARRAY : ancestorIndexes;
+		}
+
+		return new FhirCodeSystemHierarchyIndex(codes, ancestors);
+	}
+}
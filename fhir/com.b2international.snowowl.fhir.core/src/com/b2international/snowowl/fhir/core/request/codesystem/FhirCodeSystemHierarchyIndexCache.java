@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.codesystem;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.hl7.fhir.r5.model.CodeSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
+import com.b2international.snowowl.core.domain.Concept;
+import com.b2international.snowowl.core.domain.Concepts;
+import com.b2international.snowowl.core.request.ConceptSearchRequestBuilder;
+import com.b2international.snowowl.fhir.core.FhirModelHelpers;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Keeps {@link FhirCodeSystemHierarchyIndex hierarchy indexes} of recently used code system versions in memory. Indexes are only built for
+ * code systems that refer to a version; the content of these never changes, so indexes never need to be invalidated. Indexes are held
+ * softly, so they are discarded under memory pressure and rebuilt on the next request.
+ *
+ * @since 9.5
+ */
+public final class FhirCodeSystemHierarchyIndexCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(FhirCodeSystemHierarchyIndexCache.class);
+
+	private static final int PAGE_SIZE = 10_000;
+
+	private final Cache<Key, FhirCodeSystemHierarchyIndex> indexes;
+
+	public FhirCodeSystemHierarchyIndexCache(final int maximumVersions) {
+		this.indexes = CacheBuilder.newBuilder()
+				.maximumSize(maximumVersions)
+				.expireAfterAccess(1L, TimeUnit.HOURS)
+				.softValues()
+				.build();
+	}
+
+	/**
+	 * Returns the hierarchy index of the given code system, building it on first access.
+	 *
+	 * @param context
+	 * @param codeSystem
+	 * @return the hierarchy index of the code system, or an empty {@link Optional} if the code system does not refer to a version
+	 */
+	public Optional<FhirCodeSystemHierarchyIndex> get(final ServiceProvider context, final CodeSystem codeSystem) {
+		final ResourceURI resourceUri = FhirModelHelpers.resourceUriFrom(codeSystem);
+		if (resourceUri.isHead() || resourceUri.isLatest() || resourceUri.isNext()) {
+			return Optional.empty();
+		}
+
+		// A version that was deleted and created again under the same name will have a different last update time
+		final Long lastUpdated = codeSystem.hasMeta() && codeSystem.getMeta().hasLastUpdated() ? codeSystem.getMeta().getLastUpdated().getTime() : null;
+
+		try {
+			return Optional.of(indexes.get(new Key(resourceUri, lastUpdated), () -> load(context, resourceUri)));
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+	}
+
+	private FhirCodeSystemHierarchyIndex load(final ServiceProvider context, final ResourceURI resourceUri) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		try (Stream<Concept> concepts = CodeSystemRequests.prepareSearchConcepts()
+				.setLimit(PAGE_SIZE)
+				.filterByCodeSystemUri(resourceUri)
+				.stream(context, ConceptSearchRequestBuilder::buildAsync)
+				.flatMap(Concepts::stream)) {
+
+			final FhirCodeSystemHierarchyIndex index = FhirCodeSystemHierarchyIndex.build(concepts);
+			LOG.info("Built hierarchy index of '{}' with {} codes in {}", resourceUri, index.size(), stopwatch);
+			return index;
+		}
+	}
+
+	private record Key(ResourceURI resourceUri, Long lastUpdated) {
+	}
+}
@@ -70,6 +70,11 @@ final class FhirCodeSystemLookupRequest extends FhirRequest<CodeSystemLookupResu
 		
 		final String conceptExpand = converter.configureConceptExpand(parameters);
 		
+		// versions with an in-memory hierarchy index can report missing codes without searching
+		if (getHierarchyIndex(context, codeSystem).filter(index -> !index.contains(parameters.extractCode())).isPresent()) {
+			throw new NotFoundException("Concept", parameters.getCode().getCode());
+		}
+		
 		final ResourceURI resourceUri = FhirModelHelpers.resourceUriFrom(codeSystem);
 		Concept concept = CodeSystemRequests.prepareSearchConcepts()
 			.one()
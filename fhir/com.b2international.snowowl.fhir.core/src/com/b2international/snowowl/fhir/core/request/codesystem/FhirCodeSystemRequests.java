@@ -47,6 +47,10 @@ public final class FhirCodeSystemRequests {
 		return new FhirCodeSystemValidateCodeRequestBuilder();
 	}
 
+	public FhirCodeSystemBatchValidateCodeRequestBuilder prepareBatchValidateCode() {
+		return new FhirCodeSystemBatchValidateCodeRequestBuilder();
+	}
+
 	public ResourceDeleteRequestBuilder prepareDelete(final String codeSystemId) {
 		return new ResourceDeleteRequestBuilder(CodeSystem.uri(codeSystemId));
 	}
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.fhir.core.request.codesystem;
 
 import java.util.Objects;
+import java.util.function.BiPredicate;
 
 import org.hl7.fhir.r5.model.CodeSystem;
 
@@ -48,11 +49,16 @@ final class FhirCodeSystemSubsumesRequest extends FhirRequest<CodeSystemSubsumpt
 		final String codeA = parameters.getCodeA() != null ? parameters.getCodeA().getValue() : parameters.getCodingA().getCode();
 		final String codeB = parameters.getCodeB() != null ? parameters.getCodeB().getValue() : parameters.getCodingB().getCode();
 		
+		// versions are served from the in-memory hierarchy index, if available
+		final BiPredicate<String, String> subsumedBy = getHierarchyIndex(context, codeSystem)
+				.<BiPredicate<String, String>>map(index -> index::isSubsumedBy)
+				.orElseGet(() -> (subType, superType) -> isSubsumedBy(context, codeSystem, subType, superType));
+		
 		if (Objects.equals(codeA, codeB)) {
 			return CodeSystemSubsumptionResultParameters.equivalent();
-		} else if (isSubsumedBy(context, codeSystem, codeA, codeB)) {
+		} else if (subsumedBy.test(codeA, codeB)) {
 			return CodeSystemSubsumptionResultParameters.subsumedBy(); 
-		} else if (isSubsumedBy(context, codeSystem, codeB, codeA)) {
+		} else if (subsumedBy.test(codeB, codeA)) {
 			return CodeSystemSubsumptionResultParameters.subsumes();	
 		} else {
 			return CodeSystemSubsumptionResultParameters.notSubsumed();				
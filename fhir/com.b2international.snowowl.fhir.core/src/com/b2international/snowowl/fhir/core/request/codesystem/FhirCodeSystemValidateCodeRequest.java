@@ -15,9 +15,12 @@
  */
 package com.b2international.snowowl.fhir.core.request.codesystem;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.hl7.fhir.r5.model.CodeSystem;
@@ -33,7 +36,6 @@ import com.b2international.snowowl.fhir.core.FhirModelHelpers;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Sets;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -58,23 +60,48 @@ final class FhirCodeSystemValidateCodeRequest extends FhirRequest<CodeSystemVali
 
 	@Override
 	public CodeSystemValidateCodeResultParameters doExecute(ServiceProvider context, CodeSystem codeSystem) {
-		Set<Coding> codings = collectCodingsToValidate(parameters);
-		Map<String, Coding> codingsById = codings.stream().collect(Collectors.toMap(Coding::getCode, c -> c));
+		Map<String, Coding> codingsById = collectCodingsToValidate(parameters);
+		Optional<FhirCodeSystemHierarchyIndex> hierarchyIndex = getHierarchyIndex(context, codeSystem);
 		
 		// extract locales from the request
-		Map<String, Concept> conceptsById = CodeSystemRequests.prepareSearchConcepts()
-				.setLimit(codingsById.keySet().size())
+		Map<String, Concept> conceptsById = fetchConcepts(context, codeSystem, hierarchyIndex, codingsById.values(), extractLocales(parameters.getDisplayLanguage()));
+		
+		return validate(codingsById, hierarchyIndex, conceptsById);
+	}
+	
+	/**
+	 * Fetches the concepts required to validate the given codings. When a hierarchy index is available, code existence is checked against
+	 * the index, so only concepts of existing codes with a display to verify are retrieved.
+	 */
+	static Map<String, Concept> fetchConcepts(ServiceProvider context, CodeSystem codeSystem, Optional<FhirCodeSystemHierarchyIndex> hierarchyIndex, Collection<Coding> codings, String locales) {
+		Set<String> conceptIds = codings.stream()
+				.filter(coding -> hierarchyIndex.isEmpty() || (coding.getDisplay() != null && hierarchyIndex.get().contains(coding.getCode())))
+				.map(Coding::getCode)
+				.collect(Collectors.toSet());
+		
+		if (conceptIds.isEmpty()) {
+			return Map.of();
+		}
+		
+		return CodeSystemRequests.prepareSearchConcepts()
+				.setLimit(conceptIds.size())
 				.filterByCodeSystemUri(FhirModelHelpers.resourceUriFrom(codeSystem))
-				.filterByIds(codingsById.keySet())
-				.setLocales(extractLocales(parameters.getDisplayLanguage()))
+				.filterByIds(conceptIds)
+				.setLocales(locales)
 				.buildAsync()
 				.execute(context)
 				.stream()
 				.collect(Collectors.toMap(Concept::getId, c -> c));
+	}
+	
+	static CodeSystemValidateCodeResultParameters validate(Map<String, Coding> codingsById, Optional<FhirCodeSystemHierarchyIndex> hierarchyIndex, Map<String, Concept> conceptsById) {
+		Predicate<String> exists = hierarchyIndex.<Predicate<String>>map(index -> index::contains).orElse(conceptsById::containsKey);
 		
-		// check if both Maps have the same keys and report if not
-		
-		Set<String> missingConceptIds = Sets.difference(codingsById.keySet(), conceptsById.keySet());
+		// check if all requested codes exist and report if not
+		Set<String> missingConceptIds = codingsById.keySet()
+				.stream()
+				.filter(exists.negate())
+				.collect(Collectors.toSet());
 		
 		if (!missingConceptIds.isEmpty()) {
 			return new CodeSystemValidateCodeResultParameters()
@@ -105,7 +132,7 @@ final class FhirCodeSystemValidateCodeRequest extends FhirRequest<CodeSystemVali
 		return new CodeSystemValidateCodeResultParameters().setResult(true);
 	}
 	
-	private Set<Coding> collectCodingsToValidate(CodeSystemValidateCodeParameters parameters) {
+	static Map<String, Coding> collectCodingsToValidate(CodeSystemValidateCodeParameters parameters) {
 		Set<Coding> codings = new HashSet<>(3);
 				
 		if (parameters.getCode() != null) {
@@ -124,7 +151,7 @@ final class FhirCodeSystemValidateCodeRequest extends FhirRequest<CodeSystemVali
 		if (codeableConcept != null && codeableConcept.getCoding() != null) {
 			codeableConcept.getCoding().forEach(codings::add);
 		}
-		return codings;
+		return codings.stream().collect(Collectors.toMap(Coding::getCode, c -> c));
 	}
 	
 }
@@ -51,6 +51,10 @@ public abstract class FhirRequest<R> implements Request<ServiceProvider, R> {
 	
 	@Override
 	public final R execute(ServiceProvider context) {
+		return doExecute(context, getCodeSystem(context));
+	}
+	
+	/*package*/ final CodeSystem getCodeSystem(ServiceProvider context) {
 		// try as is via the URL + version (optional) config
 		CodeSystem codeSystem = fetchCodeSystemByUrlAndVersion(context)
 				.or(() -> fetchCodeSystemByIdAndVersion(context))
@@ -66,7 +70,7 @@ public abstract class FhirRequest<R> implements Request<ServiceProvider, R> {
 				})
 				.orElseThrow(() -> new NotFoundException("CodeSystem", system));
 		
-		return doExecute(context, codeSystem);
+		return codeSystem;
 	}
 
 	private Optional<? extends CodeSystem> fetchCodeSystemByIdAndVersion(ServiceProvider context) {
@@ -116,6 +120,17 @@ public abstract class FhirRequest<R> implements Request<ServiceProvider, R> {
 				.map(CodeSystem.class::cast);
 	}
 	
+	/**
+	 * @param context
+	 * @param codeSystem
+	 * @return the in-memory hierarchy index of the given code system, if it refers to a version and indexing is available
+	 * @since 9.5
+	 */
+	protected final Optional<FhirCodeSystemHierarchyIndex> getHierarchyIndex(ServiceProvider context, CodeSystem codeSystem) {
+		return context.optionalService(FhirCodeSystemHierarchyIndexCache.class)
+				.flatMap(cache -> cache.get(context, codeSystem));
+	}
+	
 	protected String configureSummary() {
 		return Summary.TRUE;
 	}
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.fhir.core.request.conceptmap;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import org.hl7.fhir.r5.model.Bundle.BundleEntryComponent;
@@ -26,6 +27,7 @@ import com.b2international.fhir.r5.operations.ConceptMapTranslateResultParameter
 import com.b2international.snowowl.core.RepositoryManager;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.fhir.core.FhirModelHelpers;
 import com.b2international.snowowl.fhir.core.R5ObjectFields;
 import com.b2international.snowowl.fhir.core.exceptions.BadRequestException;
 import com.b2international.snowowl.fhir.core.request.FhirRequests;
@@ -71,6 +73,13 @@ final class FhirConceptMapTranslateRequest implements Request<ServiceProvider, C
 					.setResult(false)
 					.setMessage(String.format("ConceptMap '%s' does not exist and/or not yet created.", parameters.getUrl().getValue()));
 		}
+		
+		// released versions are served from their precomputed translations, if available
+		final Optional<ConceptMapTranslateResultParameters> snapshotResult = translateFromSnapshot(context, conceptMap);
+		if (snapshotResult.isPresent()) {
+			return snapshotResult.get();
+		}
+		
 		return context.service(RepositoryManager.class)
 				.get(conceptMap.getUserString("toolingId"))
 				.optionalService(FhirConceptMapTranslator.class)
@@ -78,6 +87,32 @@ final class FhirConceptMapTranslateRequest implements Request<ServiceProvider, C
 				.translate(context, conceptMap, parameters);
 	}
 
+	private Optional<ConceptMapTranslateResultParameters> translateFromSnapshot(ServiceProvider context, ConceptMap conceptMap) {
+		// snapshots contain forward translations of single source codes without further restrictions
+		if (parameters.getVersion() != null 
+				|| parameters.getSourceScope() != null 
+				|| parameters.getTargetScope() != null 
+				|| parameters.getTargetSystem() != null) {
+			return Optional.empty();
+		}
+		
+		final String system;
+		final String code;
+		if (parameters.getSourceCoding() != null) {
+			system = parameters.getSourceCoding().getSystem();
+			code = parameters.getSourceCoding().getCode();
+		} else if (parameters.getSourceCode() != null) {
+			system = parameters.getSystem() == null ? null : parameters.getSystem().getValue();
+			code = parameters.getSourceCode().getValue();
+		} else {
+			return Optional.empty();
+		}
+		
+		return context.optionalService(FhirConceptMapTranslationSnapshotStore.class)
+				.flatMap(store -> store.get(FhirModelHelpers.resourceUriFrom(conceptMap)))
+				.flatMap(snapshot -> snapshot.get(system, code));
+	}
+
 	// TODO make this consider source/target scopes to find appropriate ConceptMaps when URL is not defined, for now we basically need the URL parameter to be able to translate using a dedicated map
 	private ConceptMap lookupConceptMaps(ServiceProvider context) {
 		return FhirRequests.conceptMaps().prepareSearch()
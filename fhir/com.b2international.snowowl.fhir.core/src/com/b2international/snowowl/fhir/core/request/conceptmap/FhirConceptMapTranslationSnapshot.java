@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.conceptmap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hl7.fhir.r5.formats.JsonParser;
+import org.hl7.fhir.r5.model.Parameters;
+
+import com.b2international.fhir.r5.operations.ConceptMapTranslateResultParameters;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.google.common.base.Strings;
+
+/**
+ * An immutable copy of the translation results of every source code mapped by a ConceptMap version. Results are kept in their serialized
+ * form and are only parsed when requested.
+ * 
+ * @since 9.5
+ */
+public final class FhirConceptMapTranslationSnapshot {
+
+	private final Map<String, byte[]> resultsBySource;
+
+	FhirConceptMapTranslationSnapshot(final Map<String, byte[]> resultsBySource) {
+		this.resultsBySource = resultsBySource;
+	}
+	
+	/**
+	 * @return the number of translated source codes
+	 */
+	public int size() {
+		return resultsBySource.size();
+	}
+	
+	/**
+	 * @param system - the system of the source code, may be <code>null</code>
+	 * @param code - the source code
+	 * @return the result of translating the given source code, or an empty {@link Optional} if the code is not mapped by the ConceptMap
+	 */
+	public Optional<ConceptMapTranslateResultParameters> get(final String system, final String code) {
+		final byte[] result = resultsBySource.get(toKey(system, code));
+		if (result == null) {
+			return Optional.empty();
+		}
+		
+		try {
+			return Optional.of(new ConceptMapTranslateResultParameters((Parameters) new JsonParser().parse(result)));
+		} catch (IOException e) {
+			throw new SnowowlRuntimeException(e);
+		}
+	}
+	
+	Map<String, byte[]> getResultsBySource() {
+		return resultsBySource;
+	}
+	
+	static String toKey(final String system, final String code) {
+		return Strings.nullToEmpty(system) + "|" + code;
+	}
+	
+	public static Builder builder() {
+		return new Builder();
+	}
+	
+	/**
+	 * Collects translation results, serializing each of them right away.
+	 */
+	public static final class Builder {
+		
+		private final Map<String, byte[]> resultsBySource = new HashMap<>();
+		
+		private Builder() {}
+		
+		public Builder put(final String system, final String code, final ConceptMapTranslateResultParameters result) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try {
+				new JsonParser().compose(out, result.getParameters());
+			} catch (IOException e) {
+				throw new SnowowlRuntimeException(e);
+			}
+			resultsBySource.put(toKey(system, code), out.toByteArray());
+			return this;
+		}
+		
+		public int size() {
+			return resultsBySource.size();
+		}
+		
+		public FhirConceptMapTranslationSnapshot build() {
+			return new FhirConceptMapTranslationSnapshot(Map.copyOf(resultsBySource));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.conceptmap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b2international.snowowl.fhir.core.request.FhirResourceSnapshotStore;
+
+/**
+ * Stores {@link FhirConceptMapTranslationSnapshot translation snapshots} of ConceptMap versions.
+ * 
+ * @since 9.5
+ */
+public final class FhirConceptMapTranslationSnapshotStore extends FhirResourceSnapshotStore<FhirConceptMapTranslationSnapshot> {
+
+	public FhirConceptMapTranslationSnapshotStore(final Path directory, final int maximumCachedSnapshots) {
+		super(directory, maximumCachedSnapshots);
+	}
+	
+	@Override
+	protected void writeSnapshot(final DataOutputStream out, final FhirConceptMapTranslationSnapshot snapshot) throws IOException {
+		final Map<String, byte[]> resultsBySource = snapshot.getResultsBySource();
+		out.writeInt(resultsBySource.size());
+		for (final Map.Entry<String, byte[]> entry : resultsBySource.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeInt(entry.getValue().length);
+			out.write(entry.getValue());
+		}
+	}
+	
+	@Override
+	protected FhirConceptMapTranslationSnapshot readSnapshot(final DataInputStream in) throws IOException {
+		final int size = in.readInt();
+		final Map<String, byte[]> resultsBySource = new HashMap<>(size);
+		for (int i = 0; i < size; i++) {
+			final String key = in.readUTF();
+			final byte[] result = new byte[in.readInt()];
+			in.readFully(result);
+			resultsBySource.put(key, result);
+		}
+		return new FhirConceptMapTranslationSnapshot(Map.copyOf(resultsBySource));
+	}
+	
+}
@@ -21,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.elasticsearch.common.Strings;
@@ -34,9 +35,11 @@ import org.hl7.fhir.r5.model.ValueSet.ConceptReferenceDesignationComponent;
 
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.exceptions.NotFoundException;
+import com.b2international.commons.http.AcceptLanguageHeader;
 import com.b2international.fhir.r5.operations.CodeSystemLookupResultParameters.Designation;
 import com.b2international.fhir.r5.operations.ValueSetExpandParameters;
 import com.b2international.snowowl.core.RepositoryManager;
+import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.TerminologyResource;
 import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
@@ -55,6 +58,7 @@ import com.b2international.snowowl.fhir.core.request.codesystem.FhirRequest;
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
 import com.google.common.hash.Hashing;
+import com.google.common.primitives.Ints;
 
 /**
  * @since 8.0
@@ -63,6 +67,13 @@ final class FhirValueSetExpandRequest implements Request<ServiceProvider, ValueS
 
 	private static final long serialVersionUID = 1L;
 	
+	private static final int DEFAULT_COUNT = 10;
+	
+	/**
+	 * Prefix of search after values pointing into a precomputed expansion snapshot.
+	 */
+	private static final String SNAPSHOT_AFTER_PREFIX = "snapshot-";
+	
 	private ValueSetExpandParameters parameters;
 
 	public FhirValueSetExpandRequest(ValueSetExpandParameters parameters) {
@@ -72,6 +83,8 @@ final class FhirValueSetExpandRequest implements Request<ServiceProvider, ValueS
 	@Override
 	public ValueSet execute(ServiceProvider context) {
 		final String uri = parameters.getUrl().asStringValue();
+		// malformed snapshot search after values are rejected regardless of whether a snapshot is available
+		final Integer snapshotOffset = getSnapshotOffset();
 		ValueSet valueSet = null;
 		try {
 			valueSet = FhirRequests.valueSets().prepareGet(uri)
@@ -82,6 +95,13 @@ final class FhirValueSetExpandRequest implements Request<ServiceProvider, ValueS
 							.build())
 					.buildAsync()
 					.execute(context);
+			
+			// released versions are served from their precomputed expansion, if one is available
+			final Optional<ValueSet> snapshotExpansion = expandFromSnapshot(context, valueSet, snapshotOffset);
+			if (snapshotExpansion.isPresent()) {
+				return snapshotExpansion.get();
+			}
+			
 			return context.service(RepositoryManager.class)
 					.get(valueSet.getUserString(TerminologyResource.Fields.TOOLING_ID))
 					.optionalService(FhirValueSetExpander.class)
@@ -100,6 +120,60 @@ final class FhirValueSetExpandRequest implements Request<ServiceProvider, ValueS
 		}
 	}
 
+	/*
+	 * Search after values of snapshot expansions are member offsets, anything else is served by the expander; returns null in the latter case.
+	 */
+	private Integer getSnapshotOffset() {
+		final String after = parameters.getAfter() == null ? null : parameters.getAfter().getValue();
+		if (CompareUtils.isEmpty(after)) {
+			return 0;
+		} else if (!after.startsWith(SNAPSHOT_AFTER_PREFIX)) {
+			return null;
+		}
+		
+		final Integer offset = Ints.tryParse(after.substring(SNAPSHOT_AFTER_PREFIX.length()));
+		if (offset == null || offset < 0) {
+			throw new BadRequestException(String.format("Invalid 'after' parameter value '%s'.", after), "ExpandRequest.after");
+		}
+		
+		return offset;
+	}
+	
+	private Optional<ValueSet> expandFromSnapshot(ServiceProvider context, ValueSet valueSet, Integer offset) {
+		// snapshots contain the members with their default display only
+		if (offset == null || !isDefaultExpansion()) {
+			return Optional.empty();
+		}
+		
+		final ResourceURI resourceUri = FhirModelHelpers.resourceUriFrom(valueSet);
+		return context.optionalService(FhirValueSetExpansionSnapshotStore.class)
+				.flatMap(store -> store.get(resourceUri))
+				.map(snapshot -> {
+					final int count = parameters.getCount() == null ? DEFAULT_COUNT : parameters.getCount().getValue();
+					final long end = (long) offset + count;
+					
+					final ValueSet.ValueSetExpansionComponent expansion = new ValueSet.ValueSetExpansionComponent()
+							.setIdentifier(resourceUri.toString())
+							.setTimestampElement(FhirModelHelpers.toDateTimeElement(snapshot.getCreatedAt()))
+							.setTotal(snapshot.size())
+							.setContains(snapshot.getContains(offset, count));
+					
+					if (end < snapshot.size()) {
+						expansion.addExtension(FhirValueSetExpander.EXTENSION_AFTER_PROPERTY_URL, new StringType(SNAPSHOT_AFTER_PREFIX + end));
+					}
+					
+					return valueSet.setExpansion(expansion);
+				});
+	}
+
+	private boolean isDefaultExpansion() {
+		return (parameters.getFilter() == null || CompareUtils.isEmpty(parameters.getFilter().getValue()))
+				&& (parameters.getActiveOnly() == null || !Boolean.TRUE.equals(parameters.getActiveOnly().getValue()))
+				&& (parameters.getIncludeDesignations() == null || !Boolean.TRUE.equals(parameters.getIncludeDesignations().getValue()))
+				&& (parameters.getWithHistorySupplements() == null || !Boolean.TRUE.equals(parameters.getWithHistorySupplements().getValue()))
+				&& AcceptLanguageHeader.DEFAULT_ACCEPT_LANGUAGE_HEADER.equals(FhirRequest.extractLocales(parameters.getDisplayLanguage()));
+	}
+
 	private ValueSet computeFhirValueSetUsingUrl(ServiceProvider context, String urlValue) {
 		// only URLs with query parts are supported, every other case is rejected for now
 		if (urlValue.contains("#")) {
@@ -153,7 +227,7 @@ final class FhirValueSetExpandRequest implements Request<ServiceProvider, ValueS
 				.filterByCodeSystemUri(FhirModelHelpers.resourceUriFrom(codeSystem))
 				.filterByActive(parameters.getActiveOnly() == null ? null : parameters.getActiveOnly().getValue())
 				.filterByTerm(termFilter)
-				.setLimit(parameters.getCount() == null ? 10 : parameters.getCount().getValue())
+				.setLimit(parameters.getCount() == null ? DEFAULT_COUNT : parameters.getCount().getValue())
 				.setSearchAfter(parameters.getAfter() == null ? null : parameters.getAfter().getValue())
 				// SNOMED only preferred display support (VS should always use FSN)
 				.setPreferredDisplay("FSN") 
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.valueset;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hl7.fhir.r5.model.ValueSet;
+import org.hl7.fhir.r5.model.ValueSet.ValueSetExpansionContainsComponent;
+
+/**
+ * A compact, immutable copy of the complete expansion of a ValueSet version, with the system, code, display and inactive flag of each
+ * member. Systems are stored once and referenced by index from each member.
+ * 
+ * @since 9.5
+ */
+public final class FhirValueSetExpansionSnapshot {
+
+	private final long createdAt;
+	private final String[] systems;
+	private final int[] systemIndexes;
+	private final String[] codes;
+	private final String[] displays;
+	private final BitSet inactive;
+
+	FhirValueSetExpansionSnapshot(final long createdAt, final String[] systems, final int[] systemIndexes, final String[] codes, final String[] displays, final BitSet inactive) {
+		this.createdAt = createdAt;
+		this.systems = systems;
+		this.systemIndexes = systemIndexes;
+		this.codes = codes;
+		this.displays = displays;
+		this.inactive = inactive;
+	}
+	
+	/**
+	 * @return the time the snapshot was computed at, in milliseconds since the epoch
+	 */
+	public long getCreatedAt() {
+		return createdAt;
+	}
+	
+	/**
+	 * @return the number of members in the expansion
+	 */
+	public int size() {
+		return codes.length;
+	}
+	
+	/**
+	 * @param offset - the index of the first member to return
+	 * @param count - the maximum number of members to return
+	 * @return the members of the expansion in the given range
+	 */
+	public List<ValueSetExpansionContainsComponent> getContains(final int offset, final int count) {
+		final int from = Math.min(Math.max(offset, 0), size());
+		final int to = (int) Math.min((long) from + Math.max(count, 0), size());
+		
+		final List<ValueSetExpansionContainsComponent> contains = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			final ValueSetExpansionContainsComponent member = new ValueSet.ValueSetExpansionContainsComponent()
+					.setSystem(systems[systemIndexes[i]])
+					.setCode(codes[i])
+					.setDisplay(displays[i]);
+			
+			if (inactive.get(i)) {
+				member.setInactive(true);
+			}
+			
+			contains.add(member);
+		}
+		
+		return contains;
+	}
+	
+	String[] getSystems() {
+		return systems;
+	}
+	
+	int[] getSystemIndexes() {
+		return systemIndexes;
+	}
+	
+	String[] getCodes() {
+		return codes;
+	}
+	
+	String[] getDisplays() {
+		return displays;
+	}
+	
+	BitSet getInactive() {
+		return inactive;
+	}
+	
+	public static Builder builder() {
+		return new Builder();
+	}
+	
+	/**
+	 * Collects expansion members page by page, without keeping the FHIR model objects around.
+	 */
+	public static final class Builder {
+		
+		private final Map<String, Integer> systemIndexes = new HashMap<>();
+		private final List<String> systems = new ArrayList<>();
+		private final List<Integer> memberSystemIndexes = new ArrayList<>();
+		private final List<String> codes = new ArrayList<>();
+		private final List<String> displays = new ArrayList<>();
+		private final BitSet inactive = new BitSet();
+		
+		private Builder() {}
+		
+		public Builder add(final List<ValueSetExpansionContainsComponent> contains) {
+			for (final ValueSetExpansionContainsComponent member : contains) {
+				final int index = codes.size();
+				memberSystemIndexes.add(systemIndexes.computeIfAbsent(member.getSystem(), system -> {
+					systems.add(system);
+					return systems.size() - 1;
+				}));
+				codes.add(member.getCode());
+				displays.add(member.getDisplay());
+				if (member.getInactive()) {
+					inactive.set(index);
+				}
+			}
+			return this;
+		}
+		
+		public int size() {
+			return codes.size();
+		}
+		
+		public FhirValueSetExpansionSnapshot build(final long createdAt) {
+			return new FhirValueSetExpansionSnapshot(
+				createdAt,
+				systems.toArray(String[]::new),
+				memberSystemIndexes.stream().mapToInt(Integer::intValue).toArray(),
+				codes.toArray(String[]::new),
+				displays.toArray(String[]::new),
+				(BitSet) inactive.clone()
+			);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.valueset;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+import com.b2international.snowowl.fhir.core.request.FhirResourceSnapshotStore;
+
+/**
+ * Stores {@link FhirValueSetExpansionSnapshot expansion snapshots} of ValueSet versions.
+ * 
+ * @since 9.5
+ */
+public final class FhirValueSetExpansionSnapshotStore extends FhirResourceSnapshotStore<FhirValueSetExpansionSnapshot> {
+
+	public FhirValueSetExpansionSnapshotStore(final Path directory, final int maximumCachedSnapshots) {
+		super(directory, maximumCachedSnapshots);
+	}
+	
+	@Override
+	protected void writeSnapshot(final DataOutputStream out, final FhirValueSetExpansionSnapshot snapshot) throws IOException {
+		out.writeLong(snapshot.getCreatedAt());
+		
+		final String[] systems = snapshot.getSystems();
+		out.writeInt(systems.length);
+		for (final String system : systems) {
+			writeNullableString(out, system);
+		}
+		
+		final int[] systemIndexes = snapshot.getSystemIndexes();
+		final String[] codes = snapshot.getCodes();
+		final String[] displays = snapshot.getDisplays();
+		final BitSet inactive = snapshot.getInactive();
+		
+		out.writeInt(codes.length);
+		for (int i = 0; i < codes.length; i++) {
+			out.writeInt(systemIndexes[i]);
+			out.writeUTF(codes[i]);
+			writeNullableString(out, displays[i]);
+			out.writeBoolean(inactive.get(i));
+		}
+	}
+	
+	@Override
+	protected FhirValueSetExpansionSnapshot readSnapshot(final DataInputStream in) throws IOException {
+		final long createdAt = in.readLong();
+		
+		final String[] systems = new String[in.readInt()];
+		for (int i = 0; i < systems.length; i++) {
+			systems[i] = readNullableString(in);
+		}
+		
+		final int size = in.readInt();
+		final int[] systemIndexes = new int[size];
+		final String[] codes = new String[size];
+		final String[] displays = new String[size];
+		final BitSet inactive = new BitSet(size);
+		
+		for (int i = 0; i < size; i++) {
+			systemIndexes[i] = in.readInt();
+			codes[i] = in.readUTF();
+			displays[i] = readNullableString(in);
+			inactive.set(i, in.readBoolean());
+		}
+		
+		return new FhirValueSetExpansionSnapshot(createdAt, systems, systemIndexes, codes, displays, inactive);
+	}
+	
+}
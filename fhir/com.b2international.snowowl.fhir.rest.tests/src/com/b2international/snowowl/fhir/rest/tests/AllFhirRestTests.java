@@ -23,9 +23,11 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import com.b2international.snowowl.fhir.rest.tests.capabilitystatement.CapabilityStatementApiTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirCodeSystemApiTest;
+import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirCodeSystemHierarchyIndexTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirSnomedCodeSystemLookupTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirSnomedCodeSystemSubsumesTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirSnomedCodeSystemValidateCodeTest;
+import com.b2international.snowowl.fhir.rest.tests.valueset.FhirSnomedValueSetExpandStreamTest;
 import com.b2international.snowowl.fhir.rest.tests.valueset.FhirSnomedValueSetExpandTest;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.test.commons.Resources;
@@ -48,7 +50,10 @@ import com.b2international.snowowl.test.commons.SnowOwlAppRule;
 	FhirSnomedCodeSystemLookupTest.class,
 	FhirSnomedCodeSystemValidateCodeTest.class,
 	FhirSnomedCodeSystemSubsumesTest.class,
+	FhirCodeSystemHierarchyIndexTest.class,
 	FhirSnomedValueSetExpandTest.class,
+	FhirSnomedValueSetExpandStreamTest.class,
+	FhirVersionSnapshotTest.class,
 	// TODO enable ConceptMap test cases
 //	FhirSnomedConceptMapTranslateTest.class,
 	
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest.tests;
+
+import static com.b2international.snowowl.test.commons.rest.RestExtensions.givenAuthenticatedRequest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hl7.fhir.r5.model.ValueSet;
+import org.hl7.fhir.r5.model.ValueSet.ValueSetExpansionContainsComponent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.b2international.fhir.r5.operations.ConceptMapTranslateResultParameters;
+import com.b2international.fhir.r5.operations.ValueSetExpandParameters;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.plugin.ClassPathScanner;
+import com.b2international.snowowl.core.version.VersionCreatedListener;
+import com.b2international.snowowl.fhir.core.FhirVersionSnapshotListener;
+import com.b2international.snowowl.fhir.core.request.FhirRequests;
+import com.b2international.snowowl.fhir.core.request.conceptmap.FhirConceptMapTranslationSnapshot;
+import com.b2international.snowowl.fhir.core.request.conceptmap.FhirConceptMapTranslationSnapshotStore;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpander;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpansionSnapshot;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpansionSnapshotStore;
+import com.b2international.snowowl.test.commons.Services;
+import com.b2international.snowowl.test.commons.rest.RestExtensions;
+
+/**
+ * There is no ValueSet or ConceptMap tooling in this test environment, so snapshots are computed from the expansion of an implicit SNOMED CT
+ * value set, and version creation is simulated by notifying the registered listener directly.
+ * 
+ * @since 9.5
+ */
+public class FhirVersionSnapshotTest extends FhirRestTest {
+
+	private static final String TOP_LEVEL_CONCEPTS_URL = SNOMEDCT_URL + "?fhir_vs=ecl/<!138875005";
+	private static final int PAGE_SIZE = 5;
+	
+	private static final ResourceURI VALUE_SET_VERSION = ResourceURI.branch("valuesets", "snapshot-test", "v1");
+	private static final ResourceURI CONCEPT_MAP_VERSION = ResourceURI.branch("conceptmaps", "snapshot-test", "v1");
+	private static final ResourceURI CODE_SYSTEM_VERSION = ResourceURI.branch("codesystems", "snapshot-test", "v1");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void expansionSnapshotPagingMatchesLiveExpansion() throws Exception {
+		final List<List<ValueSetExpansionContainsComponent>> livePages = expandInPages(TOP_LEVEL_CONCEPTS_URL);
+		assertEquals(4, livePages.size());
+		
+		final FhirValueSetExpansionSnapshot.Builder builder = FhirValueSetExpansionSnapshot.builder();
+		livePages.forEach(builder::add);
+		
+		final Path directory = folder.newFolder().toPath();
+		new FhirValueSetExpansionSnapshotStore(directory, 1).put(VALUE_SET_VERSION, builder.build(1234L));
+		
+		// a new store has to read the snapshot from disk
+		final FhirValueSetExpansionSnapshot snapshot = new FhirValueSetExpansionSnapshotStore(directory, 1).get(VALUE_SET_VERSION).orElseThrow();
+		assertEquals(1234L, snapshot.getCreatedAt());
+		assertEquals(16, snapshot.size());
+		for (int page = 0; page < livePages.size(); page++) {
+			assertEquals(toStrings(livePages.get(page)), toStrings(snapshot.getContains(page * PAGE_SIZE, PAGE_SIZE)));
+		}
+		assertTrue(snapshot.getContains(snapshot.size(), PAGE_SIZE).isEmpty());
+	}
+	
+	@Test
+	public void invalidSnapshotSearchAfterValueIsRejected() throws Exception {
+		for (final String after : List.of("snapshot--5", "snapshot-abc")) {
+			givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+				.queryParam("url", RestExtensions.encodeQueryParameter(TOP_LEVEL_CONCEPTS_URL))
+				.queryParam("after", after)
+				.when().get("/ValueSet/$expand")
+				.then()
+				.statusCode(400);
+		}
+	}
+	
+	@Test
+	public void translationSnapshotRoundTrip() throws Exception {
+		final ConceptMapTranslateResultParameters mapped = new ConceptMapTranslateResultParameters().setResult(true).setMessage("Mapped");
+		final ConceptMapTranslateResultParameters unmapped = new ConceptMapTranslateResultParameters().setResult(false).setMessage("N/A");
+		final FhirConceptMapTranslationSnapshot.Builder builder = FhirConceptMapTranslationSnapshot.builder()
+				.put(SNOMEDCT_URL, "105590001", mapped)
+				.put(null, "123037004", unmapped);
+		
+		final Path directory = folder.newFolder().toPath();
+		new FhirConceptMapTranslationSnapshotStore(directory, 1).put(CONCEPT_MAP_VERSION, builder.build());
+		
+		final FhirConceptMapTranslationSnapshot snapshot = new FhirConceptMapTranslationSnapshotStore(directory, 1).get(CONCEPT_MAP_VERSION).orElseThrow();
+		assertEquals(2, snapshot.size());
+		assertEquals(toJson(mapped.getParameters()), toJson(snapshot.get(SNOMEDCT_URL, "105590001").orElseThrow().getParameters()));
+		assertEquals(toJson(unmapped.getParameters()), toJson(snapshot.get(null, "123037004").orElseThrow().getParameters()));
+		assertTrue(snapshot.get(null, "105590001").isEmpty());
+	}
+	
+	@Test
+	public void storeIgnoresSpecialVersionsAndCorruptFiles() throws Exception {
+		final Path directory = folder.newFolder().toPath();
+		final FhirValueSetExpansionSnapshotStore store = new FhirValueSetExpansionSnapshotStore(directory, 1);
+		final FhirValueSetExpansionSnapshot snapshot = FhirValueSetExpansionSnapshot.builder().build(0L);
+		
+		final ResourceURI latest = ResourceURI.latest("valuesets", "snapshot-test");
+		store.put(latest, snapshot);
+		assertTrue(store.get(latest).isEmpty());
+		
+		store.put(VALUE_SET_VERSION, snapshot);
+		try (Stream<Path> files = Files.list(directory)) {
+			for (final Path file : (Iterable<Path>) files::iterator) {
+				Files.write(file, "corrupt".getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		assertTrue(new FhirValueSetExpansionSnapshotStore(directory, 1).get(VALUE_SET_VERSION).isEmpty());
+	}
+	
+	@Test
+	public void versionCreationDiscardsStaleSnapshots() throws Exception {
+		final VersionCreatedListener listener = Services.service(ClassPathScanner.class)
+				.getComponentsByInterface(VersionCreatedListener.class)
+				.stream()
+				.filter(FhirVersionSnapshotListener.class::isInstance)
+				.findFirst()
+				.orElseThrow();
+		
+		final FhirValueSetExpansionSnapshotStore store = Services.service(FhirValueSetExpansionSnapshotStore.class);
+		final FhirValueSetExpansionSnapshot snapshot = FhirValueSetExpansionSnapshot.builder().build(0L);
+		store.put(VALUE_SET_VERSION, snapshot);
+		store.put(CODE_SYSTEM_VERSION, snapshot);
+		
+		try {
+			listener.onVersionCreated(Services.context(), List.of(VALUE_SET_VERSION, CODE_SYSTEM_VERSION));
+			
+			// the stale ValueSet snapshot is discarded right away (and not recomputed, as the ValueSet does not exist)
+			assertTrue(store.get(VALUE_SET_VERSION).isEmpty());
+			// versions of other resource types are not snapshotted
+			assertTrue(store.get(CODE_SYSTEM_VERSION).isPresent());
+		} finally {
+			store.delete(VALUE_SET_VERSION);
+			store.delete(CODE_SYSTEM_VERSION);
+		}
+	}
+	
+	private static List<List<ValueSetExpansionContainsComponent>> expandInPages(final String url) {
+		final List<List<ValueSetExpansionContainsComponent>> pages = new ArrayList<>();
+		final ValueSetExpandParameters parameters = new ValueSetExpandParameters()
+				.setUrl(url)
+				.setCount(PAGE_SIZE);
+		
+		while (true) {
+			final ValueSet valueSet = FhirRequests.valueSets().prepareExpand()
+					.setParameters(parameters)
+					.buildAsync()
+					.execute(Services.bus())
+					.getSync();
+			
+			final List<ValueSetExpansionContainsComponent> contains = valueSet.getExpansion().getContains();
+			if (contains.isEmpty()) {
+				break;
+			}
+			pages.add(contains);
+			
+			final String searchAfter = valueSet.getExpansion().getExtensionString(FhirValueSetExpander.EXTENSION_AFTER_PROPERTY_URL);
+			if (contains.size() < PAGE_SIZE || searchAfter == null) {
+				break;
+			}
+			parameters.setAfter(searchAfter);
+		}
+		
+		return pages;
+	}
+	
+	private static List<String> toStrings(final List<ValueSetExpansionContainsComponent> contains) {
+		return contains.stream()
+				.map(member -> String.join("|", member.getSystem(), member.getCode(), member.getDisplay(), Boolean.toString(member.getInactive())))
+				.toList();
+	}
+	
+}
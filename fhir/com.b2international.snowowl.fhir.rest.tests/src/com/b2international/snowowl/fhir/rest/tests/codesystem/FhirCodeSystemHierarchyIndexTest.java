@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest.tests.codesystem;
+
+import static com.b2international.snowowl.fhir.rest.tests.FhirTestConcepts.BACTERIA;
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hl7.fhir.r5.model.CodeSystem;
+import org.junit.Test;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.domain.Concept;
+import com.b2international.snowowl.fhir.core.request.codesystem.FhirCodeSystemHierarchyIndex;
+import com.b2international.snowowl.fhir.core.request.codesystem.FhirCodeSystemHierarchyIndexCache;
+import com.b2international.snowowl.fhir.rest.tests.FhirRestTest;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.test.commons.Services;
+
+/**
+ * @since 9.5
+ */
+public class FhirCodeSystemHierarchyIndexTest extends FhirRestTest {
+
+	private static final ResourceURI TEST_CODE_SYSTEM = ResourceURI.of("codesystems", "hierarchy-test");
+	private static final String ORGANISM_TOP_LEVEL = "410607006";
+	private static final String PROCEDURE = "71388002";
+	
+	@Test
+	public void ancestorsAndSubsumption() throws Exception {
+		final FhirCodeSystemHierarchyIndex index = FhirCodeSystemHierarchyIndex.build(Stream.of(
+			concept("A", List.of(), List.of()),
+			concept("B", List.of("A"), List.of()),
+			concept("C", List.of("B"), List.of("A")),
+			concept("D", List.of("A", "unknown"), List.of()),
+			concept("E", null, null)
+		));
+		
+		assertEquals(5, index.size());
+		assertTrue(index.contains("A"));
+		assertTrue(index.contains("E"));
+		// references to codes outside of the code system are not registered as codes
+		assertFalse(index.contains("unknown"));
+		assertFalse(index.contains(null));
+		
+		// direct parents
+		assertTrue(index.isSubsumedBy("B", "A"));
+		assertTrue(index.isSubsumedBy("C", "B"));
+		assertTrue(index.isSubsumedBy("D", "A"));
+		// ancestors
+		assertTrue(index.isSubsumedBy("C", "A"));
+		
+		// subsumption is not reflexive or symmetric, and does not include siblings or missing codes
+		assertFalse(index.isSubsumedBy("A", "A"));
+		assertFalse(index.isSubsumedBy("A", "B"));
+		assertFalse(index.isSubsumedBy("D", "B"));
+		assertFalse(index.isSubsumedBy("E", "A"));
+		assertFalse(index.isSubsumedBy("D", "unknown"));
+		assertFalse(index.isSubsumedBy("unknown", "A"));
+	}
+	
+	@Test
+	public void cacheSkipsSpecialVersions() throws Exception {
+		final FhirCodeSystemHierarchyIndexCache cache = new FhirCodeSystemHierarchyIndexCache(1);
+		
+		// content of these code systems can change at any time, indexing is not allowed
+		assertTrue(cache.get(Services.context(), codeSystem("SNOMEDCT", null)).isEmpty());
+		assertTrue(cache.get(Services.context(), codeSystem("SNOMEDCT/HEAD", null)).isEmpty());
+		assertTrue(cache.get(Services.context(), codeSystem("SNOMEDCT/LATEST", null)).isEmpty());
+		assertTrue(cache.get(Services.context(), codeSystem("SNOMEDCT/NEXT", null)).isEmpty());
+	}
+	
+	@Test
+	public void cacheIndexesVersions() throws Exception {
+		final FhirCodeSystemHierarchyIndexCache cache = new FhirCodeSystemHierarchyIndexCache(1);
+		
+		final FhirCodeSystemHierarchyIndex index = cache.get(Services.context(), codeSystem("SNOMEDCT/2018-01-31", new Date(1L))).orElseThrow();
+		assertTrue(index.contains(Concepts.ROOT_CONCEPT));
+		assertTrue(index.contains(BACTERIA));
+		assertTrue(index.isSubsumedBy(BACTERIA, ORGANISM_TOP_LEVEL));
+		assertTrue(index.isSubsumedBy(BACTERIA, Concepts.ROOT_CONCEPT));
+		assertFalse(index.isSubsumedBy(ORGANISM_TOP_LEVEL, BACTERIA));
+		assertFalse(index.isSubsumedBy(BACTERIA, PROCEDURE));
+		
+		// the same version is served from memory
+		assertSame(index, cache.get(Services.context(), codeSystem("SNOMEDCT/2018-01-31", new Date(1L))).orElseThrow());
+		// a version that was recreated (with a different last update time) is indexed again
+		assertNotSame(index, cache.get(Services.context(), codeSystem("SNOMEDCT/2018-01-31", new Date(2L))).orElseThrow());
+	}
+	
+	private static Concept concept(String id, List<String> parentIds, List<String> ancestorIds) {
+		final Concept concept = new Concept(TEST_CODE_SYSTEM, "concept");
+		concept.setId(id);
+		concept.setParentIds(parentIds);
+		concept.setAncestorIds(ancestorIds);
+		return concept;
+	}
+	
+	private static CodeSystem codeSystem(String id, Date lastUpdated) {
+		final CodeSystem codeSystem = new CodeSystem();
+		codeSystem.setId(id);
+		if (lastUpdated != null) {
+			codeSystem.getMeta().setLastUpdated(lastUpdated);
+		}
+		return codeSystem;
+	}
+	
+}
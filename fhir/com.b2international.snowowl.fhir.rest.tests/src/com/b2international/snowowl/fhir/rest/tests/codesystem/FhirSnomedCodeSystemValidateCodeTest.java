@@ -20,6 +20,9 @@ import static com.b2international.snowowl.test.commons.rest.RestExtensions.given
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.nullValue;
 
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Bundle.BundleType;
+import org.hl7.fhir.r5.model.Bundle.HTTPVerb;
 import org.hl7.fhir.r5.model.Coding;
 import org.junit.Test;
 
@@ -134,4 +137,63 @@ public class FhirSnomedCodeSystemValidateCodeTest extends FhirRestTest {
 			.body("parameter[1]", nullValue());
 	}
 	
+	@Test
+	public void POST_Batch_$validate_code() throws Exception {
+		var existing = new CodeSystemValidateCodeParameters()
+				.setUrl(SNOMEDCT_URL)
+				.setCoding(new Coding().setSystem(SNOMEDCT_URL).setCode(Concepts.ROOT_CONCEPT));
+		var nonExisting = new CodeSystemValidateCodeParameters()
+				.setUrl(SNOMEDCT_URL)
+				.setCoding(new Coding().setSystem(SNOMEDCT_URL).setCode("12345"));
+		
+		var bundle = new Bundle().setType(BundleType.BATCH);
+		bundle.addEntry().setResource(existing.getParameters()).getRequest().setMethod(HTTPVerb.POST).setUrl("CodeSystem/$validate-code");
+		bundle.addEntry().setResource(nonExisting.getParameters()).getRequest().setMethod(HTTPVerb.POST).setUrl("CodeSystem/$validate-code");
+		
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.contentType("application/fhir+json;fhirVersion=5.0.0")
+			.accept("application/fhir+json;fhirVersion=5.0.0")
+			.body(toJson(bundle))
+			.when().post("/")
+			.then().assertThat()
+			.statusCode(200)
+			.body("resourceType", equalTo("Bundle"))
+			.body("type", equalTo("batch-response"))
+			.body("entry[0].response.status", equalTo("200 OK"))
+			.body("entry[0].resource.parameter[0].name", equalTo("result"))
+			.body("entry[0].resource.parameter[0].valueBoolean", equalTo(true))
+			.body("entry[1].resource.parameter[0].valueBoolean", equalTo(false))
+			.body("entry[1].resource.parameter[1].valueString", equalTo("Could not find code '[12345]'."))
+			.body("entry[2]", nullValue());
+	}
+	
+	@Test
+	public void POST_Batch_NotABatch() throws Exception {
+		var bundle = new Bundle().setType(BundleType.TRANSACTION);
+		
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.contentType("application/fhir+json;fhirVersion=5.0.0")
+			.accept("application/fhir+json;fhirVersion=5.0.0")
+			.body(toJson(bundle))
+			.when().post("/")
+			.then().assertThat()
+			.statusCode(400)
+			.body("issue[0].location[0]", equalTo("Bundle.type"));
+	}
+	
+	@Test
+	public void POST_Batch_UnsupportedEntry() throws Exception {
+		var bundle = new Bundle().setType(BundleType.BATCH);
+		bundle.addEntry().getRequest().setMethod(HTTPVerb.GET).setUrl("CodeSystem/$lookup?system=" + SNOMEDCT_URL + "&code=" + Concepts.ROOT_CONCEPT);
+		
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.contentType("application/fhir+json;fhirVersion=5.0.0")
+			.accept("application/fhir+json;fhirVersion=5.0.0")
+			.body(toJson(bundle))
+			.when().post("/")
+			.then().assertThat()
+			.statusCode(400)
+			.body("issue[0].location[0]", equalTo("Bundle.entry"));
+	}
+	
 }
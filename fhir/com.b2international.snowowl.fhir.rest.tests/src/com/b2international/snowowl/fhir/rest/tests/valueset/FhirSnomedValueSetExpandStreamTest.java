@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest.tests.valueset;
+
+import static com.b2international.snowowl.test.commons.rest.RestExtensions.givenAuthenticatedRequest;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.fhir.rest.tests.FhirRestTest;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.test.commons.rest.RestExtensions;
+
+/**
+ * Test cases for streamed ValueSet expansions (<code>_stream=true</code>).
+ * 
+ * @since 9.5
+ */
+public class FhirSnomedValueSetExpandStreamTest extends FhirRestTest {
+
+	private static final String TOP_LEVEL_CONCEPTS_URL = SnomedTerminologyComponentConstants.SNOMED_URI_SCT + "/900000000000207008?fhir_vs=ecl/<!138875005";
+	
+	@Test
+	public void streamEnvelope() throws Exception {
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", RestExtensions.encodeQueryParameter(TOP_LEVEL_CONCEPTS_URL))
+			.queryParam("_stream", true)
+			.when().get("/ValueSet/$expand")
+			.then()
+			.statusCode(200)
+			.body("resourceType", equalTo("ValueSet"))
+			.body("id", notNullValue())
+			.body("expansion.total", equalTo(16))
+			.body("expansion.contains", hasSize(16))
+			.body("expansion.contains[0].code", equalTo("105590001"))
+			.body("expansion.contains[0].system", equalTo(SNOMEDCT_URL))
+			.body("expansion.contains[0].display", equalTo("Substance (substance)"))
+			// the expansion has been exhausted, no cursor is returned
+			.body("expansion.next", nullValue());
+	}
+	
+	@Test
+	public void streamWithCountWritesCursor() throws Exception {
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", RestExtensions.encodeQueryParameter(TOP_LEVEL_CONCEPTS_URL))
+			.queryParam("count", 5)
+			.queryParam("_stream", true)
+			.when().get("/ValueSet/$expand")
+			.then()
+			.statusCode(200)
+			.body("expansion.total", equalTo(16))
+			.body("expansion.contains", hasSize(5))
+			.body("expansion.contains[0].code", equalTo("105590001"))
+			// same cursor as the non-streamed expansion
+			.body("expansion.extension[0].valueString", equalTo("AoIpMjU0MjkxMDAwKTI1NDI5MTAwMA=="))
+			.body("expansion.next", endsWith("&after=AoIpMjU0MjkxMDAwKTI1NDI5MTAwMA=="));
+	}
+	
+	@Test
+	public void streamMultiplePages() throws Exception {
+		// the entire code system does not fit into a single page of the stream
+		final List<String> streamedCodes = givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", SNOMEDCT_URL)
+			.queryParam("_stream", true)
+			.when().get("/ValueSet/$expand")
+			.then()
+			.statusCode(200)
+			.body("resourceType", equalTo("ValueSet"))
+			.body("expansion.total", equalTo(1943))
+			.body("expansion.contains", hasSize(1943))
+			.body("expansion.contains[0].code", equalTo("103335007"))
+			.body("expansion.contains[0].display", equalTo("Duration (attribute)"))
+			.body("expansion.next", nullValue())
+			.extract()
+			.jsonPath()
+			.getList("expansion.contains.code", String.class);
+		
+		final List<String> expandedCodes = givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", SNOMEDCT_URL)
+			.queryParam("count", 2000)
+			.when().get("/ValueSet/$expand")
+			.then()
+			.statusCode(200)
+			.extract()
+			.jsonPath()
+			.getList("expansion.contains.code", String.class);
+		
+		assertEquals(expandedCodes, streamedCodes);
+	}
+	
+	@Test
+	public void streamMultiplePagesWithCount() throws Exception {
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", SNOMEDCT_URL)
+			.queryParam("count", 1500)
+			.queryParam("_stream", true)
+			.when().get("/ValueSet/$expand")
+			.then()
+			.statusCode(200)
+			.body("expansion.total", equalTo(1943))
+			.body("expansion.contains", hasSize(1500))
+			.body("expansion.next", notNullValue());
+	}
+	
+	@Test
+	public void streamRejectsXmlFormat() throws Exception {
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", SNOMEDCT_URL)
+			.queryParam("_stream", true)
+			.queryParam("_format", "application/fhir+xml")
+			.when().get("/ValueSet/$expand")
+			.then()
+			.statusCode(400)
+			.body("resourceType", equalTo("OperationOutcome"))
+			.body("issue[0].diagnostics", equalTo("Streaming expansion is only supported for JSON response formats."));
+	}
+	
+}
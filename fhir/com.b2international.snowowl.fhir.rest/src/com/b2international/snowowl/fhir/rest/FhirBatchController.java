@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest;
+
+import static com.b2international.snowowl.fhir.rest.FhirMediaType.*;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r5.model.Bundle.BundleType;
+import org.hl7.fhir.r5.model.Bundle.HTTPVerb;
+import org.hl7.fhir.r5.model.Parameters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.b2international.fhir.r5.operations.CodeSystemValidateCodeParameters;
+import com.b2international.fhir.r5.operations.CodeSystemValidateCodeResultParameters;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.core.rest.FhirApiConfig;
+import com.b2international.snowowl.fhir.core.exceptions.BadRequestException;
+import com.b2international.snowowl.fhir.core.request.FhirRequests;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Batch interaction of the FHIR API. Only <code>CodeSystem/$validate-code</code> operations are supported as batch entries; these are
+ * validated together, so that entries against the same code system version share the code system lookup and concept searches.
+ * 
+ * @since 9.5
+ */
+@Tag(description = "Bundle", name = FhirApiConfig.BUNDLE)
+@RestController
+public class FhirBatchController extends AbstractFhirController {
+
+	private static final String VALIDATE_CODE_URL = "CodeSystem/$validate-code";
+	
+	/**
+	 * <code><b>POST /</b></code>
+	 * <p>
+	 * Accepts a Bundle of type <code>batch</code>, where each entry is a <code>POST CodeSystem/$validate-code</code> request with a Parameters
+	 * resource, and returns a Bundle of type <code>batch-response</code> with the result of each entry, in the same order.
+	 * 
+	 * @param requestBody - an {@link InputStream} whose contents can be deserialized to a FHIR Bundle
+	 * @param contentType
+	 * @param accept
+	 * @param _format
+	 * @param _pretty
+	 * @return
+	 */
+	@Operation(
+		summary = "Validate codes in a batch", 
+		description = "Validate multiple coded values with a single batch request. Each entry must be a POST request to 'CodeSystem/$validate-code' with a Parameters resource."
+	)
+	@ApiResponse(responseCode = "200", description = "OK")
+	@ApiResponse(responseCode = "400", description = "Bad request")
+	@ApiResponse(responseCode = "404", description = "Code system not found")
+	@PostMapping(
+		value = "/", 
+		consumes = {
+			APPLICATION_FHIR_JSON_5_0_0_VALUE,
+			APPLICATION_FHIR_JSON_4_3_0_VALUE,
+			APPLICATION_FHIR_JSON_4_0_1_VALUE,
+			APPLICATION_FHIR_JSON_VALUE,
+			APPLICATION_JSON_VALUE,
+			TEXT_JSON_VALUE,
+			
+			APPLICATION_FHIR_XML_5_0_0_VALUE,
+			APPLICATION_FHIR_XML_4_3_0_VALUE,
+			APPLICATION_FHIR_XML_4_0_1_VALUE,
+			APPLICATION_FHIR_XML_VALUE,
+			APPLICATION_XML_VALUE,
+			TEXT_XML_VALUE
+		},
+		produces = {
+			APPLICATION_FHIR_JSON_5_0_0_VALUE,
+			APPLICATION_FHIR_JSON_4_3_0_VALUE,
+			APPLICATION_FHIR_JSON_4_0_1_VALUE,
+			APPLICATION_FHIR_JSON_VALUE,
+			APPLICATION_JSON_VALUE,
+			TEXT_JSON_VALUE,
+			
+			APPLICATION_FHIR_XML_5_0_0_VALUE,
+			APPLICATION_FHIR_XML_4_3_0_VALUE,
+			APPLICATION_FHIR_XML_4_0_1_VALUE,
+			APPLICATION_FHIR_XML_VALUE,
+			APPLICATION_XML_VALUE,
+			TEXT_XML_VALUE
+		}
+	)
+	public Promise<ResponseEntity<byte[]>> batch(
+			
+		@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "A Bundle of type 'batch'", content = { 
+			@Content(mediaType = APPLICATION_FHIR_JSON_5_0_0_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_FHIR_JSON_4_3_0_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_FHIR_JSON_4_0_1_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_FHIR_JSON_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = TEXT_JSON_VALUE, schema = @Schema(type = "object")),
+
+			@Content(mediaType = APPLICATION_FHIR_XML_5_0_0_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_FHIR_XML_4_3_0_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_FHIR_XML_4_0_1_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_FHIR_XML_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = APPLICATION_XML_VALUE, schema = @Schema(type = "object")),
+			@Content(mediaType = TEXT_XML_VALUE, schema = @Schema(type = "object"))
+		})
+		final InputStream requestBody,
+		
+		@Parameter(hidden = true)
+		@RequestHeader(value = HttpHeaders.CONTENT_TYPE)
+		final String contentType,
+		
+		@Parameter(hidden = true)
+		@RequestHeader(value = HttpHeaders.ACCEPT)
+		final String accept,
+
+		@Parameter(description = "Alternative response format", schema = @Schema(allowableValues = {
+			APPLICATION_FHIR_JSON_5_0_0_VALUE,
+			APPLICATION_FHIR_JSON_4_3_0_VALUE,
+			APPLICATION_FHIR_JSON_4_0_1_VALUE,
+			APPLICATION_FHIR_JSON_VALUE,
+			APPLICATION_JSON_VALUE,
+			TEXT_JSON_VALUE,
+			
+			APPLICATION_FHIR_XML_5_0_0_VALUE,
+			APPLICATION_FHIR_XML_4_3_0_VALUE,
+			APPLICATION_FHIR_XML_4_0_1_VALUE,
+			APPLICATION_FHIR_XML_VALUE,
+			APPLICATION_XML_VALUE,
+			TEXT_XML_VALUE
+		}))
+		@RequestParam(value = "_format", required = false)
+		final String _format,
+		
+		@Parameter(description = "Controls pretty-printing of response")
+		@RequestParam(value = "_pretty", required = false)
+		final Boolean _pretty
+		
+	) {
+		final Bundle bundle = toFhirResource(requestBody, contentType, Bundle.class);
+		if (bundle.getType() != BundleType.BATCH) {
+			throw new BadRequestException("Only bundles of type 'batch' are supported.", "Bundle.type");
+		}
+		
+		final List<CodeSystemValidateCodeParameters> parameters = new ArrayList<>(bundle.getEntry().size());
+		for (final BundleEntryComponent entry : bundle.getEntry()) {
+			if (!entry.hasRequest() 
+					|| entry.getRequest().getMethod() != HTTPVerb.POST 
+					|| !VALIDATE_CODE_URL.equals(entry.getRequest().getUrl())
+					|| !(entry.getResource() instanceof Parameters)) {
+				throw new BadRequestException(String.format("Only '%s' requests with a Parameters resource are supported in batches.", VALIDATE_CODE_URL), "Bundle.entry");
+			}
+			
+			parameters.add(new CodeSystemValidateCodeParameters((Parameters) entry.getResource()));
+		}
+		
+		return FhirRequests.codeSystems().prepareBatchValidateCode()
+			.setParameters(parameters)
+			.buildAsync()
+			.execute(getBus())
+			.then(results -> {
+				final Bundle response = new Bundle().setType(BundleType.BATCHRESPONSE);
+				for (final CodeSystemValidateCodeResultParameters result : results) {
+					response.addEntry()
+						.setResource(result.getParameters())
+						.getResponse()
+						.setStatus("200 OK");
+				}
+				return toResponseEntity(response, accept, _format, _pretty);
+			});
+	}
+	
+}
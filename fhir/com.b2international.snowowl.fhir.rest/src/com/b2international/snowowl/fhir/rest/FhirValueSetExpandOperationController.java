@@ -18,12 +18,15 @@ package com.b2international.snowowl.fhir.rest;
 import static com.b2international.snowowl.fhir.rest.FhirMediaType.*;
 
 import java.io.InputStream;
+import java.util.function.BiFunction;
 
+import org.hl7.fhir.r5.elementmodel.Manager.FhirFormat;
 import org.hl7.fhir.r5.model.ValueSet;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.b2international.commons.http.AcceptLanguageHeader;
@@ -51,6 +54,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RequestMapping(value = "/ValueSet")
 public class FhirValueSetExpandOperationController extends AbstractFhirController {
 
+	/**
+	 * The number of codes retrieved at once when streaming an expansion.
+	 */
+	private static final int STREAM_PAGE_SIZE = 1_000;
+
 	/**
 	 * <code><b>GET /ValueSet/$expand</b></code>
 	 * 
@@ -177,6 +185,123 @@ public class FhirValueSetExpandOperationController extends AbstractFhirControlle
 		return expand(parameters, nextUriBuilder, accept, _format, _pretty);
 	}
 	
+	/**
+	 * <code><b>GET /ValueSet/$expand?_stream=true</b></code>
+	 * 
+	 * @param url
+	 * @param filter
+	 * @param activeOnly
+	 * @param displayLanguage
+	 * @param includeDesignations
+	 * @param withHistorySupplements
+	 * @param count
+	 * @param after
+	 * @param _stream
+	 * @param accept
+	 * @param _format
+	 * @param _pretty
+	 * @return
+	 */
+	@Operation(
+		summary = "Expand a value set (streaming)",
+		description = "Expand a value set specified by its URL, streaming the expanded codes to the response."
+	)
+	@ApiResponse(responseCode = "200", description = "OK")
+	@ApiResponse(responseCode = "400", description = "Bad request")
+	@ApiResponse(responseCode = "404", description = "Value set not found")
+	@GetMapping(value = "/$expand", params = "_stream=true", produces = {
+		APPLICATION_FHIR_JSON_5_0_0_VALUE,
+		APPLICATION_FHIR_JSON_4_3_0_VALUE,
+		APPLICATION_FHIR_JSON_4_0_1_VALUE,
+		APPLICATION_FHIR_JSON_VALUE,
+		APPLICATION_JSON_VALUE,
+		TEXT_JSON_VALUE
+	})
+	public ResponseEntity<StreamingResponseBody> expandTypeStream(
+
+		@Parameter(description = "Canonical URL of the value set") 
+		@RequestParam(value = "url", required = true) 
+		final String url,
+		
+		@Parameter(description = "Textual filter value to use") 
+		@RequestParam(value = "filter", required = false)
+		final String filter,
+		
+		@Parameter(description = "Return only active codes or not (default: return both)") 
+		@RequestParam(value = "activeOnly", required = false)
+		final Boolean activeOnly,
+		
+		@Parameter(description = "Specify the display language for the returned codes") 
+		@RequestParam(value = "displayLanguage", defaultValue = AcceptLanguageHeader.DEFAULT_ACCEPT_LANGUAGE_HEADER, required = false)
+		final String displayLanguage,
+		
+		@Parameter(description = "Controls whether concept designations are to be included or excluded in value set expansions") 
+		@RequestParam(value = "includeDesignations", required = false)
+		final Boolean includeDesignations,
+		
+		@Parameter(description = "Include historical association components when generating the Value Set expansion response") 
+		@RequestParam(value = "withHistorySupplements", required = false)
+		final Boolean withHistorySupplements,
+		
+		@Parameter(description = "The number of codes to return (default: return all codes)") 
+		@RequestParam(value = "count", required = false)
+		final Integer count,
+		
+		@Parameter(description = "Specify the search after value to return the next page") 
+		@RequestParam(value = "after", required = false)
+		final String after,
+		
+		@Parameter(description = "Stream the expanded codes to the response instead of building the complete expansion in memory")
+		@RequestParam(value = "_stream", required = true)
+		final Boolean _stream,
+		
+		@Parameter(hidden = true)
+		@RequestHeader(value = HttpHeaders.ACCEPT)
+		final String accept,
+
+		@Parameter(description = "Alternative response format", schema = @Schema(allowableValues = {
+			APPLICATION_FHIR_JSON_5_0_0_VALUE,
+			APPLICATION_FHIR_JSON_4_3_0_VALUE,
+			APPLICATION_FHIR_JSON_4_0_1_VALUE,
+			APPLICATION_FHIR_JSON_VALUE,
+			APPLICATION_JSON_VALUE,
+			TEXT_JSON_VALUE
+		}))
+		@RequestParam(value = "_format", required = false)
+		final String _format,
+		
+		@Parameter(description = "Controls pretty-printing of response")
+		@RequestParam(value = "_pretty", required = false)
+		final Boolean _pretty
+		
+	) {
+		
+		final UriComponentsBuilder nextUriBuilder = MvcUriComponentsBuilder.fromMethodName(FhirValueSetExpandOperationController.class, "expandTypeStream", 
+			url, 
+			filter, 
+			activeOnly, 
+			displayLanguage, 
+			includeDesignations, 
+			withHistorySupplements, 
+			count, 
+			after,
+			_stream,
+			accept,
+			_format,
+			_pretty);
+		
+		final var parameters = new ValueSetExpandParameters()
+			.setUrl(url)
+			.setFilter(filter)
+			.setAfter(after)
+			.setActiveOnly(activeOnly)
+			.setDisplayLanguage(displayLanguage)
+			.setWithHistorySupplements(withHistorySupplements)
+			.setIncludeDesignations(includeDesignations);
+		
+		return expandStream(parameters, count, nextUriBuilder, accept, _format, _pretty);
+	}
+	
 	/**
 	 * <code><b>POST /ValueSet/$expand</b></code>
 	 * 
@@ -440,6 +565,124 @@ public class FhirValueSetExpandOperationController extends AbstractFhirControlle
 		return expand(expandRequest, nextUriBuilder, accept, _format, _pretty);
 	}
 
+	/**
+	 * <code><b>GET /ValueSet/{id}/$expand?_stream=true</b></code>
+	 * 
+	 * @param id
+	 * @param filter
+	 * @param activeOnly
+	 * @param displayLanguage
+	 * @param includeDesignations
+	 * @param withHistorySupplements
+	 * @param count
+	 * @param after
+	 * @param _stream
+	 * @param accept
+	 * @param _format
+	 * @param _pretty
+	 * @return
+	 */
+	@Operation(
+		summary = "Expand a value set (streaming)",
+		description = "Expand a value set specified by its logical id, streaming the expanded codes to the response."
+	)
+	@ApiResponse(responseCode = "200", description = "OK")
+	@ApiResponse(responseCode = "400", description = "Bad Request")
+	@ApiResponse(responseCode = "404", description = "Not Found")
+	@GetMapping(value = "/{id:**}/$expand", params = "_stream=true", produces = {
+		APPLICATION_FHIR_JSON_5_0_0_VALUE,
+		APPLICATION_FHIR_JSON_4_3_0_VALUE,
+		APPLICATION_FHIR_JSON_4_0_1_VALUE,
+		APPLICATION_FHIR_JSON_VALUE,
+		APPLICATION_JSON_VALUE,
+		TEXT_JSON_VALUE
+	})
+	public ResponseEntity<StreamingResponseBody> expandInstanceStream(
+
+		@Parameter(description = "The logical id of the value set to expand") 
+		@PathVariable(value = "id", required = true) 
+		final String id,
+		
+		@Parameter(description = "Textual filter value to use") 
+		@RequestParam(value = "filter", required = false)
+		final String filter,
+		
+		@Parameter(description = "Return only active codes or not (default: return both)") 
+		@RequestParam(value = "activeOnly", required = false)
+		final Boolean activeOnly,
+		
+		@Parameter(description = "Specify the display language for the returned codes") 
+		@RequestParam(value = "displayLanguage", defaultValue = AcceptLanguageHeader.DEFAULT_ACCEPT_LANGUAGE_HEADER, required = false)
+		final String displayLanguage,
+		
+		@Parameter(description = "Controls whether concept designations are to be included or excluded in value set expansions") 
+		@RequestParam(value = "includeDesignations", required = false)
+		final Boolean includeDesignations,
+		
+		@Parameter(description = "Include historical association components when generating the Value Set expansion response") 
+		@RequestParam(value = "withHistorySupplements", required = false)
+		final Boolean withHistorySupplements,
+		
+		@Parameter(description = "The number of codes to return (default: return all codes)") 
+		@RequestParam(value = "count", required = false)
+		final Integer count,
+		
+		@Parameter(description = "Specify the search after value to return the next page") 
+		@RequestParam(value = "after", required = false)
+		final String after,
+		
+		@Parameter(description = "Stream the expanded codes to the response instead of building the complete expansion in memory")
+		@RequestParam(value = "_stream", required = true)
+		final Boolean _stream,
+		
+		@Parameter(hidden = true)
+		@RequestHeader(value = HttpHeaders.ACCEPT)
+		final String accept,
+
+		@Parameter(description = "Alternative response format", schema = @Schema(allowableValues = {
+			APPLICATION_FHIR_JSON_5_0_0_VALUE,
+			APPLICATION_FHIR_JSON_4_3_0_VALUE,
+			APPLICATION_FHIR_JSON_4_0_1_VALUE,
+			APPLICATION_FHIR_JSON_VALUE,
+			APPLICATION_JSON_VALUE,
+			TEXT_JSON_VALUE
+		}))
+		@RequestParam(value = "_format", required = false)
+		final String _format,
+		
+		@Parameter(description = "Controls pretty-printing of response")
+		@RequestParam(value = "_pretty", required = false)
+		final Boolean _pretty
+		
+	) {
+		
+		final UriComponentsBuilder nextUriBuilder = MvcUriComponentsBuilder.fromMethodName(FhirValueSetExpandOperationController.class, "expandInstanceStream", 
+			id, 
+			filter, 
+			activeOnly, 
+			displayLanguage, 
+			includeDesignations, 
+			withHistorySupplements, 
+			count, 
+			after,
+			_stream,
+			accept,
+			_format,
+			_pretty);
+		
+		final var parameters = new ValueSetExpandParameters()
+			// XXX: We use the resource IDs as the URL here 
+			.setUrl(id)
+			.setFilter(filter)
+			.setAfter(after)
+			.setActiveOnly(activeOnly)
+			.setDisplayLanguage(displayLanguage)
+			.setWithHistorySupplements(withHistorySupplements)
+			.setIncludeDesignations(includeDesignations);
+		
+		return expandStream(parameters, count, nextUriBuilder, accept, _format, _pretty);
+	}
+	
 	private Promise<ResponseEntity<byte[]>> expand(
 		final ValueSetExpandParameters parameters, 
 		final UriComponentsBuilder nextUriBuilder,
@@ -465,4 +708,35 @@ public class FhirValueSetExpandOperationController extends AbstractFhirControlle
 				return toResponseEntity(valueSet, accept, _format, _pretty);
 			});
 	}
+	
+	private ResponseEntity<StreamingResponseBody> expandStream(
+		final ValueSetExpandParameters parameters,
+		final Integer count,
+		final UriComponentsBuilder nextUriBuilder,
+		final String accept,
+		final String _format,
+		final Boolean _pretty
+	) {
+		final FhirMediaType mediaType = FhirMediaType.parse(accept, _format);
+		if (mediaType.getFhirFormat() != FhirFormat.JSON) {
+			throw new BadRequestException("Streaming expansion is only supported for JSON response formats.", "ExpandValueSetRequest");
+		}
+		
+		final int totalCount = (count == null) ? Integer.MAX_VALUE : count;
+		
+		final BiFunction<Integer, String, ValueSet> pageLoader = (pageCount, searchAfter) -> FhirRequests.valueSets().prepareExpand()
+			.setParameters(parameters.setCount(pageCount).setAfter(searchAfter))
+			.buildAsync()
+			.execute(getBus())
+			.getSync();
+		
+		// retrieve the first page before the response is committed, so request errors are still reported with the appropriate status
+		final ValueSet firstPage = pageLoader.apply(Math.min(STREAM_PAGE_SIZE, totalCount), parameters.getAfter() == null ? null : parameters.getAfter().getValue());
+		
+		final boolean prettyPrinting = (_pretty != null) && _pretty;
+		
+		return ResponseEntity.ok()
+			.contentType(mediaType.getMediaType())
+			.body(new FhirValueSetExpansionStream(mediaType, prettyPrinting, STREAM_PAGE_SIZE, totalCount, firstPage, pageLoader, nextUriBuilder));
+	}
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.hl7.fhir.r5.model.ValueSet;
+import org.hl7.fhir.r5.model.ValueSet.ValueSetExpansionContainsComponent;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpander;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Writes a ValueSet expansion to the response body page by page, so that only a single page of
+ * <code>expansion.contains</code> entries is kept in memory at any time, regardless of the size of the expansion.
+ * <p>
+ * Pages are retrieved via the search-after cursor of the expansion. The ValueSet itself (everything but the
+ * expanded codes) is taken from the first page. Every page is serialized with the same FHIR version-specific
+ * writer as non-streamed responses, and the resulting entries are copied to the output as they arrive. The
+ * search-after extension and the <code>next</code> link of the expansion are written after the last entry, as
+ * only then is the final cursor position known.
+ * <p>
+ * Only JSON formats are supported.
+ * 
+ * @since 9.5
+ */
+final class FhirValueSetExpansionStream implements StreamingResponseBody {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	
+	private static final String EXPANSION = "expansion";
+	private static final String CONTAINS = "contains";
+	private static final String EXTENSION = "extension";
+	private static final String NEXT = "next";
+	
+	private final FhirMediaType mediaType;
+	private final boolean pretty;
+	private final int pageSize;
+	private final int count;
+	private final ValueSet firstPage;
+	private final BiFunction<Integer, String, ValueSet> pageLoader;
+	private final UriComponentsBuilder nextUriBuilder;
+
+	/**
+	 * @param mediaType - the JSON media type to write
+	 * @param pretty - whether to pretty-print the response
+	 * @param pageSize - the maximum number of codes to retrieve in a single page
+	 * @param count - the total number of codes to write
+	 * @param firstPage - the first page of the expansion, containing at most <code>min(pageSize, count)</code> codes
+	 * @param pageLoader - retrieves the next page of the expansion, given the number of codes to return and the search-after value
+	 * @param nextUriBuilder - builds the <code>next</code> link of the expansion
+	 */
+	FhirValueSetExpansionStream(
+		final FhirMediaType mediaType, 
+		final boolean pretty, 
+		final int pageSize, 
+		final int count, 
+		final ValueSet firstPage,
+		final BiFunction<Integer, String, ValueSet> pageLoader, 
+		final UriComponentsBuilder nextUriBuilder
+	) {
+		this.mediaType = mediaType;
+		this.pretty = pretty;
+		this.pageSize = pageSize;
+		this.count = count;
+		this.firstPage = firstPage;
+		this.pageLoader = pageLoader;
+		this.nextUriBuilder = nextUriBuilder;
+	}
+	
+	@Override
+	public void writeTo(OutputStream outputStream) throws IOException {
+		final ValueSet.ValueSetExpansionComponent firstExpansion = firstPage.getExpansion();
+		List<ValueSetExpansionContainsComponent> contains = List.copyOf(firstExpansion.getContains());
+		String searchAfter = getSearchAfter(firstPage);
+		
+		// serialize everything except the expanded codes, the cursor and the next link as the envelope
+		firstExpansion.getContains().clear();
+		firstExpansion.removeExtension(FhirValueSetExpander.EXTENSION_AFTER_PROPERTY_URL);
+		firstExpansion.setNextElement(null);
+		final ObjectNode valueSet = toJson(firstPage);
+		final ObjectNode expansion = (ObjectNode) valueSet.remove(EXPANSION);
+		final JsonNode extensions = expansion.remove(EXTENSION);
+		
+		try (JsonGenerator generator = new JsonFactory(MAPPER).createGenerator(outputStream, JsonEncoding.UTF8)) {
+			if (pretty) {
+				generator.useDefaultPrettyPrinter();
+			}
+			
+			generator.writeStartObject();
+			writeFields(generator, valueSet);
+			
+			generator.writeObjectFieldStart(EXPANSION);
+			writeFields(generator, expansion);
+			
+			generator.writeArrayFieldStart(CONTAINS);
+			int remaining = count;
+			int currentPageSize = Math.min(pageSize, count);
+			
+			while (true) {
+				writeContains(generator, contains);
+				remaining -= contains.size();
+				
+				// a partial page or a missing cursor means the expansion has been exhausted
+				if (contains.size() < currentPageSize || searchAfter == null) {
+					searchAfter = null;
+					break;
+				}
+				
+				if (remaining <= 0) {
+					break;
+				}
+				
+				// release the previous page before retrieving the next one
+				contains = null;
+				generator.flush();
+				
+				currentPageSize = Math.min(pageSize, remaining);
+				final ValueSet page = pageLoader.apply(currentPageSize, searchAfter);
+				contains = page.getExpansion().getContains();
+				searchAfter = getSearchAfter(page);
+			}
+			
+			generator.writeEndArray();
+			
+			// write the extensions and the next link reflecting the final position of the cursor
+			final boolean hasExtensions = extensions instanceof ArrayNode extensionArray && !extensionArray.isEmpty();
+			if (hasExtensions || searchAfter != null) {
+				generator.writeArrayFieldStart(EXTENSION);
+				if (hasExtensions) {
+					for (final JsonNode extension : extensions) {
+						generator.writeTree(extension);
+					}
+				}
+				if (searchAfter != null) {
+					generator.writeStartObject();
+					generator.writeStringField("url", FhirValueSetExpander.EXTENSION_AFTER_PROPERTY_URL);
+					generator.writeStringField("valueString", searchAfter);
+					generator.writeEndObject();
+				}
+				generator.writeEndArray();
+			}
+			
+			if (searchAfter != null) {
+				generator.writeStringField(NEXT, nextUriBuilder.replaceQueryParam("after", searchAfter).build().toString());
+			}
+			
+			generator.writeEndObject();
+			generator.writeEndObject();
+		}
+	}
+
+	private void writeContains(final JsonGenerator generator, final List<ValueSetExpansionContainsComponent> contains) throws IOException {
+		if (contains.isEmpty()) {
+			return;
+		}
+		
+		// convert entries with the same version-specific writer as the envelope
+		final ValueSet page = new ValueSet();
+		page.getExpansion().setContains(contains);
+		
+		final JsonNode entries = toJson(page).path(EXPANSION).path(CONTAINS);
+		for (final JsonNode entry : entries) {
+			generator.writeTree(entry);
+		}
+	}
+	
+	private ObjectNode toJson(final ValueSet valueSet) throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		mediaType.writeResource(baos, valueSet, false);
+		return (ObjectNode) MAPPER.readTree(baos.toByteArray());
+	}
+	
+	private static void writeFields(final JsonGenerator generator, final ObjectNode node) throws IOException {
+		final Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		while (fields.hasNext()) {
+			final Map.Entry<String, JsonNode> field = fields.next();
+			generator.writeFieldName(field.getKey());
+			generator.writeTree(field.getValue());
+		}
+	}
+	
+	private static String getSearchAfter(final ValueSet valueSet) {
+		return (String) valueSet.getExpansion().getExtensionString(FhirValueSetExpander.EXTENSION_AFTER_PROPERTY_URL);
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.b2international.snowowl.internal.eventbus.EventBusExecutionModeBenchmarkTest;
 import com.b2international.snowowl.internal.eventbus.EventBusHandlerRegistrationTest;
+import com.b2international.snowowl.internal.eventbus.EventBusLaneTest;
 import com.b2international.snowowl.internal.eventbus.EventBusSendPerformanceTest;
 import com.b2international.snowowl.internal.eventbus.EventBusSendTest;
 import com.b2international.snowowl.internal.eventbus.netty.EventBusProtocolTest;
@@ -33,6 +35,8 @@ import com.b2international.snowowl.internal.eventbus.netty.EventBusProtocolTest;
 	EventBusSendTest.class, 
 	EventBusProtocolTest.class, 
 	EventBusSendPerformanceTest.class, 
+	EventBusLaneTest.class, 
+	EventBusExecutionModeBenchmarkTest.class, 
 })
 public class AllEventBusTests {
 	// Empty class body
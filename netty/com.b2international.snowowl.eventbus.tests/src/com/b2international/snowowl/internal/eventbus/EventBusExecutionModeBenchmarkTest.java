@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.eventbus.EventBusExecutionMode;
+import com.google.common.base.Stopwatch;
+
+/**
+ * Compares the throughput and latency of the worker pool and the virtual thread execution mode with handlers that block, like most
+ * request handlers do while waiting for the index to respond.
+ * 
+ * @since 9.5
+ */
+public class EventBusExecutionModeBenchmarkTest {
+
+	private static final String ADDRESS = "blocking";
+	private static final int NUMBER_OF_WORKERS = 10;
+	private static final int MAX_CONCURRENCY_PER_ADDRESS = 100;
+	private static final int NUMBER_OF_MESSAGES = 2_000;
+	private static final long BLOCKING_MILLIS = 5L;
+	
+	@Test
+	public void test_Workers() throws Exception {
+		final int maxConcurrency = benchmark(EventBusExecutionMode.WORKERS);
+		assertTrue(maxConcurrency <= NUMBER_OF_WORKERS);
+	}
+	
+	@Test
+	public void test_VirtualThreads() throws Exception {
+		final int maxConcurrency = benchmark(EventBusExecutionMode.VIRTUAL_THREADS);
+		if (VirtualThreadExecutorServiceFactory.isSupported()) {
+			assertTrue(maxConcurrency <= MAX_CONCURRENCY_PER_ADDRESS);
+		} else {
+			assertTrue(maxConcurrency <= NUMBER_OF_WORKERS);
+		}
+	}
+	
+	private int benchmark(EventBusExecutionMode executionMode) throws InterruptedException {
+		final EventBus bus = new EventBus("benchmark", NUMBER_OF_WORKERS, List.of(), executionMode, MAX_CONCURRENCY_PER_ADDRESS);
+		bus.activate();
+		
+		try {
+			final AtomicInteger concurrency = new AtomicInteger();
+			final AtomicInteger maxConcurrency = new AtomicInteger();
+			bus.registerHandler(ADDRESS, message -> {
+				maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(BLOCKING_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					concurrency.decrementAndGet();
+				}
+				message.reply(Boolean.TRUE);
+			});
+			
+			final long[] latencies = new long[NUMBER_OF_MESSAGES];
+			final CountDownLatch latch = new CountDownLatch(NUMBER_OF_MESSAGES);
+			
+			final Stopwatch w = Stopwatch.createStarted();
+			for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+				final int index = i;
+				final long sentAt = System.nanoTime();
+				bus.send(ADDRESS, index, Collections.emptyMap(), reply -> {
+					latencies[index] = System.nanoTime() - sentAt;
+					latch.countDown();
+				});
+			}
+			assertTrue(latch.await(2, TimeUnit.MINUTES));
+			final long execTime = w.elapsed(TimeUnit.MILLISECONDS);
+			
+			Arrays.sort(latencies);
+			System.err.println(String.format("%s (virtual threads supported: %s): took %s ms, throughput %.1f message/s, latency p50 %.1f ms, p99 %.1f ms, max concurrency %s", 
+					executionMode, 
+					VirtualThreadExecutorServiceFactory.isSupported(),
+					execTime,
+					NUMBER_OF_MESSAGES / (execTime / 1_000.0),
+					percentile(latencies, 0.50),
+					percentile(latencies, 0.99),
+					maxConcurrency.get()));
+			
+			assertEquals(0, concurrency.get());
+			return maxConcurrency.get();
+		} finally {
+			bus.deactivate();
+		}
+	}
+
+	private static double percentile(long[] sortedNanos, double percentile) {
+		final int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(percentile * sortedNanos.length) - 1);
+		return sortedNanos[index] / 1_000_000.0;
+	}
+	
+}
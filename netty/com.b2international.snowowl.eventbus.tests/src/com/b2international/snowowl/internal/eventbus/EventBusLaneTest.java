@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.eventbus.EventBusLane;
+import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.IExecutionListener;
+import com.b2international.snowowl.eventbus.IMessage;
+
+/**
+ * @since 9.5
+ */
+public class EventBusLaneTest extends AbstractEventBusTest {
+
+	private static final String LANE = "slow";
+	private static final String LANE_ADDRESS = "slow-address";
+	
+	@Override
+	protected EventBus createBus() {
+		return new EventBus("lanes", 2, List.of(EventBusLane.builder(LANE)
+				.addresses(List.of(LANE_ADDRESS))
+				.maxThreads(1)
+				.queueSize(1)
+				.build()));
+	}
+	
+	@Test
+	public void test_Lanes() throws Exception {
+		assertEquals(List.of(LANE, IEventBus.DEFAULT_LANE), List.copyOf(bus.getLanes()));
+	}
+	
+	@Test
+	public void test_Route_ByAddress() throws Exception {
+		assertEquals(LANE, executeAndGetLane(LANE_ADDRESS, Map.of()));
+	}
+	
+	@Test
+	public void test_Route_ByHeader() throws Exception {
+		assertEquals(LANE, executeAndGetLane(ADDRESS, Map.of(IEventBus.LANE_HEADER, LANE)));
+	}
+	
+	@Test
+	public void test_Route_Default() throws Exception {
+		assertEquals(IEventBus.DEFAULT_LANE, executeAndGetLane(ADDRESS, Map.of()));
+	}
+	
+	@Test
+	public void test_Reject_WhenLaneIsFull() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		bus.registerHandler(LANE_ADDRESS, message -> {
+			started.countDown();
+			try {
+				release.await(DEFAULT_WAIT_TIME, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			message.reply(REPLY_MESSAGE);
+		});
+		
+		final CountDownLatch rejected = new CountDownLatch(1);
+		bus.setExecutionListener(new IExecutionListener() {
+			@Override
+			public void onExecuted(String lane, IMessage message, long waitNanos, long serviceNanos) {
+			}
+			
+			@Override
+			public void onRejected(String lane, IMessage message) {
+				assertEquals(LANE, lane);
+				rejected.countDown();
+			}
+		});
+		
+		final CountDownLatch failed = new CountDownLatch(1);
+		// the first message occupies the single worker, the second one the single queue slot
+		bus.send(LANE_ADDRESS, SEND_MESSAGE, null);
+		wait(started);
+		bus.send(LANE_ADDRESS, SEND_MESSAGE, null);
+		assertEquals(1L, bus.getLaneQueueSize(LANE));
+		bus.send(LANE_ADDRESS, SEND_MESSAGE, null, reply -> {
+			assertFalse(reply.isSucceeded());
+			failed.countDown();
+		});
+		
+		wait(rejected);
+		wait(failed);
+		release.countDown();
+	}
+	
+	private String executeAndGetLane(String address, Map<String, String> headers) throws InterruptedException {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final String[] executedLane = new String[1];
+		bus.setExecutionListener(new IExecutionListener() {
+			@Override
+			public void onExecuted(String lane, IMessage message, long waitNanos, long serviceNanos) {
+				executedLane[0] = lane;
+				assertTrue(waitNanos >= 0L);
+				latch.countDown();
+			}
+			
+			@Override
+			public void onRejected(String lane, IMessage message) {
+			}
+		});
+		registerHandlersWithLatch(1, address, new CountDownLatch(1));
+		bus.send(address, SEND_MESSAGE, headers);
+		wait(latch);
+		return executedLane[0];
+	}
+	
+}
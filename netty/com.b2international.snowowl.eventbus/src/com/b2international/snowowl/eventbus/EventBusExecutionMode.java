@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.eventbus;
+
+/**
+ * Determines how the default lane of an {@link IEventBus} executes message handlers.
+ * 
+ * @since 9.5
+ */
+public enum EventBusExecutionMode {
+
+	/**
+	 * Handlers are executed by a scaling pool of platform threads, bounded by the configured maximum number of threads.
+	 */
+	WORKERS,
+	
+	/**
+	 * Each message is handled on its own virtual thread, so handlers blocking on I/O do not hold on to a platform thread. The number of
+	 * concurrently executing handlers is limited per address instead of by the size of a pool. Requires a runtime with virtual thread
+	 * support; on older runtimes the bus falls back to {@link #WORKERS}.
+	 */
+	VIRTUAL_THREADS;
+	
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.eventbus;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Set;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Describes a dedicated executor lane of an {@link IEventBus}. Messages matching a lane are processed by the lane's own bounded worker
+ * pool instead of the shared one, so that slow messages routed to a lane can not starve the rest, and vice versa.
+ * <p>
+ * A message is routed to a lane if its {@link IEventBus#LANE_HEADER lane header} names the lane, or if its address or tag is listed in the
+ * lane definition. The first matching lane (in registration order) wins; messages not matching any lane are processed in the
+ * {@link IEventBus#DEFAULT_LANE default lane}.
+ * 
+ * @since 9.5
+ */
+public final class EventBusLane {
+
+	/**
+	 * Determines what happens with a message when all workers of a lane are busy and its queue is full.
+	 */
+	public enum RejectionPolicy {
+		/**
+		 * The message is failed immediately with a {@link java.util.concurrent.RejectedExecutionException}.
+		 */
+		ABORT,
+		/**
+		 * The message is processed on the sending thread, which slows down the sender.
+		 */
+		CALLER_RUNS
+	}
+	
+	private final String name;
+	private final Set<String> addresses;
+	private final Set<String> tags;
+	private final int maxThreads;
+	private final int queueSize;
+	private final int priority;
+	private final RejectionPolicy rejectionPolicy;
+
+	private EventBusLane(String name, Set<String> addresses, Set<String> tags, int maxThreads, int queueSize, int priority, RejectionPolicy rejectionPolicy) {
+		this.name = name;
+		this.addresses = addresses;
+		this.tags = tags;
+		this.maxThreads = maxThreads;
+		this.queueSize = queueSize;
+		this.priority = priority;
+		this.rejectionPolicy = rejectionPolicy;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public Set<String> getAddresses() {
+		return addresses;
+	}
+	
+	public Set<String> getTags() {
+		return tags;
+	}
+	
+	/**
+	 * @return the maximum number of workers processing messages of this lane concurrently
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+	
+	/**
+	 * @return the maximum number of messages waiting for a worker in this lane
+	 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+	
+	/**
+	 * @return the {@link Thread#setPriority(int) priority} of the workers of this lane
+	 */
+	public int getPriority() {
+		return priority;
+	}
+	
+	public RejectionPolicy getRejectionPolicy() {
+		return rejectionPolicy;
+	}
+	
+	/**
+	 * @param message
+	 * @return <code>true</code> if the given message should be processed in this lane, <code>false</code> otherwise
+	 */
+	public boolean matches(IMessage message) {
+		return name.equals(message.headers().get(IEventBus.LANE_HEADER)) 
+				|| addresses.contains(message.address()) 
+				|| tags.contains(message.tag());
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("EventBusLane[name=%s, addresses=%s, tags=%s, maxThreads=%d, queueSize=%d, priority=%d, rejectionPolicy=%s]", 
+				name, addresses, tags, maxThreads, queueSize, priority, rejectionPolicy);
+	}
+	
+	public static Builder builder(String name) {
+		return new Builder(name);
+	}
+	
+	/**
+	 * @since 9.5
+	 */
+	public static final class Builder {
+		
+		private final String name;
+		private final ImmutableSet.Builder<String> addresses = ImmutableSet.builder();
+		private final ImmutableSet.Builder<String> tags = ImmutableSet.builder();
+		private int maxThreads = 1;
+		private int queueSize = 1_000;
+		private int priority = Thread.NORM_PRIORITY;
+		private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+		
+		private Builder(String name) {
+			checkArgument(!Strings.isNullOrEmpty(name), "Lane name may not be null or empty");
+			checkArgument(!IEventBus.DEFAULT_LANE.equals(name), "Lane name '%s' is reserved", name);
+			this.name = name;
+		}
+		
+		public Builder addresses(Iterable<String> addresses) {
+			this.addresses.addAll(addresses);
+			return this;
+		}
+		
+		public Builder tags(Iterable<String> tags) {
+			this.tags.addAll(tags);
+			return this;
+		}
+		
+		public Builder maxThreads(int maxThreads) {
+			this.maxThreads = maxThreads;
+			return this;
+		}
+		
+		public Builder queueSize(int queueSize) {
+			this.queueSize = queueSize;
+			return this;
+		}
+		
+		public Builder priority(int priority) {
+			this.priority = priority;
+			return this;
+		}
+		
+		public Builder rejectionPolicy(RejectionPolicy rejectionPolicy) {
+			this.rejectionPolicy = checkNotNull(rejectionPolicy, "Rejection policy may not be null");
+			return this;
+		}
+		
+		public EventBusLane build() {
+			checkArgument(maxThreads > 0, "Number of lane workers must be greater than zero");
+			checkArgument(queueSize > 0, "Lane queue size must be greater than zero");
+			checkArgument(priority >= Thread.MIN_PRIORITY && priority <= Thread.MAX_PRIORITY, "Lane priority must be between %s and %s", Thread.MIN_PRIORITY, Thread.MAX_PRIORITY);
+			return new EventBusLane(name, addresses.build(), tags.build(), maxThreads, queueSize, priority, rejectionPolicy);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.eventbus;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -50,6 +51,31 @@ public class EventBusUtil {
 		return bus;
 	}
 	
+	/**
+	 * Returns a simple unmanaged, activated EventBus for the custom identifier, with dedicated executor lanes.
+	 * 
+	 * @return
+	 * @see EventBusLane
+	 */
+	public static final IEventBus getBus(String name, int numberOfWorkers, List<EventBusLane> lanes) {
+		final EventBus bus = new EventBus(name, numberOfWorkers, lanes);
+		bus.activate();
+		return bus;
+	}
+	
+	/**
+	 * Returns a simple unmanaged, activated EventBus for the custom identifier, with dedicated executor lanes and the given execution mode
+	 * for the default lane.
+	 * 
+	 * @return
+	 * @see EventBusExecutionMode
+	 */
+	public static final IEventBus getBus(String name, int numberOfWorkers, List<EventBusLane> lanes, EventBusExecutionMode executionMode, int maxConcurrencyPerAddress) {
+		final EventBus bus = new EventBus(name, numberOfWorkers, lanes, executionMode, maxConcurrencyPerAddress);
+		bus.activate();
+		return bus;
+	}
+	
 	/**
 	 * @return an {@link EventBus} with the specified description and 1 direct thread worker.
 	 */
@@ -54,6 +54,16 @@ public interface IEventBus {
 	 * Message header that indicates whether the added/removed handler is/was local.
 	 */
 	String LOCAL_HANDLER = "localHandler";
+	
+	/**
+	 * Message header that routes the message to the {@link EventBusLane executor lane} with the given name.
+	 */
+	String LANE_HEADER = "lane";
+	
+	/**
+	 * The name of the lane processing messages that are not routed to any configured {@link EventBusLane executor lane}.
+	 */
+	String DEFAULT_LANE = "default";
 
 	/**
 	 * Sends the message over the event bus to the specified address.
@@ -187,4 +197,22 @@ public interface IEventBus {
 	 * @return the amount of succeeded messages that are completed by tag.
 	 */
 	long getSucceededMessages(String tag);
+	
+	/**
+	 * @return the names of all executor lanes of this event bus, including the {@link #DEFAULT_LANE default lane}
+	 */
+	Set<String> getLanes();
+	
+	/**
+	 * @param lane
+	 * @return the amount of messages that are currently waiting for a worker in the given lane.
+	 */
+	long getLaneQueueSize(String lane);
+	
+	/**
+	 * Sets the listener to notify about processed and rejected messages.
+	 * 
+	 * @param listener - the listener to set, or <code>null</code> to remove the current listener
+	 */
+	void setExecutionListener(IExecutionListener listener);
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.eventbus;
+
+/**
+ * Receives timing information about messages processed by an {@link IEventBus}, eg. to record them in a metrics registry. Callbacks are
+ * invoked on the worker threads of the event bus, so implementations should return quickly.
+ * 
+ * @since 9.5
+ */
+public interface IExecutionListener {
+
+	/**
+	 * Called after a handler has finished processing a message.
+	 * 
+	 * @param lane - the name of the lane the message was processed in
+	 * @param message - the processed message
+	 * @param waitNanos - the time the message spent in the queue of the lane, in nanoseconds
+	 * @param serviceNanos - the time spent processing the message, in nanoseconds
+	 */
+	void onExecuted(String lane, IMessage message, long waitNanos, long serviceNanos);
+	
+	/**
+	 * Called when a message could not be queued in the given lane.
+	 * 
+	 * @param lane - the name of the lane that rejected the message
+	 * @param message - the rejected message
+	 */
+	void onRejected(String lane, IMessage message);
+	
+	/**
+	 * The No Operation implementation of the interface {@link IExecutionListener}.
+	 */
+	IExecutionListener NOOP = new IExecutionListener() {
+		@Override
+		public void onExecuted(String lane, IMessage message, long waitNanos, long serviceNanos) {
+		}
+		
+		@Override
+		public void onRejected(String lane, IMessage message) {
+		}
+	};
+}
@@ -26,17 +26,23 @@ import java.io.StringWriter;
 import java.util.*;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.snowowl.eventbus.EventBusExecutionMode;
+import com.b2international.snowowl.eventbus.EventBusLane;
 import com.b2international.snowowl.eventbus.IEventBus;
+import com.b2international.snowowl.eventbus.IExecutionListener;
 import com.b2international.snowowl.eventbus.IHandler;
 import com.b2international.snowowl.eventbus.IMessage;
 import com.b2international.snowowl.eventbus.netty.IEventBusNettyHandler;
 import com.b2international.snowowl.internal.eventbus.HandlerChangedEvent.Type;
 import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Multiset;
 import com.google.common.primitives.Ints;
@@ -53,6 +59,9 @@ public class EventBus implements IEventBus {
 	private final String description;
 	private final int maxThreads;
 	private final ExecutorServiceFactory executorServiceFactory;
+	private final List<EventBusLane> laneDefinitions;
+	private final EventBusExecutionMode executionMode;
+	private final int maxConcurrencyPerAddress;
 
 	private final ConcurrentMap<String, ChoosableList<Handler>> remoteHandlerMap;
 	private final ConcurrentMap<String, ChoosableList<Handler>> localHandlerMap;
@@ -65,20 +74,48 @@ public class EventBus implements IEventBus {
 	
 	private final Multiset<String> addressBook = ConcurrentHashMultiset.create();
 	
+	// Semaphores are weakly referenced, so permits of short-lived reply addresses do not accumulate
+	private final ConcurrentMap<String, Semaphore> addressPermits = new MapMaker().weakValues().makeMap();
+	
 	private ExecutorService executorService;
+	private volatile List<Lane> lanes = List.of();
+	private volatile IExecutionListener executionListener = IExecutionListener.NOOP;
 
 	public EventBus() {
 		this(GLOBAL_BUS, Runtime.getRuntime().availableProcessors());
 	}
 	
 	public EventBus(String description, int maxThreads) {
+		this(description, maxThreads, List.of());
+	}
+	
+	public EventBus(String description, int maxThreads, List<EventBusLane> laneDefinitions) {
+		this(description, maxThreads, laneDefinitions, EventBusExecutionMode.WORKERS, 0);
+	}
+	
+	/**
+	 * @param description - the description of the bus, used for naming its threads
+	 * @param maxThreads - the maximum number of worker threads, or <code>0</code> for executing handlers on the sending thread
+	 * @param laneDefinitions - the dedicated executor lanes of the bus
+	 * @param executionMode - the execution mode of the default lane
+	 * @param maxConcurrencyPerAddress - the maximum number of messages handled concurrently for a single address in
+	 *            {@link EventBusExecutionMode#VIRTUAL_THREADS virtual thread} mode, <code>0</code> to use <code>maxThreads</code> as the limit
+	 */
+	public EventBus(String description, int maxThreads, List<EventBusLane> laneDefinitions, EventBusExecutionMode executionMode, int maxConcurrencyPerAddress) {
 		checkArgument(description != null, "Description should be specified");
 		checkArgument(maxThreads >= 0, "Number of workers must be greater than zero");
+		checkArgument(executionMode != null, "Execution mode should be specified");
+		checkArgument(maxConcurrencyPerAddress >= 0, "Maximum concurrency per address must be greater than or equal to zero");
 		this.description = description;
 		this.maxThreads = maxThreads;
+		this.laneDefinitions = ImmutableList.copyOf(laneDefinitions);
+		this.executionMode = executionMode;
+		this.maxConcurrencyPerAddress = maxConcurrencyPerAddress == 0 ? maxThreads : maxConcurrencyPerAddress;
 		
 		if (maxThreads == 0) {
 			this.executorServiceFactory = ExecutorServiceFactory.DIRECT;
+		} else if (executionMode == EventBusExecutionMode.VIRTUAL_THREADS) {
+			this.executorServiceFactory = new VirtualThreadExecutorServiceFactory();
 		} else {
 			this.executorServiceFactory = new WorkerExecutorServiceFactory();
 		}
@@ -98,12 +135,27 @@ public class EventBus implements IEventBus {
 
 	public void activate() {
 		executorService = executorServiceFactory.createExecutorService(description, maxThreads);
+		
+		final ImmutableList.Builder<Lane> lanes = ImmutableList.builder();
+		for (final EventBusLane laneDefinition : laneDefinitions) {
+			lanes.add(new Lane(laneDefinition.getName(), laneDefinition, executorServiceFactory.createLaneExecutorService(description, laneDefinition), 0));
+			LOG.debug("Activated event bus lane {}", laneDefinition);
+		}
+		
+		// Virtual threads are not bounded by a pool, limit the concurrency of each address instead
+		final boolean virtualThreads = executorServiceFactory instanceof VirtualThreadExecutorServiceFactory && VirtualThreadExecutorServiceFactory.isSupported();
+		lanes.add(new Lane(DEFAULT_LANE, null, executorService, virtualThreads ? maxConcurrencyPerAddress : 0));
+		this.lanes = lanes.build();
 	}
 	
 	public void deactivate() {
 		if (executorService != null) {
 			executorService.shutdown();
 		}
+		
+		for (final Lane lane : lanes) {
+			lane.executor.shutdown();
+		}
 	}
 
 	public boolean isActive() {
@@ -221,20 +273,68 @@ public class EventBus implements IEventBus {
 	}
 	
 	private void handleMessage(final IMessage message, final Handler handler) {
+		final Lane lane = selectLane(message);
+		final long queuedAt = System.nanoTime();
 		queue(message);
+		lane.queued.incrementAndGet();
 		
-		executorService.submit(() -> {
-			try {
-				process(message);
-				handler.handleMessage(message);
-			} catch (Exception e) {
-				LOG.error("Exception happened while delivering message", e);
-				message.fail(e);
-			} finally {
-				complete(message);
-				handler.onComplete(this);
+		try {
+			lane.executor.submit(() -> {
+				final Semaphore permits = acquirePermit(lane, message);
+				lane.queued.decrementAndGet();
+				final long startedAt = System.nanoTime();
+				try {
+					process(message);
+					handler.handleMessage(message);
+				} catch (Exception e) {
+					LOG.error("Exception happened while delivering message", e);
+					message.fail(e);
+				} finally {
+					complete(message);
+					handler.onComplete(this);
+					if (permits != null) {
+						permits.release();
+					}
+					executionListener.onExecuted(lane.name, message, startedAt - queuedAt, System.nanoTime() - startedAt);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			lane.queued.decrementAndGet();
+			
+			if (!isActive()) {
+				throw e;
 			}
-		});
+			
+			LOG.warn("Event bus lane '{}' rejected message: {}", lane.name, message);
+			executionListener.onRejected(lane.name, message);
+			process(message);
+			message.fail(e);
+			complete(message);
+			handler.onComplete(this);
+		}
+	}
+	
+	private Semaphore acquirePermit(final Lane lane, final IMessage message) {
+		if (lane.maxConcurrencyPerAddress == 0) {
+			return null;
+		}
+		
+		final Semaphore permits = addressPermits.computeIfAbsent(message.address(), address -> new Semaphore(lane.maxConcurrencyPerAddress));
+		// Blocking is cheap on a virtual thread; the message counts as queued until a permit is available
+		permits.acquireUninterruptibly();
+		return permits;
+	}
+	
+	private Lane selectLane(final IMessage message) {
+		final List<Lane> currentLanes = lanes;
+		// The default lane is always the last one
+		for (int i = 0; i < currentLanes.size() - 1; i++) {
+			final Lane lane = currentLanes.get(i);
+			if (lane.definition.matches(message)) {
+				return lane;
+			}
+		}
+		return currentLanes.get(currentLanes.size() - 1);
 	}
 	
 	private void queue(IMessage message) {
@@ -383,6 +483,10 @@ public class EventBus implements IEventBus {
 		return executorService;
 	}
 	
+	public EventBusExecutionMode getExecutionMode() {
+		return executionMode;
+	}
+	
 	@Override
 	public long getInQueueMessages(String tag) {
 		return getOrCreateCounter(tag, inQueueMessages).get();
@@ -408,6 +512,47 @@ public class EventBus implements IEventBus {
 		return getOrCreateCounter(tag, succeededMessages).get();
 	}
 	
+	@Override
+	public Set<String> getLanes() {
+		final Set<String> laneNames = new LinkedHashSet<>();
+		for (final EventBusLane laneDefinition : laneDefinitions) {
+			laneNames.add(laneDefinition.getName());
+		}
+		laneNames.add(DEFAULT_LANE);
+		return laneNames;
+	}
+	
+	@Override
+	public long getLaneQueueSize(String lane) {
+		for (final Lane currentLane : lanes) {
+			if (currentLane.name.equals(lane)) {
+				return currentLane.queued.get();
+			}
+		}
+		return 0L;
+	}
+	
+	@Override
+	public void setExecutionListener(IExecutionListener listener) {
+		this.executionListener = listener == null ? IExecutionListener.NOOP : listener;
+	}
+	
+	private static final class Lane {
+		
+		private final String name;
+		private final EventBusLane definition;
+		private final ExecutorService executor;
+		private final int maxConcurrencyPerAddress;
+		private final AtomicLong queued = new AtomicLong();
+		
+		private Lane(String name, EventBusLane definition, ExecutorService executor, int maxConcurrencyPerAddress) {
+			this.name = name;
+			this.definition = definition;
+			this.executor = executor;
+			this.maxConcurrencyPerAddress = maxConcurrencyPerAddress;
+		}
+	}
+	
 	private static class Handler {
 		
 		private final String address;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2019 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package com.b2international.snowowl.internal.eventbus;
 
 import java.util.concurrent.ExecutorService;
 
+import com.b2international.snowowl.eventbus.EventBusLane;
 import com.google.common.util.concurrent.MoreExecutors;
 
 /**
@@ -26,10 +27,24 @@ public interface ExecutorServiceFactory {
 
 	ExecutorService createExecutorService(String description, int numberOfWorkers);
 	
+	/**
+	 * Creates the executor of a dedicated event bus lane.
+	 * 
+	 * @param description - the description of the event bus
+	 * @param lane - the lane definition
+	 * @return the executor processing the messages of the lane
+	 */
+	ExecutorService createLaneExecutorService(String description, EventBusLane lane);
+	
 	ExecutorServiceFactory DIRECT = new ExecutorServiceFactory() {
 		@Override
 		public ExecutorService createExecutorService(String description, int numberOfWorkers) {
 			return MoreExecutors.newDirectExecutorService();
 		}
+		
+		@Override
+		public ExecutorService createLaneExecutorService(String description, EventBusLane lane) {
+			return MoreExecutors.newDirectExecutorService();
+		}
 	}; 
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.internal.eventbus;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Executes each message on a new virtual thread. Virtual threads are looked up reflectively, as the bundle still targets a runtime where
+ * they are not available; use {@link #isSupported()} to check whether the current runtime provides them.
+ * <p>
+ * Lanes keep their bounded platform thread pools, as their queue size, rejection policy and thread priority can not be applied to virtual
+ * threads.
+ * 
+ * @since 9.5
+ */
+public class VirtualThreadExecutorServiceFactory extends WorkerExecutorServiceFactory {
+
+	private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadExecutorServiceFactory.class);
+	
+	private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+	
+	private static MethodHandle findNewVirtualThreadPerTaskExecutor() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * @return <code>true</code> if the current runtime supports virtual threads, <code>false</code> otherwise
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+	
+	@Override
+	public ExecutorService createExecutorService(String description, int maxThreads) {
+		if (!isSupported()) {
+			LOG.warn("Virtual threads are not supported by the current runtime ({}), event bus '{}' falls back to worker threads.", Runtime.version(), description);
+			return super.createExecutorService(description, maxThreads);
+		}
+		
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+		} catch (Throwable e) {
+			Throwables.throwIfUnchecked(e);
+			throw new IllegalStateException("Couldn't create virtual thread executor for event bus '" + description + "'", e);
+		}
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2011-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package com.b2international.snowowl.internal.eventbus;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -22,6 +23,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import com.b2international.snowowl.eventbus.EventBusLane;
 import com.google.common.primitives.Ints;
 
 /**
@@ -55,6 +57,39 @@ public class WorkerExecutorServiceFactory implements ExecutorServiceFactory {
 		return executor;
 	}
 	
+	@Override
+	public ExecutorService createLaneExecutorService(String description, EventBusLane lane) {
+		final String laneDescription = description + "-" + lane.getName();
+		final ThreadGroup group = new ThreadGroup(laneDescription);
+		
+		final ThreadFactory threadFactory = new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				final Thread thread = new Thread(group, r);
+				thread.setName(laneDescription + "-" + thread.getId());
+				thread.setDaemon(true);
+				thread.setPriority(lane.getPriority());
+				return thread;
+			}
+		};
+		
+		final RejectedExecutionHandler rejectionHandler = switch (lane.getRejectionPolicy()) {
+			case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+			case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+		};
+		
+		// Lanes are bounded: workers are started up to the maximum first, then messages are queued up to the queue size, then rejected
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			lane.getMaxThreads(), lane.getMaxThreads(),
+			1L, TimeUnit.MINUTES,
+			new ArrayBlockingQueue<>(lane.getQueueSize()),
+			threadFactory,
+			rejectionHandler
+		);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
 	/*Elaticsearch maintained class, copied from EsExecutors*/
 	static class ExecutorScalingQueue<E> extends LinkedTransferQueue<E> {
 
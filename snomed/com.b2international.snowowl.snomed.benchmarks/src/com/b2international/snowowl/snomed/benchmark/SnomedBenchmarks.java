@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.benchmark;
+
+import static org.junit.Assert.assertFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
+import com.b2international.snowowl.test.commons.Resources;
+import com.b2international.snowowl.test.commons.SnomedContentRule;
+import com.b2international.snowowl.test.commons.SnowOwlAppRule;
+
+/**
+ * Entry point of the SNOMED CT benchmark suites when running them from the Maven build (see the {@code skipBenchmarks} property in this
+ * module's POM).
+ * <p>
+ * A Snow Owl instance is started before the benchmarks, and the minified International release is imported into a separate code system
+ * for the ECL benchmarks. The {@code MAIN} branch itself stays empty, so each RF2 import benchmark invocation starts from a code system without
+ * content. Benchmarks run in the same (OSGi) JVM as the test runtime, since forked JMH runs cannot reconstruct the bundle classpath and would
+ * not see the running instance. Results are written to the JSON file specified via the {@value #RESULT_FILE_PROPERTY} system property.
+ *
+ * @since 9.5
+ */
+public class SnomedBenchmarks {
+
+	/**
+	 * Java system property to configure the location of the JSON result file.
+	 */
+	public static final String RESULT_FILE_PROPERTY = "so.benchmark.result";
+	
+	/**
+	 * Java system property to configure a regular expression that selects the benchmarks to run (by default all benchmarks are executed).
+	 */
+	public static final String INCLUDES_PROPERTY = "so.benchmark.includes";
+	
+	private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+	
+	@ClassRule
+	public static final RuleChain APPRULE = RuleChain
+		.outerRule(SnowOwlAppRule.snowOwl(SnomedBenchmarks.class))
+		.around(new SnomedContentRule(SnomedEclEvaluationBenchmark.CODE_SYSTEM, Resources.Snomed.MINI_RF2_INT_20210731, Rf2ReleaseType.FULL).importUntil("20200131"));
+	
+	@Test
+	public void run() throws Exception {
+		final Path resultFile = Paths.get(System.getProperty(RESULT_FILE_PROPERTY, DEFAULT_RESULT_FILE));
+		Files.createDirectories(resultFile.toAbsolutePath().getParent());
+		
+		// warmup and measurement iterations are configured on the benchmark classes, as import and ECL benchmarks need very different settings
+		final Options options = new OptionsBuilder()
+				.include(System.getProperty(INCLUDES_PROPERTY, ".*"))
+				.forks(0)
+				.shouldFailOnError(true)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile.toString())
+				.build();
+		
+		final Collection<RunResult> results = new Runner(options).run();
+		assertFalse("No benchmarks were executed", results.isEmpty());
+	}
+	
+}
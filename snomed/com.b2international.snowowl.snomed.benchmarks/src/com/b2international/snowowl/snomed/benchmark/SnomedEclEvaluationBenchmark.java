@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.b2international.index.query.Expression;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.codesystem.CodeSystem;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.snomed.core.ecl.EclEvaluationCache;
+import com.b2international.snowowl.snomed.core.ecl.EclExpression;
+import com.b2international.snowowl.snomed.core.tree.Trees;
+import com.b2international.snowowl.snomed.datastore.request.SnomedContentRequestBuilder;
+import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.test.commons.Services;
+
+/**
+ * Measures ECL evaluation on the minified International release, both with and without the {@link EclEvaluationCache}:
+ * <ul>
+ * <li>{@link #evaluate()} - the {@code SnomedEclEvaluationRequest}, which converts the expression to an index query (nested expressions, eg. the
+ * value of a refinement, are resolved to concept IDs during this step)</li>
+ * <li>{@link #resolveIds()} - the evaluation and the execution of the resulting query, as done when searching concepts by ECL</li>
+ * </ul>
+ * Requests are sent to the branch of the benchmark code system via the event bus, so the measured times include request dispatching as well.
+ * 
+ * @since 9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SnomedEclEvaluationBenchmark {
+
+	/**
+	 * The code system the minified International release is imported into (see {@link SnomedBenchmarks}).
+	 */
+	static final ResourceURI CODE_SYSTEM = CodeSystem.uri("SNOMEDCT-ECL-BENCHMARK");
+	
+	private static final long TIMEOUT_MINUTES = 1L;
+	
+	@Param({
+		// descendants of Organism
+		"<< 410607006",
+		// children of Substance
+		"<! 105590001",
+		// ancestors of Bacteria
+		">> 409822003",
+		// descendants of Organism, except Bacteria and its descendants
+		"<< 410607006 MINUS << 409822003",
+		// Clinical findings with a finding site in the Body structure hierarchy
+		"<< 404684003 : 363698007 = << 123037004"
+	})
+	public String expression;
+	
+	/**
+	 * When <code>false</code>, cached evaluation results of the benchmark branch are discarded before each evaluation.
+	 */
+	@Param({ "false", "true" })
+	public boolean cached;
+	
+	@Benchmark
+	public Expression evaluate() {
+		return execute(new EvaluateRequest(expression, cached));
+	}
+	
+	@Benchmark
+	public Set<String> resolveIds() {
+		return execute(new ResolveIdsRequest(expression, cached));
+	}
+	
+	private static <R> R execute(final Request<BranchContext, R> request) {
+		final SnomedContentRequestBuilder<R> builder = () -> request;
+		return builder.build(CODE_SYSTEM)
+				.execute(Services.bus())
+				.getSync(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+	}
+	
+	private static void clearCache(final BranchContext context) {
+		context.optionalService(EclEvaluationCache.class).ifPresent(cache -> cache.invalidate(context.path()));
+	}
+	
+	private static final class EvaluateRequest implements Request<BranchContext, Expression> {
+
+		private static final long serialVersionUID = 1L;
+		
+		private final String expression;
+		private final boolean cached;
+		
+		EvaluateRequest(final String expression, final boolean cached) {
+			this.expression = expression;
+			this.cached = cached;
+		}
+		
+		@Override
+		public Expression execute(final BranchContext context) {
+			if (!cached) {
+				clearCache(context);
+			}
+			
+			return SnomedRequests.prepareEclEvaluation(expression)
+					.build()
+					.execute(context)
+					.getSync(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+		}
+		
+	}
+	
+	private static final class ResolveIdsRequest implements Request<BranchContext, Set<String>> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final String expression;
+		private final boolean cached;
+		
+		ResolveIdsRequest(final String expression, final boolean cached) {
+			this.expression = expression;
+			this.cached = cached;
+		}
+		
+		@Override
+		public Set<String> execute(final BranchContext context) {
+			if (!cached) {
+				clearCache(context);
+			}
+			
+			return EclExpression.of(expression, Trees.INFERRED_FORM)
+					.resolve(context)
+					.getSync(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.attachments.Attachment;
+import com.b2international.snowowl.core.codesystem.CodeSystem;
+import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
+import com.b2international.snowowl.core.request.io.ImportResponse;
+import com.b2international.snowowl.core.util.PlatformUtil;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
+import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.test.commons.Resources;
+import com.b2international.snowowl.test.commons.Services;
+import com.b2international.snowowl.test.commons.SnomedContentRule;
+import com.b2international.snowowl.test.commons.rest.RestExtensions;
+
+/**
+ * Measures the import of the effective time slices of the minified International release (Full release type) into a new, empty code system.
+ * Each invocation creates its own code system (outside of the measured time), so every run imports the same content from scratch.
+ * <p>
+ * Versions are not created during the import to measure the import of slices only. The number of imported slices is controlled with
+ * {@link #importUntil}, the number of threads preparing and staging import batches with {@link #preparationParallelism}.
+ * 
+ * @since 9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class SnomedRf2ImportBenchmark {
+
+	private static final String CODE_SYSTEM_ID_PREFIX = "SNOMEDCT-RF2-BENCHMARK-";
+	private static final AtomicInteger CODE_SYSTEM_COUNTER = new AtomicInteger();
+	private static final long TIMEOUT_MINUTES = 30L;
+	
+	@Param({ "20020131", "20200131" })
+	public String importUntil;
+	
+	@Param({ "1", "4" })
+	public int preparationParallelism;
+	
+	private Attachment archive;
+	private ResourceURI codeSystem;
+	
+	@Setup(Level.Trial)
+	public void uploadArchive() {
+		archive = Attachment.upload(Services.context(), PlatformUtil.toAbsolutePathBundleEntry(SnomedContentRule.class, Resources.Snomed.MINI_RF2_INT_20210731));
+	}
+	
+	@Setup(Level.Invocation)
+	public void createCodeSystem() {
+		final String codeSystemId = CODE_SYSTEM_ID_PREFIX + CODE_SYSTEM_COUNTER.incrementAndGet();
+		
+		// without a branch path and an 'extensionOf' dependency, a new (empty) branch is created for the code system under MAIN
+		CodeSystemRequests.prepareNewCodeSystem()
+			.setId(codeSystemId)
+			.setUrl(SnomedTerminologyComponentConstants.SNOMED_URI_SCT + "/" + codeSystemId)
+			.setTitle(codeSystemId)
+			.setDescription("RF2 import benchmark")
+			.setLanguage("ENG")
+			.setOwner("owner")
+			.setToolingId(SnomedTerminologyComponentConstants.TOOLING_ID)
+			.build(RestExtensions.USER, String.format("Create code system %s", codeSystemId))
+			.execute(Services.bus())
+			.getSync(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+		
+		codeSystem = CodeSystem.uri(codeSystemId);
+	}
+	
+	@Benchmark
+	public ImportResponse importSlices() {
+		final ImportResponse response = SnomedRequests.rf2().prepareImport()
+			.setRf2Archive(archive)
+			.setReleaseType(Rf2ReleaseType.FULL)
+			.setCreateVersions(false)
+			.setImportUntil(importUntil)
+			.setPreparationParallelism(preparationParallelism)
+			.build(codeSystem)
+			.execute(Services.bus())
+			.getSync(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+		
+		if (!response.isSuccess()) {
+			throw new IllegalStateException(String.format("Failed to import RF2 archive into %s: %s", codeSystem, response.getError()));
+		}
+		
+		return response;
+	}
+	
+}
@@ -1676,6 +1676,45 @@ public class SnomedExportApiTest extends AbstractSnomedApiTest {
 		assertArchiveContainsLines(exportArchive, fileToLinesMap);
 	}
 
+	@Test
+	public void exportFullWithParallelism() throws Exception {
+		
+		String codeSystemId = "SNOMEDCT-full-export-parallel";
+		createCodeSystem(branchPath, codeSystemId).statusCode(201);
+		
+		final String relationshipId = createNewRelationship(branchPath, Concepts.ROOT_CONCEPT, Concepts.PART_OF, Concepts.NAMESPACE_ROOT, Concepts.INFERRED_RELATIONSHIP);
+		final String versionEffectiveTime = "20170305";
+		createVersion(codeSystemId, "v1", EffectiveTimes.parse(versionEffectiveTime, DateFormats.SHORT)).statusCode(201);
+		
+		final String conceptId = createNewConcept(branchPath);
+		
+		// files of the same export are written by multiple workers
+		var exportConfig = Map.<String, Object>of(
+			"type", Rf2ReleaseType.FULL.name(),
+			"includeUnpublished", true,
+			"parallelism", 4
+		);
+		
+		final File exportArchive = doExport(branchPath, exportConfig);
+		
+		final Multimap<String, Pair<Boolean, String>> fileToLinesMap = ArrayListMultimap.create();
+		fileToLinesMap.put("sct2_Relationship_Full", Pair.of(true, getComponentLine(
+			relationshipId, 
+			versionEffectiveTime, 
+			"1", 
+			Concepts.MODULE_SCT_CORE, 
+			Concepts.ROOT_CONCEPT, 
+			Concepts.NAMESPACE_ROOT, 
+			"0", 
+			Concepts.PART_OF, 
+			Concepts.INFERRED_RELATIONSHIP, 
+			Concepts.EXISTENTIAL_RESTRICTION_MODIFIER
+		)));
+		fileToLinesMap.put("sct2_Concept_Full", Pair.of(true, getComponentLine(conceptId, "", "1", Concepts.MODULE_SCT_CORE, Concepts.PRIMITIVE)));
+		
+		assertArchiveContainsLines(exportArchive, fileToLinesMap);
+	}
+
 	private String createRelationshipLine(final String relationshipId) {
 		// id, effectiveTime, active, moduleId, sourceId, destinationId, relationshipGroup, typeId, characteristicTypeId, modifierId
 		return createRelationshipLine(relationshipId, Concepts.STATED_RELATIONSHIP);
@@ -670,6 +670,47 @@ public class SnomedImportApiTest extends AbstractSnomedApiTest {
   		
   	}
   	
+  	@Test
+  	public void import41NewOwlParentInSecondImportBatchParallelPreparation() {
+  		
+  		// same as import37, but upcoming batches are prepared by multiple workers while the first batch is being committed
+  		var configuration = Map.of(
+  			"type", Rf2ReleaseType.DELTA.name(),
+  			"createVersions", false,
+  			"batchSize", 1000,
+  			"preparationParallelism", 4
+  		);
+  		
+  		importArchive(branchPath, configuration, "SnomedCT_RF2Release_INT_20230421T120000Z_new_owl_parent_in_second_import_batch.zip");
+  		
+  		getComponent(branchPath, SnomedComponentType.CONCEPT, "10004011000154102")
+  			.statusCode(200)
+  			.body("statedParentIds", equalTo(List.of("2911000154100")))
+  			.body("statedAncestorIds", equalTo(List.of(IComponent.ROOT_ID, Concepts.ROOT_CONCEPT, "404684003")));
+  		
+  	}
+  	
+  	@Test
+  	public void import42NewOwlParentInSecondImportBatchColumnarStaging() {
+  		
+  		// same as import41, but RF2 rows are staged in memory-mapped columnar files instead of MapDB
+  		var configuration = Map.of(
+  			"type", Rf2ReleaseType.DELTA.name(),
+  			"createVersions", false,
+  			"batchSize", 1000,
+  			"preparationParallelism", 4,
+  			"columnarStaging", true
+  		);
+  		
+  		importArchive(branchPath, configuration, "SnomedCT_RF2Release_INT_20230421T120000Z_new_owl_parent_in_second_import_batch.zip");
+  		
+  		getComponent(branchPath, SnomedComponentType.CONCEPT, "10004011000154102")
+  			.statusCode(200)
+  			.body("statedParentIds", equalTo(List.of("2911000154100")))
+  			.body("statedAncestorIds", equalTo(List.of(IComponent.ROOT_ID, Concepts.ROOT_CONCEPT, "404684003")));
+  		
+  	}
+  	
   	@Test
 	public void import38SnapshotWithReferencesBetweenVersionedAndUnversionedContent() throws Exception {
   		importAndValidateBranchHeadTimestampUpdate(branchPath, "SnomedCT_RF2Release_INT_20180223_content_w_and_wo_effective_time_mix.zip", false, Rf2ReleaseType.SNAPSHOT);
@@ -94,6 +94,7 @@ public class SnomedRf2ExportRestService extends AbstractRestService {
 			.setEndEffectiveTime(params.getEndEffectiveTime())
 			.setRefSetExportLayout(params.getRefSetLayout() == null ? null : Rf2RefSetExportLayout.getByNameIgnoreCase(params.getRefSetLayout()))
 			.setComponentTypes(params.getComponentTypes())
+			.setParallelism(params.getParallelism())
 			.build(branch)
 			.execute(getBus())
 			.getSync();
@@ -97,6 +97,14 @@ public class SnomedRf2ImportRestService extends AbstractRestService {
 			@RequestParam(name = "batchSize", required = false)
 			final Integer batchSize,
 			
+			@Parameter(description = "Configure the number of worker threads preparing (reading and resolving) and staging independent upcoming commit batches while the current batch is being committed. Commits remain sequential.", schema = @Schema(defaultValue = "1"))
+			@RequestParam(name = "preparationParallelism", required = false)
+			final Integer preparationParallelism,
+			
+			@Parameter(description = "Enable to stage the RF2 rows in memory-mapped columnar files instead of the default key-value store, recommended for large snapshot imports.", schema = @Schema(defaultValue = "false"))
+			@RequestParam(name = "columnarStaging", required = false)
+			final Boolean columnarStaging,
+			
 			@Parameter(description = "Enable to run the import content integrity validations without pushing any changes", schema = @Schema(defaultValue = "false"))
 			@RequestParam(name = "dryRun", defaultValue = "false")
 			final Boolean dryRun,
@@ -122,6 +130,8 @@ public class SnomedRf2ImportRestService extends AbstractRestService {
 			.setDryRun(dryRun)
 			.setImportUntil(importUntil)
 			.setBatchSize(batchSize)
+			.setPreparationParallelism(preparationParallelism)
+			.setColumnarStaging(columnarStaging)
 			.setAuthor(author)
 			.build(path)
 			.runAsJobWithRestart(importJobId, String.format("Importing SNOMED CT RF2 file '%s'", file.getOriginalFilename()))
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2020-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -70,6 +70,9 @@ public final class SnomedRf2ExportConfiguration {
 	@Parameter(description = "The component types to export. By default everything is exported.", schema = @Schema(allowableValues = { SnomedConcept.TYPE, SnomedDescription.TYPE, SnomedRelationship.TYPE, SnomedConcept.REFSET_TYPE }))
 	private List<String> componentTypes;
 	
+	@Parameter(description = "The number of worker threads writing the RF2 files of the export concurrently.", schema = @Schema(defaultValue = "1"))
+	private Integer parallelism;
+	
 	/**
 	 * Returns with the RF2 release type of the current export configuration.
 	 * @return the desired RF2 release type.
@@ -229,4 +232,13 @@ public final class SnomedRf2ExportConfiguration {
 	public void setComponentTypes(List<String> componentTypes) {
 		this.componentTypes = componentTypes;
 	}
+	
+	public Integer getParallelism() {
+		return parallelism;
+	}
+	
+	public void setParallelism(Integer parallelism) {
+		this.parallelism = parallelism;
+	}
+	
 }
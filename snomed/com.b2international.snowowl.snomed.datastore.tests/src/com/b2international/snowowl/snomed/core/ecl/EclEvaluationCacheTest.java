@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.concept;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.validation.IResourceValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.index.Index;
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.query.Expression;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snomed.ecl.EclStandaloneSetup;
+import com.b2international.snowowl.core.config.IndexConfiguration;
+import com.b2international.snowowl.core.config.RepositoryConfiguration;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.ecl.DefaultEclParser;
+import com.b2international.snowowl.core.ecl.DefaultEclSerializer;
+import com.b2international.snowowl.core.ecl.EclParser;
+import com.b2international.snowowl.core.ecl.EclSerializer;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.core.request.BranchSnapshotContentRequest;
+import com.b2international.snowowl.core.request.ecl.EclRewriter;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.tree.Trees;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
+import com.b2international.snowowl.snomed.datastore.config.SnomedEclConfig;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+
+/**
+ * @since 9.5
+ */
+public class EclEvaluationCacheTest extends BaseRevisionIndexTest {
+
+	private static final Injector INJECTOR = new EclStandaloneSetup().createInjectorAndDoEMFRegistration();
+
+	private static final String CHILDREN_OF_ROOT = "<! " + Concepts.ROOT_CONCEPT;
+
+	private EclEvaluationCache cache;
+	private BranchContext context;
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableSet.of(SnomedConceptDocument.class, SnomedDescriptionIndexEntry.class, SnomedRelationshipIndexEntry.class, SnomedRefSetMemberIndexEntry.class);
+	}
+
+	@Before
+	public void setup() {
+		RepositoryConfiguration repositoryConfig = new RepositoryConfiguration();
+		IndexConfiguration indexConfiguration = new IndexConfiguration();
+		indexConfiguration.setResultWindow(IndexClientFactory.DEFAULT_RESULT_WINDOW);
+		repositoryConfig.setIndexConfiguration(indexConfiguration);
+
+		cache = new EclEvaluationCache(new SnomedEclConfig());
+
+		context = TestBranchContext.on(MAIN)
+				.with(EclParser.class, new DefaultEclParser(INJECTOR.getInstance(IParser.class), INJECTOR.getInstance(IResourceValidator.class)))
+				.with(EclSerializer.class, new DefaultEclSerializer(INJECTOR.getInstance(ISerializer.class)))
+				.with(Index.class, rawIndex())
+				.with(RevisionIndex.class, index())
+				.with(SnomedCoreConfiguration.class, new SnomedCoreConfiguration())
+				.with(RepositoryConfiguration.class, repositoryConfig)
+				.with(EclRewriter.class, new EclRewriter())
+				.with(EclEvaluationCache.class, cache)
+				.build();
+
+		branching().addBranchChangeListener(cache::invalidate);
+	}
+
+	private Set<String> resolve(String ecl) {
+		return new BranchSnapshotContentRequest<>(MAIN, (BranchContext branchContext) -> EclExpression.of(ecl, Trees.INFERRED_FORM).resolve(branchContext).getSync())
+				.execute(context);
+	}
+
+	@Test
+	public void cachedResult() throws Exception {
+		final String conceptId = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, concept(conceptId).build());
+
+		assertEquals(Set.of(conceptId), resolve(CHILDREN_OF_ROOT));
+		// differently formatted expression should return the same cached result
+		assertEquals(Set.of(conceptId), resolve("  <!\t" + Concepts.ROOT_CONCEPT + "\n"));
+		// resolved IDs and the query expression
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void commitInvalidatesBranch() throws Exception {
+		final String conceptId = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, concept(conceptId).build());
+		assertEquals(Set.of(conceptId), resolve(CHILDREN_OF_ROOT));
+
+		final String newConceptId = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, concept(newConceptId).build());
+		assertEquals(Set.of(conceptId, newConceptId), resolve(CHILDREN_OF_ROOT));
+	}
+
+	@Test
+	public void invalidateChildBranchKeepsParentEntries() throws Exception {
+		indexRevision(MAIN, concept(RandomSnomedIdentiferGenerator.generateConceptId()).build());
+		resolve(CHILDREN_OF_ROOT);
+
+		cache.invalidate(MAIN + "/a");
+		assertEquals(2, cache.size());
+
+		cache.invalidate(MAIN);
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void expressionWeightGrowsWithValues() throws Exception {
+		assertTrue(EclEvaluationCache.weigh(idsExpression(1_000)) > EclEvaluationCache.weigh(idsExpression(10)));
+		assertTrue(EclEvaluationCache.weigh(Expressions.bool().filter(idsExpression(1_000)).build()) > EclEvaluationCache.weigh(idsExpression(1_000)));
+	}
+
+	@Test
+	public void largeExpressionsAreEvicted() throws Exception {
+		final Expression largeExpression = idsExpression(1_000);
+		final Expression smallExpression = idsExpression(2);
+		
+		final SnomedEclConfig config = new SnomedEclConfig();
+		config.setExpressionCacheBytes(EclEvaluationCache.weigh(largeExpression) - 1);
+		cache = new EclEvaluationCache(config);
+		
+		final AtomicInteger evaluations = new AtomicInteger();
+		assertEquals(largeExpression, resolveToExpression(CHILDREN_OF_ROOT, largeExpression, evaluations));
+		// the expression does not fit into the byte budget, it is evicted immediately
+		assertEquals(0, cache.size());
+		assertEquals(largeExpression, resolveToExpression(CHILDREN_OF_ROOT, largeExpression, evaluations));
+		assertEquals(2, evaluations.get());
+		
+		assertEquals(smallExpression, resolveToExpression("<< " + Concepts.ROOT_CONCEPT, smallExpression, evaluations));
+		assertEquals(smallExpression, resolveToExpression("<< " + Concepts.ROOT_CONCEPT, smallExpression, evaluations));
+		assertEquals(1, cache.size());
+		assertEquals(3, evaluations.get());
+	}
+
+	private Expression resolveToExpression(String ecl, Expression expression, AtomicInteger evaluations) {
+		return new BranchSnapshotContentRequest<>(MAIN, (BranchContext branchContext) -> cache.resolveToExpression(branchContext, Trees.INFERRED_FORM, ecl, () -> {
+			evaluations.incrementAndGet();
+			return Promise.immediate(expression);
+		}).getSync()).execute(context);
+	}
+
+	private static Expression idsExpression(int numberOfIds) {
+		final Set<String> ids = new HashSet<>(numberOfIds);
+		while (ids.size() < numberOfIds) {
+			ids.add(RandomSnomedIdentiferGenerator.generateConceptId());
+		}
+		return Expressions.matchAny(SnomedConceptDocument.Fields.ID, ids);
+	}
+
+	@Test
+	public void normalizeKeepsQuotedWhitespace() throws Exception {
+		assertEquals("<< 404684003 {{ term = \"heart  attack\" }}", EclEvaluationCache.normalize("  <<   404684003\n{{ term  =  \"heart  attack\" }} "));
+	}
+
+}
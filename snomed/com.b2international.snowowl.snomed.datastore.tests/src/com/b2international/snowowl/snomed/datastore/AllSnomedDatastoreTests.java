@@ -22,15 +22,21 @@ import org.junit.runners.Suite.SuiteClasses;
 import com.b2international.snowowl.snomed.core.ecl.*;
 import com.b2international.snowowl.snomed.core.request.SnomedQueryOptimizerTest;
 import com.b2international.snowowl.snomed.core.tree.TerminologyTreeTest;
+import com.b2international.snowowl.snomed.datastore.id.cis.CisSnomedIdentifierServiceStubTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceRegressionTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceTest;
+import com.b2international.snowowl.snomed.datastore.id.memory.SctIdBlockAllocatorTest;
 import com.b2international.snowowl.snomed.datastore.index.change.*;
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomySnapshotTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.SnomedIdentifierTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.ReservationImplTest;
 import com.b2international.snowowl.snomed.datastore.internal.id.reservations.SnomedIdentifierReservationServiceImplTest;
 import com.b2international.snowowl.snomed.datastore.request.SnomedOWLExpressionConverterTest;
 import com.b2international.snowowl.snomed.datastore.request.SnomedOWLRelationshipConverterTest;
+import com.b2international.snowowl.snomed.datastore.request.rf2.importer.Rf2ColumnarRowStoreTest;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyGraphCacheTest;
+import com.b2international.snowowl.snomed.validation.SnomedIncrementalValidationTest;
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluatorTest;
 
 /**
@@ -45,12 +51,15 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	SnomedIdentifierReservationServiceImplTest.class,
 	DefaultSnomedIdentifierServiceTest.class,
 	DefaultSnomedIdentifierServiceRegressionTest.class,
+	SctIdBlockAllocatorTest.class,
+	CisSnomedIdentifierServiceStubTest.class,
 	// index document test cases 
 	SnomedConceptDocumentSerializationTest.class,
 	SnomedRelationshipIndexEntrySerializationTest.class,
 	SnomedDescriptionIndexEntrySerializationTest.class,
 	SnomedRefSetMemberDocumentSerializationTest.class,
 	SnomedConceptDocumentTermSortTest.class,
+	ReasonerTaxonomySnapshotTest.class,
 	// change proc test cases
 	DescriptionChangeProcessorTest.class,
 	RelationshipChangeProcessorTest.class,
@@ -64,14 +73,19 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	SnomedEclEvaluationRequestHistorySupplementTest.class,
 	SnomedStatedEclEvaluationTest.class,
 	SnomedEclShortcutTest.class,
+	EclEvaluationCacheTest.class,
+	TaxonomyGraphCacheTest.class,
 	SnomedDescriptionUtilsTest.class,
 	// Validate Rule Evaluators
 	SnomedQueryValidationRuleEvaluatorTest.class,
+	SnomedIncrementalValidationTest.class,
 	// Query optimization
 	SnomedQueryOptimizerTest.class,
 	// OWL expression conversion tests
 	SnomedOWLExpressionConverterTest.class,	
 	SnomedOWLRelationshipConverterTest.class,
+	// RF2 import test cases
+	Rf2ColumnarRowStoreTest.class,
 })
 public class AllSnomedDatastoreTests {
 
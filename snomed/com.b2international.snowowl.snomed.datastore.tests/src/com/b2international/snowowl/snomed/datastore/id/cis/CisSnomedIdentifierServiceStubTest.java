@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.id.cis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.snomed.cis.ISnomedIdentifierService;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifierConfiguration;
+import com.b2international.snowowl.snomed.cis.client.CisSnomedIdentifierService;
+import com.b2international.snowowl.snomed.cis.domain.SctId;
+import com.b2international.snowowl.snomed.cis.internal.reservations.SnomedIdentifierReservationServiceImpl;
+import com.b2international.snowowl.snomed.datastore.id.AbstractIdentifierServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the identifier service tests against a local {@link CisStubServer stub CIS}.
+ * 
+ * @since 9.5
+ */
+public class CisSnomedIdentifierServiceStubTest extends AbstractIdentifierServiceTest {
+
+	private static final int BULK_LIMIT = 1_000;
+	
+	private CisStubServer server;
+	private CisSnomedIdentifierService service;
+	
+	@Override
+	protected ISnomedIdentifierService getIdentifierService() {
+		return service;
+	}
+	
+	@Before
+	public void init() throws Exception {
+		server = new CisStubServer();
+		
+		final SnomedIdentifierConfiguration conf = new SnomedIdentifierConfiguration();
+		conf.setCisBaseUrl(server.getBaseUrl());
+		conf.setCisContextRoot(server.getContextRoot());
+		conf.setCisUserName("test");
+		conf.setCisPassword("test");
+		conf.setCisTimeBetweenPollTries(10);
+		conf.setCisNumberOfPollTries(5);
+		conf.setRequestBulkLimit(BULK_LIMIT);
+		
+		service = new CisSnomedIdentifierService(conf, new SnomedIdentifierReservationServiceImpl(), new ObjectMapper());
+	}
+	
+	@After
+	public void after() {
+		service.dispose();
+		server.close();
+	}
+	
+	@Test
+	public void generateSplitsIntoConcurrentBulkJobs() throws Exception {
+		final Map<String, SctId> sctIds = service.generateSctIds(B2I_NAMESPACE, ComponentCategory.CONCEPT, 2 * BULK_LIMIT + 500);
+		
+		assertThat(sctIds).hasSize(2 * BULK_LIMIT + 500);
+		assertThat(sctIds.values()).allMatch(SctId::isAssigned);
+		assertThat(server.getBulkRequestCount()).isEqualTo(3);
+	}
+	
+	@Test
+	public void publishSplitsIntoConcurrentBulkRequests() throws Exception {
+		final Set<String> componentIds = service.generate(B2I_NAMESPACE, ComponentCategory.DESCRIPTION, 2 * BULK_LIMIT);
+		
+		final Map<String, SctId> publishedIds = service.publish(componentIds);
+		
+		assertThat(publishedIds).hasSize(2 * BULK_LIMIT);
+		assertThat(service.getSctIds(componentIds).values()).allMatch(SctId::isPublished);
+		// two generation jobs followed by two publication requests
+		assertThat(server.getBulkRequestCount()).isEqualTo(4);
+	}
+	
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.id.cis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.b2international.commons.VerhoeffCheck;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
+import com.b2international.snowowl.snomed.cis.domain.IdentifierStatus;
+import com.b2international.snowowl.snomed.cis.domain.SctId;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal in-memory Component Identifier Service for testing the remote identifier service client. Bulk jobs report a running status on
+ * their first poll and finish on the second one.
+ * 
+ * @since 9.5
+ */
+final class CisStubServer implements AutoCloseable {
+
+	private static final String CONTEXT_ROOT = "api";
+	private static final String TOKEN = "stub-token";
+	
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Map<String, SctId> sctIds = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> jobRecords = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> jobPolls = new ConcurrentHashMap<>();
+	private final AtomicLong nextItemId = new AtomicLong(100L);
+	private final AtomicLong nextJobId = new AtomicLong(1L);
+	private final AtomicInteger bulkRequests = new AtomicInteger();
+	
+	private final HttpServer server;
+	private final ExecutorService executor;
+	
+	CisStubServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.executor = Executors.newFixedThreadPool(8);
+		this.server.setExecutor(executor);
+		this.server.createContext("/" + CONTEXT_ROOT + "/", this::handle);
+		this.server.start();
+	}
+	
+	String getBaseUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+	
+	String getContextRoot() {
+		return CONTEXT_ROOT;
+	}
+	
+	/**
+	 * @return the number of bulk requests (jobs and bulk status changes) received so far
+	 */
+	int getBulkRequestCount() {
+		return bulkRequests.get();
+	}
+	
+	private void handle(final HttpExchange exchange) throws IOException {
+		try {
+			final String path = exchange.getRequestURI().getPath().substring(CONTEXT_ROOT.length() + 2);
+			final JsonNode body = readBody(exchange);
+			
+			if (path.equals("login")) {
+				respond(exchange, mapper.createObjectNode().put("token", TOKEN));
+				return;
+			} else if (path.equals("logout")) {
+				respond(exchange, mapper.createObjectNode());
+				return;
+			} else if (!("token=" + TOKEN).equals(exchange.getRequestURI().getQuery())) {
+				respond(exchange, 401, null);
+				return;
+			}
+			
+			if (path.startsWith("sct/bulk/") && !path.startsWith("sct/bulk/ids")) {
+				bulkRequests.incrementAndGet();
+			}
+			
+			switch (path) {
+			case "sct/generate": respond(exchange, create(body, IdentifierStatus.ASSIGNED)); break;
+			case "sct/reserve": respond(exchange, create(body, IdentifierStatus.RESERVED)); break;
+			case "sct/bulk/generate": respond(exchange, createJob(body, IdentifierStatus.ASSIGNED)); break;
+			case "sct/bulk/reserve": respond(exchange, createJob(body, IdentifierStatus.RESERVED)); break;
+			case "sct/register": respond(exchange, update(List.of(body.get("sctid").asText()), IdentifierStatus.ASSIGNED)); break;
+			case "sct/release": respond(exchange, update(List.of(body.get("sctid").asText()), IdentifierStatus.AVAILABLE)); break;
+			case "sct/publish": respond(exchange, update(List.of(body.get("sctid").asText()), IdentifierStatus.PUBLISHED)); break;
+			case "sct/deprecate": respond(exchange, update(List.of(body.get("sctid").asText()), IdentifierStatus.DEPRECATED)); break;
+			case "sct/bulk/register": respond(exchange, update(Lists.transform(ImmutableList.copyOf(body.get("records")), record -> record.get("sctid").asText()), IdentifierStatus.ASSIGNED)); break;
+			case "sct/bulk/release": respond(exchange, update(texts(body.get("sctids")), IdentifierStatus.AVAILABLE)); break;
+			case "sct/bulk/publish": respond(exchange, update(texts(body.get("sctids")), IdentifierStatus.PUBLISHED)); break;
+			case "sct/bulk/deprecate": respond(exchange, update(texts(body.get("sctids")), IdentifierStatus.DEPRECATED)); break;
+			case "sct/bulk/ids/": 
+				final List<SctId> existing = Splitter.on(',').splitToList(body.get("sctids").asText()).stream()
+					.map(sctIds::get)
+					.filter(sctId -> sctId != null)
+					.toList();
+				respond(exchange, existing); 
+				break;
+			default:
+				if (path.startsWith("sct/ids/")) {
+					final String componentId = path.substring("sct/ids/".length());
+					respond(exchange, sctIds.getOrDefault(componentId, newSctId(componentId, IdentifierStatus.AVAILABLE)));
+				} else if (path.startsWith("bulk/jobs/") && path.endsWith("/records")) {
+					final String jobId = path.substring("bulk/jobs/".length(), path.length() - "/records".length());
+					respond(exchange, Lists.transform(jobRecords.get(jobId), sctId -> mapper.createObjectNode().put("sctid", sctId)));
+				} else if (path.startsWith("bulk/jobs/")) {
+					final String jobId = path.substring("bulk/jobs/".length());
+					final int status = jobPolls.get(jobId).incrementAndGet() > 1 ? 2 : 1;
+					respond(exchange, mapper.createObjectNode().put("id", jobId).put("status", status));
+				} else {
+					respond(exchange, 404, null);
+				}
+			}
+		} catch (RuntimeException e) {
+			respond(exchange, 500, null);
+		}
+	}
+	
+	private SctId create(final JsonNode body, final IdentifierStatus status) {
+		final int namespace = body.get("namespace").asInt();
+		final String partitionId = body.get("partitionId").asText();
+		
+		final StringBuilder builder = new StringBuilder();
+		builder.append(nextItemId.getAndIncrement());
+		if (namespace != 0) {
+			builder.append(namespace);
+		}
+		builder.append(partitionId);
+		builder.append(VerhoeffCheck.calculateChecksum(builder, false));
+		
+		final SctId sctId = newSctId(builder.toString(), status);
+		sctIds.put(sctId.getSctid(), sctId);
+		return sctId;
+	}
+	
+	private JsonNode createJob(final JsonNode body, final IdentifierStatus status) {
+		final String jobId = Long.toString(nextJobId.getAndIncrement());
+		final int quantity = body.get("quantity").asInt();
+		
+		final List<String> records = Lists.newArrayListWithCapacity(quantity);
+		for (int i = 0; i < quantity; i++) {
+			records.add(create(body, status).getSctid());
+		}
+		
+		jobRecords.put(jobId, records);
+		jobPolls.put(jobId, new AtomicInteger());
+		return mapper.createObjectNode().put("id", jobId);
+	}
+	
+	private JsonNode update(final List<String> componentIds, final IdentifierStatus status) {
+		componentIds.forEach(componentId -> sctIds.compute(componentId, (key, existing) -> {
+			final SctId sctId = existing != null ? existing : newSctId(componentId, status);
+			sctId.setStatus(status.getSerializedName());
+			return sctId;
+		}));
+		return mapper.createObjectNode().put("id", nextJobId.getAndIncrement());
+	}
+	
+	private List<String> texts(final JsonNode array) {
+		return Lists.transform(ImmutableList.copyOf(array), JsonNode::asText);
+	}
+	
+	private SctId newSctId(final String componentId, final IdentifierStatus status) {
+		final SctId sctId = new SctId();
+		sctId.setSctid(componentId);
+		sctId.setStatus(status.getSerializedName());
+		sctId.setSequence(SnomedIdentifiers.getItemId(componentId));
+		sctId.setNamespace(SnomedIdentifiers.getNamespace(componentId));
+		sctId.setPartitionId(SnomedIdentifiers.getPartitionId(componentId));
+		sctId.setCheckDigit(SnomedIdentifiers.getCheckDigit(componentId));
+		return sctId;
+	}
+	
+	private JsonNode readBody(final HttpExchange exchange) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			final byte[] bytes = in.readAllBytes();
+			return bytes.length == 0 ? mapper.createObjectNode() : mapper.readTree(bytes);
+		}
+	}
+	
+	private void respond(final HttpExchange exchange, final Object value) throws IOException {
+		respond(exchange, 200, mapper.writeValueAsBytes(value));
+	}
+	
+	private void respond(final HttpExchange exchange, final int statusCode, final byte[] body) throws IOException {
+		final byte[] bytes = body == null ? new byte[0] : body;
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=" + StandardCharsets.UTF_8.name());
+		exchange.sendResponseHeaders(statusCode, bytes.length == 0 ? -1 : bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+	
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.id.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.snomed.cis.memory.SctIdBlockAllocator;
+
+/**
+ * @since 9.5
+ */
+public class SctIdBlockAllocatorTest {
+
+	private static final int BLOCK_SIZE = 10;
+	
+	private final AtomicLong nextId = new AtomicLong(1L);
+	
+	private Set<String> nextIds(final int quantity) {
+		final Set<String> ids = new LinkedHashSet<>();
+		for (int i = 0; i < quantity; i++) {
+			ids.add(Long.toString(nextId.getAndIncrement()));
+		}
+		return ids;
+	}
+	
+	@Test
+	public void concurrentAllocationsReturnNoDuplicates() throws Exception {
+		final SctIdBlockAllocator allocator = new SctIdBlockAllocator((namespace, category, quantity) -> nextIds(quantity), BLOCK_SIZE);
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		
+		try {
+			final List<Future<List<String>>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					final List<String> ids = new ArrayList<>();
+					for (int i = 0; i < 300; i++) {
+						ids.addAll(allocator.allocate(null, ComponentCategory.CONCEPT, 1 + i % 3));
+					}
+					return ids;
+				}));
+			}
+			
+			final List<String> allIds = new ArrayList<>();
+			for (final Future<List<String>> future : futures) {
+				allIds.addAll(future.get(1L, TimeUnit.MINUTES));
+			}
+			
+			// 8 threads, each claiming 1 + 2 + 3 identifiers in every three of the 300 rounds
+			assertThat(allIds).hasSize(8 * 600).doesNotHaveDuplicates();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void registeredIdsAreNotHandedOutFromBlockBeingGenerated() throws Exception {
+		final CountDownLatch successorStarted = new CountDownLatch(1);
+		final CountDownLatch releaseSuccessor = new CountDownLatch(1);
+		final AtomicInteger generateCalls = new AtomicInteger();
+		
+		final SctIdBlockAllocator allocator = new SctIdBlockAllocator((namespace, category, quantity) -> {
+			final Set<String> ids = nextIds(quantity);
+			if (generateCalls.incrementAndGet() == 2) {
+				// the successor is generated, but held back until the test registers one of its identifiers
+				successorStarted.countDown();
+				try {
+					releaseSuccessor.await(1L, TimeUnit.MINUTES);
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			return ids;
+		}, BLOCK_SIZE);
+		
+		// claiming more than half of the first block (1-10) starts generating the successor (11-20)
+		final Set<String> firstIds = allocator.allocate(null, ComponentCategory.CONCEPT, 6);
+		assertThat(firstIds).containsExactly("1", "2", "3", "4", "5", "6");
+		assertThat(successorStarted.await(1L, TimeUnit.MINUTES)).isTrue();
+		
+		// register an unclaimed identifier of the current block and one of the successor while it is being generated
+		allocator.discard(Set.of("8", "13"));
+		releaseSuccessor.countDown();
+		
+		final List<String> allocatedIds = new ArrayList<>(firstIds);
+		for (int i = 0; i < 10; i++) {
+			allocatedIds.addAll(allocator.allocate(null, ComponentCategory.CONCEPT, 3));
+		}
+		
+		assertThat(allocatedIds)
+			.hasSize(36)
+			.doesNotHaveDuplicates()
+			.doesNotContain("8", "13")
+			.contains("7", "9", "10", "11", "12", "14");
+	}
+	
+	@Test
+	public void registeredIdsAreNotHandedOutFromCompletedSuccessor() throws Exception {
+		final SctIdBlockAllocator allocator = new SctIdBlockAllocator((namespace, category, quantity) -> nextIds(quantity), BLOCK_SIZE);
+		
+		final List<String> allocatedIds = new ArrayList<>(allocator.allocate(null, ComponentCategory.CONCEPT, 9));
+		// the successor (11-20) is allocated in the background, register identifiers regardless of whether it has completed yet 
+		allocator.discard(Set.of("10", "11", "20"));
+		
+		for (int i = 0; i < 4; i++) {
+			allocatedIds.addAll(allocator.allocate(null, ComponentCategory.CONCEPT, 5));
+		}
+		
+		assertThat(allocatedIds)
+			.hasSize(29)
+			.doesNotHaveDuplicates()
+			.doesNotContain("10", "11", "20");
+	}
+	
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.taxonomy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.RelationshipValueType;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithDestination;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithValue;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * @since 9.5
+ */
+public class ReasonerTaxonomySnapshotTest {
+
+	private static final String ROOT_ID = Concepts.ROOT_CONCEPT;
+	private static final String PARENT_ID = "404684003";
+	private static final String CHILD_ID = "22298006";
+	private static final String TYPE_ID = "363698007";
+	private static final String VALUE_TYPE_ID = "1142135004";
+	private static final List<String> CONCEPT_IDS = List.of(ROOT_ID, PARENT_ID, CHILD_ID, TYPE_ID, VALUE_TYPE_ID);
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void writeAndRead() throws Exception {
+		final ReasonerTaxonomy expected = createTaxonomy(true);
+		final Path file = folder.newFile().toPath();
+		
+		ReasonerTaxonomySnapshot.write(expected, file);
+		final ReasonerTaxonomy actual = ReasonerTaxonomySnapshot.read(file);
+		
+		assertTaxonomyEquals(expected, actual);
+	}
+	
+	@Test
+	public void writeAndReadWithoutNames() throws Exception {
+		final ReasonerTaxonomy expected = createTaxonomy(false);
+		final Path file = folder.newFile().toPath();
+		
+		ReasonerTaxonomySnapshot.write(expected, file);
+		final ReasonerTaxonomy actual = ReasonerTaxonomySnapshot.read(file);
+		
+		assertNull(actual.getFullySpecifiedNames());
+		assertTaxonomyEquals(expected, actual);
+	}
+	
+	@Test(expected = IOException.class)
+	public void readTruncatedFile() throws Exception {
+		final Path file = folder.newFile().toPath();
+		ReasonerTaxonomySnapshot.write(createTaxonomy(true), file);
+		
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() / 2);
+		}
+		
+		ReasonerTaxonomySnapshot.read(file);
+	}
+	
+	@Test(expected = IOException.class)
+	public void readCorruptLength() throws Exception {
+		final Path file = folder.newFile().toPath();
+		ReasonerTaxonomySnapshot.write(createTaxonomy(true), file);
+		
+		// The concept count follows the magic number and the version
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, Integer.MAX_VALUE), 2 * Integer.BYTES);
+		}
+		
+		ReasonerTaxonomySnapshot.read(file);
+	}
+	
+	@Test(expected = IOException.class)
+	public void readTrailingBytes() throws Exception {
+		final Path file = folder.newFile().toPath();
+		ReasonerTaxonomySnapshot.write(createTaxonomy(true), file);
+		Files.write(file, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND);
+		
+		ReasonerTaxonomySnapshot.read(file);
+	}
+	
+	private static ReasonerTaxonomy createTaxonomy(final boolean withNames) {
+		final InternalIdMap conceptMap = InternalIdMap.builder()
+				.addAll(CONCEPT_IDS)
+				.build();
+		
+		final LongKeyMap<String> fullySpecifiedNames;
+		if (withNames) {
+			fullySpecifiedNames = PrimitiveMaps.newLongKeyOpenHashMap();
+			fullySpecifiedNames.put(Long.parseLong(PARENT_ID), "Clinical finding (finding)");
+			fullySpecifiedNames.put(Long.parseLong(CHILD_ID), "Myocardial infarction (disorder) \u00fcn\u00efc\u00f6d\u00e9");
+		} else {
+			fullySpecifiedNames = null;
+		}
+		
+		final InternalIdEdges statedAncestors = InternalIdEdges.builder(conceptMap)
+				.addEdges(List.of(PARENT_ID, CHILD_ID, TYPE_ID, VALUE_TYPE_ID), List.of(ROOT_ID, PARENT_ID, ROOT_ID, ROOT_ID))
+				.build();
+		final InternalIdEdges statedDescendants = InternalIdEdges.builder(conceptMap)
+				.addEdges(List.of(ROOT_ID, PARENT_ID, ROOT_ID, ROOT_ID), List.of(PARENT_ID, CHILD_ID, TYPE_ID, VALUE_TYPE_ID))
+				.build();
+		
+		final InternalSctIdSet definingConcepts = InternalSctIdSet.builder(conceptMap).addAll(List.of(CHILD_ID)).build();
+		final InternalSctIdSet exhaustiveConcepts = InternalSctIdSet.builder(conceptMap).addAll(List.of(PARENT_ID)).build();
+		
+		final StatementFragment isA = new StatementFragmentWithDestination(Long.parseLong(Concepts.IS_A), 0, 0, false, 100L, 200L, true, Long.parseLong(PARENT_ID), false);
+		final StatementFragment findingSite = new StatementFragmentWithDestination(Long.parseLong(TYPE_ID), 1, 2, true, 101L, 200L, false, Long.parseLong(ROOT_ID), true);
+		final StatementFragment decimalValue = new StatementFragmentWithValue(Long.parseLong(VALUE_TYPE_ID), 1, 0, false, 102L, 200L, false, RelationshipValueType.DECIMAL, "1.50");
+		final StatementFragment stringValue = new StatementFragmentWithValue(Long.parseLong(VALUE_TYPE_ID), 2, 0, false, -1L, -1L, false, RelationshipValueType.STRING, "");
+		
+		final InternalIdMultimap<StatementFragment> statedRelationships = InternalIdMultimap.<StatementFragment>builder(conceptMap)
+				.putAll(CHILD_ID, List.of(isA, findingSite, decimalValue))
+				.build();
+		final InternalIdMultimap<StatementFragment> axiomNonIsARelationships = InternalIdMultimap.<StatementFragment>builder(conceptMap)
+				.putAll(PARENT_ID, List.of(stringValue))
+				.build();
+		final InternalIdMultimap<StatementFragment> existingInferredRelationships = InternalIdMultimap.<StatementFragment>builder(conceptMap)
+				.putAll(CHILD_ID, List.of(isA, findingSite))
+				.build();
+		final InternalIdMultimap<StatementFragment> additionalGroupedRelationships = InternalIdMultimap.<StatementFragment>builder(conceptMap)
+				.build();
+		
+		final InternalIdMultimap<String> axioms = InternalIdMultimap.<String>builder(conceptMap)
+				.putAll(CHILD_ID, List.of("SubClassOf(:" + CHILD_ID + " :" + PARENT_ID + ")"))
+				.build();
+		
+		final ConcreteDomainFragment statedMember = new ConcreteDomainFragment("d3d1a6d8-84d7-4a0a-8ac4-2b0b2c7c1c10", 733073007L, 1, "#500", Long.parseLong(VALUE_TYPE_ID), true);
+		final ConcreteDomainFragment inferredMember = new ConcreteDomainFragment("0b9f2c2c-4a6a-4d0c-9a61-77d0bb1e8a30", 733073007L, 0, null, Long.parseLong(VALUE_TYPE_ID), false);
+		
+		return new ReasonerTaxonomy(conceptMap, 
+				fullySpecifiedNames, 
+				
+				statedAncestors, 
+				statedDescendants, 
+				
+				definingConcepts, 
+				exhaustiveConcepts, 
+				
+				statedRelationships, 
+				axiomNonIsARelationships, 
+				existingInferredRelationships, 
+				additionalGroupedRelationships, 
+				
+				axioms, 
+				PrimitiveSets.newLongOpenHashSet(Long.parseLong(TYPE_ID)), 
+				ImmutableSet.of(new PropertyChain(Long.parseLong(TYPE_ID), Long.parseLong(Concepts.IS_A), Long.parseLong(TYPE_ID))), 
+				
+				InternalIdMultimap.<ConcreteDomainFragment>builder(conceptMap).putAll(CHILD_ID, List.of(statedMember)).build(), 
+				InternalIdMultimap.<ConcreteDomainFragment>builder(conceptMap).putAll(CHILD_ID, List.of(inferredMember)).build(), 
+				InternalIdMultimap.<ConcreteDomainFragment>builder(conceptMap).build(), 
+				
+				null, 
+				null, 
+				null, 
+				null);
+	}
+	
+	private static void assertTaxonomyEquals(final ReasonerTaxonomy expected, final ReasonerTaxonomy actual) {
+		assertEquals(expected.getConceptMap().size(), actual.getConceptMap().size());
+		for (int i = 0; i < expected.getConceptMap().size(); i++) {
+			assertEquals(expected.getConceptMap().getSctId(i), actual.getConceptMap().getSctId(i));
+		}
+		
+		assertEquals(expected.getFullySpecifiedNames(), actual.getFullySpecifiedNames());
+		
+		assertArrayEquals(expected.getStatedAncestors().getEdges(), actual.getStatedAncestors().getEdges());
+		assertArrayEquals(expected.getStatedDescendants().getEdges(), actual.getStatedDescendants().getEdges());
+		
+		assertArrayEquals(expected.getDefiningConcepts().getInternalIds(), actual.getDefiningConcepts().getInternalIds());
+		assertArrayEquals(expected.getExhaustiveConcepts().getInternalIds(), actual.getExhaustiveConcepts().getInternalIds());
+		
+		// Statement fragments do not implement value equality, compare their string representation instead
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getStatedRelationships);
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getAxiomNonIsARelationships);
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getExistingInferredRelationships);
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getAdditionalGroupedRelationships);
+		
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getAxioms);
+		assertArrayEquals(sorted(expected.getNeverGroupedTypeIds()), sorted(actual.getNeverGroupedTypeIds()));
+		assertEquals(expected.getPropertyChains(), actual.getPropertyChains());
+		
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getStatedConcreteDomainMembers);
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getInferredConcreteDomainMembers);
+		assertMultimapEquals(expected, actual, ReasonerTaxonomy::getAdditionalGroupedConcreteDomainMembers);
+	}
+	
+	private static void assertMultimapEquals(final ReasonerTaxonomy expected, final ReasonerTaxonomy actual, final Function<ReasonerTaxonomy, InternalIdMultimap<?>> getter) {
+		for (final String conceptId : CONCEPT_IDS) {
+			assertEquals(toStrings(getter.apply(expected).get(conceptId)), toStrings(getter.apply(actual).get(conceptId)));
+		}
+	}
+	
+	private static long[] sorted(final LongSet values) {
+		final long[] array = values.toArray();
+		Arrays.sort(array);
+		return array;
+	}
+	
+	private static List<String> toStrings(final Collection<?> values) {
+		return values.stream()
+				.map(String::valueOf)
+				.toList();
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * @since 9.5
+ */
+public class Rf2ColumnarRowStoreTest {
+
+	private static final String CONCEPT_ID = "404684003";
+	private static final String DESCRIPTION_ID = "1234567011";
+	private static final String MEMBER_ID = UUID.randomUUID().toString();
+	
+	private Rf2ColumnarRowStore rows;
+	
+	@Before
+	public void setup() throws Exception {
+		rows = new Rf2ColumnarRowStore("test");
+	}
+	
+	@After
+	public void teardown() throws Exception {
+		rows.close();
+	}
+	
+	@Test
+	public void roundTripConcept() throws Exception {
+		final String[] values = { CONCEPT_ID, "20240131", "1", Concepts.MODULE_SCT_CORE, Concepts.PRIMITIVE };
+		rows.put(CONCEPT_ID, new Rf2ConceptContentType(), values);
+		
+		assertArrayEquals(new String[] { "concept", CONCEPT_ID, "20240131", "1", Concepts.MODULE_SCT_CORE, Concepts.PRIMITIVE }, rows.getValuesWithType(CONCEPT_ID));
+		
+		final SnomedConcept concept = rows.getComponent(CONCEPT_ID);
+		assertEquals(CONCEPT_ID, concept.getId());
+		assertEquals(Concepts.MODULE_SCT_CORE, concept.getModuleId());
+		assertEquals(Concepts.PRIMITIVE, concept.getDefinitionStatusId());
+	}
+	
+	@Test
+	public void roundTripNonNumericValues() throws Exception {
+		// leading zeros, empty values and non-ASCII terms must be returned as they were registered
+		final String[] values = { DESCRIPTION_ID, "", "0", Concepts.MODULE_SCT_CORE, CONCEPT_ID, "en", Concepts.FULLY_SPECIFIED_NAME, "Ménière's disease 007 (disorder)", Concepts.ENTIRE_TERM_CASE_INSENSITIVE };
+		rows.put(DESCRIPTION_ID, new Rf2DescriptionContentType(), values);
+		
+		final String[] valuesWithType = rows.getValuesWithType(DESCRIPTION_ID);
+		assertEquals("description", valuesWithType[0]);
+		assertArrayEquals(values, Arrays.copyOfRange(valuesWithType, 1, valuesWithType.length));
+	}
+	
+	@Test
+	public void memberIdsAndReplace() throws Exception {
+		rows.put(MEMBER_ID, new Rf2OwlExpressionRefSetContentType(), new String[] { MEMBER_ID, "20240131", "1", Concepts.MODULE_SCT_CORE, Concepts.REFSET_OWL_AXIOM, CONCEPT_ID, "SubClassOf(:404684003 :138875005)" });
+		rows.put(MEMBER_ID, new Rf2OwlExpressionRefSetContentType(), new String[] { MEMBER_ID, "20240131", "0", Concepts.MODULE_SCT_CORE, Concepts.REFSET_OWL_AXIOM, CONCEPT_ID, "SubClassOf(:404684003 :138875005)" });
+		rows.put(CONCEPT_ID, new Rf2ConceptContentType(), new String[] { CONCEPT_ID, "20240131", "1", Concepts.MODULE_SCT_CORE, Concepts.PRIMITIVE });
+		
+		assertEquals(2, rows.size());
+		assertEquals("0", rows.getValuesWithType(MEMBER_ID)[3]);
+		assertNull(rows.getValuesWithType(UUID.randomUUID().toString()));
+		assertNull(rows.getValuesWithType("138875005"));
+		
+		final Set<String> ids = ImmutableSet.copyOf(rows.ids());
+		assertThat(ids).containsOnly(MEMBER_ID, CONCEPT_ID);
+	}
+	
+}
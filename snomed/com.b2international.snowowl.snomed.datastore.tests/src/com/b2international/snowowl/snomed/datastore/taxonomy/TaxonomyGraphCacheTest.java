@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.concept;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.commons.collect.LongSets;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.core.request.BranchSnapshotContentRequest;
+import com.b2international.snowowl.snomed.datastore.config.SnomedEclConfig;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * @since 9.5
+ */
+public class TaxonomyGraphCacheTest extends BaseRevisionIndexTest {
+
+	private static final long LOAD_TIMEOUT_MILLIS = 10_000L;
+
+	private TaxonomyGraphCache cache;
+	private BranchContext context;
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return ImmutableSet.of(SnomedConceptDocument.class);
+	}
+
+	@Before
+	public void setup() {
+		cache = new TaxonomyGraphCache(index(), new SnomedEclConfig());
+		// concept documents are indexed with their final parent IDs in these tests, the taxonomy change processor is not required
+		withHook(cache);
+		context = TestBranchContext.on(MAIN)
+				.with(RevisionIndex.class, index())
+				.with(TaxonomyGraphCache.class, cache)
+				.build();
+	}
+
+	private Optional<TaxonomyGraph> getGraph() {
+		return new BranchSnapshotContentRequest<>(MAIN, (BranchContext branchContext) -> cache.getGraph(branchContext, false)).execute(context);
+	}
+
+	private TaxonomyGraph awaitGraph() throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + LOAD_TIMEOUT_MILLIS;
+		Optional<TaxonomyGraph> graph = getGraph();
+		while (graph.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50L);
+			graph = getGraph();
+		}
+		assertTrue("In-memory taxonomy was not loaded in time", graph.isPresent());
+		return graph.get();
+	}
+
+	@Test
+	public void cachedBranches() throws Exception {
+		assertTrue(cache.isCached(MAIN));
+		assertFalse(cache.isCached(MAIN + "/a"));
+		assertFalse(cache.isCached(MAIN + RevisionIndex.AT_CHAR + "1234"));
+		assertFalse(cache.isCached(RevisionIndex.toBaseRef(MAIN)));
+	}
+
+	@Test
+	public void loadAndApplyCommits() throws Exception {
+		final String parentId = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String childId = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, concept(parentId).build(), childOf(childId, parentId).build());
+
+		final long parentIdL = Long.parseLong(parentId);
+		final TaxonomyGraph initial = awaitGraph();
+		assertEquals(ImmutableSet.of(childId), LongSets.toStringSet(initial.getAllDescendantNodeIds(parentIdL)));
+
+		// new commits are applied to the in-memory graph in the background, without reloading the entire graph
+		final String grandChildId = RandomSnomedIdentiferGenerator.generateConceptId();
+		indexRevision(MAIN, childOf(grandChildId, childId).build());
+
+		final TaxonomyGraph updated = awaitGraph();
+		assertEquals(ImmutableSet.of(childId, grandChildId), LongSets.toStringSet(updated.getAllDescendantNodeIds(parentIdL)));
+		// the previous snapshot is not modified by the update
+		assertEquals(ImmutableSet.of(childId), LongSets.toStringSet(initial.getAllDescendantNodeIds(parentIdL)));
+	}
+
+	@Test
+	public void inactivationRemovesNode() throws Exception {
+		final String parentId = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String childId = RandomSnomedIdentiferGenerator.generateConceptId();
+		final SnomedConceptDocument child = childOf(childId, parentId).build();
+		indexRevision(MAIN, concept(parentId).build(), child);
+		awaitGraph();
+
+		indexChange(MAIN, child, childOf(childId, parentId).active(false).build());
+
+		final TaxonomyGraph updated = awaitGraph();
+		assertFalse(updated.containsNode(Long.parseLong(childId)));
+		assertTrue(updated.getAllDescendantNodeIds(Long.parseLong(parentId)).isEmpty());
+	}
+
+	@Test
+	public void incrementalUpdatesMatchFullBuild() throws Exception {
+		final String a = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String b = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String c = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String d = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String e = RandomSnomedIdentiferGenerator.generateConceptId();
+		final List<String> conceptIds = List.of(a, b, c, d, e);
+		
+		final SnomedConceptDocument conceptC = childOf(c, a).build();
+		indexRevision(MAIN, concept(a).build(), concept(b).build(), conceptC, childOf(d, c).build());
+		assertMatchesFullBuild(awaitGraph(), conceptIds);
+		
+		// new concept with multiple parents
+		indexRevision(MAIN, childOf(e, d, b).build());
+		assertMatchesFullBuild(awaitGraph(), conceptIds);
+		
+		// existing concept moves to a different parent along with its descendants
+		final SnomedConceptDocument movedC = childOf(c, b).build();
+		indexChange(MAIN, conceptC, movedC);
+		assertMatchesFullBuild(awaitGraph(), conceptIds);
+		
+		// inactivation leaves the edge of the child dangling, reactivation restores it
+		final SnomedConceptDocument inactiveC = childOf(c, b).active(false).build();
+		indexChange(MAIN, movedC, inactiveC);
+		assertMatchesFullBuild(awaitGraph(), conceptIds);
+		
+		indexChange(MAIN, inactiveC, childOf(c, a).build());
+		assertMatchesFullBuild(awaitGraph(), conceptIds);
+		
+		deleteRevision(MAIN, SnomedConceptDocument.class, e);
+		assertMatchesFullBuild(awaitGraph(), conceptIds);
+	}
+
+	private void assertMatchesFullBuild(TaxonomyGraph graph, List<String> conceptIds) {
+		final TaxonomyGraph expected = new TaxonomyGraph(conceptIds.size(), conceptIds.size());
+		expected.setCheckCycles(false);
+		final Query<SnomedConceptDocument> query = Query.select(SnomedConceptDocument.class)
+				.where(SnomedConceptDocument.Expressions.active())
+				.limit(conceptIds.size())
+				.build();
+		for (SnomedConceptDocument concept : search(MAIN, query)) {
+			expected.addNode(concept.getId());
+			final long[] parentIds = Arrays.stream(concept.getParents().toArray()).filter(parentId -> parentId != IComponent.ROOT_IDL).toArray();
+			if (parentIds.length > 0) {
+				expected.addEdge(concept.getId(), Long.parseLong(concept.getId()), parentIds);
+			}
+		}
+		expected.update();
+		
+		for (String conceptId : conceptIds) {
+			final long conceptIdL = Long.parseLong(conceptId);
+			assertEquals(conceptId, expected.containsNode(conceptIdL), graph.containsNode(conceptIdL));
+			if (expected.containsNode(conceptIdL)) {
+				assertEquals(conceptId, LongSets.toStringSet(expected.getAncestorNodeIds(conceptIdL)), LongSets.toStringSet(graph.getAncestorNodeIds(conceptIdL)));
+				assertEquals(conceptId, LongSets.toStringSet(expected.getAllAncestorNodeIds(conceptIdL)), LongSets.toStringSet(graph.getAllAncestorNodeIds(conceptIdL)));
+				assertEquals(conceptId, LongSets.toStringSet(expected.getDescendantNodeIds(conceptIdL)), LongSets.toStringSet(graph.getDescendantNodeIds(conceptIdL)));
+				assertEquals(conceptId, LongSets.toStringSet(expected.getAllDescendantNodeIds(conceptIdL)), LongSets.toStringSet(graph.getAllDescendantNodeIds(conceptIdL)));
+			}
+		}
+	}
+
+	private static SnomedConceptDocument.Builder childOf(String conceptId, String... parentIds) {
+		final long[] parentIdsL = Arrays.stream(parentIds).mapToLong(Long::parseLong).toArray();
+		return concept(conceptId)
+				.parents(PrimitiveSets.newLongSortedSet(parentIdsL))
+				.statedParents(PrimitiveSets.newLongSortedSet(parentIdsL));
+	}
+
+}
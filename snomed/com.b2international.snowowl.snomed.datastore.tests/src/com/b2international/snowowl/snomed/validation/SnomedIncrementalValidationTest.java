@@ -0,0 +1,323 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.validation;
+
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.concept;
+import static com.b2international.snowowl.test.commons.snomed.DocumentBuilders.description;
+import static com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator.generateConceptId;
+import static com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator.generateDescriptionId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.validation.IResourceValidator;
+import org.junit.Test;
+
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.BaseRevisionBranching;
+import com.b2international.index.revision.RevisionBranch;
+import com.b2international.snomed.ecl.EclStandaloneSetup;
+import com.b2international.snowowl.core.ComponentIdentifier;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.core.ecl.DefaultEclParser;
+import com.b2international.snowowl.core.ecl.DefaultEclSerializer;
+import com.b2international.snowowl.core.ecl.EclParser;
+import com.b2international.snowowl.core.ecl.EclSerializer;
+import com.b2international.snowowl.core.id.IDs;
+import com.b2international.snowowl.core.request.BranchSnapshotContentRequest;
+import com.b2international.snowowl.core.request.ecl.EclRewriter;
+import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.core.validation.ValidateRequestBuilder;
+import com.b2international.snowowl.core.validation.ValidationRequests;
+import com.b2international.snowowl.core.validation.ValidationRuleCheckpoint;
+import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.issue.ValidationIssue;
+import com.b2international.snowowl.core.validation.issue.ValidationIssues;
+import com.b2international.snowowl.core.validation.rule.ValidationRule.Severity;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
+import com.b2international.snowowl.snomed.datastore.CodeSystemResource;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionIndexEntry;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
+import com.b2international.snowowl.test.commons.SnomedContentRule;
+import com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext.Builder;
+import com.b2international.snowowl.test.commons.validation.BaseValidationTest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterables;
+import com.google.inject.Injector;
+
+/**
+ * @since 9.5
+ */
+public class SnomedIncrementalValidationTest extends BaseValidationTest {
+
+	private static final Injector INJECTOR = new EclStandaloneSetup().createInjectorAndDoEMFRegistration();
+	
+	private SnomedQueryValidationRuleEvaluator evaluator;
+	private boolean incremental = true;
+	private Map<String, Object> ruleParameters = Map.of();
+	
+	@Override
+	protected Collection<Class<?>> getAdditionalTypes() {
+		return List.of(
+			SnomedConceptDocument.class, 
+			SnomedDescriptionIndexEntry.class, 
+			SnomedRefSetMemberIndexEntry.class
+		);
+	}
+	
+	@Override
+	protected void configureContext(Builder context) {
+		super.configureContext(context);
+		
+		context
+			.with(EclParser.class, new DefaultEclParser(INJECTOR.getInstance(IParser.class), INJECTOR.getInstance(IResourceValidator.class)))
+			.with(EclSerializer.class, new DefaultEclSerializer(INJECTOR.getInstance(ISerializer.class)))
+			.with(ObjectMapper.class, getMapper())
+			.with(EclRewriter.class, new EclRewriter())
+			.with(BaseRevisionBranching.class, branching());
+		
+		CodeSystemResource.configureCodeSystem(context);
+		
+		evaluator = new SnomedQueryValidationRuleEvaluator();
+		if (!ValidationRuleEvaluator.Registry.types().contains(evaluator.type())) {
+			ValidationRuleEvaluator.Registry.register(evaluator);
+		}
+	}
+	
+	@Override
+	protected Map<String, String> getTestCodeSystemPathMap() {
+		return Map.of(SnomedContentRule.SNOMEDCT_ID, MAIN);
+	}
+	
+	@Override
+	protected void configureValidationRequest(ValidateRequestBuilder req) {
+		req.setIncremental(incremental)
+			.setRuleParameters(ruleParameters);
+	}
+	
+	@Test
+	public void incrementalValidationMatchesFullValidation() throws Exception {
+		final String concept1 = generateConceptId();
+		final String concept2 = generateConceptId();
+		final String concept3 = generateConceptId();
+		final SnomedDescriptionIndexEntry description1 = description(generateDescriptionId(), Concepts.SYNONYM, "Minor heart attack").conceptId(concept1).build();
+		final SnomedDescriptionIndexEntry description2 = description(generateDescriptionId(), Concepts.SYNONYM, "Clinical finding").conceptId(concept1).build();
+		final SnomedDescriptionIndexEntry description3 = description(generateDescriptionId(), Concepts.SYNONYM, "Major heart attack").conceptId(concept2).build();
+		final SnomedDescriptionIndexEntry description4 = description(generateDescriptionId(), Concepts.SYNONYM, "Finding").conceptId(concept3).build();
+		indexRevision(MAIN, description1, description2, description3, description4);
+		
+		final String ruleId = createHeartTermRule();
+		
+		// the first run has no checkpoint to start from, so the entire branch is validated
+		final ValidationIssues initialIssues = validate(ruleId);
+		assertAffectedComponents(initialIssues, descriptionId(description1), descriptionId(description3));
+		assertCheckpoint(ruleId, getBranch(MAIN));
+		
+		// an issue the rule would not report itself shows which components have been re-evaluated
+		indexStaleIssue(ruleId, description4.getId());
+		
+		indexChange(MAIN, description1, description(description1.getId(), Concepts.SYNONYM, "Minor attack").conceptId(concept1).build());
+		indexChange(MAIN, description2, description(description2.getId(), Concepts.SYNONYM, "Clinical heart finding").conceptId(concept1).build());
+		
+		final ValidationIssues incrementalIssues = validate(ruleId);
+		assertAffectedComponents(incrementalIssues, descriptionId(description2), descriptionId(description3), descriptionId(description4));
+		assertCheckpoint(ruleId, getBranch(MAIN));
+		
+		// issues of components that have not changed are kept as they are
+		assertThat(getIssue(incrementalIssues, description3.getId()).getId()).isEqualTo(getIssue(initialIssues, description3.getId()).getId());
+		
+		// apart from the stale issue of the unchanged component, the merged result is the same as the result of a full run
+		incremental = false;
+		final ValidationIssues fullIssues = validate(ruleId);
+		assertAffectedComponents(fullIssues, descriptionId(description2), descriptionId(description3));
+		assertThat(getIssue(fullIssues, description3.getId()).getId()).isEqualTo(getIssue(initialIssues, description3.getId()).getId());
+	}
+	
+	@Test
+	public void unchangedBranchKeepsIssues() throws Exception {
+		final SnomedDescriptionIndexEntry description1 = description(generateDescriptionId(), Concepts.SYNONYM, "Minor heart attack").conceptId(generateConceptId()).build();
+		final SnomedDescriptionIndexEntry description2 = description(generateDescriptionId(), Concepts.SYNONYM, "Finding").conceptId(generateConceptId()).build();
+		indexRevision(MAIN, description1, description2);
+		
+		final String ruleId = createHeartTermRule();
+		validate(ruleId);
+		indexStaleIssue(ruleId, description2.getId());
+		
+		// nothing has been committed since the last run, the rule is not evaluated at all
+		assertAffectedComponents(validate(ruleId), descriptionId(description1), descriptionId(description2));
+		assertCheckpoint(ruleId, getBranch(MAIN));
+	}
+	
+	@Test
+	public void rebaseValidatesEntireBranch() throws Exception {
+		final SnomedDescriptionIndexEntry description1 = description(generateDescriptionId(), Concepts.SYNONYM, "Minor heart attack").conceptId(generateConceptId()).build();
+		final SnomedDescriptionIndexEntry description2 = description(generateDescriptionId(), Concepts.SYNONYM, "Finding").conceptId(generateConceptId()).build();
+		indexRevision(MAIN, description1, description2);
+		
+		final String branchA = createBranch(MAIN, "a");
+		final String ruleId = createHeartTermRule();
+		assertAffectedComponents(validate(branchA, ruleId), descriptionId(description1));
+		indexStaleIssue(ruleId, description2.getId());
+		
+		final SnomedDescriptionIndexEntry description3 = description(generateDescriptionId(), Concepts.SYNONYM, "Chronic heart failure").conceptId(generateConceptId()).build();
+		indexRevision(MAIN, description3);
+		
+		// the branch has no changes of its own, rebasing it does not record the components brought in from the parent
+		branching().prepareMerge(MAIN, branchA).merge();
+		
+		assertAffectedComponents(validate(branchA, ruleId), descriptionId(description1), descriptionId(description3));
+		assertCheckpoint(ruleId, getBranch(branchA));
+	}
+	
+	@Test
+	public void ruleParameterChangeValidatesEntireBranch() throws Exception {
+		final SnomedDescriptionIndexEntry description1 = description(generateDescriptionId(), Concepts.SYNONYM, "Minor heart attack").conceptId(generateConceptId()).build();
+		final SnomedDescriptionIndexEntry description2 = description(generateDescriptionId(), Concepts.SYNONYM, "Finding").conceptId(generateConceptId()).build();
+		indexRevision(MAIN, description1, description2);
+		
+		final String ruleId = createHeartTermRule();
+		validate(ruleId);
+		final String fingerprint = getCheckpoint(ruleId).getFingerprint();
+		indexStaleIssue(ruleId, description2.getId());
+		
+		// issues computed with different parameters can not be updated incrementally, even if nothing has changed on the branch
+		ruleParameters = Map.of("param", "value");
+		assertAffectedComponents(validate(ruleId), descriptionId(description1));
+		assertThat(getCheckpoint(ruleId).getFingerprint()).isNotEqualTo(fingerprint);
+	}
+	
+	@Test
+	public void largeChangeSetValidatesEntireBranch() throws Exception {
+		final SnomedDescriptionIndexEntry description1 = description(generateDescriptionId(), Concepts.SYNONYM, "Minor heart attack").conceptId(generateConceptId()).build();
+		final SnomedDescriptionIndexEntry description2 = description(generateDescriptionId(), Concepts.SYNONYM, "Finding").conceptId(generateConceptId()).build();
+		indexRevision(MAIN, description1, description2);
+		
+		final String ruleId = createHeartTermRule();
+		validate(ruleId);
+		indexStaleIssue(ruleId, description2.getId());
+		
+		// more than 10 000 changed components are not collected into an incremental scope
+		commit(MAIN, Stream.generate(RandomSnomedIdentiferGenerator::generateConceptId)
+			.distinct()
+			.limit(10_001)
+			.map(conceptId -> concept(conceptId).build())
+			.collect(Collectors.toList()));
+		
+		assertAffectedComponents(validate(ruleId), descriptionId(description1));
+		assertCheckpoint(ruleId, getBranch(MAIN));
+	}
+	
+	@Test
+	public void hierarchyRuleValidatesEntireBranch() throws Exception {
+		final String parent = generateConceptId();
+		final String child = generateConceptId();
+		final long parentId = Long.parseLong(parent);
+		indexRevision(MAIN, 
+			concept(parent).parents(IComponent.ROOT_IDL).statedParents(IComponent.ROOT_IDL).build(),
+			concept(child).parents(parentId).ancestors(IComponent.ROOT_IDL).statedParents(parentId).statedAncestors(IComponent.ROOT_IDL).build());
+		
+		final SnomedDescriptionIndexEntry description1 = description(generateDescriptionId(), Concepts.SYNONYM, "Child").conceptId(child).build();
+		final SnomedDescriptionIndexEntry description2 = description(generateDescriptionId(), Concepts.SYNONYM, "Finding").conceptId(generateConceptId()).build();
+		indexRevision(MAIN, description1, description2);
+		
+		final String ruleId = createDescendantDescriptionRule(parent);
+		assertAffectedComponents(validate(ruleId), descriptionId(description1));
+		indexStaleIssue(ruleId, description2.getId());
+		
+		// descendants can change without any change to their own descriptions, so the rule is evaluated on the entire branch
+		final SnomedDescriptionIndexEntry description3 = description(generateDescriptionId(), Concepts.SYNONYM, "Child synonym").conceptId(child).build();
+		indexRevision(MAIN, description3);
+		
+		assertAffectedComponents(validate(ruleId), descriptionId(description1), descriptionId(description3));
+		assertCheckpoint(ruleId, getBranch(MAIN));
+	}
+	
+	private ValidationIssues validate(final String branch, final String ruleId) {
+		final ValidateRequestBuilder req = ValidationRequests.prepareValidate();
+		configureValidationRequest(req);
+		new BranchSnapshotContentRequest<>(branch, req.build()).execute(context());
+		return ValidationRequests.issues().prepareSearch().all().filterByRule(ruleId).build().execute(context());
+	}
+	
+	private void indexStaleIssue(final String ruleId, final String descriptionId) {
+		indexDocument(new ValidationIssue(IDs.base62UUID(), ruleId, ComponentURI.of(SnomedContentRule.SNOMEDCT, descriptionId(descriptionId)), false));
+	}
+	
+	private ValidationRuleCheckpoint getCheckpoint(final String ruleId) {
+		return Iterables.getOnlyElement(searchRaw(Query.select(ValidationRuleCheckpoint.class)
+			.where(Expressions.exactMatch(ValidationRuleCheckpoint.Fields.RULE_ID, ruleId))
+			.build()));
+	}
+	
+	private void assertCheckpoint(final String ruleId, final RevisionBranch branch) {
+		final ValidationRuleCheckpoint checkpoint = getCheckpoint(ruleId);
+		assertThat(checkpoint.getBaseTimestamp()).isEqualTo(branch.getBaseTimestamp());
+		assertThat(checkpoint.getHeadTimestamp()).isEqualTo(branch.getHeadTimestamp());
+	}
+	
+	private static ValidationIssue getIssue(final ValidationIssues issues, final String descriptionId) {
+		return issues.stream()
+			.filter(issue -> issue.getAffectedComponent().equals(descriptionId(descriptionId)))
+			.findFirst()
+			.orElseThrow();
+	}
+	
+	private static ComponentIdentifier descriptionId(final SnomedDescriptionIndexEntry description) {
+		return descriptionId(description.getId());
+	}
+	
+	private static ComponentIdentifier descriptionId(final String descriptionId) {
+		return ComponentIdentifier.of(SnomedDescription.TYPE, descriptionId);
+	}
+	
+	private String createHeartTermRule() throws JsonProcessingException {
+		return createDescriptionRule(Map.of(
+			"componentType", "description",
+			"term", "regex(.*heart.*)"
+		));
+	}
+	
+	private String createDescendantDescriptionRule(final String conceptId) throws JsonProcessingException {
+		return createDescriptionRule(Map.of(
+			"componentType", "description",
+			"concept", "<" + conceptId
+		));
+	}
+	
+	private String createDescriptionRule(final Map<String, Object> ruleQuery) throws JsonProcessingException {
+		return ValidationRequests.rules().prepareCreate()
+			.setType(evaluator.type())
+			.setMessageTemplate("Error")
+			.setSeverity(Severity.ERROR)
+			.setImplementation(context().service(ObjectMapper.class).writeValueAsString(ruleQuery))
+			.setToolingId(SnomedTerminologyComponentConstants.TOOLING_ID)
+			.build()
+			.execute(context());
+	}
+	
+}
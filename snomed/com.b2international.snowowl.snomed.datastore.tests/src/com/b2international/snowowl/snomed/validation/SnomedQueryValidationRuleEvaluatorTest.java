@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.xtext.parser.IParser;
 import org.eclipse.xtext.serializer.ISerializer;
@@ -31,14 +32,19 @@ import org.junit.Test;
 
 import com.b2international.snomed.ecl.EclStandaloneSetup;
 import com.b2international.snowowl.core.ComponentIdentifier;
+import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.ecl.DefaultEclParser;
 import com.b2international.snowowl.core.ecl.DefaultEclSerializer;
 import com.b2international.snowowl.core.ecl.EclParser;
 import com.b2international.snowowl.core.ecl.EclSerializer;
+import com.b2international.snowowl.core.request.BranchSnapshotContentRequest;
 import com.b2international.snowowl.core.request.ecl.EclRewriter;
 import com.b2international.snowowl.core.validation.ValidationRequests;
+import com.b2international.snowowl.core.validation.eval.ScopedEvaluation;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.eval.ValidationRuleVisitor;
 import com.b2international.snowowl.core.validation.issue.ValidationIssues;
+import com.b2international.snowowl.core.validation.rule.ValidationRule;
 import com.b2international.snowowl.core.validation.rule.ValidationRule.Severity;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
@@ -232,6 +238,110 @@ public class SnomedQueryValidationRuleEvaluatorTest extends BaseValidationTest {
 		assertThat(issues.getItems().get(0).getAffectedComponent()).isEqualTo(ComponentIdentifier.of(SnomedDescription.TYPE, description1));
 	}
 	
+	@Test
+	public void descriptionRuleScopedToChangedConcept() throws Exception {
+		final String concept1 = generateConceptId();
+		final String concept2 = generateConceptId();
+		final String description1 = RandomSnomedIdentiferGenerator.generateDescriptionId();
+		final String description2 = RandomSnomedIdentiferGenerator.generateDescriptionId();
+		final String description3 = RandomSnomedIdentiferGenerator.generateDescriptionId();
+		
+		indexRevision(MAIN, 
+			description(description1, Concepts.SYNONYM, "Minor heart attack")
+				.conceptId(concept1)
+				.build(),
+			description(description2, Concepts.SYNONYM, "Clinical finding")
+				.conceptId(concept1)
+				.build(),
+			description(description3, Concepts.SYNONYM, "Major heart attack")
+				.conceptId(concept2)
+				.build()
+		);
+		
+		final Map<String, Object> ruleQuery = ImmutableMap.<String, Object>builder()
+				.put("componentType", "description")
+				.put("term", "regex(.*heart.*)")
+				.build();
+		
+		final ValidationRule rule = ValidationRequests.rules().prepareGet(createSnomedQueryRule(ruleQuery)).build().execute(context());
+		final ScopedEvaluation evaluation = new BranchSnapshotContentRequest<>(MAIN, (BranchContext branchContext) -> {
+			try {
+				return evaluator.eval(branchContext, rule, Map.of(), Set.of(concept1));
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}).execute(context());
+		
+		// descriptions of the changed concept are evaluated, the description of the other concept is not
+		assertThat(evaluation.getEvaluatedComponentIds()).containsOnly(concept1, description1, description2);
+		assertThat(evaluation.getIssues()).containsOnly(ComponentIdentifier.of(SnomedDescription.TYPE, description1));
+	}
+	
+	@Test
+	public void conceptRulesEvaluatedWithSharedScan() throws Exception {
+		final String concept1 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept2 = RandomSnomedIdentiferGenerator.generateConceptId();
+		final String concept3 = RandomSnomedIdentiferGenerator.generateConceptId();
+		
+		indexRevision(MAIN, 
+			concept(concept1).moduleId(Concepts.MODULE_B2I_EXTENSION).build(),
+			concept(concept2).active(false).moduleId(Concepts.MODULE_B2I_EXTENSION).build(),
+			concept(concept3).active(false).moduleId(Concepts.MODULE_SCT_CORE).build()
+		);
+		
+		final String activeRuleId = createSnomedQueryRule(ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("active", true)
+				.put("module", Concepts.MODULE_B2I_EXTENSION)
+				.build());
+		
+		final String inactiveRuleId = createSnomedQueryRule(ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("active", false)
+				.build());
+		
+		final String eclRuleId = createSnomedQueryRule(ImmutableMap.<String, Object>builder()
+				.put("componentType", "concept")
+				.put("ecl", concept2 + " OR " + concept3)
+				.put("module", Concepts.MODULE_SCT_CORE)
+				.build());
+		
+		// all three rules can be evaluated in memory, so they share a single scan of concepts
+		for (String ruleId : List.of(activeRuleId, inactiveRuleId, eclRuleId)) {
+			final ValidationRule rule = ValidationRequests.rules().prepareGet(ruleId).build().execute(context());
+			final ValidationRuleVisitor visitor = new BranchSnapshotContentRequest<>(MAIN, (BranchContext branchContext) -> {
+				try {
+					return evaluator.prepareVisitor(branchContext, rule, Map.of());
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}).execute(context());
+			assertThat(visitor).isNotNull();
+		}
+		
+		assertAffectedComponents(validate(activeRuleId), Set.of(ComponentIdentifier.of(SnomedConcept.TYPE, concept1)));
+		assertAffectedComponents(validate(inactiveRuleId), Set.of(ComponentIdentifier.of(SnomedConcept.TYPE, concept2), ComponentIdentifier.of(SnomedConcept.TYPE, concept3)));
+		assertAffectedComponents(validate(eclRuleId), Set.of(ComponentIdentifier.of(SnomedConcept.TYPE, concept3)));
+	}
+	
+	@Test
+	public void descriptionRuleRegexNotEvaluatedWithSharedScan() throws Exception {
+		final ValidationRule rule = ValidationRequests.rules().prepareGet(createSnomedQueryRule(ImmutableMap.<String, Object>builder()
+				.put("componentType", "description")
+				.put("term", "regex(.*heart.*)")
+				.build())).build().execute(context());
+		
+		final ValidationRuleVisitor visitor = new BranchSnapshotContentRequest<>(MAIN, (BranchContext branchContext) -> {
+			try {
+				return evaluator.prepareVisitor(branchContext, rule, Map.of());
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}).execute(context());
+		
+		assertThat(visitor).isNull();
+	}
+	
 	private String createSnomedQueryRule(final Map<String, Object> ruleQuery) throws JsonProcessingException {
 		return ValidationRequests.rules().prepareCreate()
 			.setType(evaluator.type())
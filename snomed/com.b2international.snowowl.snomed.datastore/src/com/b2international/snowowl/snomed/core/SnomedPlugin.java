@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,11 @@ import java.util.List;
 
 import org.slf4j.Logger;
 
+import com.b2international.index.revision.BaseRevisionBranching;
 import com.b2international.index.revision.Hooks.PreCommitHook;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snowowl.core.Repository;
+import com.b2international.snowowl.core.RepositoryManager;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.compare.DependencyComparer;
 import com.b2international.snowowl.core.config.SnowOwlConfiguration;
@@ -46,16 +50,19 @@ import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSet;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
+import com.b2international.snowowl.snomed.core.ecl.EclEvaluationCache;
 import com.b2international.snowowl.snomed.core.merge.SnomedComponentRevisionConflictProcessor;
 import com.b2international.snowowl.snomed.core.request.SnomedConceptSearchRequestEvaluator;
 import com.b2international.snowowl.snomed.core.request.SnomedQueryOptimizerFactory;
 import com.b2international.snowowl.snomed.core.uri.SnomedURLSchemaSupport;
 import com.b2international.snowowl.snomed.core.version.SnomedVersioningRequest;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
+import com.b2international.snowowl.snomed.datastore.config.SnomedEclConfig;
 import com.b2international.snowowl.snomed.datastore.index.change.SnomedRepositoryPreCommitHook;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument;
 import com.b2international.snowowl.snomed.datastore.request.*;
 import com.b2international.snowowl.snomed.datastore.request.ModuleRequest.ModuleIdProvider;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyGraphCache;
 import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEvaluator;
 import com.google.common.collect.ImmutableList;
 
@@ -197,4 +204,31 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 	protected DependencyComparer getDependencyComparer() {
 		return new SnomedDependencyComparer();
 	}
+	
+	@Override
+	protected void afterRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		if (!env.isServer()) {
+			return;
+		}
+		
+		final SnomedEclConfig eclConfig = configuration.getModuleConfig(SnomedCoreConfiguration.class).getEclConfiguration();
+		final Repository repository = env.service(RepositoryManager.class).get(getToolingId());
+		final BaseRevisionBranching branching = repository.service(BaseRevisionBranching.class);
+		
+		if (eclConfig.isResultCacheEnabled()) {
+			// attach the branch-aware ECL evaluation cache to the repository and evict entries eagerly on branch changes
+			final EclEvaluationCache eclEvaluationCache = new EclEvaluationCache(eclConfig);
+			branching.addBranchChangeListener(eclEvaluationCache::invalidate);
+			repository.bind(EclEvaluationCache.class, eclEvaluationCache);
+		}
+		
+		if (eclConfig.isTaxonomyCacheEnabled()) {
+			// keep in-memory taxonomies of frequently used branches up-to-date by following the commits of the repository
+			final RevisionIndex index = repository.service(RevisionIndex.class);
+			final TaxonomyGraphCache taxonomyGraphCache = new TaxonomyGraphCache(index, eclConfig);
+			index.hooks().addHook(taxonomyGraphCache);
+			branching.addBranchChangeListener(taxonomyGraphCache::invalidate);
+			repository.bind(TaxonomyGraphCache.class, taxonomyGraphCache);
+		}
+	}
 }
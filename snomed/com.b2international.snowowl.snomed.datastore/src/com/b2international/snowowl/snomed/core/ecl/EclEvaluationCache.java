@@ -0,0 +1,299 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.ecl;
+
+import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongSortedSet;
+import com.b2international.index.query.*;
+import com.b2international.index.revision.RevisionBranchRef;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.RevisionSegment;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.snomed.datastore.config.SnomedEclConfig;
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+
+/**
+ * Branch-aware cache of ECL evaluation results. Entries are keyed by the normalized ECL expression, its expression form, the branch path and the
+ * timestamp of the latest change visible from the branch (head timestamp), so a cached result can never outlive the content it was computed from.
+ * <p>
+ * Resolved concept IDs are stored as compact primitive sorted sets, the total number of cached IDs is bounded by
+ * {@link SnomedEclConfig#getResultCacheSize()}. Evaluated query expressions are bounded by their estimated size in bytes (see
+ * {@link SnomedEclConfig#getExpressionCacheBytes()}), a single expression might contain hundreds of thousands of concept IDs.
+ * Entries belonging to a branch are evicted eagerly when the branch changes (see {@link #invalidate(String)}).
+ *
+ * @since 9.5
+ */
+public final class EclEvaluationCache {
+
+	private static final long EXPIRE_AFTER_ACCESS_MINUTES = 30L;
+	
+	// rough estimates of the retained heap size of query expression nodes and values (object header, fields, references)
+	private static final int EXPRESSION_BYTES = 48;
+	private static final int SET_VALUE_BYTES = 40;
+	private static final int STRING_BYTES = 48;
+
+	private final Cache<Key, LongSortedSet> resolvedIds;
+	private final Cache<Key, Expression> expressions;
+
+	public EclEvaluationCache(SnomedEclConfig config) {
+		this.resolvedIds = CacheBuilder.newBuilder()
+				.maximumWeight(config.getResultCacheSize())
+				// empty results still take up an entry, zero weight entries would never be evicted by size
+				.weigher((Key key, LongSortedSet ids) -> ids.size() + 1)
+				// entries of earlier branch states are never requested again, unless they are invalidated explicitly
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+				.build();
+		this.expressions = CacheBuilder.newBuilder()
+				.maximumWeight(config.getExpressionCacheBytes())
+				.weigher((Key key, Expression expression) -> weigh(expression))
+				.expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+				.build();
+	}
+
+	/**
+	 * Returns the resolved concept IDs of the given ECL expression from the cache or evaluates them using the given evaluator function if no cached
+	 * result is available for the current state of the branch.
+	 *
+	 * @param context - the branch context the evaluation happens in
+	 * @param expressionForm - the expression form (stated or inferred)
+	 * @param ecl - the ECL expression (normalized by this method)
+	 * @param evaluator - evaluates the ECL expression when the cache does not contain a result
+	 * @return
+	 */
+	public Promise<Set<String>> resolve(BranchContext context, String expressionForm, String ecl, Supplier<Promise<Set<String>>> evaluator) {
+		final Key key = Key.of(context, expressionForm, ecl);
+		final LongSortedSet cachedIds = resolvedIds.getIfPresent(key);
+		if (cachedIds != null) {
+			return Promise.immediate(toStringIds(cachedIds));
+		}
+		return evaluator.get().then(ids -> {
+			final LongSortedSet idsToCache = toLongIds(ids);
+			if (idsToCache != null) {
+				resolvedIds.put(key, idsToCache);
+			}
+			return ids;
+		});
+	}
+
+	/**
+	 * Returns the evaluated query expression of the given ECL expression from the cache or evaluates it using the given evaluator function if no
+	 * cached expression is available for the current state of the branch.
+	 *
+	 * @param context - the branch context the evaluation happens in
+	 * @param expressionForm - the expression form (stated or inferred)
+	 * @param ecl - the ECL expression (normalized by this method)
+	 * @param evaluator - evaluates the ECL expression when the cache does not contain a result
+	 * @return
+	 */
+	public Promise<Expression> resolveToExpression(BranchContext context, String expressionForm, String ecl, Supplier<Promise<Expression>> evaluator) {
+		final Key key = Key.of(context, expressionForm, ecl);
+		final Expression cachedExpression = expressions.getIfPresent(key);
+		if (cachedExpression != null) {
+			return Promise.immediate(cachedExpression);
+		}
+		return evaluator.get().then(expression -> {
+			expressions.put(key, expression);
+			return expression;
+		});
+	}
+
+	/**
+	 * Evicts all cached entries that were computed on the given branch (including branch point and base modifiers of the same path). Registered as
+	 * a branch change listener on the repository, entries that belong to an earlier head timestamp would never be hit again.
+	 *
+	 * @param branchPath
+	 */
+	public void invalidate(String branchPath) {
+		resolvedIds.asMap().keySet().removeIf(key -> key.isOnBranch(branchPath));
+		expressions.asMap().keySet().removeIf(key -> key.isOnBranch(branchPath));
+	}
+
+	/**
+	 * Evicts all entries from the cache.
+	 */
+	public void invalidateAll() {
+		resolvedIds.invalidateAll();
+		expressions.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached ID sets and query expressions
+	 */
+	public long size() {
+		return resolvedIds.size() + expressions.size();
+	}
+
+	/*
+	 * Estimates the retained size of the given query expression in bytes, dominated by the values of set predicates (eg. resolved concept IDs)
+	 */
+	static int weigh(Expression expression) {
+		final long weight = estimateBytes(expression);
+		return weight > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) weight;
+	}
+	
+	private static long estimateBytes(Expression expression) {
+		if (expression instanceof BoolExpression bool) {
+			long bytes = EXPRESSION_BYTES;
+			for (Expression clause : Iterables.concat(bool.mustClauses(), bool.mustNotClauses(), bool.shouldClauses(), bool.filterClauses())) {
+				bytes += estimateBytes(clause);
+			}
+			return bytes;
+		} else if (expression instanceof DisMaxPredicate disMax) {
+			long bytes = EXPRESSION_BYTES;
+			for (Expression disjunct : disMax.disjuncts()) {
+				bytes += estimateBytes(disjunct);
+			}
+			return bytes;
+		} else if (expression instanceof NestedPredicate nested) {
+			return EXPRESSION_BYTES + estimateBytes(nested.getExpression());
+		} else if (expression instanceof HasParentPredicate hasParent) {
+			return EXPRESSION_BYTES + estimateBytes(hasParent.getExpression());
+		} else if (expression instanceof BoostPredicate boost) {
+			return EXPRESSION_BYTES + estimateBytes(boost.expression());
+		} else if (expression instanceof SetPredicate<?> set) {
+			long bytes = EXPRESSION_BYTES;
+			for (Object value : set.values()) {
+				bytes += SET_VALUE_BYTES;
+				if (value instanceof String string) {
+					bytes += STRING_BYTES + string.length();
+				}
+			}
+			return bytes;
+		} else if (expression instanceof StringPredicate string) {
+			return EXPRESSION_BYTES + STRING_BYTES + string.getArgument().length();
+		} else {
+			return EXPRESSION_BYTES;
+		}
+	}
+
+	private static Set<String> toStringIds(LongSortedSet ids) {
+		final Set<String> stringIds = newHashSetWithExpectedSize(ids.size());
+		final LongIterator it = ids.iterator();
+		while (it.hasNext()) {
+			stringIds.add(Long.toString(it.next()));
+		}
+		return stringIds;
+	}
+
+	private static LongSortedSet toLongIds(Set<String> ids) {
+		final long[] longIds = new long[ids.size()];
+		int i = 0;
+		for (String id : ids) {
+			try {
+				longIds[i++] = Long.parseLong(id);
+			} catch (NumberFormatException e) {
+				// non-SCTID values can not be stored in a primitive set, skip caching this result
+				return null;
+			}
+		}
+		return PrimitiveSets.newLongSortedSet(longIds);
+	}
+
+	/*
+	 * Normalizes whitespace outside of quoted strings, so that different formatting of the same ECL expression resolves to the same cache entry
+	 */
+	static String normalize(String ecl) {
+		final StringBuilder normalized = new StringBuilder(ecl.length());
+		char quote = 0;
+		boolean pendingWhitespace = false;
+		for (int i = 0; i < ecl.length(); i++) {
+			final char c = ecl.charAt(i);
+			if (quote == 0 && Character.isWhitespace(c)) {
+				pendingWhitespace = true;
+				continue;
+			}
+			if (pendingWhitespace && normalized.length() > 0) {
+				normalized.append(' ');
+			}
+			pendingWhitespace = false;
+			if (quote == 0 && (c == '"' || c == '\'')) {
+				quote = c;
+			} else if (quote == c && ecl.charAt(i - 1) != '\\') {
+				quote = 0;
+			}
+			normalized.append(c);
+		}
+		return normalized.toString();
+	}
+
+	private static final class Key {
+
+		private final String expressionForm;
+		private final String ecl;
+		private final String branchPath;
+		private final long headTimestamp;
+
+		private Key(String expressionForm, String ecl, String branchPath, long headTimestamp) {
+			this.expressionForm = expressionForm;
+			this.ecl = ecl;
+			this.branchPath = branchPath;
+			this.headTimestamp = headTimestamp;
+		}
+
+		static Key of(BranchContext context, String expressionForm, String ecl) {
+			final RevisionBranchRef ref = context.searcher().ref();
+			final long headTimestamp = ref.segments().stream().mapToLong(RevisionSegment::end).max().orElse(-1L);
+			return new Key(expressionForm, normalize(ecl), context.path(), headTimestamp);
+		}
+
+		boolean isOnBranch(String path) {
+			return branchPath.equals(path)
+					|| branchPath.startsWith(path + RevisionIndex.AT_CHAR)
+					|| branchPath.equals(RevisionIndex.toBaseRef(path));
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(expressionForm, ecl, branchPath, headTimestamp);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			final Key other = (Key) obj;
+			return headTimestamp == other.headTimestamp
+					&& Objects.equals(expressionForm, other.expressionForm)
+					&& Objects.equals(ecl, other.ecl)
+					&& Objects.equals(branchPath, other.branchPath);
+		}
+
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this)
+					.add("expressionForm", expressionForm)
+					.add("ecl", ecl)
+					.add("branchPath", branchPath)
+					.add("headTimestamp", headTimestamp)
+					.toString();
+		}
+
+	}
+
+}
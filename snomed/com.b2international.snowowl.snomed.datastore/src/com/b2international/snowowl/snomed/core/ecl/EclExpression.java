@@ -96,20 +96,28 @@ public final class EclExpression {
 	
 	public Promise<Set<String>> resolve(final BranchContext context) {
 		if (promise == null) {
-			promise = resolveToExpression(context)
-				.then(EclEvaluationRequest.resolveIds(context, SnomedConceptDocument.class));
+			final EclEvaluationCache cache = context.optionalService(EclEvaluationCache.class).orElse(null);
+			if (cache != null) {
+				promise = cache.resolve(context, expressionForm, getEcl(context), () -> evaluateIds(context));
+			} else {
+				promise = evaluateIds(context);
+			}
 		}
 		return promise;
 	}
 	
+	private Promise<Set<String>> evaluateIds(final BranchContext context) {
+		return resolveToExpression(context)
+				.then(EclEvaluationRequest.resolveIds(context, SnomedConceptDocument.class));
+	}
+	
+	private String getEcl(final BranchContext context) {
+		return ecl != null ? ecl : context.service(EclSerializer.class).serialize(expressionConstraint);
+	}
+	
 	public Promise<SnomedConcepts> resolveConcepts(final BranchContext context) {
 		if (conceptPromise == null) {
-			String eclToEvaluate;
-			if (ecl != null) {
-				eclToEvaluate = ecl;
-			} else {
-				eclToEvaluate = context.service(EclSerializer.class).serialize(expressionConstraint);
-			}
+			final String eclToEvaluate = getEcl(context);
 			conceptPromise = SnomedRequests.prepareSearchConcept()
 					.all()
 					.filterByEcl(eclToEvaluate)
@@ -121,18 +129,27 @@ public final class EclExpression {
 
 	public Promise<Expression> resolveToExpression(final BranchContext context) {
 		if (expressionPromise == null) {
-			SnomedEclEvaluationRequest req = new SnomedEclEvaluationRequest();
-			req.setExpressionForm(expressionForm);
-			if (ecl != null) {
-				req.setExpression(ecl);
-				expressionPromise = req.execute(context);
+			final EclEvaluationCache cache = context.optionalService(EclEvaluationCache.class).orElse(null);
+			if (cache != null) {
+				expressionPromise = cache.resolveToExpression(context, expressionForm, getEcl(context), () -> evaluateExpression(context));
 			} else {
-				expressionPromise = req.doEval(context, expressionConstraint);				
+				expressionPromise = evaluateExpression(context);
 			}
 		}
 		return expressionPromise;
 	}
 	
+	private Promise<Expression> evaluateExpression(final BranchContext context) {
+		SnomedEclEvaluationRequest req = new SnomedEclEvaluationRequest();
+		req.setExpressionForm(expressionForm);
+		if (ecl != null) {
+			req.setExpression(ecl);
+			return req.execute(context);
+		} else {
+			return req.doEval(context, expressionConstraint);
+		}
+	}
+	
 	public static EclExpression of(String ecl, String expressionForm) {
 		return new EclExpression(ecl, null, expressionForm);
 	}
@@ -22,10 +22,15 @@ import static com.google.common.collect.Sets.newHashSet;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 import org.eclipse.emf.ecore.EObject;
 
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.commons.collect.LongSets;
 import com.b2international.commons.collections.Collections3;
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.commons.options.Options;
@@ -55,6 +60,8 @@ import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRefSetMemberSearchRequest;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyGraph;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyGraphCache;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Predicates;
 import com.google.common.collect.HashMultimap;
@@ -82,6 +89,11 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 		Concepts.REFSET_DESCRIPTION_ACCEPTABILITY_ACCEPTABLE, "acceptableIn"
 	);
 
+	/**
+	 * The maximum number of concepts matched by an explicit ID list when evaluating descendant and child operators with the in-memory taxonomy.
+	 */
+	private static final int MAX_TAXONOMY_MATCHES = 10_000;
+	
 	@NotNull
 	@JsonProperty
 	private String expressionForm = Trees.INFERRED_FORM;
@@ -93,6 +105,132 @@ final class SnomedEclEvaluationRequest extends EclEvaluationRequest<BranchContex
 		this.expressionForm = expressionForm;
 	}
 
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final DescendantOf descendantOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, descendantOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, descendantOf) 
+				: evalWithTaxonomy(context, descendantOf.getConstraint(), taxonomy, false, taxonomy::getAllDescendantNodeIds, ids -> Expressions.bool()
+						.should(parentsExpression(ids))
+						.should(ancestorsExpression(ids))
+						.build());
+	}
+	
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final DescendantOrSelfOf descendantOrSelfOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, descendantOrSelfOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, descendantOrSelfOf) 
+				: evalWithTaxonomy(context, descendantOrSelfOf.getConstraint(), taxonomy, true, taxonomy::getAllDescendantNodeIds, ids -> Expressions.bool()
+						.should(SnomedConceptDocument.Expressions.ids(ids))
+						.should(parentsExpression(ids))
+						.should(ancestorsExpression(ids))
+						.build());
+	}
+	
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final ChildOf childOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, childOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, childOf) 
+				: evalWithTaxonomy(context, childOf.getConstraint(), taxonomy, false, taxonomy::getDescendantNodeIds, this::parentsExpression);
+	}
+	
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final ChildOrSelfOf childOrSelfOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, childOrSelfOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, childOrSelfOf) 
+				: evalWithTaxonomy(context, childOrSelfOf.getConstraint(), taxonomy, true, taxonomy::getDescendantNodeIds, ids -> Expressions.bool()
+						.should(SnomedConceptDocument.Expressions.ids(ids))
+						.should(parentsExpression(ids))
+						.build());
+	}
+	
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final ParentOf parentOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, parentOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, parentOf) 
+				: evalWithTaxonomy(context, parentOf.getConstraint(), taxonomy, false, taxonomy::getAncestorNodeIds, null);
+	}
+	
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final ParentOrSelfOf parentOrSelfOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, parentOrSelfOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, parentOrSelfOf) 
+				: evalWithTaxonomy(context, parentOrSelfOf.getConstraint(), taxonomy, true, taxonomy::getAncestorNodeIds, null);
+	}
+	
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final AncestorOf ancestorOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, ancestorOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, ancestorOf) 
+				: evalWithTaxonomy(context, ancestorOf.getConstraint(), taxonomy, false, taxonomy::getAllAncestorNodeIds, null);
+	}
+	
+	@Override
+	protected Promise<Expression> eval(BranchContext context, final AncestorOrSelfOf ancestorOrSelfOf) {
+		final TaxonomyGraph taxonomy = getTaxonomy(context, ancestorOrSelfOf.getConstraint());
+		return taxonomy == null 
+				? super.eval(context, ancestorOrSelfOf) 
+				: evalWithTaxonomy(context, ancestorOrSelfOf.getConstraint(), taxonomy, true, taxonomy::getAllAncestorNodeIds, null);
+	}
+	
+	/*
+	 * Returns the in-memory taxonomy of the current branch if available, hierarchy operators on ANY are evaluated via the index, since those are
+	 * simple, constant queries
+	 */
+	private TaxonomyGraph getTaxonomy(BranchContext context, ExpressionConstraint inner) {
+		if (isAnyExpression(inner)) {
+			return null;
+		}
+		return context.optionalService(TaxonomyGraphCache.class)
+				.flatMap(cache -> cache.getGraph(context, Trees.STATED_FORM.equals(expressionForm)))
+				.orElse(null);
+	}
+	
+	/*
+	 * Large descendant sets are better matched with the parent/ancestor fields of the index than with an explicit ID list, so the given index
+	 * query (if any) is used instead when the taxonomy expands the focus concepts to more than MAX_TAXONOMY_MATCHES concepts
+	 */
+	private Promise<Expression> evalWithTaxonomy(BranchContext context, ExpressionConstraint inner, TaxonomyGraph taxonomy, boolean includeSelf, LongFunction<LongSet> getRelatives, Function<Set<String>, Expression> indexQuery) {
+		return evaluate(context, inner)
+				.then(resolveIds(context))
+				.then(ids -> {
+					final LongSet matches = PrimitiveSets.newLongOpenHashSet();
+					final Set<String> unknownIds = newHashSet();
+					for (String id : ids) {
+						final long conceptId = Long.parseLong(id);
+						if (taxonomy.containsNode(conceptId)) {
+							if (includeSelf) {
+								matches.add(conceptId);
+							}
+							matches.addAll(getRelatives.apply(conceptId));
+						} else if (includeSelf) {
+							// inactive and non-existent concepts are not part of the taxonomy, let the index decide whether they match or not
+							unknownIds.add(id);
+						}
+						
+						if (indexQuery != null && matches.size() > MAX_TAXONOMY_MATCHES) {
+							return indexQuery.apply(ids);
+						}
+					}
+					
+					final Expression taxonomyMatches = matchIdsOrNone().apply(LongSets.toStringSet(matches));
+					if (unknownIds.isEmpty()) {
+						return taxonomyMatches;
+					} else {
+						return Expressions.bool()
+								.should(taxonomyMatches)
+								.should(SnomedConceptDocument.Expressions.ids(unknownIds))
+								.build();
+					}
+				});
+	}
+	
 	/**
 	 * Handles MemberOf simple expression constraints
 	 * @see https://confluence.ihtsdotools.org/display/DOCECL/6.1+Simple+Expression+Constraints
@@ -35,6 +35,9 @@ public class SnomedCoreConfiguration {
 	public static final int DEFAULT_MAXIMUM_REASONER_COUNT = 2;
 	public static final int DEFAULT_MAXIMUM_REASONER_RUNS = 1000;
 	public static final long DEFAULT_CLASSIFICATION_CLEANUP_INTERVAL = 30L;
+	public static final int DEFAULT_INCREMENTAL_CLASSIFICATION_BRANCHES = 0;
+	public static final int DEFAULT_NORMAL_FORM_PARALLELISM = 1;
+	public static final int DEFAULT_REASONER_TAXONOMY_SNAPSHOT_BRANCHES = 10;
 	
 	@Min(1)
 	@Max(3)
@@ -48,6 +51,20 @@ public class SnomedCoreConfiguration {
 	@Max(60)
 	private long classificationCleanUpInterval = DEFAULT_CLASSIFICATION_CLEANUP_INTERVAL;
 	
+	@Min(0)
+	@Max(1_000)
+	private int incrementalClassificationBranches = DEFAULT_INCREMENTAL_CLASSIFICATION_BRANCHES;
+	
+	@Min(1)
+	@Max(64)
+	private int normalFormParallelism = DEFAULT_NORMAL_FORM_PARALLELISM;
+	
+	private boolean reasonerTaxonomySnapshots = false;
+	
+	@Min(1)
+	@Max(1_000)
+	private int reasonerTaxonomySnapshotBranches = DEFAULT_REASONER_TAXONOMY_SNAPSHOT_BRANCHES;
+	
 	@NotEmpty
 	private String concreteDomainTypeRefsetIdentifier = Concepts.REFSET_CONCRETE_DOMAIN_TYPE;
 	
@@ -71,6 +88,9 @@ public class SnomedCoreConfiguration {
 	@NotNull
 	private SnomedMrcmConfig mrcmConfiguration = new SnomedMrcmConfig();
 	
+	@NotNull
+	private SnomedEclConfig eclConfiguration = new SnomedEclConfig();
+	
 	/**
 	 * @return the number of reasoners that are permitted to run simultaneously.
 	 */
@@ -249,6 +269,63 @@ public class SnomedCoreConfiguration {
 	public long getClassificationCleanUpInterval() {
 		return classificationCleanUpInterval;
 	}
+	
+	/**
+	 * @return the number of branches for which the normal form computed by the last successful classification is kept in memory, so that
+	 *         subsequent classifications of the same branch only recompute the normal form of concepts affected by changes since. Zero
+	 *         disables incremental classification.
+	 */
+	@JsonProperty
+	public int getIncrementalClassificationBranches() {
+		return incrementalClassificationBranches;
+	}
+	
+	@JsonProperty
+	public void setIncrementalClassificationBranches(int incrementalClassificationBranches) {
+		this.incrementalClassificationBranches = incrementalClassificationBranches;
+	}
+	
+	/**
+	 * @return the number of threads used for computing the distribution normal form at the end of a classification run. Values greater
+	 *         than one process concepts in waves along the inferred hierarchy, computing concepts of the same wave concurrently.
+	 */
+	@JsonProperty
+	public int getNormalFormParallelism() {
+		return normalFormParallelism;
+	}
+	
+	@JsonProperty
+	public void setNormalFormParallelism(int normalFormParallelism) {
+		this.normalFormParallelism = normalFormParallelism;
+	}
+	
+	/**
+	 * @return whether the reasoner input collected for a branch should be kept on disk, so that classifying the same branch again without
+	 *         any commits in between can skip loading it from the index.
+	 */
+	@JsonProperty
+	public boolean isReasonerTaxonomySnapshots() {
+		return reasonerTaxonomySnapshots;
+	}
+	
+	@JsonProperty
+	public void setReasonerTaxonomySnapshots(boolean reasonerTaxonomySnapshots) {
+		this.reasonerTaxonomySnapshots = reasonerTaxonomySnapshots;
+	}
+	
+	/**
+	 * @return the number of branches for which reasoner taxonomy snapshots are kept on disk; snapshots of the least recently classified
+	 *         branches are removed when this limit is exceeded.
+	 */
+	@JsonProperty
+	public int getReasonerTaxonomySnapshotBranches() {
+		return reasonerTaxonomySnapshotBranches;
+	}
+	
+	@JsonProperty
+	public void setReasonerTaxonomySnapshotBranches(int reasonerTaxonomySnapshotBranches) {
+		this.reasonerTaxonomySnapshotBranches = reasonerTaxonomySnapshotBranches;
+	}
 
 	@JsonProperty("mrcm")
 	public SnomedMrcmConfig getMrcmConfiguration() {
@@ -260,4 +337,14 @@ public class SnomedCoreConfiguration {
 		this.mrcmConfiguration = mrcmConfiguration;
 	}
 	
+	@JsonProperty("ecl")
+	public SnomedEclConfig getEclConfiguration() {
+		return eclConfiguration;
+	}
+	
+	@JsonProperty("ecl")
+	public void setEclConfiguration(SnomedEclConfig eclConfiguration) {
+		this.eclConfiguration = eclConfiguration;
+	}
+	
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.config;
+
+import java.util.List;
+
+import com.b2international.index.revision.RevisionBranch;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * ECL evaluation related configuration parameters.
+ * 
+ * @since 9.5
+ */
+public class SnomedEclConfig {
+
+	public static final long DEFAULT_RESULT_CACHE_SIZE = 5_000_000L;
+	public static final long DEFAULT_EXPRESSION_CACHE_BYTES = 64L * 1024 * 1024;
+	public static final int DEFAULT_TAXONOMY_CACHE_SIZE = 4;
+	
+	/**
+	 * The maximum number of concept IDs kept in memory by the ECL result cache (summed up over all cached evaluations), 0 disables the cache.
+	 */
+	@Min(0)
+	private long resultCacheSize = DEFAULT_RESULT_CACHE_SIZE;
+	
+	/**
+	 * The maximum estimated size (in bytes) of the evaluated query expressions kept in memory by the ECL result cache (summed up over all cached
+	 * expressions), 0 disables caching of query expressions.
+	 */
+	@Min(0)
+	private long expressionCacheBytes = DEFAULT_EXPRESSION_CACHE_BYTES;
+	
+	/**
+	 * Branches that keep an in-memory taxonomy for evaluating hierarchy operators. Entries ending with a <code>*</code> character match all branches
+	 * starting with the given prefix (eg. <code>MAIN/20*</code> matches the version branches of the International Edition).
+	 */
+	@NotNull
+	private List<String> taxonomyCacheBranches = List.of(RevisionBranch.MAIN_PATH);
+	
+	/**
+	 * The maximum number of branches with an in-memory taxonomy, least recently used branches are evicted first, 0 disables the taxonomy cache.
+	 */
+	@Min(0)
+	private int taxonomyCacheSize = DEFAULT_TAXONOMY_CACHE_SIZE;
+	
+	public long getResultCacheSize() {
+		return resultCacheSize;
+	}
+	
+	public void setResultCacheSize(long resultCacheSize) {
+		this.resultCacheSize = resultCacheSize;
+	}
+	
+	public long getExpressionCacheBytes() {
+		return expressionCacheBytes;
+	}
+	
+	public void setExpressionCacheBytes(long expressionCacheBytes) {
+		this.expressionCacheBytes = expressionCacheBytes;
+	}
+	
+	public List<String> getTaxonomyCacheBranches() {
+		return taxonomyCacheBranches;
+	}
+	
+	public void setTaxonomyCacheBranches(List<String> taxonomyCacheBranches) {
+		this.taxonomyCacheBranches = taxonomyCacheBranches;
+	}
+	
+	public int getTaxonomyCacheSize() {
+		return taxonomyCacheSize;
+	}
+	
+	public void setTaxonomyCacheSize(int taxonomyCacheSize) {
+		this.taxonomyCacheSize = taxonomyCacheSize;
+	}
+	
+	public boolean isResultCacheEnabled() {
+		return resultCacheSize > 0 || expressionCacheBytes > 0;
+	}
+	
+	public boolean isTaxonomyCacheEnabled() {
+		return taxonomyCacheSize > 0 && !taxonomyCacheBranches.isEmpty();
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2020-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import static com.b2international.snowowl.snomed.datastore.index.entry.SnomedDoc
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
@@ -50,6 +51,8 @@ import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedConceptSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyGraph;
+import com.b2international.snowowl.snomed.datastore.taxonomy.TaxonomyGraphCache;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.*;
 import com.google.common.primitives.Ints;
@@ -104,6 +107,14 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 	}
 
 	private void expandTotalOnly(final List<SnomedConcept> results, final Set<String> conceptIds, final boolean direct) {
+		final Optional<TaxonomyGraph> taxonomy = context().optionalService(TaxonomyGraphCache.class)
+				.flatMap(cache -> cache.getGraph(context(), stated));
+		
+		if (taxonomy.isPresent()) {
+			expandTotalOnly(results, taxonomy.get(), direct);
+			return;
+		}
+		
 		final List<String> fieldsToLoad;
 		
 		if (stated) {
@@ -195,6 +206,22 @@ public final class SnomedDescendantsExpander extends DescendantsExpander<SnomedC
 		}
 	}
 
+	private void expandTotalOnly(final List<SnomedConcept> results, final TaxonomyGraph taxonomy, final boolean direct) {
+		for (final SnomedConcept ancestor : results) {
+			final long conceptId = Long.parseLong(ancestor.getId());
+			final int total;
+			
+			// Inactive concepts are not part of the taxonomy, they do not have any descendants either
+			if (taxonomy.containsNode(conceptId)) {
+				total = direct ? taxonomy.getDescendantNodeIds(conceptId).size() : taxonomy.getAllDescendantNodeIds(conceptId).size();
+			} else {
+				total = 0;
+			}
+			
+			setDescendants(ancestor, new SnomedConcepts(0, total));
+		}
+	}
+
 	private Expression createDescendantFilter(final Set<String> conceptIds, boolean direct) {
 		final ExpressionBuilder descendantFilter = Expressions.bool();
 		
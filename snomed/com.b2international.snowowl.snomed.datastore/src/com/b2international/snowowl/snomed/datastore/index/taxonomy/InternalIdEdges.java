@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,10 +22,9 @@ import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
-import com.b2international.collections.ints.IntKeyMap;
 import com.b2international.collections.ints.IntSet;
 import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.collect.LongSets;
@@ -97,15 +96,19 @@ public final class InternalIdEdges {
 	private final InternalIdMap internalIdMap;
 	private final int[][] edges;
 	
-	// direct and indirect destinationCaches loaded on demand
-	private final IntKeyMap<LongSet> directDestinationIdsCache;
-	private final IntKeyMap<LongSet> indirectDestinationIdsCache;
+	// direct and indirect destinationCaches loaded on demand; safe for concurrent readers (a set may be computed more than once in a race)
+	private final AtomicReferenceArray<LongSet> directDestinationIdsCache;
+	private final AtomicReferenceArray<LongSet> indirectDestinationIdsCache;
 
-	private InternalIdEdges(final InternalIdMap internalIdMap, final int[][] edges) {
+	/*package*/ InternalIdEdges(final InternalIdMap internalIdMap, final int[][] edges) {
 		this.internalIdMap = internalIdMap;
 		this.edges = edges;
-		this.directDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
-		this.indirectDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
+		this.directDestinationIdsCache = new AtomicReferenceArray<>(internalIdMap.size());
+		this.indirectDestinationIdsCache = new AtomicReferenceArray<>(internalIdMap.size());
+	}
+
+	/*package*/ int[][] getEdges() {
+		return edges;
 	}
 
 	public Set<String> getDestinations(final String source, final boolean direct) {
@@ -119,18 +122,22 @@ public final class InternalIdEdges {
 		}
 
 		if (direct) {
-			if (!directDestinationIdsCache.containsKey(internalId)) {
+			LongSet destinationIds = directDestinationIdsCache.get(internalId);
+			if (destinationIds == null) {
 				final int[] destinations = edges[internalId];
-				directDestinationIdsCache.put(internalId, toSctIds(destinations));
+				destinationIds = toSctIds(destinations);
+				directDestinationIdsCache.set(internalId, destinationIds);
 			}
-			return directDestinationIdsCache.get(internalId);
+			return destinationIds;
 		} else {
-			if (!indirectDestinationIdsCache.containsKey(internalId)) {
+			LongSet destinationIds = indirectDestinationIdsCache.get(internalId);
+			if (destinationIds == null) {
 				final BitSet destinations = new BitSet(internalIdMap.size());
 				collectIndirectDestinations(internalId, destinations);
-				indirectDestinationIdsCache.put(internalId, toSctIds(destinations));
+				destinationIds = toSctIds(destinations);
+				indirectDestinationIdsCache.set(internalId, destinationIds);
 			}
-			return indirectDestinationIdsCache.get(internalId);
+			return destinationIds;
 		}
 	}
 
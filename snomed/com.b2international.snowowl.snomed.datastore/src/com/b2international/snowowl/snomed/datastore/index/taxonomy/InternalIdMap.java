@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -77,6 +77,15 @@ public final class InternalIdMap {
 		}
 	}
 
+	/*package*/ static InternalIdMap of(final long[] internalToSctIds) {
+		final LongKeyIntMap sctIdToInternal = PrimitiveMaps.newLongKeyIntOpenHashMapWithExpectedSize(internalToSctIds.length);
+		for (int i = 0; i < internalToSctIds.length; i++) {
+			sctIdToInternal.put(internalToSctIds[i], i);
+		}
+		
+		return new InternalIdMap(sctIdToInternal, PrimitiveLists.newLongArrayList(internalToSctIds));
+	}
+
 	private final LongKeyIntMap sctIdToInternal;
 	private final LongList internalToSctId;
 
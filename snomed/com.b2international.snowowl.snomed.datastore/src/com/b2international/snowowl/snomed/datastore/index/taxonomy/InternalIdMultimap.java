@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,7 +63,7 @@ public final class InternalIdMultimap<T> {
 		}
 
 		@SuppressWarnings("unchecked")
-		private Builder<B> putAll(final long key, final Collection<B> values) {
+		/*package*/ Builder<B> putAll(final long key, final Collection<B> values) {
 			final int internalId = internalIdMap.getInternalIdChecked(key);
 			ImmutableList.Builder<B> itemsForKey = (ImmutableList.Builder<B>) internalIdMultimap.get(internalId);
 			if (itemsForKey == null) {
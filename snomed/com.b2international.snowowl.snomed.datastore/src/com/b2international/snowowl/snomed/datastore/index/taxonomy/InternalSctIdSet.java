@@ -1,5 +1,5 @@
 /*
- * Copyright 2018 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -79,10 +79,14 @@ public final class InternalSctIdSet implements IInternalSctIdSet {
 	private final InternalIdMap internalIdMap;
 	private final int[] internalIdArray;
 
-	private InternalSctIdSet(final InternalIdMap internalIdMap, final int[] internalIdArray) {
+	/*package*/ InternalSctIdSet(final InternalIdMap internalIdMap, final int[] internalIdArray) {
 		this.internalIdMap = internalIdMap;
 		this.internalIdArray = internalIdArray;
 	}
+	
+	/*package*/ int[] getInternalIds() {
+		return internalIdArray;
+	}
 
 	@Override
 	public boolean contains(final String sctId) {
@@ -0,0 +1,453 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.taxonomy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongCollections;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.snomed.core.domain.RelationshipValueType;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithDestination;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Reads and writes the pre-classification contents of a {@link ReasonerTaxonomy} in a compact binary format.
+ * <p>
+ * Snapshots preserve the internal identifiers assigned to concepts, so edges and concept sets are stored as plain integer arrays and can be
+ * restored without re-mapping. Files are read through a memory-mapped buffer, which avoids the overhead of stream decoding and the
+ * intermediate objects created while the taxonomy is collected from the index. Inferences added to the taxonomy are not persisted.
+ *
+ * @since 9.5
+ */
+public final class ReasonerTaxonomySnapshot {
+
+	private static final int MAGIC = 0x534F5458; // "SOTX"
+	private static final int VERSION = 1;
+
+	private static final byte DESTINATION_FRAGMENT = 0;
+	private static final byte VALUE_FRAGMENT = 1;
+
+	private static final int[] EMPTY_ARRAY = new int[0];
+
+	private ReasonerTaxonomySnapshot() {}
+
+	/**
+	 * Writes the contents of the given taxonomy to the specified file, replacing any existing content.
+	 *
+	 * @param taxonomy - the taxonomy to persist
+	 * @param file - the target file
+	 * @throws IOException if writing the file fails
+	 */
+	public static void write(final ReasonerTaxonomy taxonomy, final Path file) throws IOException {
+		final InternalIdMap conceptMap = taxonomy.getConceptMap();
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			out.writeInt(conceptMap.size());
+			for (int i = 0; i < conceptMap.size(); i++) {
+				out.writeLong(conceptMap.getSctId(i));
+			}
+
+			writeNames(out, taxonomy.getFullySpecifiedNames());
+
+			writeEdges(out, taxonomy.getStatedAncestors());
+			writeEdges(out, taxonomy.getStatedDescendants());
+
+			writeInts(out, taxonomy.getDefiningConcepts().getInternalIds());
+			writeInts(out, taxonomy.getExhaustiveConcepts().getInternalIds());
+
+			writeMultimap(out, conceptMap, taxonomy.getStatedRelationships(), ReasonerTaxonomySnapshot::writeStatement);
+			writeMultimap(out, conceptMap, taxonomy.getAxiomNonIsARelationships(), ReasonerTaxonomySnapshot::writeStatement);
+			writeMultimap(out, conceptMap, taxonomy.getExistingInferredRelationships(), ReasonerTaxonomySnapshot::writeStatement);
+			writeMultimap(out, conceptMap, taxonomy.getAdditionalGroupedRelationships(), ReasonerTaxonomySnapshot::writeStatement);
+
+			writeMultimap(out, conceptMap, taxonomy.getAxioms(), ReasonerTaxonomySnapshot::writeString);
+			writeLongs(out, taxonomy.getNeverGroupedTypeIds());
+
+			final Set<PropertyChain> propertyChains = taxonomy.getPropertyChains();
+			out.writeInt(propertyChains.size());
+			for (final PropertyChain propertyChain : propertyChains) {
+				out.writeLong(propertyChain.getSourceType());
+				out.writeLong(propertyChain.getDestinationType());
+				out.writeLong(propertyChain.getInferredType());
+			}
+
+			writeMultimap(out, conceptMap, taxonomy.getStatedConcreteDomainMembers(), ReasonerTaxonomySnapshot::writeMember);
+			writeMultimap(out, conceptMap, taxonomy.getInferredConcreteDomainMembers(), ReasonerTaxonomySnapshot::writeMember);
+			writeMultimap(out, conceptMap, taxonomy.getAdditionalGroupedConcreteDomainMembers(), ReasonerTaxonomySnapshot::writeMember);
+		}
+	}
+
+	/**
+	 * Restores a taxonomy from the specified file, written by {@link #write(ReasonerTaxonomy, Path)} earlier.
+	 *
+	 * @param file - the file to read
+	 * @return the restored taxonomy, without any inferences
+	 * @throws IOException if the file can not be read, or its contents are not recognized
+	 */
+	public static ReasonerTaxonomy read(final Path file) throws IOException {
+		final ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(String.format("Taxonomy snapshot '%s' is too large to be mapped (%s bytes).", file, channel.size()));
+			}
+
+			final MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+			mappedBuffer.load();
+			buffer = mappedBuffer;
+		}
+
+		try {
+
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException(String.format("File '%s' is not a taxonomy snapshot or was written by an incompatible version.", file));
+			}
+
+			final long[] sctIds = new long[readLength(buffer, Long.BYTES)];
+			buffer.asLongBuffer().get(sctIds);
+			buffer.position(buffer.position() + sctIds.length * Long.BYTES);
+			final InternalIdMap conceptMap = InternalIdMap.of(sctIds);
+
+			final LongKeyMap<String> fullySpecifiedNames = readNames(buffer);
+
+			final InternalIdEdges statedAncestors = readEdges(buffer, conceptMap);
+			final InternalIdEdges statedDescendants = readEdges(buffer, conceptMap);
+
+			final InternalSctIdSet definingConcepts = new InternalSctIdSet(conceptMap, readInts(buffer));
+			final InternalSctIdSet exhaustiveConcepts = new InternalSctIdSet(conceptMap, readInts(buffer));
+
+			final InternalIdMultimap<StatementFragment> statedRelationships = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readStatement);
+			final InternalIdMultimap<StatementFragment> axiomNonIsARelationships = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readStatement);
+			final InternalIdMultimap<StatementFragment> existingInferredRelationships = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readStatement);
+			final InternalIdMultimap<StatementFragment> additionalGroupedRelationships = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readStatement);
+
+			final InternalIdMultimap<String> axioms = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readString);
+			final LongSet neverGroupedTypeIds = readLongs(buffer);
+
+			final int propertyChainCount = readLength(buffer, 3 * Long.BYTES);
+			final ImmutableSet.Builder<PropertyChain> propertyChains = ImmutableSet.builder();
+			for (int i = 0; i < propertyChainCount; i++) {
+				propertyChains.add(new PropertyChain(buffer.getLong(), buffer.getLong(), buffer.getLong()));
+			}
+
+			final InternalIdMultimap<ConcreteDomainFragment> statedConcreteDomainMembers = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readMember);
+			final InternalIdMultimap<ConcreteDomainFragment> inferredConcreteDomainMembers = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readMember);
+			final InternalIdMultimap<ConcreteDomainFragment> additionalGroupedConcreteDomainMembers = readMultimap(buffer, conceptMap, ReasonerTaxonomySnapshot::readMember);
+
+			if (buffer.hasRemaining()) {
+				throw new IOException(String.format("Taxonomy snapshot '%s' has %s unexpected trailing bytes.", file, buffer.remaining()));
+			}
+
+			return new ReasonerTaxonomy(conceptMap,
+					fullySpecifiedNames,
+
+					statedAncestors,
+					statedDescendants,
+
+					definingConcepts,
+					exhaustiveConcepts,
+
+					statedRelationships,
+					axiomNonIsARelationships,
+					existingInferredRelationships,
+					additionalGroupedRelationships,
+
+					axioms,
+					LongCollections.unmodifiableSet(neverGroupedTypeIds),
+					propertyChains.build(),
+
+					statedConcreteDomainMembers,
+					inferredConcreteDomainMembers,
+					additionalGroupedConcreteDomainMembers,
+
+					null,
+					null,
+					null,
+					null);
+
+		} catch (final RuntimeException e) {
+			// Buffer underflows, invalid internal IDs and lengths indicate a truncated or corrupt file
+			throw new IOException(String.format("Couldn't read taxonomy snapshot '%s'.", file), e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface ValueWriter<T> {
+		void write(DataOutputStream out, T value) throws IOException;
+	}
+
+	private static void writeNames(final DataOutputStream out, final LongKeyMap<String> names) throws IOException {
+		// Fully specified names are only collected on demand
+		if (names == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		out.writeInt(names.size());
+		for (final LongIterator itr = names.keySet().iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			out.writeLong(conceptId);
+			writeString(out, names.get(conceptId));
+		}
+	}
+
+	private static LongKeyMap<String> readNames(final ByteBuffer buffer) {
+		final int size = buffer.getInt();
+		if (size < 0) {
+			return null;
+		}
+
+		checkLength(buffer, size, Long.BYTES + Integer.BYTES);
+
+		final LongKeyMap<String> names = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(size);
+		for (int i = 0; i < size; i++) {
+			names.put(buffer.getLong(), readString(buffer));
+		}
+
+		return names;
+	}
+
+	private static void writeEdges(final DataOutputStream out, final InternalIdEdges edges) throws IOException {
+		final int[][] destinations = edges.getEdges();
+		out.writeInt(destinations.length);
+		for (final int[] destinationsForSource : destinations) {
+			writeInts(out, destinationsForSource);
+		}
+	}
+
+	private static InternalIdEdges readEdges(final ByteBuffer buffer, final InternalIdMap conceptMap) {
+		final int[][] destinations = new int[readLength(buffer, Integer.BYTES)][];
+		for (int i = 0; i < destinations.length; i++) {
+			destinations[i] = readInts(buffer);
+		}
+
+		return new InternalIdEdges(conceptMap, destinations);
+	}
+
+	private static void writeInts(final DataOutputStream out, final int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (final int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static int[] readInts(final ByteBuffer buffer) {
+		final int length = readLength(buffer, Integer.BYTES);
+		if (length == 0) {
+			return EMPTY_ARRAY;
+		}
+
+		final int[] values = new int[length];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + values.length * Integer.BYTES);
+		return values;
+	}
+
+	private static void writeLongs(final DataOutputStream out, final LongSet values) throws IOException {
+		out.writeInt(values.size());
+		for (final LongIterator itr = values.iterator(); itr.hasNext(); /* empty */) {
+			out.writeLong(itr.next());
+		}
+	}
+
+	private static LongSet readLongs(final ByteBuffer buffer) {
+		final int size = readLength(buffer, Long.BYTES);
+		final LongSet values = PrimitiveSets.newLongOpenHashSetWithExpectedSize(size);
+		for (int i = 0; i < size; i++) {
+			values.add(buffer.getLong());
+		}
+
+		return values;
+	}
+
+	private static <T> void writeMultimap(final DataOutputStream out,
+			final InternalIdMap conceptMap,
+			final InternalIdMultimap<T> multimap,
+			final ValueWriter<T> valueWriter) throws IOException {
+
+		int keyCount = 0;
+		for (int i = 0; i < conceptMap.size(); i++) {
+			if (!multimap.get(conceptMap.getSctId(i)).isEmpty()) {
+				keyCount++;
+			}
+		}
+
+		out.writeInt(keyCount);
+		for (int i = 0; i < conceptMap.size(); i++) {
+			final Collection<T> values = multimap.get(conceptMap.getSctId(i));
+			if (values.isEmpty()) {
+				continue;
+			}
+
+			out.writeInt(i);
+			out.writeInt(values.size());
+			for (final T value : values) {
+				valueWriter.write(out, value);
+			}
+		}
+	}
+
+	private static <T> InternalIdMultimap<T> readMultimap(final ByteBuffer buffer,
+			final InternalIdMap conceptMap,
+			final Function<ByteBuffer, T> valueReader) {
+
+		final int keyCount = readLength(buffer, 2 * Integer.BYTES);
+		final InternalIdMultimap.Builder<T> builder = InternalIdMultimap.builder(conceptMap, keyCount);
+		for (int i = 0; i < keyCount; i++) {
+			final long conceptId = conceptMap.getSctId(buffer.getInt());
+			final int valueCount = readLength(buffer, 1);
+			final ImmutableList.Builder<T> values = ImmutableList.builderWithExpectedSize(valueCount);
+			for (int j = 0; j < valueCount; j++) {
+				values.add(valueReader.apply(buffer));
+			}
+			builder.putAll(conceptId, values.build());
+		}
+
+		return builder.build();
+	}
+
+	private static void writeStatement(final DataOutputStream out, final StatementFragment statement) throws IOException {
+		if (statement instanceof StatementFragmentWithDestination withDestination) {
+			out.writeByte(DESTINATION_FRAGMENT);
+			writeStatementProperties(out, statement);
+			out.writeLong(withDestination.getDestinationId());
+			out.writeBoolean(withDestination.isDestinationNegated());
+		} else if (statement instanceof StatementFragmentWithValue withValue) {
+			out.writeByte(VALUE_FRAGMENT);
+			writeStatementProperties(out, statement);
+			writeString(out, withValue.getValueType().name());
+			writeString(out, withValue.getRawValue());
+		} else {
+			throw new IllegalArgumentException("Unexpected statement fragment type: " + statement.getClass().getName());
+		}
+	}
+
+	private static void writeStatementProperties(final DataOutputStream out, final StatementFragment statement) throws IOException {
+		out.writeLong(statement.getTypeId());
+		out.writeInt(statement.getGroup());
+		out.writeInt(statement.getUnionGroup());
+		out.writeBoolean(statement.isUniversal());
+		out.writeLong(statement.getStatementId());
+		out.writeLong(statement.getModuleId());
+		out.writeBoolean(statement.isReleased());
+	}
+
+	private static StatementFragment readStatement(final ByteBuffer buffer) {
+		final byte kind = buffer.get();
+		final long typeId = buffer.getLong();
+		final int group = buffer.getInt();
+		final int unionGroup = buffer.getInt();
+		final boolean universal = readBoolean(buffer);
+		final long statementId = buffer.getLong();
+		final long moduleId = buffer.getLong();
+		final boolean released = readBoolean(buffer);
+
+		switch (kind) {
+			case DESTINATION_FRAGMENT:
+				return new StatementFragmentWithDestination(typeId, group, unionGroup, universal, statementId, moduleId, released,
+						buffer.getLong(),
+						readBoolean(buffer));
+			case VALUE_FRAGMENT:
+				return new StatementFragmentWithValue(typeId, group, unionGroup, universal, statementId, moduleId, released,
+						RelationshipValueType.valueOf(readString(buffer)),
+						readString(buffer));
+			default:
+				throw new IllegalStateException("Unexpected statement fragment kind: " + kind);
+		}
+	}
+
+	private static void writeMember(final DataOutputStream out, final ConcreteDomainFragment member) throws IOException {
+		writeString(out, member.getMemberId());
+		out.writeLong(member.getRefSetId());
+		out.writeInt(member.getGroup());
+		writeString(out, member.getSerializedValue());
+		out.writeLong(member.getTypeId());
+		out.writeBoolean(member.isReleased());
+	}
+
+	private static ConcreteDomainFragment readMember(final ByteBuffer buffer) {
+		return new ConcreteDomainFragment(readString(buffer),
+				buffer.getLong(),
+				buffer.getInt(),
+				readString(buffer),
+				buffer.getLong(),
+				readBoolean(buffer));
+	}
+
+	private static void writeString(final DataOutputStream out, final String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+
+		final byte[] bytes = new byte[checkLength(buffer, length, 1)];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int readLength(final ByteBuffer buffer, final int minimumElementBytes) {
+		return checkLength(buffer, buffer.getInt(), minimumElementBytes);
+	}
+
+	/*
+	 * Fails early if the remaining part of the file can not hold the specified number of elements, so that a corrupt length does not lead to
+	 * allocating a huge array.
+	 */
+	private static int checkLength(final ByteBuffer buffer, final int length, final int minimumElementBytes) {
+		if (length < 0 || (long) length * minimumElementBytes > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		return length;
+	}
+
+	private static boolean readBoolean(final ByteBuffer buffer) {
+		return buffer.get() != 0;
+	}
+}
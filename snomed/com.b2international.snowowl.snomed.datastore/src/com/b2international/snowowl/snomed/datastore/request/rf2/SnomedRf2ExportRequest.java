@@ -21,9 +21,9 @@ import static com.google.common.collect.Sets.newTreeSet;
 import static java.util.Collections.singleton;
 import static java.util.stream.Collectors.toSet;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -34,12 +34,18 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import jakarta.validation.constraints.NotNull;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 
 import com.b2international.commons.CompareUtils;
@@ -87,8 +93,14 @@ import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.b2international.snowowl.snomed.datastore.request.rf2.exporter.*;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.*;
 import com.google.common.collect.ImmutableList.Builder;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @since 5.7
@@ -103,6 +115,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 	public static final Rf2RefSetExportLayout DEFAULT_RF2_EXPORT_LAYOUT = Rf2RefSetExportLayout.COMBINED;
 
 	private static final long serialVersionUID = 2L;
+	
+	private static final int ARCHIVE_PIPE_SIZE = 1024 * 1024;
 
 	private static final Ordering<Version> EFFECTIVE_DATE_ORDERING = Ordering.natural()
 			.onResultOf(Version::getEffectiveTime);
@@ -151,6 +165,10 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 	@JsonProperty
 	private Rf2MaintainerType maintainerType;
 	
+	@Min(1)
+	@JsonProperty
+	private int parallelism = 1;
+	
 	SnomedRf2ExportRequest() {}
 
 	void setReleaseType(final Rf2ReleaseType releaseType) {
@@ -233,6 +251,10 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		this.nrcCountryCode = nrcCountryCode;
 	}
 	
+	void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
 	private String getCountryNamespaceElement(BranchContext context, TerminologyResource codeSystem, Rf2MaintainerType maintainerType, String nrcCountryCode) {
 		final StringBuilder builder = new StringBuilder();
 		
@@ -333,6 +355,11 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		Multimap<String, String> availableLanguageCodes = getLanguageCodes(context, branchesToExport);
 		
 		Path exportDirectory = null;
+		
+		final ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+				.setNameFormat("rf2-export-%d")
+				.setDaemon(true)
+				.build()));
 
 		try {
 			
@@ -348,7 +375,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			// create main folder including release status and archive effective date
 			final Path releaseDirectory = createReleaseDirectory(exportDirectory, archiveEffectiveDate);
 
-			final Set<String> visitedComponentEffectiveTimes = newHashSet();
+			// exporters of the same branch run concurrently, use a thread-safe set to track visited components
+			final Set<String> visitedComponentEffectiveTimes = Sets.newConcurrentHashSet();
 			
 			final long effectiveTimeStart = startEffectiveTime != null ? EffectiveTimes.getEffectiveTime(startEffectiveTime) : 0;
 			final long effectiveTimeEnd =  endEffectiveTime != null ? EffectiveTimes.getEffectiveTime(endEffectiveTime) : Long.MAX_VALUE;
@@ -363,7 +391,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 						effectiveTimeStart,
 						effectiveTimeEnd,
 						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(branch));
+						availableLanguageCodes.get(branch),
+						executor);
 				
 			}
 			
@@ -382,18 +411,20 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 						EffectiveTimes.UNSET_EFFECTIVE_TIME,
 						EffectiveTimes.UNSET_EFFECTIVE_TIME,
 						visitedComponentEffectiveTimes,
-						availableLanguageCodes.get(referenceBranch));
+						availableLanguageCodes.get(referenceBranch),
+						executor);
 			}
 
 			// Step 6: compress to archive and upload to the file registry
 			final AttachmentRegistry fileRegistry = context.service(AttachmentRegistry.class);
-			registerResult(fileRegistry, exportId, exportDirectory);
+			registerResult(fileRegistry, exportId, exportDirectory, executor);
 			final String fileName = releaseDirectory.getFileName() + ".zip";
 			return new Attachment(exportId, fileName);
 			
 		} catch (final Exception e) {
 			throw new SnowowlRuntimeException("Failed to export terminology content to RF2.", e);
 		} finally {
+			executor.shutdownNow();
 			if (exportDirectory != null) {
 				FileUtils.deleteDirectory(exportDirectory.toFile());
 			}
@@ -710,70 +741,55 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 			final long effectiveTimeFilterStart, 
 			final long effectiveTimeFilterEnd,
 			final Set<String> visitedComponentEffectiveTimes,
-			final Collection<String> languageCodes) throws IOException {
+			final Collection<String> languageCodes,
+			final ListeningExecutorService executor) throws IOException {
 
+		final List<Rf2Exporter<?, ?, ?>> exporters = newArrayList();
+		
 		for (final String componentToExport : componentTypes) {
 			switch (componentToExport) {
 				case SnomedConcept.TYPE:
-					exportConcepts(releaseDirectory, 
-							context,
+					addConceptExporters(context,
 							branch,
 							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+							exporters);
 					break;
 	
 				case SnomedDescription.TYPE:
 					for (final String languageCode : languageCodes) {
-						exportDescriptions(releaseDirectory, 
-								context,
+						addDescriptionExporters(context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
 								languageCode,
-								visitedComponentEffectiveTimes);
+								exporters);
 					}
 					break;
 	
 				case SnomedRelationship.TYPE:
-					exportRelationships(releaseDirectory, 
-							context,
+					addRelationshipExporters(context,
 							branch,
 							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+							exporters);
 					
-					exportConcreteValues(releaseDirectory, 
-							context,
+					addConcreteValueExporters(context,
 							branch,
 							archiveEffectiveTime,
-							effectiveTimeFilterStart,
-							effectiveTimeFilterEnd,
-							visitedComponentEffectiveTimes);
+							exporters);
 					break;
 	
 				case SnomedReferenceSetMember.TYPE:
 					if (Rf2RefSetExportLayout.COMBINED.equals(refSetExportLayout)) {
-						exportCombinedRefSets(releaseDirectory,
-								context,
+						addCombinedRefSetExporters(context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
 								languageCodes,
-								visitedComponentEffectiveTimes);
+								exporters);
 					} else {
-						exportIndividualRefSets(releaseDirectory,
-								context,
+						addIndividualRefSetExporters(context,
 								branch,
 								archiveEffectiveTime,
-								effectiveTimeFilterStart,
-								effectiveTimeFilterEnd,
 								languageCodes,
-								visitedComponentEffectiveTimes);
+								exporters);
 					}
 				break;
 
@@ -783,25 +799,49 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		}
 		
 		if (Boolean.valueOf(System.getProperty("so.snomed.refsetdescriptor_preview", "false"))) {
-			exportRefSetDescriptor(releaseDirectory,
-					context,
+			addRefSetDescriptorExporter(context,
 					branch,
 					archiveEffectiveTime,
-					effectiveTimeFilterStart,
-					effectiveTimeFilterEnd,
 					languageCodes,
-					visitedComponentEffectiveTimes);
+					exporters);
+		}
+		
+		/*
+		 * Exporters writing to different files run concurrently. Exporters writing to the same file are executed one after the other in their
+		 * original order, so rows are appended to each file the same way as in case of a sequential export.
+		 */
+		final Map<Path, List<Rf2Exporter<?, ?, ?>>> exportersByFile = exporters.stream()
+				.collect(Collectors.groupingBy(exporter -> exporter.getExportFile(releaseDirectory), LinkedHashMap::new, Collectors.toList()));
+		
+		final List<ListenableFuture<Void>> exportTasks = newArrayList();
+		for (final List<Rf2Exporter<?, ?, ?>> fileExporters : exportersByFile.values()) {
+			exportTasks.add(executor.submit(() -> {
+				for (final Rf2Exporter<?, ?, ?> exporter : fileExporters) {
+					exporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+				}
+				return null;
+			}));
+		}
+		
+		try {
+			Futures.allAsList(exportTasks).get();
+		} catch (final InterruptedException e) {
+			exportTasks.forEach(task -> task.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException("Interrupted while exporting branch '" + branch + "'.", e);
+		} catch (final ExecutionException e) {
+			exportTasks.forEach(task -> task.cancel(true));
+			Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
 		}
 	}
 
-	private void exportRefSetDescriptor(Path releaseDirectory, 
-			RepositoryContext context, 
+	private void addRefSetDescriptorExporter(RepositoryContext context, 
 			String branch, 
 			String archiveEffectiveTime, 
-			long effectiveTimeFilterStart, 
-			long effectiveTimeFilterEnd, 
 			Collection<String> languageCodes, 
-			Set<String> visitedComponentEffectiveTimes) throws IOException {
+			List<Rf2Exporter<?, ?, ?>> exporters) {
 		final Rf2RefSetDescriptorRefSetExporter exporter = new Rf2RefSetDescriptorRefSetExporter(releaseType, 
 				countryNamespaceElement, 
 				namespaceFilter,
@@ -809,16 +849,13 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				archiveEffectiveTime,
 				modules);
 		
-		exporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(exporter);
 	}
 
-	private void exportConcepts(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void addConceptExporters(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Rf2ConceptExporter conceptExporter = new Rf2ConceptExporter(releaseType, 
 				countryNamespaceElement, 
@@ -828,17 +865,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				includePreReleaseContent,
 				modules);
 
-		conceptExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(conceptExporter);
 	}
 
-	private void exportDescriptions(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void addDescriptionExporters(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
 			final String languageCode,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Set<String> descriptionTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 			.all()
@@ -867,8 +901,8 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				ImmutableSet.of(Concepts.TEXT_DEFINITION),
 				languageCode);
 
-		descriptionExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
-		textDefinitionExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(descriptionExporter);
+		exporters.add(textDefinitionExporter);
 	}
 
 	private String getBranchOrRangeTarget(final String branch) {
@@ -879,13 +913,10 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 		return new BranchSnapshotContentRequest<>(branch, next).execute(context);
 	}
 	
-	private void exportRelationships(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void addRelationshipExporters(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Set<String> characteristicTypes = execute(context, getBranchOrRangeTarget(branch), SnomedRequests.prepareSearchConcept()
 				.all()
@@ -912,17 +943,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				modules, 
 				characteristicTypes);
 
-		statedRelationshipExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
-		relationshipExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(statedRelationshipExporter);
+		exporters.add(relationshipExporter);
 	}
 	
-	private void exportConcreteValues(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void addConcreteValueExporters(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 		
 		final Rf2ConcreteValueExporter concreteValueExporter = new Rf2ConcreteValueExporter(releaseType, 
 				countryNamespaceElement, 
@@ -931,17 +959,14 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				archiveEffectiveTime, 
 				modules);
 		
-		concreteValueExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+		exporters.add(concreteValueExporter);
 	}
 
-	private void exportCombinedRefSets(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void addCombinedRefSetExporters(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd,  
 			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(branch)))
 				.index(c -> c.getReferenceSet().getType());
@@ -964,28 +989,22 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					refSetType,
 					referenceSetsByType.get(refSetType));
 
-			refSetExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+			exporters.add(refSetExporter);
 		}
 
-		exportLanguageRefSets(releaseDirectory, 
-				context, 
+		addLanguageRefSetExporters(context, 
 				branch, 
 				archiveEffectiveTime, 
-				effectiveTimeFilterStart, 
-				effectiveTimeFilterEnd, 
 				languageCodes, 
 				referenceSetsByType.get(SnomedRefSetType.LANGUAGE),
-				visitedComponentEffectiveTimes);
+				exporters);
 	}
 
-	private void exportIndividualRefSets(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void addIndividualRefSetExporters(final RepositoryContext context, 
 			final String revisionRange,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
 			final Collection<String> languageCodes,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		final Multimap<SnomedRefSetType, SnomedConcept> referenceSetsByType = FluentIterable.from(getIdentifierConcepts(context, getBranchOrRangeTarget(revisionRange)))
 				.index(c -> c.getReferenceSet().getType());
@@ -1011,29 +1030,23 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					entry.getKey(),
 					ImmutableSet.of(entry.getValue()));
 
-			refSetExporter.exportBranch(releaseDirectory, context, revisionRange, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+			exporters.add(refSetExporter);
 		}
 
-		exportLanguageRefSets(releaseDirectory, 
-				context, 
+		addLanguageRefSetExporters(context, 
 				revisionRange, 
 				archiveEffectiveTime, 
-				effectiveTimeFilterStart, 
-				effectiveTimeFilterEnd, 
 				languageCodes, 
 				referenceSetsByType.get(SnomedRefSetType.LANGUAGE),
-				visitedComponentEffectiveTimes);
+				exporters);
 	}
 
-	private void exportLanguageRefSets(final Path releaseDirectory, 
-			final RepositoryContext context, 
+	private void addLanguageRefSetExporters(final RepositoryContext context, 
 			final String branch,
 			final String archiveEffectiveTime, 
-			final long effectiveTimeFilterStart,
-			final long effectiveTimeFilterEnd, 
 			final Collection<String> languageCodes, 
 			final Collection<SnomedConcept> languageRefSets,
-			final Set<String> visitedComponentEffectiveTimes) throws IOException {
+			final List<Rf2Exporter<?, ?, ?>> exporters) {
 
 		if (languageRefSets.isEmpty()) {
 			return;
@@ -1051,7 +1064,7 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 					languageRefSets,
 					languageCode);
 
-			languageExporter.exportBranch(releaseDirectory, context, branch, effectiveTimeFilterStart, effectiveTimeFilterEnd, visitedComponentEffectiveTimes);
+			exporters.add(languageExporter);
 		}
 	}
 
@@ -1088,19 +1101,62 @@ final class SnomedRf2ExportRequest extends ResourceRequest<BranchContext, Attach
 				.collect(Collectors.toList());
 	}
 
-	private void registerResult(final AttachmentRegistry fileRegistry, final UUID exportId, final Path exportDirectory) {
-		File archiveFile = null;
-
-		try {
-			archiveFile = exportDirectory.resolveSibling(exportDirectory.getFileName() + ".zip").toFile();
-			FileUtils.createZipArchive(exportDirectory.toFile(), archiveFile);
-			fileRegistry.upload(exportId, new FileInputStream(archiveFile)); // lgtm[java/input-resource-leak]
+	/*
+	 * Streams the archive directly into the file registry instead of creating a temporary archive file first. The compressed archive is assembled
+	 * on a worker thread from the already written export files, while the registry consumes it on the calling thread.
+	 */
+	private void registerResult(final AttachmentRegistry fileRegistry, final UUID exportId, final Path exportDirectory, final ListeningExecutorService executor) {
+		final ListenableFuture<Void> archiveWriter;
+		
+		try (PipedInputStream archiveIn = new PipedInputStream(ARCHIVE_PIPE_SIZE)) {
+			final PipedOutputStream archiveOut = new PipedOutputStream(archiveIn);
+			archiveWriter = executor.submit(() -> {
+				try (ZipOutputStream zos = new ZipOutputStream(archiveOut)) {
+					writeArchiveEntries(exportDirectory, zos);
+				}
+				return null;
+			});
+			
+			fileRegistry.upload(exportId, archiveIn);
 		} catch (final IOException e) {
+			fileRegistry.delete(exportId);
 			throw new SnowowlRuntimeException("Failed to register archive file from export directory.", e);
-		} finally {
-			if (archiveFile != null) {
-				archiveFile.delete();
+		}
+		
+		try {
+			archiveWriter.get();
+		} catch (final InterruptedException e) {
+			fileRegistry.delete(exportId);
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException("Interrupted while registering archive file from export directory.", e);
+		} catch (final ExecutionException e) {
+			// the registry might have received a truncated archive
+			fileRegistry.delete(exportId);
+			throw new SnowowlRuntimeException("Failed to register archive file from export directory.", e.getCause());
+		}
+	}
+
+	private static void writeArchiveEntries(final Path exportDirectory, final ZipOutputStream zos) throws IOException {
+		final List<Path> paths;
+		try (Stream<Path> walk = Files.walk(exportDirectory)) {
+			paths = walk.filter(path -> !path.equals(exportDirectory))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+		
+		for (final Path path : paths) {
+			// zip entry names always use forward slashes, directory entries end with a slash
+			final String relativeName = StreamSupport.stream(exportDirectory.relativize(path).spliterator(), false)
+					.map(Path::toString)
+					.collect(Collectors.joining("/"));
+			
+			if (Files.isDirectory(path)) {
+				zos.putNextEntry(new ZipEntry(relativeName + "/"));
+			} else {
+				zos.putNextEntry(new ZipEntry(relativeName));
+				Files.copy(path, zos);
 			}
+			zos.closeEntry();
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2021 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,8 @@ public final class SnomedRf2ExportRequestBuilder
 		extends ResourceRequestBuilder<SnomedRf2ExportRequestBuilder, BranchContext, Attachment> 
 		implements SnomedContentRequestBuilder<Attachment> {
 
+	private static final int DEFAULT_PARALLELISM = 1;
+	
 	private Rf2ReleaseType releaseType;
 	private Rf2RefSetExportLayout refSetExportLayout;
 	private String countryNamespaceElement;
@@ -50,6 +52,7 @@ public final class SnomedRf2ExportRequestBuilder
 	private boolean extensionOnly;
 	private Rf2MaintainerType maintainerType;
 	private String nrcCountryCode;
+	private int parallelism = DEFAULT_PARALLELISM;
 	
 	SnomedRf2ExportRequestBuilder() {}
 	
@@ -131,6 +134,20 @@ public final class SnomedRf2ExportRequestBuilder
 		return getSelf();
 	}
 	
+	/**
+	 * Sets the number of worker threads that write the RF2 files of the export concurrently. Each RF2 file is written by a single worker, so
+	 * there is no benefit in using more threads than the number of exported files. The default value ({@code 1}) exports the files
+	 * sequentially.
+	 * 
+	 * @param parallelism
+	 * @return
+	 * @since 9.5
+	 */
+	public SnomedRf2ExportRequestBuilder setParallelism(final Integer parallelism) {
+		this.parallelism = parallelism == null ? DEFAULT_PARALLELISM : parallelism;
+		return getSelf();
+	}
+	
 	@Override
 	protected ResourceRequest<BranchContext, Attachment> create() {
 		final SnomedRf2ExportRequest req = new SnomedRf2ExportRequest();
@@ -148,6 +165,7 @@ public final class SnomedRf2ExportRequestBuilder
 		req.setRefSets(refSets);
 		req.setTransientEffectiveTime(transientEffectiveTime);
 		req.setExtensionOnly(extensionOnly);
+		req.setParallelism(parallelism);
 		return req;
 	}
 	
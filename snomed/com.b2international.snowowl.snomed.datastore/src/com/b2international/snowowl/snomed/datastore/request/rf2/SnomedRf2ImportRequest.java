@@ -135,6 +135,13 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 	@Max(60000)
 	private int batchSize;
 	
+	@Min(1)
+	@JsonProperty
+	private int preparationParallelism = 1;
+	
+	@JsonProperty
+	private boolean columnarStaging = false;
+	
 	@JsonProperty
 	private boolean dryRun = false;
 	
@@ -171,6 +178,14 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 		this.batchSize = batchSize;
 	}
 	
+	void setPreparationParallelism(int preparationParallelism) {
+		this.preparationParallelism = preparationParallelism;
+	}
+	
+	void setColumnarStaging(boolean columnarStaging) {
+		this.columnarStaging = columnarStaging;
+	}
+	
 	void setAuthor(String author) {
 		this.author = author;
 	}
@@ -250,11 +265,11 @@ final class SnomedRf2ImportRequest implements Request<BranchContext, ImportRespo
 			.map(Version::getEffectiveTime)
 			.orElse(LocalDate.EPOCH), DateFormats.SHORT);
 		
-		try (final DB db = createDb()) {
-
-			// Read effective time slices from import files
-			String importUntilEffectiveTime = importUntil == null ? null : EffectiveTimes.format(importUntil, DateFormats.SHORT);
-			final Rf2EffectiveTimeSlices effectiveTimeSlices = new Rf2EffectiveTimeSlices(db, isLoadOnDemandEnabled(), latestVersionEffectiveTime, importUntilEffectiveTime, batchSize);
+		// Read effective time slices from import files
+		String importUntilEffectiveTime = importUntil == null ? null : EffectiveTimes.format(importUntil, DateFormats.SHORT);
+		try (final DB db = createDb();
+			final Rf2EffectiveTimeSlices effectiveTimeSlices = new Rf2EffectiveTimeSlices(db, isLoadOnDemandEnabled(), latestVersionEffectiveTime, importUntilEffectiveTime, batchSize, preparationParallelism, columnarStaging)) {
+			
 			Stopwatch w = Stopwatch.createStarted();
 			read(rf2Archive, effectiveTimeSlices, reporter);
 			log.info("Preparing RF2 import took: {}", w);
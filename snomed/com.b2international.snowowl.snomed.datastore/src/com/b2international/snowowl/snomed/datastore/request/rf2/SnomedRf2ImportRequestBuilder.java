@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,7 @@ public final class SnomedRf2ImportRequestBuilder
 		implements SnomedContentRequestBuilder<ImportResponse> {
 
 	private static final int DEFAULT_BATCH_SIZE = 60_000;
+	private static final int DEFAULT_PREPARATION_PARALLELISM = 1;
 	
 	private Attachment rf2Archive;
 	private Rf2ReleaseType releaseType = Rf2ReleaseType.DELTA;
@@ -45,6 +46,8 @@ public final class SnomedRf2ImportRequestBuilder
 	private boolean dryRun = false;
 	private LocalDate importUntil;
 	private int batchSize = DEFAULT_BATCH_SIZE;
+	private int preparationParallelism = DEFAULT_PREPARATION_PARALLELISM;
+	private boolean columnarStaging = false;
 	private String author;
 	
 	SnomedRf2ImportRequestBuilder() {
@@ -89,6 +92,34 @@ public final class SnomedRf2ImportRequestBuilder
 		return getSelf();
 	}
 	
+	/**
+	 * Sets the number of worker threads that prepare (resolve their RF2 rows, reference set members and dependencies) and stage upcoming import
+	 * batches while the current batch is being committed. Batches that do not depend on each other are staged concurrently in their own
+	 * transaction, commits always happen on a single thread in the order of the import plan. The default value ({@code 1}) prepares and
+	 * imports the batches of each effective time slice sequentially.
+	 * 
+	 * @param preparationParallelism
+	 * @return
+	 * @since 9.5
+	 */
+	public SnomedRf2ImportRequestBuilder setPreparationParallelism(Integer preparationParallelism) {
+		this.preparationParallelism = preparationParallelism == null ? DEFAULT_PREPARATION_PARALLELISM : preparationParallelism;
+		return getSelf();
+	}
+	
+	/**
+	 * Enables staging of the RF2 rows in typed, memory-mapped columnar files (with primitive identifiers and dictionary-encoded concept
+	 * references) instead of the default MapDB based storage. Recommended for large snapshot imports.
+	 * 
+	 * @param columnarStaging
+	 * @return
+	 * @since 9.5
+	 */
+	public SnomedRf2ImportRequestBuilder setColumnarStaging(Boolean columnarStaging) {
+		this.columnarStaging = columnarStaging == null ? false : columnarStaging;
+		return getSelf();
+	}
+	
 	public SnomedRf2ImportRequestBuilder setAuthor(String author) {
 		this.author = author;
 		return getSelf();
@@ -103,6 +134,8 @@ public final class SnomedRf2ImportRequestBuilder
 		req.setDryRun(dryRun);
 		req.setImportUntil(importUntil);
 		req.setBatchSize(batchSize);
+		req.setPreparationParallelism(preparationParallelism);
+		req.setColumnarStaging(columnarStaging);
 		req.setAuthor(author);
 		return req;
 	}
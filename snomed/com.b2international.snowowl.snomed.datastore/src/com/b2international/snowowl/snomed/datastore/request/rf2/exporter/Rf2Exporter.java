@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,10 @@
 package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collection;
@@ -41,8 +40,6 @@ import com.b2international.snowowl.core.request.BranchSnapshotContentRequest;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
 import com.b2international.snowowl.snomed.datastore.request.SnomedSearchRequestBuilder;
-import com.google.common.base.Charsets;
-import com.google.common.base.Joiner;
 
 /**
  * @since 6.3
@@ -50,9 +47,6 @@ import com.google.common.base.Joiner;
 public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R extends PageableCollectionResource<C>, C extends SnomedComponent> {
 
 	private static final Logger LOG = LoggerFactory.getLogger("rf2.export");
-	private static final Joiner TAB_JOINER = Joiner.on('\t');
-	
-	private static final String CR_LF = "\r\n";
 
 	// Parameters used for file name calculations
 	protected final Rf2ReleaseType releaseType;
@@ -105,6 +99,15 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 		return BooleanUtils.toString(component.isActive());
 	}
 
+	/**
+	 * @param releaseDirectory
+	 * @return the path of the file this exporter writes to (rows from multiple branches are appended to the same file)
+	 * @since 9.5
+	 */
+	public final Path getExportFile(final Path releaseDirectory) {
+		return releaseDirectory.resolve(getRelativeDirectory()).resolve(getFileName());
+	}
+
 	public final void exportBranch(
 			final Path releaseDirectory, 
 			final RepositoryContext context, 
@@ -116,65 +119,55 @@ public abstract class Rf2Exporter<B extends SnomedSearchRequestBuilder<B, R>, R
 		LOG.info("Exporting {} branch to '{}'", branch, getFileName());
 
 		// Ensure that the path leading to the export file exists
-		final Path exportFileDirectory = releaseDirectory.resolve(getRelativeDirectory());
-		Files.createDirectories(exportFileDirectory);
+		final Path exportFile = getExportFile(releaseDirectory);
+		Files.createDirectories(exportFile.getParent());
 
-		final Path exportFile = exportFileDirectory.resolve(getFileName());
-		try (RandomAccessFile randomAccessFile = new RandomAccessFile(exportFile.toFile(), "rw")) {
-			try (FileChannel fileChannel = randomAccessFile.getChannel()) {
-
-				// Add a header if the file is empty
-				if (randomAccessFile.length() == 0L) {
-					fileChannel.write(toByteBuffer(TAB_JOINER.join(getHeader())));
-					fileChannel.write(toByteBuffer(CR_LF));
-				}
+		// We want to append rows, if the file already exists
+		try (FileChannel fileChannel = FileChannel.open(exportFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+				Rf2RowWriter writer = new Rf2RowWriter(fileChannel)) {
 
-				// We want to append rows, if the file already exists, so jump to the end
-				fileChannel.position(fileChannel.size());
-
-				/*
-				 * XXX: createSearchRequestBuilder() should handle namespace/language code
-				 * filtering, if applicable; we will only handle the effective time and module
-				 * filters here.
-				 * 
-				 * An effective time filter is always set, even if not in delta mode, to prevent
-				 * exporting unpublished content twice.
-				 */
-				
-				new BranchSnapshotContentRequest<R>(
-					branch,
-					inner -> {
-						createSearchRequestBuilder()
-							.filterByModules(modules) // null value will be ignored
-							.filterByEffectiveTime(effectiveTimeStart, effectiveTimeEnd)
-							.setLimit(context.getPageSize())
-							.setFields(Arrays.asList(getHeader()))
-							.stream(inner)
-							.flatMap(hits -> getMappedStream(hits, context, branch))
-							.forEachOrdered(row -> {
-								String id = row.get(0);
-								String effectiveTime = row.get(1);
-								
-								if (!visitedComponentEffectiveTimes.add(String.join("_", id, effectiveTime))) {
-									return;
-								}
-								
-								try {
-									fileChannel.write(toByteBuffer(TAB_JOINER.join(row)));
-									fileChannel.write(toByteBuffer(CR_LF));
-								} catch (final IOException e) {
-									throw new SnowowlRuntimeException("Failed to write contents for file '" + exportFile.getFileName() + "'.");
-								}
-							});
-						
-						return null;
-					}
-				).execute(context);
+			// Add a header if the file is empty
+			if (fileChannel.size() == 0L) {
+				writer.writeRow(Arrays.asList(getHeader()));
 			}
-		}
-	}
 
-	private static ByteBuffer toByteBuffer(final String s) {
-		return ByteBuffer.wrap(s.getBytes(Charsets.UTF_8));
+			/*
+			 * XXX: createSearchRequestBuilder() should handle namespace/language code
+			 * filtering, if applicable; we will only handle the effective time and module
+			 * filters here.
+			 * 
+			 * An effective time filter is always set, even if not in delta mode, to prevent
+			 * exporting unpublished content twice.
+			 */
+			
+			new BranchSnapshotContentRequest<R>(
+				branch,
+				inner -> {
+					createSearchRequestBuilder()
+						.filterByModules(modules) // null value will be ignored
+						.filterByEffectiveTime(effectiveTimeStart, effectiveTimeEnd)
+						.setLimit(context.getPageSize())
+						.setFields(Arrays.asList(getHeader()))
+						.stream(inner)
+						.flatMap(hits -> getMappedStream(hits, context, branch))
+						.forEachOrdered(row -> {
+							String id = row.get(0);
+							String effectiveTime = row.get(1);
+							
+							if (!visitedComponentEffectiveTimes.add(String.join("_", id, effectiveTime))) {
+								return;
+							}
+							
+							try {
+								writer.writeRow(row);
+							} catch (final IOException e) {
+								throw new SnowowlRuntimeException("Failed to write contents for file '" + exportFile.getFileName() + "'.", e);
+							}
+						});
+					
+					return null;
+				}
+			).execute(context);
+		}
 	}
 }
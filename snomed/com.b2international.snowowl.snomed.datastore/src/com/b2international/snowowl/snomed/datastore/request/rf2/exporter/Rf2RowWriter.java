@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.exporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes tab-separated, CRLF terminated RF2 rows to a channel. Column values are encoded directly into a single reusable direct buffer which is
+ * written to the channel when it fills up, so no intermediate joined {@link String} or byte array is allocated per row.
+ * <p>
+ * Instances are not thread-safe, each export file should use its own writer.
+ *
+ * @since 9.5
+ */
+final class Rf2RowWriter implements Closeable {
+
+	private static final int BUFFER_SIZE = 256 * 1024;
+
+	private static final byte TAB = '\t';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	Rf2RowWriter(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	public void writeRow(List<String> row) throws IOException {
+		for (int i = 0; i < row.size(); i++) {
+			if (i > 0) {
+				put(TAB);
+			}
+			encode(row.get(i));
+		}
+		put(CR);
+		put(LF);
+	}
+
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Flushes buffered rows, the underlying channel is not closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+
+	private void put(byte b) throws IOException {
+		if (!buffer.hasRemaining()) {
+			flush();
+		}
+		buffer.put(b);
+	}
+
+	private void encode(String value) throws IOException {
+		if (value == null || value.isEmpty()) {
+			return;
+		}
+
+		// fast path for ASCII values (identifiers, effective times, flags), which make up most of the columns
+		final int length = value.length();
+		if (buffer.remaining() >= length) {
+			int i = 0;
+			final int start = buffer.position();
+			for (; i < length; i++) {
+				final char c = value.charAt(i);
+				if (c >= 0x80) {
+					break;
+				}
+				buffer.put((byte) c);
+			}
+			if (i == length) {
+				return;
+			}
+			// rewind and let the encoder handle the entire value
+			buffer.position(start);
+		}
+
+		final CharBuffer chars = CharBuffer.wrap(value);
+		encoder.reset();
+		CoderResult result;
+		do {
+			result = encoder.encode(chars, buffer, true);
+			if (result.isOverflow()) {
+				flush();
+			}
+		} while (result.isOverflow());
+
+		while (encoder.flush(buffer).isOverflow()) {
+			flush();
+		}
+	}
+
+}
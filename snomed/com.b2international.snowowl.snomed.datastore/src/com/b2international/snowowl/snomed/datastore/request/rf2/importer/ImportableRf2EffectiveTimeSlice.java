@@ -0,0 +1,582 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
+
+import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.*;
+import com.b2international.commons.collect.LongSets;
+import com.b2international.commons.graph.LongTarjan;
+import com.b2international.commons.options.Options;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.core.domain.TransactionContext;
+import com.b2international.snowowl.core.internal.locks.DatastoreLockContextDescriptions;
+import com.b2international.snowowl.core.request.ResourceRequests;
+import com.b2international.snowowl.core.request.io.ImportDefectAcceptor.ImportDefectBuilder;
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.core.uri.ComponentURI;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
+import com.b2international.snowowl.snomed.core.domain.*;
+import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
+import com.b2international.snowowl.snomed.datastore.index.entry.*;
+import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Base class of effective time slices that register RF2 rows for import. Subclasses define how the registered rows are stored until they are
+ * imported, dependency tracking and the import itself are shared.
+ * 
+ * @since 9.5
+ */
+abstract class ImportableRf2EffectiveTimeSlice extends BaseRf2EffectiveTimeSlice {
+	
+	private final LongKeyMap<Set<String>> membersByReferencedComponent;
+	private final LongKeyMap<LongSet> dependenciesByComponent;
+	
+	private final boolean loadOnDemand;
+	private final int batchSize;
+	private final int preparationParallelism;
+	
+	protected ImportableRf2EffectiveTimeSlice(String effectiveTime, boolean loadOnDemand, int batchSize, int preparationParallelism) {
+		super(effectiveTime);
+		this.batchSize = batchSize;
+		this.preparationParallelism = preparationParallelism;
+		this.dependenciesByComponent = PrimitiveMaps.newLongKeyOpenHashMap();
+		this.membersByReferencedComponent = PrimitiveMaps.newLongKeyOpenHashMap();
+		this.loadOnDemand = loadOnDemand;
+	}
+	
+	/**
+	 * Stores the given RF2 row until the slice is imported. Rows registered with the same component ID replace each other.
+	 * 
+	 * @param componentId - the ID of the component (first column of the row)
+	 * @param type - the content type of the row
+	 * @param values - the column values of the row
+	 */
+	protected abstract void store(String componentId, Rf2ContentType<?> type, String[] values);
+	
+	/**
+	 * Resolves a previously stored RF2 row. Implementations must support concurrent calls after all rows have been registered and flushed.
+	 * 
+	 * @param componentId
+	 * @return the resolved component or <code>null</code> if no row has been registered with the given ID in this slice
+	 */
+	protected abstract <T extends SnomedComponent> T getComponent(String componentId);
+	
+	@Override
+	public void register(long containerId, Rf2ContentType<?> type, String[] values, ImportDefectBuilder defectBuilder) {
+		
+		final String componentId = values[0];
+
+		// track refset members via membersByReferencedComponent map
+		if (Rf2RefSetContentType.class.isAssignableFrom(type.getClass())) {
+			if (!membersByReferencedComponent.containsKey(containerId)) {
+				membersByReferencedComponent.put(containerId, newHashSet());
+			}
+			membersByReferencedComponent.get(containerId).add(componentId);
+		} else {
+			// register other non-concept components in the dependency graph to force strongly connected subgraphs
+			if (IComponent.ROOT_IDL != containerId) {
+				registerDependencies(containerId, PrimitiveSets.newLongOpenHashSet(Long.parseLong(componentId)));
+			}
+		}
+		
+		type.validate(defectBuilder, values);
+		
+		store(componentId, type, values);
+	}
+	
+	@Override
+	public void registerDependencies(long componentId, LongSet dependencies) {
+		if (!dependenciesByComponent.containsKey(componentId)) {
+			dependenciesByComponent.put(componentId, dependencies);
+		} else {
+			dependenciesByComponent.get(componentId).addAll(dependencies);
+		}
+	}
+	
+	@Override
+	public void unregisterDependencies(String componentId) {
+		dependenciesByComponent.remove(Long.valueOf(componentId));
+	}
+	
+	@Override
+	public LongKeyMap<LongSet> getDependenciesByComponent() {
+		return dependenciesByComponent;
+	}
+	
+	@Override
+	public LongKeyMap<Set<String>> getMembersByReferencedComponent() {
+		return membersByReferencedComponent;
+	}
+
+	private List<LongSet> getImportPlan() {
+		return new LongTarjan(batchSize, dependenciesByComponent::get).run(dependenciesByComponent.keySet());
+	}
+	
+	@Override
+	public void doImport(
+			final BranchContext context, 
+			final ResourceURI codeSystemUri, 
+			final Rf2ImportConfiguration importConfig, 
+			final ImmutableSet.Builder<ComponentURI> visitedComponents) throws Exception {
+		
+		final Stopwatch w = Stopwatch.createStarted();
+		final String importingMessage = isUnpublishedSlice() ? "Importing unpublished components" : String.format("Importing components from %s", getEffectiveTime());
+		final String commitMessage = isUnpublishedSlice() ? "Imported unpublished components" : String.format("Imported components from %s", getEffectiveTime());
+		final boolean doCreateVersion = !isUnpublishedSlice() && !isSnapshotSlice() && importConfig.isCreateVersions();
+		final String author = importConfig.getAuthor();
+		
+		// Collect the type ID for all integer relationship values
+		final LongKeyLongMap integerTypeIdsByValueId = PrimitiveMaps.newLongKeyLongOpenHashMap();
+		
+		context.log().info(importingMessage);
+		try (Rf2TransactionContext tx = new Rf2TransactionContext(openTransaction(context, author), loadOnDemand, importConfig)) {
+			final List<LongSet> importPlan = getImportPlan();
+			if (preparationParallelism > 1 && importPlan.size() > 1) {
+				importConcurrently(context, codeSystemUri, importConfig, importPlan, commitMessage, integerTypeIdsByValueId, visitedComponents);
+			} else {
+				for (LongSet componentsToImportInBatch : importPlan) {
+					importBatch(tx, prepareBatch(codeSystemUri, componentsToImportInBatch), commitMessage, integerTypeIdsByValueId, visitedComponents);
+				}
+			}
+			
+			// all members have been imported along with their referenced components
+			membersByReferencedComponent.clear();
+			
+			// Check if any integer values should actually be decimals, indicated by the range constraint on MRCM members
+			final LongSet decimalTypeIds = collectAttributesWithRangeConstraint(context, "dec(>#0..)");
+			final LongSet decimalValueIds = collectValueTypeChanges(integerTypeIdsByValueId, decimalTypeIds);
+			swapValueType(context, author, decimalValueIds);
+			
+			if (doCreateVersion) {
+				ResourceRequests.prepareNewVersion()
+					.setResource(codeSystemUri)
+					.setVersion(getEffectiveTime())
+					.setDescription("")
+					.setEffectiveTime(getEffectiveDate())
+					.setAuthor(author)
+//					.setForce(true) TODO force create version if reimporting latest release, patching it basically
+					.buildAsync()
+					.getRequest()
+					.execute(context);
+			}
+		}
+		
+		context.log().info("{} in {}", commitMessage, w);
+	}
+
+	/*
+	 * Batches are prepared (their RF2 rows, members and dependencies resolved) and staged in their own transaction (and StagingArea) on a worker
+	 * pool, while commits stay sequential on the caller thread, in the order of the import plan. A batch reads the repository when it is staged
+	 * (existing revisions of its components, its dependencies and the reference sets of its members), so it waits for the commit of the
+	 * earlier batches it depends on before staging:
+	 * - batches that import a component referenced by this batch
+	 * - batches that reference a component imported by this batch (their commit hooks might update the revision of that component)
+	 * Independent batches are staged concurrently with the commit of the preceding ones, the result is the same as committing them one by one.
+	 */
+	private void importConcurrently(
+			final BranchContext context,
+			final ResourceURI codeSystemUri, 
+			final Rf2ImportConfiguration importConfig,
+			final List<LongSet> importPlan, 
+			final String commitMessage, 
+			final LongKeyLongMap integerTypeIdsByValueId, 
+			final ImmutableSet.Builder<ComponentURI> visitedComponents) throws Exception {
+		
+		final String author = importConfig.getAuthor();
+		final int[] requiredCommits = getRequiredCommits(importPlan);
+		final CommitProgress progress = new CommitProgress();
+		
+		final ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(preparationParallelism, new ThreadFactoryBuilder()
+				.setNameFormat("rf2-import-stage-" + getEffectiveTime() + "-%d")
+				.setDaemon(true)
+				.build()));
+		
+		// stage at most as many batches ahead as the number of workers to keep the memory footprint bounded, a waiting batch occupies its worker
+		final Deque<ListenableFuture<StagedBatch>> stagedBatches = new ArrayDeque<>(preparationParallelism);
+		try {
+			int nextBatch = 0;
+			for (int batchIndex = 0; batchIndex < importPlan.size(); batchIndex++) {
+				while (nextBatch < importPlan.size() && stagedBatches.size() < preparationParallelism) {
+					final LongSet componentsToImportInBatch = importPlan.get(nextBatch);
+					final int requiredCommit = requiredCommits[nextBatch];
+					stagedBatches.add(executor.submit(() -> {
+						final PreparedBatch batch = prepareBatch(codeSystemUri, componentsToImportInBatch);
+						progress.awaitCommitted(requiredCommit);
+						final Rf2TransactionContext tx = new Rf2TransactionContext(openTransaction(context, author), loadOnDemand, importConfig);
+						try {
+							tx.add(batch.components, batch.dependencies);
+						} catch (RuntimeException e) {
+							tx.close();
+							throw e;
+						}
+						return new StagedBatch(batch, tx);
+					}));
+					nextBatch++;
+				}
+				
+				final StagedBatch staged;
+				try {
+					staged = stagedBatches.poll().get();
+				} catch (ExecutionException e) {
+					Throwables.throwIfUnchecked(e.getCause());
+					throw e;
+				}
+				
+				try (Rf2TransactionContext tx = staged.tx) {
+					collectBatchResults(staged.batch, integerTypeIdsByValueId, visitedComponents);
+					tx.commit(commitMessage);
+				}
+				progress.committed(batchIndex);
+			}
+		} finally {
+			executor.shutdownNow();
+			// release the transactions of batches that were staged, but will not be committed due to a failure
+			for (ListenableFuture<StagedBatch> stagedBatch : stagedBatches) {
+				if (!stagedBatch.cancel(true)) {
+					try {
+						stagedBatch.get().tx.close();
+					} catch (ExecutionException e) {
+						// staging failed, the transaction has already been closed
+					} catch (Exception e) {
+						context.log().warn("Failed to close transaction of a staged RF2 import batch", e);
+					}
+				}
+			}
+		}
+	}
+	
+	/*
+	 * Computes the index of the last batch that needs to be committed before each batch of the import plan can be staged, -1 if a batch does not
+	 * depend on any earlier batch of this slice.
+	 */
+	private int[] getRequiredCommits(final List<LongSet> importPlan) {
+		final LongKeyIntMap batchByComponent = PrimitiveMaps.newLongKeyIntOpenHashMap();
+		for (int batchIndex = 0; batchIndex < importPlan.size(); batchIndex++) {
+			for (final LongIterator it = importPlan.get(batchIndex).iterator(); it.hasNext(); /* empty */) {
+				batchByComponent.put(it.next(), batchIndex);
+			}
+		}
+		
+		final LongKeyIntMap lastReferencingBatchByComponent = PrimitiveMaps.newLongKeyIntOpenHashMap();
+		final int[] requiredCommits = new int[importPlan.size()];
+		for (int batchIndex = 0; batchIndex < importPlan.size(); batchIndex++) {
+			int requiredCommit = -1;
+			for (final LongIterator it = importPlan.get(batchIndex).iterator(); it.hasNext(); /* empty */) {
+				final long componentId = it.next();
+				// an earlier batch references a component of this batch
+				if (lastReferencingBatchByComponent.containsKey(componentId)) {
+					requiredCommit = Math.max(requiredCommit, lastReferencingBatchByComponent.get(componentId));
+				}
+				
+				// members register their dependencies (including the reference set) with their referenced component
+				final LongSet dependencies = dependenciesByComponent.get(componentId);
+				if (dependencies == null) {
+					continue;
+				}
+				
+				for (final LongIterator dependencyIt = dependencies.iterator(); dependencyIt.hasNext(); /* empty */) {
+					final long dependencyId = dependencyIt.next();
+					if (!batchByComponent.containsKey(dependencyId)) {
+						continue;
+					}
+					
+					final int dependencyBatch = batchByComponent.get(dependencyId);
+					if (dependencyBatch < batchIndex) {
+						requiredCommit = Math.max(requiredCommit, dependencyBatch);
+					} else if (dependencyBatch > batchIndex) {
+						lastReferencingBatchByComponent.put(dependencyId, batchIndex);
+					}
+				}
+			}
+			requiredCommits[batchIndex] = requiredCommit;
+		}
+		
+		return requiredCommits;
+	}
+	
+	private PreparedBatch prepareBatch(final ResourceURI codeSystemUri, final LongSet componentsToImportInBatch) {
+		final PreparedBatch batch = new PreparedBatch(componentsToImportInBatch.size());
+		final LongIterator it = componentsToImportInBatch.iterator();
+		while (it.hasNext()) {
+			long componentToImportL = it.next();
+			String componentToImport = Long.toString(componentToImportL);
+			final SnomedComponent component = getComponent(componentToImport);
+			if (component != null) {
+				batch.components.add(component);
+				
+				// Record value types across the entire effective time slice
+				if (component instanceof SnomedRelationship) {
+					final SnomedRelationship relationship = (SnomedRelationship) component;
+					final RelationshipValue relationshipValue = relationship.getValueAsObject();
+					if (relationshipValue != null) {
+						if (RelationshipValueType.INTEGER.equals(relationshipValue.type())) {
+							batch.integerTypeIdsByValueId.put(componentToImportL, Long.parseLong(relationship.getTypeId()));
+						}
+					}
+				}
+				
+				// Register container concept as visited component 
+				final String conceptId = getConceptId(component); 
+				batch.visitedComponents.add(ComponentURI.of(codeSystemUri, SnomedConcept.TYPE, conceptId));
+			}
+			// add all members of this component to this batch as well
+			final Set<String> containerComponents = membersByReferencedComponent.get(componentToImportL);
+			if (containerComponents != null) {
+				for (String containedComponentId : containerComponents) {
+					SnomedReferenceSetMember containedComponent = getComponent(containedComponentId);
+					if (containedComponent != null) {
+						batch.components.add(containedComponent);
+						
+						// Register reference set as visited component
+						final String refSetId = containedComponent.getRefsetId();
+						batch.visitedComponents.add(ComponentURI.of(codeSystemUri, SnomedConcept.REFSET_TYPE, refSetId));
+					}
+				}
+			}
+		}
+		
+		batch.dependencies = getDependencies(batch.components);
+		return batch;
+	}
+	
+	private void importBatch(
+			final Rf2TransactionContext tx, 
+			final PreparedBatch batch, 
+			final String commitMessage, 
+			final LongKeyLongMap integerTypeIdsByValueId, 
+			final ImmutableSet.Builder<ComponentURI> visitedComponents) {
+		
+		collectBatchResults(batch, integerTypeIdsByValueId, visitedComponents);
+		tx.add(batch.components, batch.dependencies);
+		tx.commit(commitMessage);
+	}
+	
+	private void collectBatchResults(
+			final PreparedBatch batch, 
+			final LongKeyLongMap integerTypeIdsByValueId, 
+			final ImmutableSet.Builder<ComponentURI> visitedComponents) {
+		
+		for (final LongIterator itr = batch.integerTypeIdsByValueId.keySet().iterator(); itr.hasNext(); /* empty */) {
+			final long valueId = itr.next();
+			integerTypeIdsByValueId.put(valueId, batch.integerTypeIdsByValueId.get(valueId));
+		}
+		visitedComponents.addAll(batch.visitedComponents);
+	}
+
+	private TransactionContext openTransaction(final BranchContext context, final String author) {
+		// The default commit comment will not be used
+		return context.openTransaction(context, author, null, DatastoreLockContextDescriptions.IMPORT);
+	}
+
+	private LongSet collectAttributesWithRangeConstraint(final BranchContext context, final String rangeConstraint) {
+		final LongSet typeIds = PrimitiveSets.newLongOpenHashSet();
+		
+		SnomedRequests.prepareSearchMember()
+			.filterByActive(true)
+			.filterByRefSet("<" + Concepts.REFSET_MRCM_ATTRIBUTE_RANGE_ROOT) // all MRCM range reference sets
+			.filterByProps(Options.builder()
+				.put(SnomedRf2Headers.FIELD_MRCM_RANGE_CONSTRAINT, rangeConstraint)
+				.build())
+			.setLimit(1000)
+			.setFields(
+				// ID and referenced component type is required by the reference set member converter 
+				SnomedRefSetMemberIndexEntry.Fields.ID, 
+				SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID,
+				SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_TYPE)
+			.build()
+			.execute(context)
+			.stream()
+			.mapToLong(m -> Long.parseLong(m.getReferencedComponentId()))
+			.forEachOrdered(typeIds::add);
+		
+		return typeIds;
+	}
+
+	private LongSet collectValueTypeChanges(final LongKeyLongMap typeIdsByValueId, final LongSet oppositeTypeIds) {
+		if (typeIdsByValueId.isEmpty() || oppositeTypeIds.isEmpty()) {
+			return LongCollections.emptySet();
+		}
+		
+		final LongSet valueIds = typeIdsByValueId.keySet();
+		final LongSet needsValueTypeChange = PrimitiveSets.newLongOpenHashSet();
+		
+		for (final LongIterator itr = valueIds.iterator(); itr.hasNext(); /* empty */) {
+			final long valueId = itr.next();
+			final long typeId = typeIdsByValueId.get(valueId);
+			
+			if (oppositeTypeIds.contains(typeId)) {
+				// The relationship's value should have the "opposite" numeric type
+				needsValueTypeChange.add(valueId);
+			}
+		}
+		
+		return needsValueTypeChange;
+	}
+
+	private void swapValueType(final BranchContext context, final String author, final LongSet idsToUpdate) throws Exception {
+		if (idsToUpdate.isEmpty()) {
+			return;
+		}
+		
+		final Set<String> idsAsString = LongSets.toStringSet(idsToUpdate);
+		idsToUpdate.clear();
+		
+		try (final TransactionContext tx = openTransaction(context, author)) {
+			for (final List<String> batch : Iterables.partition(idsAsString, BATCH_SIZE)) {
+				final Map<String, SnomedRelationshipIndexEntry> entriesById = tx.lookup(batch, SnomedRelationshipIndexEntry.class);
+
+				for (final SnomedRelationshipIndexEntry existingEntry : entriesById.values()) {
+					final RelationshipValue oldValue = existingEntry.getValueAsObject();
+					final BigDecimal numericValue = oldValue.map(
+						i -> new BigDecimal(i),
+						d -> null,
+						s -> null);
+							
+					if (numericValue != null) {
+						final RelationshipValue newValue = RelationshipValue.fromTypeAndObjects(RelationshipValueType.DECIMAL, numericValue, null);
+						final SnomedRelationshipIndexEntry updatedEntry = SnomedRelationshipIndexEntry.builder(existingEntry)
+							.value(newValue)
+							.build();
+
+						tx.update(existingEntry, updatedEntry);
+					} else {
+						context.log().warn("Non-integer value found on relationship {}, can not convert value type", existingEntry.getId());
+					}
+				}
+			}
+		
+			tx.commit("Update value types using MRCM range constraints");
+		}
+	}
+
+	private String getConceptId(SnomedComponent component) {
+		if (component instanceof SnomedConcept) {
+			return component.getId();
+		} else if (component instanceof SnomedDescription) {
+			return ((SnomedDescription) component).getConceptId();
+		} else if (component instanceof SnomedRelationship) {
+			return ((SnomedRelationship) component).getSourceId();
+		}
+		
+		return null;
+	}
+	
+	private Multimap<Class<? extends SnomedDocument>, String> getDependencies(Collection<SnomedComponent> componentsToImport) {
+		final Multimap<Class<? extends SnomedDocument>, String> dependenciesByComponent = HashMultimap.create();
+		for (SnomedComponent component : componentsToImport) {
+			final long sourceId;
+			if (component instanceof SnomedCoreComponent) {
+				sourceId = Long.parseLong(component.getId());
+			} else if (component instanceof SnomedReferenceSetMember) {
+				sourceId = Long.parseLong(((SnomedReferenceSetMember) component).getReferencedComponent().getId());
+			} else {
+				throw new UnsupportedOperationException("Unsupported component type " + component);
+			}
+			LongSet dependencies = this.dependenciesByComponent.get(sourceId);
+			if (dependencies != null) {
+				Set<String> requiredDependencies = LongSets.toStringSet(dependencies);
+				for (String requiredDependency : requiredDependencies) {
+					dependenciesByComponent.put(getIndexDocument(requiredDependency), requiredDependency);
+				}
+			}
+		}
+		return dependenciesByComponent;
+	}
+
+	private Class<? extends SnomedDocument> getIndexDocument(String componentId) {
+		ComponentCategory type = SnomedIdentifiers.getComponentCategory(componentId);
+		switch (type) {
+		case CONCEPT: return SnomedConceptDocument.class;
+		case DESCRIPTION: return SnomedDescriptionIndexEntry.class;
+		case RELATIONSHIP: return SnomedRelationshipIndexEntry.class;
+		default: throw new UnsupportedOperationException(String.format("Cannot determine document type from component ID and type: [%s,%s]", componentId, type));
+		}
+	}
+
+	/*
+	 * Tracks the number of batches committed by the caller thread, workers staging a batch wait for the commits their batch depends on
+	 */
+	private static final class CommitProgress {
+		
+		private int committedBatches;
+		
+		private synchronized void awaitCommitted(int batchIndex) throws InterruptedException {
+			while (committedBatches <= batchIndex) {
+				wait();
+			}
+		}
+		
+		private synchronized void committed(int batchIndex) {
+			committedBatches = batchIndex + 1;
+			notifyAll();
+		}
+		
+	}
+	
+	/*
+	 * A prepared batch along with the transaction its components have been staged in
+	 */
+	private static final class StagedBatch {
+		
+		private final PreparedBatch batch;
+		private final Rf2TransactionContext tx;
+		
+		private StagedBatch(PreparedBatch batch, Rf2TransactionContext tx) {
+			this.batch = batch;
+			this.tx = tx;
+		}
+		
+	}
+	
+	/*
+	 * Resolved RF2 rows of a single import plan batch along with the information collected from them
+	 */
+	private static final class PreparedBatch {
+		
+		private final Collection<SnomedComponent> components;
+		private final LongKeyLongMap integerTypeIdsByValueId = PrimitiveMaps.newLongKeyLongOpenHashMap();
+		private final Set<ComponentURI> visitedComponents = newHashSet();
+		private Multimap<Class<? extends SnomedDocument>, String> dependencies;
+		
+		private PreparedBatch(int expectedSize) {
+			this.components = newArrayListWithExpectedSize(expectedSize);
+		}
+		
+	}
+}
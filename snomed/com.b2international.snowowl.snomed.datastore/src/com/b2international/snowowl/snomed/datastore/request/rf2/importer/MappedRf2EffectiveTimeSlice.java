@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
+import com.google.common.collect.Iterators;
+
+/**
+ * RF2 effective time slice that keeps its rows in a typed, memory-mapped columnar file (see {@link Rf2ColumnarRowStore}) instead of a MapDB hash
+ * map. Rows are not serialized as string arrays and do not need to be deserialized via a generic object serializer when the import batches are
+ * prepared, which considerably reduces garbage and CPU time for large (snapshot) imports.
+ *
+ * @since 9.5
+ */
+final class MappedRf2EffectiveTimeSlice extends ImportableRf2EffectiveTimeSlice {
+
+	private final Rf2ColumnarRowStore rows;
+	private final Map<String, String[]> content = new ContentView();
+
+	public MappedRf2EffectiveTimeSlice(String effectiveTime, boolean loadOnDemand, int batchSize, int preparationParallelism) {
+		super(effectiveTime, loadOnDemand, batchSize, preparationParallelism);
+		try {
+			this.rows = new Rf2ColumnarRowStore(effectiveTime);
+		} catch (IOException e) {
+			throw new SnowowlRuntimeException("Couldn't create temporary row store for effective time " + effectiveTime, e);
+		}
+	}
+
+	@Override
+	public Map<String, String[]> getContent() {
+		return content;
+	}
+
+	@Override
+	protected <T extends SnomedComponent> T getComponent(String componentId) {
+		return rows.getComponent(componentId);
+	}
+
+	@Override
+	protected void store(String componentId, Rf2ContentType<?> type, String[] values) {
+		try {
+			rows.put(componentId, type, values);
+		} catch (IOException e) {
+			throw new SnowowlRuntimeException(e);
+		}
+	}
+
+	@Override
+	public void flush() {
+		// rows are written directly into the mapped file
+	}
+
+	@Override
+	public void close() throws IOException {
+		rows.close();
+	}
+
+	/*
+	 * Read-only view of the stored rows, values are prefixed with the content type name, just like in case of the MapDB based slice
+	 */
+	private final class ContentView extends AbstractMap<String, String[]> {
+
+		@Override
+		public String[] get(Object key) {
+			return key instanceof String ? rows.getValuesWithType((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && rows.contains((String) key);
+		}
+
+		@Override
+		public int size() {
+			return rows.size();
+		}
+
+		@Override
+		public Set<String> keySet() {
+			return new AbstractSet<String>() {
+				@Override
+				public Iterator<String> iterator() {
+					return rows.ids();
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					return containsKey(o);
+				}
+
+				@Override
+				public int size() {
+					return rows.size();
+				}
+			};
+		}
+
+		@Override
+		public Set<Entry<String, String[]>> entrySet() {
+			return new AbstractSet<Entry<String, String[]>>() {
+				@Override
+				public Iterator<Entry<String, String[]>> iterator() {
+					return Iterators.transform(rows.ids(), id -> new SimpleImmutableEntry<>(id, rows.getValuesWithType(id)));
+				}
+
+				@Override
+				public int size() {
+					return rows.size();
+				}
+			};
+		}
+
+	}
+
+}
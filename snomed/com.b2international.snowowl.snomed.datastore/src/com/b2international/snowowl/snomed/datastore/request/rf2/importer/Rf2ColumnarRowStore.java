@@ -0,0 +1,382 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
+
+import static com.b2international.snowowl.snomed.common.SnomedRf2Headers.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyLongMap;
+import com.b2international.collections.longs.LongValueMap;
+import com.b2international.collections.objects.IntValueMap;
+import com.b2international.snowowl.snomed.core.domain.SnomedComponent;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+
+/**
+ * Append-only storage of RF2 rows in a memory-mapped temporary file. Each row is stored as the ordinal of its {@link Rf2ContentType} followed by
+ * its columns, where
+ * <ul>
+ * <li>numeric values (SCTIDs, effective times, groups) are stored as primitive longs,</li>
+ * <li>member UUIDs are stored as two primitive longs,</li>
+ * <li>low cardinality columns (module, type, reference set IDs, etc.) are dictionary-encoded,</li>
+ * <li>everything else (terms, expressions, map targets) is stored as UTF-8 bytes.</li>
+ * </ul>
+ * Rows are located via primitive ID to file offset indexes, the row content itself is not kept on the heap. Rows can be added by a single thread,
+ * reading rows is safe from multiple threads once all rows have been added.
+ *
+ * @since 9.5
+ */
+final class Rf2ColumnarRowStore implements AutoCloseable {
+
+	private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+	// value encodings
+	private static final byte EMPTY = 0;
+	private static final byte LONG = 1;
+	private static final byte DICTIONARY = 2;
+	private static final byte UUID_PAIR = 3;
+	private static final byte STRING = 4;
+
+	private static final Set<String> DICTIONARY_COLUMNS = ImmutableSet.of(
+		FIELD_ACTIVE,
+		FIELD_MODULE_ID,
+		FIELD_DEFINITION_STATUS_ID,
+		FIELD_LANGUAGE_CODE,
+		FIELD_TYPE_ID,
+		FIELD_CASE_SIGNIFICANCE_ID,
+		FIELD_CHARACTERISTIC_TYPE_ID,
+		FIELD_MODIFIER_ID,
+		FIELD_REFSET_ID,
+		FIELD_ACCEPTABILITY_ID,
+		FIELD_VALUE_ID,
+		FIELD_DESCRIPTION_FORMAT,
+		FIELD_CORRELATION_ID,
+		FIELD_MAP_CATEGORY_ID,
+		FIELD_MRCM_RULE_STRENGTH_ID,
+		FIELD_MRCM_CONTENT_TYPE_ID,
+		FIELD_MRCM_RULE_REFSET_ID
+	);
+
+	private static final List<Rf2ContentType<?>> CONTENT_TYPES = Rf2Format.getContentTypes();
+	private static final Map<String, Integer> CONTENT_TYPE_ORDINALS;
+	private static final boolean[][] DICTIONARY_COLUMNS_BY_CONTENT_TYPE;
+
+	static {
+		final ImmutableMap.Builder<String, Integer> ordinals = ImmutableMap.builder();
+		DICTIONARY_COLUMNS_BY_CONTENT_TYPE = new boolean[CONTENT_TYPES.size()][];
+		for (int i = 0; i < CONTENT_TYPES.size(); i++) {
+			final Rf2ContentType<?> contentType = CONTENT_TYPES.get(i);
+			final String[] headerColumns = contentType.getHeaderColumns();
+			final boolean[] dictionaryColumns = new boolean[headerColumns.length];
+			for (int c = 0; c < headerColumns.length; c++) {
+				dictionaryColumns[c] = DICTIONARY_COLUMNS.contains(headerColumns[c]);
+			}
+			ordinals.put(contentType.getType(), i);
+			DICTIONARY_COLUMNS_BY_CONTENT_TYPE[i] = dictionaryColumns;
+		}
+		CONTENT_TYPE_ORDINALS = ordinals.build();
+	}
+
+	private final FileChannel channel;
+	private final List<MappedByteBuffer> chunks = new ArrayList<>();
+
+	// offset 0 is never used, so that the default value (0) of the primitive indexes can represent missing rows
+	private long writeOffset = 1L;
+	private ByteBuffer rowBuffer = ByteBuffer.allocate(8 * 1024);
+
+	private final LongKeyLongMap offsetsBySctId = PrimitiveMaps.newLongKeyLongOpenHashMap();
+	private final LongValueMap<UUID> offsetsByUuid = PrimitiveMaps.newObjectKeyLongOpenHashMap();
+	private final LongValueMap<String> offsetsByOtherId = PrimitiveMaps.newObjectKeyLongOpenHashMap();
+
+	private final IntValueMap<String> dictionaryCodes = PrimitiveMaps.newObjectKeyIntOpenHashMap();
+	private final List<String> dictionaryValues = new ArrayList<>();
+
+	Rf2ColumnarRowStore(String name) throws IOException {
+		final Path file = Files.createTempFile("rf2-" + name + "-", ".rows");
+		this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+	}
+
+	/**
+	 * Adds a row to the store. A row added with an already existing component ID replaces the previous row.
+	 *
+	 * @param componentId
+	 * @param type
+	 * @param values
+	 * @throws IOException
+	 */
+	void put(String componentId, Rf2ContentType<?> type, String[] values) throws IOException {
+		final Integer typeOrdinal = CONTENT_TYPE_ORDINALS.get(type.getType());
+		checkArgument(typeOrdinal != null, "Unrecognized RF2 content type: %s", type.getType());
+		final boolean[] dictionaryColumns = DICTIONARY_COLUMNS_BY_CONTENT_TYPE[typeOrdinal];
+
+		rowBuffer.clear();
+		ensureCapacity(3);
+		rowBuffer.put(typeOrdinal.byteValue());
+		rowBuffer.putShort((short) values.length);
+		for (int c = 0; c < values.length; c++) {
+			encode(values[c], c < dictionaryColumns.length && dictionaryColumns[c], c == 0);
+		}
+		rowBuffer.flip();
+
+		final long offset = append(rowBuffer);
+		if (isCanonicalLong(componentId)) {
+			offsetsBySctId.put(Long.parseLong(componentId), offset);
+		} else if (isCanonicalUuid(componentId)) {
+			offsetsByUuid.put(UUID.fromString(componentId), offset);
+		} else {
+			offsetsByOtherId.put(componentId, offset);
+		}
+	}
+
+	/**
+	 * @param componentId
+	 * @return the resolved component of the row registered with the given ID or <code>null</code> if there is no such row
+	 */
+	@SuppressWarnings("unchecked")
+	<T extends SnomedComponent> T getComponent(String componentId) {
+		final long offset = getOffset(componentId);
+		if (offset == 0L) {
+			return null;
+		}
+		return (T) CONTENT_TYPES.get(readContentTypeOrdinal(offset)).resolve(readValues(offset, false));
+	}
+
+	/**
+	 * @param componentId
+	 * @return the column values of the row registered with the given ID, prefixed with the content type name or <code>null</code> if there is no
+	 *         such row
+	 */
+	String[] getValuesWithType(String componentId) {
+		final long offset = getOffset(componentId);
+		return offset == 0L ? null : readValues(offset, true);
+	}
+
+	boolean contains(String componentId) {
+		return getOffset(componentId) != 0L;
+	}
+
+	int size() {
+		return offsetsBySctId.size() + offsetsByUuid.size() + offsetsByOtherId.size();
+	}
+
+	/**
+	 * @return the IDs of all stored rows, in no particular order
+	 */
+	Iterator<String> ids() {
+		final LongIterator sctIds = offsetsBySctId.keySet().iterator();
+		final Iterator<String> sctIdStrings = new Iterator<String>() {
+			@Override
+			public boolean hasNext() {
+				return sctIds.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return Long.toString(sctIds.next());
+			}
+		};
+		return Iterators.concat(
+			sctIdStrings,
+			Iterators.transform(offsetsByUuid.keySet().iterator(), UUID::toString),
+			offsetsByOtherId.keySet().iterator()
+		);
+	}
+
+	@Override
+	public void close() throws IOException {
+		chunks.clear();
+		channel.close();
+	}
+
+	private long getOffset(String componentId) {
+		if (isCanonicalLong(componentId)) {
+			return offsetsBySctId.get(Long.parseLong(componentId));
+		} else if (isCanonicalUuid(componentId)) {
+			return offsetsByUuid.get(UUID.fromString(componentId));
+		} else {
+			return offsetsByOtherId.get(componentId);
+		}
+	}
+
+	private void encode(String value, boolean dictionary, boolean idColumn) {
+		if (value == null || value.isEmpty()) {
+			ensureCapacity(1);
+			rowBuffer.put(EMPTY);
+		} else if (dictionary) {
+			ensureCapacity(5);
+			rowBuffer.put(DICTIONARY);
+			rowBuffer.putInt(getDictionaryCode(value));
+		} else if (isCanonicalLong(value)) {
+			ensureCapacity(9);
+			rowBuffer.put(LONG);
+			rowBuffer.putLong(Long.parseLong(value));
+		} else if (idColumn && isCanonicalUuid(value)) {
+			final UUID uuid = UUID.fromString(value);
+			ensureCapacity(17);
+			rowBuffer.put(UUID_PAIR);
+			rowBuffer.putLong(uuid.getMostSignificantBits());
+			rowBuffer.putLong(uuid.getLeastSignificantBits());
+		} else {
+			final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			ensureCapacity(5 + bytes.length);
+			rowBuffer.put(STRING);
+			rowBuffer.putInt(bytes.length);
+			rowBuffer.put(bytes);
+		}
+	}
+
+	private int getDictionaryCode(String value) {
+		if (dictionaryCodes.containsKey(value)) {
+			return dictionaryCodes.get(value);
+		}
+		final int code = dictionaryValues.size();
+		dictionaryValues.add(value);
+		dictionaryCodes.put(value, code);
+		return code;
+	}
+
+	private void ensureCapacity(int length) {
+		if (rowBuffer.remaining() < length) {
+			final ByteBuffer newRowBuffer = ByteBuffer.allocate(Math.max(rowBuffer.capacity() * 2, rowBuffer.position() + length));
+			rowBuffer.flip();
+			newRowBuffer.put(rowBuffer);
+			rowBuffer = newRowBuffer;
+		}
+	}
+
+	private long append(ByteBuffer row) throws IOException {
+		final int length = row.remaining();
+		checkArgument(length <= CHUNK_SIZE, "RF2 row is too large to store: %s bytes", length);
+
+		// rows never span multiple chunks, start a new chunk if the row does not fit into the current one
+		int chunkIndex = (int) (writeOffset / CHUNK_SIZE);
+		int position = (int) (writeOffset % CHUNK_SIZE);
+		if (position + length > CHUNK_SIZE) {
+			chunkIndex++;
+			position = 0;
+			writeOffset = (long) chunkIndex * CHUNK_SIZE;
+		}
+
+		while (chunks.size() <= chunkIndex) {
+			chunks.add(channel.map(MapMode.READ_WRITE, (long) chunks.size() * CHUNK_SIZE, CHUNK_SIZE));
+		}
+
+		chunks.get(chunkIndex).put(position, row, row.position(), length);
+
+		final long offset = writeOffset;
+		writeOffset += length;
+		return offset;
+	}
+
+	private int readContentTypeOrdinal(long offset) {
+		return chunks.get((int) (offset / CHUNK_SIZE)).get((int) (offset % CHUNK_SIZE));
+	}
+
+	/*
+	 * Reads the column values of a row using absolute get methods only, so concurrent readers do not interfere with each other
+	 */
+	private String[] readValues(long offset, boolean withType) {
+		final MappedByteBuffer chunk = chunks.get((int) (offset / CHUNK_SIZE));
+		int position = (int) (offset % CHUNK_SIZE);
+
+		final int typeOrdinal = chunk.get(position);
+		final int numberOfColumns = chunk.getShort(position + 1);
+		position += 3;
+
+		final int firstColumn = withType ? 1 : 0;
+		final String[] values = new String[numberOfColumns + firstColumn];
+		if (withType) {
+			values[0] = CONTENT_TYPES.get(typeOrdinal).getType();
+		}
+
+		for (int c = firstColumn; c < values.length; c++) {
+			final byte encoding = chunk.get(position++);
+			switch (encoding) {
+			case EMPTY:
+				values[c] = "";
+				break;
+			case LONG:
+				values[c] = Long.toString(chunk.getLong(position));
+				position += 8;
+				break;
+			case DICTIONARY:
+				values[c] = dictionaryValues.get(chunk.getInt(position));
+				position += 4;
+				break;
+			case UUID_PAIR:
+				values[c] = new UUID(chunk.getLong(position), chunk.getLong(position + 8)).toString();
+				position += 16;
+				break;
+			case STRING:
+				final int length = chunk.getInt(position);
+				final byte[] bytes = new byte[length];
+				chunk.get(position + 4, bytes);
+				values[c] = new String(bytes, StandardCharsets.UTF_8);
+				position += 4 + length;
+				break;
+			default:
+				throw new IllegalStateException("Unexpected value encoding at offset " + offset + ": " + encoding);
+			}
+		}
+
+		return values;
+	}
+
+	/*
+	 * Returns true if the value can be stored as a long and converted back to the exact same string representation
+	 */
+	private static boolean isCanonicalLong(String value) {
+		final int length = value.length();
+		if (length == 0 || length > 18 || (length > 1 && value.charAt(0) == '0')) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isCanonicalUuid(String value) {
+		if (value.length() != 36 || value.charAt(8) != '-' || value.charAt(13) != '-' || value.charAt(18) != '-' || value.charAt(23) != '-') {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c != '-' && (c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,7 +30,7 @@ import com.google.common.collect.ImmutableSet.Builder;
 /**
  * @since 8.0
  */
-public interface Rf2EffectiveTimeSlice {
+public interface Rf2EffectiveTimeSlice extends AutoCloseable {
 
 	String SNAPSHOT_SLICE = "snapshot";
 	
@@ -53,4 +54,14 @@ public interface Rf2EffectiveTimeSlice {
 
 	void doImport(BranchContext context, ResourceURI codeSystemUri, Rf2ImportConfiguration importConfig, Builder<ComponentURI> visitedComponents) throws Exception;
 	
+	/**
+	 * Releases temporary resources held by this slice (if any).
+	 * 
+	 * @throws IOException
+	 * @since 9.5
+	 */
+	@Override
+	default void close() throws IOException {
+	}
+	
 }
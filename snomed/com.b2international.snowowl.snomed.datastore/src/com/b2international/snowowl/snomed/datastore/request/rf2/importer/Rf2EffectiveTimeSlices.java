@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package com.b2international.snowowl.snomed.datastore.request.rf2.importer;
 
 import static com.google.common.collect.Maps.newHashMap;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -31,7 +32,7 @@ import com.google.common.collect.Ordering;
 /**
  * @since 6.0.0
  */
-public final class Rf2EffectiveTimeSlices {
+public final class Rf2EffectiveTimeSlices implements AutoCloseable {
 
 	private static final Ordering<Rf2EffectiveTimeSlice> UNSET_EFFECTIVE_TIME_LAST = Ordering.<String>from((effectiveTime1, effectiveTime2) -> {
 		if (EffectiveTimes.UNSET_EFFECTIVE_TIME_LABEL.equals(effectiveTime1)) {
@@ -49,13 +50,17 @@ public final class Rf2EffectiveTimeSlices {
 	private final String latestVersionEffectiveTime;
 	private final String importUntil;
 	private final int batchSize;
+	private final int preparationParallelism;
+	private final boolean columnarStaging;
 
-	public Rf2EffectiveTimeSlices(DB db, boolean loadOnDemand, String latestVersionEffectiveTime, String importUntil, int batchSize) {
+	public Rf2EffectiveTimeSlices(DB db, boolean loadOnDemand, String latestVersionEffectiveTime, String importUntil, int batchSize, int preparationParallelism, boolean columnarStaging) {
 		this.db = db;
 		this.loadOnDemand = loadOnDemand;
 		this.latestVersionEffectiveTime = latestVersionEffectiveTime;
 		this.importUntil = importUntil;
 		this.batchSize = batchSize;
+		this.preparationParallelism = preparationParallelism;
+		this.columnarStaging = columnarStaging;
 	}
 	
 	public Rf2EffectiveTimeSlice getOrCreate(String effectiveTime) {
@@ -63,7 +68,7 @@ public final class Rf2EffectiveTimeSlices {
 			// if the incoming effectiveTime value is greater than or equal to the current release, then allow reading
 			if (effectiveTime.compareTo(latestVersionEffectiveTime) > 0) {
 				if ((Strings.isNullOrEmpty(importUntil) || effectiveTime.compareTo(importUntil) <= 0)) {
-					slices.put(effectiveTime, new MapDBRf2EffectiveTimeSlice(effectiveTime, db, loadOnDemand, batchSize));
+					slices.put(effectiveTime, createSlice(effectiveTime));
 				} else {
 					slices.put(effectiveTime, new IgnoredRf2EffectiveTimeSlice(effectiveTime, String.format("EffectiveTime '%s' is ignored by importUntil('%s') request parameter.", effectiveTime, importUntil)));
 				}
@@ -74,6 +79,14 @@ public final class Rf2EffectiveTimeSlices {
 		return slices.get(effectiveTime);
 	}
 	
+	private Rf2EffectiveTimeSlice createSlice(String effectiveTime) {
+		if (columnarStaging) {
+			return new MappedRf2EffectiveTimeSlice(effectiveTime, loadOnDemand, batchSize, preparationParallelism);
+		} else {
+			return new MapDBRf2EffectiveTimeSlice(effectiveTime, db, loadOnDemand, batchSize, preparationParallelism);
+		}
+	}
+	
 	public List<Rf2EffectiveTimeSlice> slices() {
 		return ImmutableList.copyOf(slices.values());
 	}
@@ -88,4 +101,24 @@ public final class Rf2EffectiveTimeSlices {
 			.sorted(UNSET_EFFECTIVE_TIME_LAST)
 			.collect(Collectors.toList());
 	}
-}
+
+	@Override
+	public void close() throws IOException {
+		IOException failure = null;
+		for (Rf2EffectiveTimeSlice slice : slices.values()) {
+			try {
+				slice.close();
+			} catch (IOException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		slices.clear();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
\ No newline at end of file
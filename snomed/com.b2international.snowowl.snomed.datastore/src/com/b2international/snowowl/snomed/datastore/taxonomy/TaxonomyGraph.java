@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2022 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2019-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.b2international.snowowl.snomed.datastore.taxonomy;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.isEmpty;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
@@ -26,8 +27,10 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
-import com.b2international.collections.longs.LongSet;
+import com.b2international.collections.longs.*;
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.collect.LongOrderedSetImpl;
 import com.b2international.commons.exceptions.CycleDetectedException;
@@ -44,6 +47,14 @@ public final class TaxonomyGraph {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(TaxonomyGraph.class);
 	
+	private static final int[] NO_NODES = new int[0];
+	
+	/**
+	 * Graphs derived with {@link #withChanges(LongKeyMap, LongSet)} are rebuilt from scratch when the number of nodes added or removed since the
+	 * last full build exceeds this limit (or one eighth of the nodes, whichever is larger).
+	 */
+	private static final int MIN_CHANGED_NODES_BEFORE_REBUILD = 10_000;
+	
 	/**
 	 * Matrix for storing ancestors by internal IDs.
 	 */
@@ -69,11 +80,54 @@ public final class TaxonomyGraph {
 	 */
 	private final Map<String, Edges> edges;
 	
+	/**
+	 * Parent IDs of nodes that are not part of the graph (by node ID), so the edges can be restored when the parent is added later.
+	 */
+	private LongKeyMap<long[]> missingParentIds;
+	
+	/*
+	 * Changes applied since the last full build, only set on graphs derived with withChanges. Nodes of the last full build keep their internal ID
+	 * (removed ones are tracked by ID), added nodes get internal IDs after the slots of the full build.
+	 */
+	private int baseSlots;
+	private LongKeyIntMap addedNodes;
+	private LongList addedNodeIds;
+	private LongSet removedNodes;
+	
+	/**
+	 * Set when the graph shares its state with a derived graph, neither of them can be modified afterwards.
+	 */
+	private boolean readOnly;
+	
 	public TaxonomyGraph(int numberOfExpectedNodes, int numberOfExpectedEdges) {
 		this.nodes = new LongOrderedSetImpl(numberOfExpectedNodes);
 		this.edges = Maps.newHashMapWithExpectedSize(numberOfExpectedEdges);
 	}
 	
+	/*
+	 * Creates a read-only graph that shares the nodes of the last full build and the ancestor and descendant arrays of the given graph
+	 */
+	private TaxonomyGraph(TaxonomyGraph source) {
+		this.nodes = source.nodes;
+		this.edges = null;
+		this.checkCycles = source.checkCycles;
+		this.readOnly = true;
+		this.ancestors = source.ancestors;
+		this.descendants = source.descendants;
+		this.missingParentIds = PrimitiveMaps.newLongKeyOpenHashMap(source.missingParentIds);
+		if (source.isDerived()) {
+			this.baseSlots = source.baseSlots;
+			this.addedNodes = PrimitiveMaps.newLongKeyIntOpenHashMap(source.addedNodes);
+			this.addedNodeIds = PrimitiveLists.newLongArrayList(source.addedNodeIds);
+			this.removedNodes = PrimitiveSets.newLongOpenHashSet(source.removedNodes);
+		} else {
+			this.baseSlots = source.ancestors.length;
+			this.addedNodes = PrimitiveMaps.newLongKeyIntOpenHashMap();
+			this.addedNodeIds = PrimitiveLists.newLongArrayList();
+			this.removedNodes = PrimitiveSets.newLongOpenHashSet();
+		}
+	}
+	
 	public void setCheckCycles(boolean checkCycles) {
 		this.checkCycles = checkCycles;
 	}
@@ -87,6 +141,7 @@ public final class TaxonomyGraph {
 	}
 	
 	public void clear() {
+		checkWritable();
 		descendants = null;
 		ancestors = null;
 		
@@ -100,7 +155,9 @@ public final class TaxonomyGraph {
 	}
 	
 	public TaxonomyGraphStatus update() {
+		checkWritable();
 		final List<InvalidRelationship> invalidRelationships = Lists.newArrayList();
+		missingParentIds = PrimitiveMaps.newLongKeyOpenHashMap();
 
 		// allocate data
 		final int conceptCount = nodes.size();
@@ -142,6 +199,9 @@ public final class TaxonomyGraph {
 				if (destinationConceptInternalId < 0) {
 					invalidRelationships.add(new InvalidRelationship(sourceId, destinationId, MissingConcept.DESTINATION));
 					edgeSkipped |= true;
+					if (sourceConceptInternalId >= 0) {
+						addMissingParentId(sourceId, destinationId);
+					}
 				}
 				
 				if (!edgeSkipped) {
@@ -191,10 +251,11 @@ public final class TaxonomyGraph {
 	}
 
 	public boolean containsNode(final long nodeId) {
-		return nodes.contains(nodeId);
+		return indexOfNode(nodeId) >= 0;
 	}
 	
 	public void addEdge(final String edgeId, final long sourceId, final long[] destinationIds) {
+		checkWritable();
 		edges.put(edgeId, new Edges(sourceId, destinationIds));
 		dirty = true;
 	}
@@ -204,10 +265,12 @@ public final class TaxonomyGraph {
 	}
 
 	public void addNode(final long conceptId) {
+		checkWritable();
 		nodes.add(conceptId);
 	}
 	
 	public void removeEdge(final String edgeId) {
+		checkWritable();
 		edges.remove(edgeId);
 		dirty = true;
 	}
@@ -217,6 +280,7 @@ public final class TaxonomyGraph {
 	}
 
 	private void removeNode(long nodeIdLong) {
+		checkWritable();
 		nodes.remove(nodeIdLong);
 		dirty = true;
 	}
@@ -259,6 +323,234 @@ public final class TaxonomyGraph {
 		return processElements(conceptId, superTypeMap);
 	}
 
+	/**
+	 * Returns a new graph with the given node changes applied, without modifying this graph. The two graphs share the nodes and the ancestor and
+	 * descendant arrays that are not affected by the change, only the arrays of the changed nodes, their old and new parents and the children of
+	 * removed nodes are replaced, so the cost of the update is proportional to the size of the change instead of the size of the graph. Neither
+	 * graph can be modified afterwards. A derived graph is rebuilt from scratch once the number of nodes added or removed since the last full build
+	 * gets too large.
+	 * <p>
+	 * Derived graphs do not track edges by ID, the edge related getters can not be used on them.
+	 * 
+	 * @param parentIdsByNodeId - the new and changed nodes along with all of their parent node IDs
+	 * @param removedNodeIds - the IDs of the nodes to remove
+	 * @return the updated graph
+	 * @since 9.5
+	 */
+	public TaxonomyGraph withChanges(final LongKeyMap<long[]> parentIdsByNodeId, final LongSet removedNodeIds) {
+		checkState();
+		readOnly = true;
+		final TaxonomyGraph graph = new TaxonomyGraph(this);
+		
+		int newSlots = 0;
+		for (final LongIterator it = parentIdsByNodeId.keySet().iterator(); it.hasNext(); /* empty */) {
+			final long nodeId = it.next();
+			// nodes of the last full build keep their slot, added nodes get a new one when they are removed and added again
+			if (!nodes.contains(nodeId) && (!graph.addedNodes.containsKey(nodeId) || removedNodeIds.contains(nodeId))) {
+				newSlots++;
+			}
+		}
+		// only the outer arrays are copied, rows are replaced (never modified in place) when the edges of a node change
+		graph.ancestors = Arrays.copyOf(ancestors, ancestors.length + newSlots);
+		graph.descendants = Arrays.copyOf(descendants, descendants.length + newSlots);
+		
+		for (final LongIterator it = removedNodeIds.iterator(); it.hasNext(); /* empty */) {
+			graph.detachNode(it.next());
+		}
+		
+		// register new nodes first, so edges between new nodes can be resolved
+		for (final LongIterator it = parentIdsByNodeId.keySet().iterator(); it.hasNext(); /* empty */) {
+			graph.attachNode(it.next());
+		}
+		for (final LongIterator it = parentIdsByNodeId.keySet().iterator(); it.hasNext(); /* empty */) {
+			final long nodeId = it.next();
+			graph.setParentIds(nodeId, parentIdsByNodeId.get(nodeId));
+		}
+		
+		final int changedNodes = graph.addedNodeIds.size() + graph.removedNodes.size();
+		if (changedNodes > Math.max(MIN_CHANGED_NODES_BEFORE_REBUILD, graph.baseSlots / 8)) {
+			return graph.rebuild();
+		}
+		return graph;
+	}
+	
+	private boolean isDerived() {
+		return addedNodes != null;
+	}
+	
+	private void detachNode(final long nodeId) {
+		final int internalId = indexOfNode(nodeId);
+		if (internalId < 0) {
+			return;
+		}
+		
+		for (final int parent : ancestors[internalId]) {
+			descendants[parent] = remove(descendants[parent], internalId);
+		}
+		for (final int child : descendants[internalId]) {
+			ancestors[child] = remove(ancestors[child], internalId);
+			// keep the edge, so it can be restored if the node is added again
+			addMissingParentId(getNodeId(child), nodeId);
+		}
+		ancestors[internalId] = NO_NODES;
+		descendants[internalId] = NO_NODES;
+		missingParentIds.remove(nodeId);
+		
+		if (internalId < baseSlots) {
+			removedNodes.add(nodeId);
+		} else {
+			addedNodes.remove(nodeId);
+		}
+	}
+	
+	private void attachNode(final long nodeId) {
+		if (indexOfNode(nodeId) >= 0) {
+			return;
+		}
+		
+		final int internalId;
+		if (nodes.contains(nodeId)) {
+			// a node of the last full build is added again
+			internalId = nodes.indexOf(nodeId);
+			removedNodes.remove(nodeId);
+		} else {
+			internalId = baseSlots + addedNodeIds.size();
+			addedNodeIds.add(nodeId);
+			addedNodes.put(nodeId, internalId);
+		}
+		ancestors[internalId] = NO_NODES;
+		descendants[internalId] = NO_NODES;
+		
+		// restore the edges of the children that referred to this node while it was missing
+		final LongList childIds = PrimitiveLists.newLongArrayList();
+		for (final LongIterator it = missingParentIds.keySet().iterator(); it.hasNext(); /* empty */) {
+			final long childId = it.next();
+			if (contains(missingParentIds.get(childId), nodeId)) {
+				childIds.add(childId);
+			}
+		}
+		for (final LongIterator it = childIds.iterator(); it.hasNext(); /* empty */) {
+			final long childId = it.next();
+			final long[] remainingParentIds = remove(missingParentIds.get(childId), nodeId);
+			if (remainingParentIds.length == 0) {
+				missingParentIds.remove(childId);
+			} else {
+				missingParentIds.put(childId, remainingParentIds);
+			}
+			final int child = indexOfNode(childId);
+			ancestors[child] = add(ancestors[child], internalId);
+			descendants[internalId] = add(descendants[internalId], child);
+		}
+	}
+	
+	private void setParentIds(final long nodeId, final long[] parentIds) {
+		final int internalId = indexOfNode(nodeId);
+		for (final int parent : ancestors[internalId]) {
+			descendants[parent] = remove(descendants[parent], internalId);
+		}
+		missingParentIds.remove(nodeId);
+		
+		final int[] parents = new int[parentIds.length];
+		int count = 0;
+		for (final long parentId : parentIds) {
+			final int parent = indexOfNode(parentId);
+			if (parent < 0) {
+				addMissingParentId(nodeId, parentId);
+			} else {
+				parents[count++] = parent;
+				descendants[parent] = add(descendants[parent], internalId);
+			}
+		}
+		ancestors[internalId] = count == parents.length ? parents : Arrays.copyOf(parents, count);
+	}
+	
+	/*
+	 * Builds a new graph from the live nodes and edges of this derived graph, releasing the slots of removed nodes
+	 */
+	private TaxonomyGraph rebuild() {
+		final TaxonomyGraph graph = new TaxonomyGraph(ancestors.length, ancestors.length);
+		graph.setCheckCycles(checkCycles);
+		for (int internalId = 0; internalId < ancestors.length; internalId++) {
+			if (!isLive(internalId)) {
+				continue;
+			}
+			final long nodeId = getNodeId(internalId);
+			final long[] missingParents = missingParentIds.containsKey(nodeId) ? missingParentIds.get(nodeId) : new long[0];
+			final long[] parentIds = Arrays.copyOf(missingParents, missingParents.length + ancestors[internalId].length);
+			for (int i = 0; i < ancestors[internalId].length; i++) {
+				parentIds[missingParents.length + i] = getNodeId(ancestors[internalId][i]);
+			}
+			
+			graph.addNode(nodeId);
+			if (parentIds.length > 0) {
+				graph.addEdge(Long.toString(nodeId), nodeId, parentIds);
+			}
+		}
+		graph.update();
+		return graph;
+	}
+	
+	private boolean isLive(final int internalId) {
+		if (internalId < baseSlots) {
+			return !removedNodes.contains(nodes.get(internalId));
+		} else if (internalId - baseSlots < addedNodeIds.size()) {
+			final long nodeId = addedNodeIds.get(internalId - baseSlots);
+			return addedNodes.containsKey(nodeId) && addedNodes.get(nodeId) == internalId;
+		} else {
+			return false;
+		}
+	}
+	
+	private int indexOfNode(final long nodeId) {
+		if (isDerived()) {
+			if (removedNodes.contains(nodeId)) {
+				return -1;
+			} else if (addedNodes.containsKey(nodeId)) {
+				return addedNodes.get(nodeId);
+			}
+		}
+		return nodes.indexOf(nodeId);
+	}
+	
+	private void addMissingParentId(final long nodeId, final long parentId) {
+		final long[] parentIds = missingParentIds.get(nodeId);
+		if (parentIds == null) {
+			missingParentIds.put(nodeId, new long[] { parentId });
+		} else if (!contains(parentIds, parentId)) {
+			final long[] newParentIds = Arrays.copyOf(parentIds, parentIds.length + 1);
+			newParentIds[parentIds.length] = parentId;
+			missingParentIds.put(nodeId, newParentIds);
+		}
+	}
+	
+	private static boolean contains(final long[] values, final long value) {
+		for (final long candidate : values) {
+			if (candidate == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static long[] remove(final long[] values, final long value) {
+		return Arrays.stream(values).filter(candidate -> candidate != value).toArray();
+	}
+	
+	private static int[] remove(final int[] values, final int value) {
+		return Arrays.stream(values).filter(candidate -> candidate != value).toArray();
+	}
+	
+	private static int[] add(final int[] values, final int value) {
+		for (final int candidate : values) {
+			if (candidate == value) {
+				return values;
+			}
+		}
+		final int[] newValues = Arrays.copyOf(values, values.length + 1);
+		newValues[values.length] = value;
+		return newValues;
+	}
+
 	public long getSourceNodeId(final String edgeId) {
 		return getEdge(edgeId).sourceId;
 	}
@@ -268,10 +560,12 @@ public final class TaxonomyGraph {
 	}
 	
 	public Set<String> getEdgeIds() {
+		checkEdges();
 		return edges.keySet();
 	}
 	
 	Edges getEdge(String edgeId) {
+		checkEdges();
 		return edges.get(edgeId);
 	}
 
@@ -283,6 +577,9 @@ public final class TaxonomyGraph {
 	 */
 	private long getNodeId(final int internalNodeId) {
 		checkState();
+		if (isDerived() && internalNodeId >= baseSlots) {
+			return addedNodeIds.get(internalNodeId - baseSlots);
+		}
 		return nodes.get(internalNodeId);
 	}
 	
@@ -340,7 +637,7 @@ public final class TaxonomyGraph {
 	
 	private int getInternalId(final long nodeId) {
 		checkState();
-		final int $ = nodes.indexOf(nodeId);
+		final int $ = indexOfNode(nodeId);
 		if ($ < 0) {
 			final String msg = String.format("Concept does not exist with ID: %s", nodeId);
 			LOGGER.error(msg);
@@ -376,7 +673,8 @@ public final class TaxonomyGraph {
 	}
 
 	private int getConceptCount() {
-		return nodes.size();
+		// number of internal IDs, derived graphs might contain slots of removed nodes
+		return ancestors.length;
 	}
 
 	private void checkState() {
@@ -384,5 +682,17 @@ public final class TaxonomyGraph {
 			throw new IllegalStateException("Taxonomy builder for SNOMED CT ontology is in dirty state.");
 		}
 	}
+	
+	private void checkWritable() {
+		if (readOnly) {
+			throw new IllegalStateException("Taxonomy graph shares its state with a derived graph and can not be modified.");
+		}
+	}
+	
+	private void checkEdges() {
+		if (edges == null) {
+			throw new IllegalStateException("Edges are not tracked by derived taxonomy graphs.");
+		}
+	}
 
 }
\ No newline at end of file
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.taxonomy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.collections.longs.LongSortedSet;
+import com.b2international.index.Hits;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.Commit;
+import com.b2international.index.revision.Hooks.PostCommitHook;
+import com.b2international.index.revision.Hooks.PreCommitHook;
+import com.b2international.index.revision.RevisionBranchRef;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.index.revision.StagingArea;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.snomed.datastore.config.SnomedEclConfig;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Keeps a memory-resident inferred and stated {@link TaxonomyGraph} for a configured set of frequently used branches (see
+ * {@link SnomedEclConfig#getTaxonomyCacheBranches()}), so hierarchy queries can be answered without going to the index.
+ * <p>
+ * Graphs are loaded in the background on first access. Afterwards they are kept up-to-date incrementally from the concept documents of each commit
+ * (registered as a pre- and post-commit hook on the repository), their parent IDs are already computed by the taxonomy change processor at that
+ * point. Each update derives a new graph that shares its unchanged parts with the previous one (see {@link TaxonomyGraph#withChanges}). Changes
+ * are applied on the same background thread that loads graphs, so commits do not wait for the graphs to be updated. A graph is returned only if it
+ * reflects the exact same branch state (segments) the caller's searcher sees, otherwise callers should fall back to index queries while the graph
+ * is being updated or reloaded.
+ *
+ * @since 9.5
+ */
+public final class TaxonomyGraphCache implements PreCommitHook, PostCommitHook {
+
+	private static final Logger LOG = LoggerFactory.getLogger("repository");
+
+	private static final int PAGE_SIZE = 10_000;
+
+	private final RevisionIndex index;
+	private final List<String> branches;
+	private final Cache<String, TaxonomySnapshot> snapshots;
+	private final Map<String, TaxonomyChanges> pendingChanges = new ConcurrentHashMap<>();
+	private final Set<String> loadingBranches = ConcurrentHashMap.newKeySet();
+	private final Map<String, Integer> pendingUpdates = new ConcurrentHashMap<>();
+	private final ExecutorService loader;
+
+	public TaxonomyGraphCache(RevisionIndex index, SnomedEclConfig config) {
+		this.index = index;
+		this.branches = List.copyOf(config.getTaxonomyCacheBranches());
+		this.snapshots = CacheBuilder.newBuilder()
+				.maximumSize(config.getTaxonomyCacheSize())
+				.build();
+		this.loader = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("snomed-taxonomy-loader-%d")
+				.setDaemon(true)
+				.build());
+	}
+
+	/**
+	 * Returns the inferred or stated taxonomy of the given context's branch if it is available in memory and reflects the same state that the
+	 * context's searcher sees. If the branch is eligible for caching but no up-to-date graph is available, loading is scheduled in the background.
+	 *
+	 * @param context - the branch context to get the taxonomy for
+	 * @param stated - whether to return the stated ({@code true}) or the inferred ({@code false}) taxonomy
+	 * @return the in-memory taxonomy or an empty {@link Optional} if the caller should fall back to index queries
+	 */
+	public Optional<TaxonomyGraph> getGraph(BranchContext context, boolean stated) {
+		final String branchPath = context.path();
+		if (!isCached(branchPath)) {
+			return Optional.empty();
+		}
+
+		final RevisionBranchRef ref = context.searcher().ref();
+		final TaxonomySnapshot snapshot = snapshots.getIfPresent(branchPath);
+		if (snapshot != null && snapshot.ref.equals(ref)) {
+			return Optional.of(stated ? snapshot.stated : snapshot.inferred);
+		}
+
+		// an outdated graph that is about to receive the changes of recent commits should not be reloaded from scratch
+		if (!pendingUpdates.containsKey(branchPath)) {
+			scheduleLoad(branchPath);
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * @param branchPath
+	 * @return {@code true} if the given branch is configured to keep an in-memory taxonomy, {@code false} otherwise
+	 */
+	public boolean isCached(String branchPath) {
+		if (RevisionIndex.isBaseRefPath(branchPath) || branchPath.contains(RevisionIndex.AT_CHAR) || branchPath.contains(RevisionIndex.REV_RANGE)) {
+			return false;
+		}
+		for (String branch : branches) {
+			if (branch.endsWith("*") ? branchPath.startsWith(branch.substring(0, branch.length() - 1)) : branch.equals(branchPath)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void run(StagingArea staging) {
+		final String branchPath = staging.getBranchPath();
+		final TaxonomySnapshot snapshot = snapshots.getIfPresent(branchPath);
+		if (snapshot == null) {
+			pendingChanges.remove(branchPath);
+			return;
+		}
+
+		// this hook runs after the repository pre-commit hook, so concept documents already carry their new parent IDs
+		final Map<String, SnomedConceptDocument> changedConcepts = Stream.concat(
+				staging.getNewObjects(SnomedConceptDocument.class),
+				staging.getChangedRevisions(SnomedConceptDocument.class).map(diff -> (SnomedConceptDocument) diff.newRevision))
+			.collect(Collectors.toMap(SnomedConceptDocument::getId, concept -> concept, (a, b) -> b));
+
+		final Set<String> removedConceptIds = staging.getRemovedObjects(SnomedConceptDocument.class)
+				.map(SnomedConceptDocument::getId)
+				.collect(Collectors.toSet());
+
+		pendingChanges.put(branchPath, new TaxonomyChanges(index.branching().getBranch(branchPath).ref(), changedConcepts, removedConceptIds));
+	}
+
+	@Override
+	public void run(Commit commit) {
+		final String branchPath = commit.getBranch();
+		final TaxonomyChanges changes = pendingChanges.remove(branchPath);
+		if (snapshots.getIfPresent(branchPath) == null) {
+			return;
+		}
+		
+		if (changes == null) {
+			snapshots.invalidate(branchPath);
+			return;
+		}
+		
+		final RevisionBranchRef newRef = index.branching().getBranch(branchPath).ref();
+		pendingUpdates.merge(branchPath, 1, Integer::sum);
+		// updates are applied in commit order by the single loader thread, after the updates of earlier commits
+		loader.execute(() -> {
+			try {
+				snapshots.asMap().computeIfPresent(branchPath, (path, snapshot) -> {
+					if (!snapshot.ref.equals(changes.baseRef)) {
+						// the graph is not based on the state the changes were computed from, drop it and reload it on next access
+						return null;
+					}
+					return snapshot.apply(changes, newRef);
+				});
+			} catch (Exception e) {
+				LOG.warn("Failed to update in-memory taxonomy of '{}'", branchPath, e);
+				snapshots.invalidate(branchPath);
+			} finally {
+				pendingUpdates.computeIfPresent(branchPath, (path, count) -> count == 1 ? null : count - 1);
+			}
+		});
+	}
+
+	/**
+	 * Evicts the in-memory taxonomy of the given branch. Registered as a branch change listener, so deleted branches release their graphs.
+	 *
+	 * @param branchPath
+	 */
+	public void invalidate(String branchPath) {
+		if (snapshots.getIfPresent(branchPath) != null && index.branching().getBranch(branchPath).isDeleted()) {
+			snapshots.invalidate(branchPath);
+		}
+	}
+
+	private void scheduleLoad(String branchPath) {
+		if (!loadingBranches.add(branchPath)) {
+			return;
+		}
+		loader.execute(() -> {
+			try {
+				final Stopwatch w = Stopwatch.createStarted();
+				final TaxonomySnapshot snapshot = index.read(branchPath, this::load);
+				snapshots.put(branchPath, snapshot);
+				LOG.info("Loaded in-memory taxonomy of '{}' in {}ms", branchPath, w.elapsed(TimeUnit.MILLISECONDS));
+			} catch (Exception e) {
+				LOG.warn("Failed to load in-memory taxonomy of '{}'", branchPath, e);
+			} finally {
+				loadingBranches.remove(branchPath);
+			}
+		});
+	}
+
+	private TaxonomySnapshot load(RevisionSearcher searcher) {
+		final TaxonomyGraph inferred = new TaxonomyGraph(PAGE_SIZE, PAGE_SIZE);
+		final TaxonomyGraph stated = new TaxonomyGraph(PAGE_SIZE, PAGE_SIZE);
+		inferred.setCheckCycles(false);
+		stated.setCheckCycles(false);
+
+		Query.select(SnomedConceptDocument.class)
+			// only the parent arrays are required to build the graph
+			.fields(SnomedConceptDocument.Fields.ID, SnomedConceptDocument.Fields.PARENTS, SnomedConceptDocument.Fields.STATED_PARENTS)
+			.where(SnomedConceptDocument.Expressions.active())
+			.limit(PAGE_SIZE)
+			.build()
+			.stream(searcher)
+			.flatMap(Hits::stream)
+			.forEach(concept -> {
+				addConcept(inferred, concept.getId(), concept.getParents());
+				addConcept(stated, concept.getId(), concept.getStatedParents());
+			});
+
+		inferred.update();
+		stated.update();
+		return new TaxonomySnapshot(searcher.ref(), inferred, stated);
+	}
+
+	private static void addConcept(TaxonomyGraph graph, String conceptId, LongSortedSet parentIds) {
+		graph.addNode(conceptId);
+		final long[] destinationIds = toDestinationIds(parentIds);
+		if (destinationIds.length > 0) {
+			// the concept ID is used as edge ID, all IS A statements of a concept are represented by a single edge
+			graph.addEdge(conceptId, Long.parseLong(conceptId), destinationIds);
+		} else {
+			graph.removeEdge(conceptId);
+		}
+	}
+
+	private static long[] toDestinationIds(LongSortedSet parentIds) {
+		if (parentIds == null || parentIds.isEmpty()) {
+			return new long[0];
+		}
+		final long[] destinationIds = new long[parentIds.size()];
+		int i = 0;
+		for (LongIterator it = parentIds.iterator(); it.hasNext(); /* empty */) {
+			final long parentId = it.next();
+			// top level concepts have the virtual root as their parent, it is not part of the graph
+			if (parentId != IComponent.ROOT_IDL) {
+				destinationIds[i++] = parentId;
+			}
+		}
+		return i == destinationIds.length ? destinationIds : Arrays.copyOf(destinationIds, i);
+	}
+
+	private static final class TaxonomyChanges {
+
+		private final RevisionBranchRef baseRef;
+		private final Map<String, SnomedConceptDocument> changedConcepts;
+		private final Set<String> removedConceptIds;
+
+		private TaxonomyChanges(RevisionBranchRef baseRef, Map<String, SnomedConceptDocument> changedConcepts, Set<String> removedConceptIds) {
+			this.baseRef = baseRef;
+			this.changedConcepts = changedConcepts;
+			this.removedConceptIds = removedConceptIds;
+		}
+
+	}
+
+	private static final class TaxonomySnapshot {
+
+		private final RevisionBranchRef ref;
+		private final TaxonomyGraph inferred;
+		private final TaxonomyGraph stated;
+
+		private TaxonomySnapshot(RevisionBranchRef ref, TaxonomyGraph inferred, TaxonomyGraph stated) {
+			this.ref = ref;
+			this.inferred = inferred;
+			this.stated = stated;
+		}
+
+		/*
+		 * Derives new graphs with the changes applied, readers of this snapshot are not affected by the update. Only the changed concepts and their
+		 * old and new parents are updated, the rest of the graph is shared with the current snapshot.
+		 */
+		private TaxonomySnapshot apply(TaxonomyChanges changes, RevisionBranchRef newRef) {
+			if (changes.changedConcepts.isEmpty() && changes.removedConceptIds.isEmpty()) {
+				return new TaxonomySnapshot(newRef, inferred, stated);
+			}
+
+			final LongKeyMap<long[]> inferredParentIds = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(changes.changedConcepts.size());
+			final LongKeyMap<long[]> statedParentIds = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(changes.changedConcepts.size());
+			final LongSet removedConceptIds = PrimitiveSets.newLongOpenHashSet();
+			
+			changes.changedConcepts.values().forEach(concept -> {
+				final long conceptId = Long.parseLong(concept.getId());
+				if (concept.isActive()) {
+					inferredParentIds.put(conceptId, toDestinationIds(concept.getParents()));
+					statedParentIds.put(conceptId, toDestinationIds(concept.getStatedParents()));
+				} else {
+					removedConceptIds.add(conceptId);
+				}
+			});
+
+			changes.removedConceptIds.forEach(conceptId -> removedConceptIds.add(Long.parseLong(conceptId)));
+
+			return new TaxonomySnapshot(newRef, inferred.withChanges(inferredParentIds, removedConceptIds), stated.withChanges(statedParentIds, removedConceptIds));
+		}
+
+	}
+
+}
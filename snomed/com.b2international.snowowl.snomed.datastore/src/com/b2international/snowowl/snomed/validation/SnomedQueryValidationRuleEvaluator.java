@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2017-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,23 @@
 package com.b2international.snowowl.snomed.validation;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.annotation.OverridingMethodsMustInvokeSuper;
 
+import com.b2international.index.mapping.DocumentMapping;
 import com.b2international.index.query.Expression;
+import com.b2international.index.query.ExpressionMatcher;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.index.query.Query;
@@ -37,8 +43,11 @@ import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.domain.PageableCollectionResource;
 import com.b2international.snowowl.core.internal.validation.ValidationConfiguration;
 import com.b2international.snowowl.core.request.SearchIndexResourceRequest;
+import com.b2international.snowowl.core.repository.RevisionDocument;
 import com.b2international.snowowl.core.terminology.TerminologyRegistry;
+import com.b2international.snowowl.core.validation.eval.ScopedEvaluation;
 import com.b2international.snowowl.core.validation.eval.ValidationRuleEvaluator;
+import com.b2international.snowowl.core.validation.eval.ValidationRuleVisitor;
 import com.b2international.snowowl.core.validation.rule.ValidationRule;
 import com.b2international.snowowl.snomed.core.domain.*;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
@@ -59,14 +68,69 @@ import com.google.common.base.Strings;
 public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleEvaluator {
 
 	private static final TypeReference<SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent>> TYPE_REF = new TypeReference<SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent>>() {};
+	
+	private static final Map<Class<?>, DocumentMapping> MAPPINGS = new ConcurrentHashMap<>();
+	
+	private static final Pattern COMPONENT_ID = Pattern.compile("\\d+");
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Override
 	public List<?> eval(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception {
 		checkArgument(type().equals(rule.getType()), "'%s' is not recognizable by this evaluator (accepts: %s)", rule, type());
-		SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> validationQuery = context.service(ObjectMapper.class)
-				.<SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent>>readValue(rule.getImplementation(), TYPE_REF);
+		final SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> validationQuery = readQuery(context, rule);
+		return collectIssues(context, validationQuery.getDocType(), toExpression(context, validationQuery, params));
+	}
+	
+	@Override
+	public ScopedEvaluation eval(BranchContext context, ValidationRule rule, Map<String, Object> params, Set<String> componentIds) throws Exception {
+		checkArgument(type().equals(rule.getType()), "'%s' is not recognizable by this evaluator (accepts: %s)", rule, type());
+		final SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> validationQuery = readQuery(context, rule);
+		
+		// The scope only covers direct dependents, a change anywhere in the hierarchy can affect the result of ECL based filters
+		if (validationQuery.isHierarchyDependent()) {
+			return null;
+		}
+		
+		final Expression scope = validationQuery.toScopeExpression(componentIds);
+		
+		// Issues of the given components and the components depending on them are replaced, whether they are reported again or not
+		final Set<String> evaluatedComponentIds = new HashSet<>(componentIds);
+		Query.select(String.class)
+			.from(validationQuery.getDocType())
+			.fields(SnomedDocument.Fields.ID)
+			.where(scope)
+			.limit(context.getPageSize())
+			.withScores(false)
+			.build()
+			.stream(context.service(RevisionSearcher.class))
+			.forEachOrdered(page -> page.forEach(evaluatedComponentIds::add));
+		
+		final Expression where = Expressions.bool()
+			.filter(toExpression(context, validationQuery, params))
+			.filter(scope)
+			.build();
+		
+		return new ScopedEvaluation(evaluatedComponentIds, collectIssues(context, validationQuery.getDocType(), where));
+	}
+	
+	@Override
+	public ValidationRuleVisitor prepareVisitor(BranchContext context, ValidationRule rule, Map<String, Object> params) throws Exception {
+		checkArgument(type().equals(rule.getType()), "'%s' is not recognizable by this evaluator (accepts: %s)", rule, type());
+		final SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> validationQuery = readQuery(context, rule);
+		final Class<? extends SnomedDocument> docType = validationQuery.getDocType();
+		final Expression expression = toExpression(context, validationQuery, params);
 		
+		// Rules filtering on analyzed text (eg. term matches) can not be evaluated in memory, these run their own query
+		final ExpressionMatcher matcher = ExpressionMatcher.create(MAPPINGS.computeIfAbsent(docType, DocumentMapping::new), expression);
+		return matcher == null ? null : new SnomedQueryValidationRuleVisitor(docType, expression, matcher);
+	}
+	
+	private SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> readQuery(BranchContext context, ValidationRule rule) throws Exception {
+		return context.service(ObjectMapper.class)
+				.<SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent>>readValue(rule.getImplementation(), TYPE_REF);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Expression toExpression(BranchContext context, SnomedComponentValidationQuery<?, PageableCollectionResource<SnomedComponent>, SnomedComponent> validationQuery, Map<String, Object> params) {
 		SnomedSearchRequestBuilder<?, PageableCollectionResource<SnomedComponent>> req = validationQuery
 				.prepareSearch();
 		
@@ -88,13 +152,16 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 			expressionBuilder.filter(SnomedDocument.Expressions.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME));
 		}
 		
-		Expression where = expressionBuilder.build();
-		
+		return expressionBuilder.build();
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private List<?> collectIssues(BranchContext context, Class<? extends SnomedDocument> docType, Expression where) {
 		// TODO check if the expression contains only the ID list, then skip scrolling and just report them
 		List issues[] = { null }; 
 		
 		Query.select(String.class)
-			.from(validationQuery.getDocType())
+			.from(docType)
 			.fields(SnomedDocument.Fields.ID)
 			.where(where)
 			.limit(context.getPageSize())
@@ -106,22 +173,70 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 					issues[0] = newArrayListWithExpectedSize(page.getTotal());
 				}
 				for (String affectedComponentId : page) {
-					String affectedComponentType = SnomedComponent.getTypeSafe(affectedComponentId);
-					if (TerminologyRegistry.UNKNOWN_COMPONENT_TYPE.equals(affectedComponentType)) {
-						affectedComponentType = SnomedReferenceSetMember.TYPE;
-					}
-					issues[0].add(ComponentIdentifier.of(affectedComponentType, affectedComponentId));
+					issues[0].add(toComponentIdentifier(affectedComponentId));
 				}
 			});
 		
 		return issues[0] == null ? Collections.emptyList() : issues[0];
 	}
+	
+	private static ComponentIdentifier toComponentIdentifier(String affectedComponentId) {
+		String affectedComponentType = SnomedComponent.getTypeSafe(affectedComponentId);
+		if (TerminologyRegistry.UNKNOWN_COMPONENT_TYPE.equals(affectedComponentType)) {
+			affectedComponentType = SnomedReferenceSetMember.TYPE;
+		}
+		return ComponentIdentifier.of(affectedComponentType, affectedComponentId);
+	}
 
 	@Override
 	public String type() {
 		return "snomed-query";
 	}
 	
+	/*
+	 * Filters accepting ECL expressions only depend on the given component itself when a single ID is specified
+	 */
+	private static boolean isEclExpression(String filter) {
+		return !Strings.isNullOrEmpty(filter) && !COMPONENT_ID.matcher(filter.trim()).matches();
+	}
+	
+	private static final class SnomedQueryValidationRuleVisitor implements ValidationRuleVisitor {
+		
+		private final Class<? extends SnomedDocument> docType;
+		private final Expression expression;
+		private final ExpressionMatcher matcher;
+		private final List<ComponentIdentifier> issues = newArrayList();
+		
+		private SnomedQueryValidationRuleVisitor(Class<? extends SnomedDocument> docType, Expression expression, ExpressionMatcher matcher) {
+			this.docType = docType;
+			this.expression = expression;
+			this.matcher = matcher;
+		}
+		
+		@Override
+		public Class<?> getDocumentType() {
+			return docType;
+		}
+		
+		@Override
+		public Expression getExpression() {
+			return expression;
+		}
+		
+		@Override
+		public void visit(Map<String, Object> source) {
+			if (matcher.matches(source)) {
+				issues.add(toComponentIdentifier((String) source.get(SnomedDocument.Fields.ID)));
+			}
+		}
+		
+		@Override
+		public List<?> getIssues() {
+			return issues;
+		}
+		
+	}
+	
 	@JsonTypeInfo(use=JsonTypeInfo.Id.NAME, include=JsonTypeInfo.As.PROPERTY, property="componentType")
 	@JsonSubTypes({
 		@JsonSubTypes.Type(name="concept", value=SnomedConceptValidationRuleQuery.class),
@@ -144,6 +259,23 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 		protected abstract Class<? extends SnomedDocument> getDocType();
 
 		protected abstract SB createSearch();
+		
+		/**
+		 * @param componentIds
+		 * @return an expression matching the documents of this query's type that are one of the given components or depend on them
+		 */
+		protected Expression toScopeExpression(Set<String> componentIds) {
+			return RevisionDocument.Expressions.ids(componentIds);
+		}
+		
+		/**
+		 * @return whether the query matches components based on their position in the hierarchy (eg. descendants of a concept), in which case
+		 *         changes outside of {@link #toScopeExpression(Set) the scope} can also affect the result
+		 */
+		@OverridingMethodsMustInvokeSuper
+		protected boolean isHierarchyDependent() {
+			return false;
+		}
 
 		@OverridingMethodsMustInvokeSuper
 		protected SB prepareSearch(SB req) {
@@ -158,6 +290,11 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 		@JsonProperty private List<String> namespace;
 		@JsonProperty private String isActiveMemberOf;
 		
+		@Override
+		protected boolean isHierarchyDependent() {
+			return super.isHierarchyDependent() || isEclExpression(isActiveMemberOf);
+		}
+		
 		@Override
 		protected SB prepareSearch(SB req) {
 			return super.prepareSearch(req)
@@ -184,6 +321,11 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 			return SnomedConceptDocument.class;
 		}
 		
+		@Override
+		protected boolean isHierarchyDependent() {
+			return super.isHierarchyDependent() || isEclExpression(ecl);
+		}
+		
 		@Override
 		protected SnomedConceptSearchRequestBuilder prepareSearch(SnomedConceptSearchRequestBuilder req) {
 			return super.prepareSearch(req)
@@ -218,6 +360,19 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 			return SnomedDescriptionIndexEntry.class;
 		}
 		
+		@Override
+		protected Expression toScopeExpression(Set<String> componentIds) {
+			return Expressions.bool()
+					.should(super.toScopeExpression(componentIds))
+					.should(SnomedDescriptionIndexEntry.Expressions.concepts(componentIds))
+					.build();
+		}
+		
+		@Override
+		protected boolean isHierarchyDependent() {
+			return super.isHierarchyDependent() || isEclExpression(concept) || isEclExpression(type);
+		}
+		
 		@Override
 		protected SnomedDescriptionSearchRequestBuilder prepareSearch(SnomedDescriptionSearchRequestBuilder req) {
 			if (!Strings.isNullOrEmpty(term)) {
@@ -269,6 +424,20 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 			return SnomedRelationshipIndexEntry.class;
 		}
 		
+		@Override
+		protected Expression toScopeExpression(Set<String> componentIds) {
+			return Expressions.bool()
+					.should(super.toScopeExpression(componentIds))
+					.should(SnomedRelationshipIndexEntry.Expressions.sourceIds(componentIds))
+					.should(SnomedRelationshipIndexEntry.Expressions.destinationIds(componentIds))
+					.build();
+		}
+		
+		@Override
+		protected boolean isHierarchyDependent() {
+			return super.isHierarchyDependent() || isEclExpression(source) || isEclExpression(type) || isEclExpression(destination);
+		}
+		
 		@Override
 		protected SnomedRelationshipSearchRequestBuilder prepareSearch(SnomedRelationshipSearchRequestBuilder req) {
 			return super.prepareSearch(req)
@@ -297,6 +466,19 @@ public final class SnomedQueryValidationRuleEvaluator implements ValidationRuleE
 			return SnomedRefSetMemberIndexEntry.class;
 		}
 		
+		@Override
+		protected Expression toScopeExpression(Set<String> componentIds) {
+			return Expressions.bool()
+					.should(super.toScopeExpression(componentIds))
+					.should(SnomedRefSetMemberIndexEntry.Expressions.referencedComponentIds(componentIds))
+					.build();
+		}
+		
+		@Override
+		protected boolean isHierarchyDependent() {
+			return super.isHierarchyDependent() || isEclExpression(refSet);
+		}
+		
 		@Override
 		protected SnomedRefSetMemberSearchRequestBuilder prepareSearch(SnomedRefSetMemberSearchRequestBuilder req) {
 			return super.prepareSearch(req)
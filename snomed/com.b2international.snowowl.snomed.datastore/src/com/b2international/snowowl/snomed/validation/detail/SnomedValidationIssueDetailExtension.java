@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,8 +26,10 @@ import static com.google.common.collect.Sets.newHashSet;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.index.Hits;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Query;
 import com.b2international.index.query.Query.QueryBuilder;
@@ -56,6 +58,9 @@ import com.google.common.collect.ImmutableMultimap.Builder;
 @Component
 public class SnomedValidationIssueDetailExtension implements ValidationIssueDetailExtension {
 	
+	// number of hit pages to load ahead while the current page is being processed
+	private static final int PREFETCH_PAGES = 1;
+	
 	public final static class SnomedIssueDetailFilterFields {
 
 		private SnomedIssueDetailFilterFields() {};
@@ -161,7 +166,7 @@ public class SnomedValidationIssueDetailExtension implements ValidationIssueDeta
 		final Builder<String, ValidationIssue> issuesByConceptId = ImmutableMultimap.builder();
 		conceptIssues.forEach(issue -> issuesByConceptId.put(issue.getAffectedComponent().getComponentId(), issue));
 		
-		searcher.stream(Query.select(String[].class)
+		try (Stream<Hits<String[]>> pages = searcher.stream(Query.select(String[].class)
 				.from(SnomedRefSetMemberIndexEntry.class)
 				.fields(SnomedRefSetMemberIndexEntry.Fields.ID,
 						SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID)
@@ -170,14 +175,15 @@ public class SnomedValidationIssueDetailExtension implements ValidationIssueDeta
 					.filter(SnomedRefSetMemberIndexEntry.Expressions.ids(memberIssues.keySet()))
 					.build())
 				.limit(context.getPageSize())
-				.build())
-				.forEach(hits -> {
-					for (String[] hit : hits) {
-						final String memberId = hit[0];
-						final String containerConcpetId = hit[1];
-						issuesByConceptId.put(containerConcpetId, memberIssues.get(memberId));
-					}
-				});
+				.build(), PREFETCH_PAGES)) {
+			pages.forEach(hits -> {
+				for (String[] hit : hits) {
+					final String memberId = hit[0];
+					final String containerConcpetId = hit[1];
+					issuesByConceptId.put(containerConcpetId, memberIssues.get(memberId));
+				}
+			});
+		}
 		
 		final Multimap<String, ValidationIssue> issuesByConceptMap = issuesByConceptId.build();
 		final Map<String, String> affectedComponentLabelsByConcept = getAffectedComponentLabels(context, ruleParameters, issuesByConceptMap.keySet());
@@ -251,7 +257,7 @@ public class SnomedValidationIssueDetailExtension implements ValidationIssueDeta
 
 		final Map<String, String> relationshipFragmentsByRelationshipId= Maps.newHashMap(); 
 		
-		searcher.stream(Query.select(String[].class)
+		try (Stream<Hits<String[]>> pages = searcher.stream(Query.select(String[].class)
 			.from(SnomedRelationshipIndexEntry.class)
 			.fields(SnomedRelationshipIndexEntry.Fields.ID,
 					SnomedRelationshipIndexEntry.Fields.SOURCE_ID,
@@ -262,8 +268,8 @@ public class SnomedValidationIssueDetailExtension implements ValidationIssueDeta
 					SnomedRelationshipIndexEntry.Fields.STRING_VALUE)
 			.where(SnomedRelationshipIndexEntry.Expressions.ids(issuesByRelationshipId.keySet()))
 			.limit(context.getPageSize())
-			.build())
-			.forEach(hits -> {
+			.build(), PREFETCH_PAGES)) {
+			pages.forEach(hits -> {
 				for (String[] hit : hits) {
 					final String id = hit[0];
 					final String sourceId = hit[1];
@@ -291,6 +297,7 @@ public class SnomedValidationIssueDetailExtension implements ValidationIssueDeta
 					relationshipFragmentsByRelationshipId.put(id, String.format("%s|%s|%s", sourceId, typeId, destination));
 				}
 			});
+		}
 		
 		Map<String, String> affectedComponentLabelsByConcept = getAffectedComponentLabels(context, ruleParameters, conceptsToFetch);
 		
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2018-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,10 +19,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomySnapshotStoreTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.ClassificationTaskSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.ConcreteDomainChangeSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.EquivalentConceptSetSerializationTest;
 import com.b2international.snowowl.snomed.reasoner.index.entry.RelationshipChangeSerializationTest;
+import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGeneratorTest;
 
 /**
  * @since 4.0
@@ -33,6 +35,8 @@ import com.b2international.snowowl.snomed.reasoner.index.entry.RelationshipChang
 	EquivalentConceptSetSerializationTest.class,
 	RelationshipChangeSerializationTest.class,
 	ConcreteDomainChangeSerializationTest.class,
+	NormalFormGeneratorTest.class,
+	ReasonerTaxonomySnapshotStoreTest.class,
 })
 public class AllSnomedReasonerTests {
 
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+
+/**
+ * @since 9.5
+ */
+public class ReasonerTaxonomySnapshotStoreTest {
+
+	private static final String CHILD_ID = "404684003";
+	private static final long HEAD_TIMESTAMP = 1_700_000_000_000L;
+	private static final Set<String> NO_EXCLUDED_MODULES = Set.of();
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private Path directory;
+	private ReasonerTaxonomy taxonomy;
+	
+	@Before
+	public void setup() throws Exception {
+		directory = folder.newFolder("taxonomy-snapshots").toPath();
+		taxonomy = createTaxonomy();
+	}
+	
+	@Test
+	public void putAndGet() throws Exception {
+		final ReasonerTaxonomySnapshotStore store = new ReasonerTaxonomySnapshotStore(directory, 10);
+		store.put("MAIN", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false, taxonomy);
+		
+		final ReasonerTaxonomy restored = store.get("MAIN", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false);
+		assertNotNull(restored);
+		assertEquals(taxonomy.getConceptMap().size(), restored.getConceptMap().size());
+		assertEquals(taxonomy.getStatedAncestors().getDestinations(CHILD_ID, true), restored.getStatedAncestors().getDestinations(CHILD_ID, true));
+		
+		// Snapshots of a different point in time or with different settings are not returned
+		assertNull(store.get("MAIN", HEAD_TIMESTAMP + 1L, NO_EXCLUDED_MODULES, false));
+		assertNull(store.get("MAIN", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, true));
+		assertNull(store.get("MAIN", HEAD_TIMESTAMP, Set.of(Concepts.MODULE_SCT_CORE), false));
+		assertNull(store.get("MAIN/a", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false));
+	}
+	
+	@Test
+	public void putReplacesEarlierSnapshotOfBranch() throws Exception {
+		final ReasonerTaxonomySnapshotStore store = new ReasonerTaxonomySnapshotStore(directory, 10);
+		store.put("MAIN", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false, taxonomy);
+		store.put("MAIN", HEAD_TIMESTAMP + 1L, NO_EXCLUDED_MODULES, false, taxonomy);
+		
+		assertEquals(1, listSnapshots().size());
+		assertNull(store.get("MAIN", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false));
+		assertNotNull(store.get("MAIN", HEAD_TIMESTAMP + 1L, NO_EXCLUDED_MODULES, false));
+	}
+	
+	@Test
+	public void corruptSnapshotIsDiscarded() throws Exception {
+		final ReasonerTaxonomySnapshotStore store = new ReasonerTaxonomySnapshotStore(directory, 10);
+		store.put("MAIN", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false, taxonomy);
+		
+		final Path snapshot = listSnapshots().get(0);
+		// Keep the header intact, so that reading fails only when the end of the file is reached unexpectedly
+		final byte[] contents = Files.readAllBytes(snapshot);
+		Files.write(snapshot, Arrays.copyOf(contents, contents.length / 3));
+		
+		assertNull(store.get("MAIN", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false));
+		assertFalse(Files.exists(snapshot));
+	}
+	
+	@Test
+	public void leastRecentlyUsedBranchesAreEvicted() throws Exception {
+		final ReasonerTaxonomySnapshotStore store = new ReasonerTaxonomySnapshotStore(directory, 2);
+		store.put("MAIN/a", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false, taxonomy);
+		Thread.sleep(50L);
+		store.put("MAIN/b", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false, taxonomy);
+		Thread.sleep(50L);
+		
+		// Reading a snapshot marks the branch as recently used
+		assertNotNull(store.get("MAIN/a", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false));
+		Thread.sleep(50L);
+		store.put("MAIN/c", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false, taxonomy);
+		
+		assertEquals(2, listSnapshots().size());
+		assertNull(store.get("MAIN/b", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false));
+		assertNotNull(store.get("MAIN/a", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false));
+		assertNotNull(store.get("MAIN/c", HEAD_TIMESTAMP, NO_EXCLUDED_MODULES, false));
+	}
+	
+	private List<Path> listSnapshots() throws Exception {
+		try (Stream<Path> files = Files.walk(directory)) {
+			return files.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+	}
+	
+	private static ReasonerTaxonomy createTaxonomy() {
+		final List<SnomedConcept> concepts = Stream.of(Concepts.ROOT_CONCEPT, CHILD_ID)
+				.map(conceptId -> {
+					final SnomedConcept concept = new SnomedConcept(conceptId);
+					concept.setActive(true);
+					concept.setModuleId(Concepts.MODULE_SCT_CORE);
+					concept.setDefinitionStatusId(Concepts.PRIMITIVE);
+					return concept;
+				})
+				.collect(Collectors.toList());
+		
+		final SnomedRelationship isA = new SnomedRelationship("100022");
+		isA.setActive(true);
+		isA.setModuleId(Concepts.MODULE_SCT_CORE);
+		isA.setSourceId(CHILD_ID);
+		isA.setTypeId(Concepts.IS_A);
+		isA.setDestinationId(Concepts.ROOT_CONCEPT);
+		isA.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+		isA.setRelationshipGroup(0);
+		isA.setUnionGroup(0);
+		
+		return new ReasonerTaxonomyBuilder(100)
+				.addActiveConceptIds(concepts.stream())
+				.finishConcepts()
+				.addActiveStatedEdges(Stream.of(isA))
+				.addConceptFlags(concepts.stream())
+				.addActiveStatedRelationships(Stream.of(isA))
+				.build();
+	}
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.normalform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.longs.LongList;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdEdges;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdMultimap;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdSet;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.b2international.snowowl.snomed.reasoner.classification.NormalFormSnapshotCache;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
+import com.b2international.snowowl.snomed.reasoner.diff.OntologyChangeProcessor;
+
+/**
+ * @since 9.5
+ */
+public class NormalFormGeneratorTest {
+
+	private static final int CONCEPT_COUNT = 300;
+	private static final int VALUE_COUNT = 15;
+	private static final int TYPE_COUNT = 3;
+	private static final long SEED = 20240101L;
+	private static final String MAIN = "MAIN";
+	
+	@Test
+	public void parallelWavesMatchSequentialRun() throws Exception {
+		final ReasonerTaxonomy taxonomy = generateOntology().build();
+		
+		final List<String> sequentialChanges = computeChanges(new NormalFormGenerator(taxonomy, false, null, 1));
+		final List<String> parallelChanges = computeChanges(new NormalFormGenerator(taxonomy, false, null, 4));
+		
+		assertFalse(sequentialChanges.isEmpty());
+		assertEquals(sequentialChanges, parallelChanges);
+	}
+	
+	@Test
+	public void reusedSnapshotMatchesFullRun() throws Exception {
+		final NormalFormSnapshotCache snapshotCache = new NormalFormSnapshotCache(1);
+		final NormalFormGenerator initialGenerator = new NormalFormGenerator(generateOntology().build(), false, null, 1);
+		computeChanges(initialGenerator);
+		assertNotNull(initialGenerator.getSnapshot());
+		snapshotCache.put(MAIN, initialGenerator.getSnapshot());
+		
+		final TestOntology ontology = generateOntology();
+		
+		// the top concept of the generated hierarchy keeps its attribute and position, so its normal form is reused
+		final String unchangedConceptId = ontology.conceptIds.get(0);
+		// a concept with a new attribute
+		final String attributeChangedConceptId = ontology.conceptIds.get(CONCEPT_COUNT / 2);
+		ontology.addAttribute(attributeChangedConceptId, ontology.typeIds.get(0), ontology.valueIds.get(VALUE_COUNT - 1), 1);
+		// a concept that loses all of its attributes
+		final String attributeRemovedConceptId = ontology.conceptIds.stream()
+				.filter(conceptId -> !ontology.attributes.get(conceptId).isEmpty())
+				.skip(10)
+				.findFirst()
+				.get();
+		ontology.attributes.get(attributeRemovedConceptId).clear();
+		// a concept (and all of its descendants) moved to a different parent
+		ontology.setParents(ontology.conceptIds.get(CONCEPT_COUNT / 3), ontology.conceptIds.get(1));
+		// a value concept moved to a different parent, which changes the redundancy of attributes pointing to it
+		ontology.setParents(ontology.valueIds.get(VALUE_COUNT - 2), ontology.valueIds.get(2));
+		
+		final ReasonerTaxonomy taxonomy = ontology.build();
+		final List<String> fullChanges = computeChanges(new NormalFormGenerator(taxonomy, false, null, 1));
+		
+		final NormalFormSnapshot previousSnapshot = snapshotCache.get(MAIN);
+		for (final int parallelism : new int[] { 1, 4 }) {
+			final NormalFormGenerator incrementalGenerator = new NormalFormGenerator(taxonomy, false, previousSnapshot, parallelism);
+			assertEquals(fullChanges, computeChanges(incrementalGenerator));
+			
+			final NormalFormSnapshot snapshot = incrementalGenerator.getSnapshot();
+			assertEquals(previousSnapshot.size(), snapshot.size());
+			assertSame(previousSnapshot.getStatements(Long.parseLong(unchangedConceptId)), snapshot.getStatements(Long.parseLong(unchangedConceptId)));
+			assertNotSame(previousSnapshot.getStatements(Long.parseLong(attributeChangedConceptId)), snapshot.getStatements(Long.parseLong(attributeChangedConceptId)));
+			assertNotSame(previousSnapshot.getStatements(Long.parseLong(attributeRemovedConceptId)), snapshot.getStatements(Long.parseLong(attributeRemovedConceptId)));
+		}
+		
+		// a snapshot with a different global fingerprint is ignored
+		final NormalFormGenerator concreteDomainGenerator = new NormalFormGenerator(taxonomy, true, previousSnapshot, 1);
+		assertEquals(fullChanges, computeChanges(concreteDomainGenerator));
+		assertNotSame(previousSnapshot.getStatements(Long.parseLong(unchangedConceptId)), concreteDomainGenerator.getSnapshot().getStatements(Long.parseLong(unchangedConceptId)));
+		
+		snapshotCache.put(MAIN, null);
+		assertNull(snapshotCache.get(MAIN));
+	}
+	
+	private static List<String> computeChanges(final NormalFormGenerator generator) {
+		final CollectingProcessor<StatementFragment> statementProcessor = new CollectingProcessor<>();
+		final CollectingProcessor<ConcreteDomainFragment> concreteDomainProcessor = new CollectingProcessor<>();
+		generator.computeChanges(new NullProgressMonitor(), statementProcessor, concreteDomainProcessor);
+		
+		final List<String> changes = new ArrayList<>(statementProcessor.changes);
+		changes.addAll(concreteDomainProcessor.changes);
+		Collections.sort(changes);
+		return changes;
+	}
+	
+	/*
+	 * Generates a random (but repeatable) polyhierarchy of primitive concepts, each with a few grouped and ungrouped attributes. Attribute
+	 * values are placed in a separate hierarchy, so that some inherited attributes become redundant.
+	 */
+	private static TestOntology generateOntology() {
+		final Random random = new Random(SEED);
+		final TestOntology ontology = new TestOntology();
+		
+		final String typeRootId = ontology.addConcept(Concepts.ROOT_CONCEPT);
+		final List<String> typeIds = ontology.typeIds;
+		for (int i = 0; i < TYPE_COUNT; i++) {
+			typeIds.add(ontology.addConcept(typeRootId));
+		}
+		
+		final List<String> valueIds = ontology.valueIds;
+		valueIds.add(ontology.addConcept(Concepts.ROOT_CONCEPT));
+		for (int i = 1; i < VALUE_COUNT; i++) {
+			valueIds.add(ontology.addConcept(valueIds.get((i - 1) / 2)));
+		}
+		
+		final List<String> conceptIds = ontology.conceptIds;
+		conceptIds.add(ontology.addConcept(Concepts.ROOT_CONCEPT));
+		// the top concept has a single attribute, so that its normal form is not empty, which is inherited by most of the hierarchy
+		ontology.addAttribute(conceptIds.get(0), typeIds.get(0), valueIds.get(0), 0);
+		for (int i = 1; i < CONCEPT_COUNT; i++) {
+			final String firstParentId = conceptIds.get(random.nextInt(conceptIds.size()));
+			final String secondParentId = conceptIds.get(random.nextInt(conceptIds.size()));
+			final String conceptId = firstParentId.equals(secondParentId) 
+					? ontology.addConcept(firstParentId) 
+					: ontology.addConcept(firstParentId, secondParentId);
+			
+			final int attributeCount = random.nextInt(3);
+			for (int j = 0; j < attributeCount; j++) {
+				ontology.addAttribute(conceptId, 
+						typeIds.get(random.nextInt(typeIds.size())), 
+						valueIds.get(random.nextInt(valueIds.size())), 
+						random.nextInt(3));
+			}
+			
+			conceptIds.add(conceptId);
+		}
+		
+		return ontology;
+	}
+	
+	private static final class CollectingProcessor<T extends Serializable> extends OntologyChangeProcessor<T> {
+		
+		private final List<String> changes = new ArrayList<>();
+		
+		@Override
+		protected void handleAddedSubject(final String conceptId, final T addedSubject) {
+			changes.add(conceptId + " + " + addedSubject);
+		}
+		
+		@Override
+		protected void handleRemovedSubject(final String conceptId, final T removedSubject) {
+			changes.add(conceptId + " - " + removedSubject);
+		}
+	}
+	
+	/*
+	 * Holds the stated content of primitive concepts; as there are no fully defined concepts, the inferred hierarchy is the same as the
+	 * stated one, and the taxonomy can be built without running a reasoner.
+	 */
+	private static final class TestOntology {
+		
+		private final Map<String, List<String>> parentIds = new LinkedHashMap<>();
+		private final Map<String, List<SnomedRelationship>> attributes = new LinkedHashMap<>();
+		private final List<String> typeIds = new ArrayList<>();
+		private final List<String> valueIds = new ArrayList<>();
+		private final List<String> conceptIds = new ArrayList<>();
+		private long nextConceptId = 10_000_000L;
+		private long nextRelationshipId = 20_000_000L;
+		
+		TestOntology() {
+			parentIds.put(Concepts.ROOT_CONCEPT, List.of());
+			attributes.put(Concepts.ROOT_CONCEPT, new ArrayList<>());
+		}
+		
+		String addConcept(final String... parentIds) {
+			final String conceptId = Long.toString(nextConceptId++);
+			this.parentIds.put(conceptId, List.of(parentIds));
+			this.attributes.put(conceptId, new ArrayList<>());
+			return conceptId;
+		}
+		
+		// parents must be added before their children, so that the hierarchy stays acyclic
+		void setParents(final String conceptId, final String... parentIds) {
+			this.parentIds.put(conceptId, List.of(parentIds));
+		}
+		
+		void addAttribute(final String conceptId, final String typeId, final String destinationId, final int group) {
+			attributes.get(conceptId).add(relationship(nextRelationshipId++, conceptId, typeId, destinationId, group));
+		}
+		
+		private static SnomedRelationship relationship(final long relationshipId, final String sourceId, final String typeId, final String destinationId, final int group) {
+			final SnomedRelationship relationship = new SnomedRelationship(Long.toString(relationshipId));
+			relationship.setActive(true);
+			relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+			relationship.setSourceId(sourceId);
+			relationship.setTypeId(typeId);
+			relationship.setDestinationId(destinationId);
+			relationship.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+			relationship.setRelationshipGroup(group);
+			relationship.setUnionGroup(0);
+			return relationship;
+		}
+		
+		ReasonerTaxonomy build() {
+			final List<SnomedConcept> concepts = parentIds.keySet()
+					.stream()
+					.map(conceptId -> {
+						final SnomedConcept concept = new SnomedConcept(conceptId);
+						concept.setActive(true);
+						concept.setModuleId(Concepts.MODULE_SCT_CORE);
+						concept.setDefinitionStatusId(Concepts.PRIMITIVE);
+						return concept;
+					})
+					.collect(Collectors.toList());
+			
+			final List<SnomedRelationship> statedRelationships = new ArrayList<>();
+			for (final String conceptId : parentIds.keySet()) {
+				// IS A relationship IDs are derived from the source concept ID, so they stay the same in each taxonomy built
+				final List<String> conceptParentIds = parentIds.get(conceptId);
+				for (int i = 0; i < conceptParentIds.size(); i++) {
+					statedRelationships.add(relationship(Long.parseLong(conceptId) * 10L + i, conceptId, Concepts.IS_A, conceptParentIds.get(i), 0));
+				}
+				statedRelationships.addAll(attributes.get(conceptId));
+			}
+			
+			final ReasonerTaxonomy taxonomy = new ReasonerTaxonomyBuilder(CONCEPT_COUNT)
+					.addActiveConceptIds(concepts.stream())
+					.finishConcepts()
+					.addActiveStatedEdges(statedRelationships.stream())
+					.addConceptFlags(concepts.stream())
+					.addActiveStatedRelationships(statedRelationships.stream())
+					.addActiveInferredRelationships(List.<SnomedRelationship>of().stream())
+					.build();
+			
+			final InternalIdEdges.Builder inferredAncestors = InternalIdEdges.builder(taxonomy.getConceptMap());
+			for (final String conceptId : parentIds.keySet()) {
+				final List<String> conceptParentIds = parentIds.get(conceptId);
+				inferredAncestors.addEdges(Collections.nCopies(conceptParentIds.size(), conceptId), conceptParentIds);
+			}
+			
+			return taxonomy.withInferences(inferredAncestors.build(), 
+					InternalSctIdSet.builder(taxonomy.getConceptMap()).build(), 
+					InternalSctIdMultimap.builder(taxonomy.getConceptMap()).build(), 
+					iterationOrder());
+		}
+		
+		/*
+		 * Places each concept in the layer following the deepest of its parents, similar to the breadth-first walk of the reasoner.
+		 */
+		private LongList iterationOrder() {
+			final Map<String, Integer> depths = new LinkedHashMap<>();
+			parentIds.keySet().forEach(conceptId -> depth(conceptId, depths));
+			final int maxDepth = Collections.max(depths.values());
+			
+			final LongList iterationOrder = PrimitiveLists.newLongArrayList();
+			for (int depth = 0; depth <= maxDepth; depth++) {
+				for (final Map.Entry<String, Integer> entry : depths.entrySet()) {
+					if (entry.getValue() == depth) {
+						iterationOrder.add(Long.parseLong(entry.getKey()));
+					}
+				}
+				iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+			}
+			
+			return iterationOrder;
+		}
+		
+		private int depth(final String conceptId, final Map<String, Integer> depths) {
+			final Integer depth = depths.get(conceptId);
+			if (depth != null) {
+				return depth;
+			}
+			
+			int parentDepth = -1;
+			for (final String parentId : parentIds.get(conceptId)) {
+				parentDepth = Math.max(parentDepth, depth(parentId, depths));
+			}
+			
+			depths.put(conceptId, parentDepth + 1);
+			return parentDepth + 1;
+		}
+	}
+}
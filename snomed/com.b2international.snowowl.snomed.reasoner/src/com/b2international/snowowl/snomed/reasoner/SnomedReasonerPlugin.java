@@ -30,6 +30,8 @@ import com.b2international.snowowl.core.setup.Plugin;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.NormalFormSnapshotCache;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomySnapshotStore;
 import com.b2international.snowowl.snomed.reasoner.equivalence.IEquivalentConceptMerger;
 import com.b2international.snowowl.snomed.reasoner.index.*;
 
@@ -39,6 +41,8 @@ import com.b2international.snowowl.snomed.reasoner.index.*;
 @Component
 public final class SnomedReasonerPlugin extends Plugin implements TerminologyRepositoryConfigurer {
 
+	private static final String TAXONOMY_SNAPSHOTS_FOLDER = "taxonomy-snapshots";
+
 	@Override
 	public void run(final SnowOwlConfiguration configuration, final Environment env) throws Exception {
 		if (env.isServer()) {
@@ -49,6 +53,16 @@ public final class SnomedReasonerPlugin extends Plugin implements TerminologyRep
 			final ClassificationTracker classificationTracker = new ClassificationTracker(repositoryIndex, maximumReasonerRuns, TimeUnit.MINUTES.toMillis(classificationCleanUpInterval));
 			env.services().registerService(ClassificationTracker.class, classificationTracker);
 			
+			final int incrementalClassificationBranches = snomedConfig.getIncrementalClassificationBranches();
+			if (incrementalClassificationBranches > 0) {
+				env.services().registerService(NormalFormSnapshotCache.class, new NormalFormSnapshotCache(incrementalClassificationBranches));
+			}
+			
+			if (snomedConfig.isReasonerTaxonomySnapshots()) {
+				env.services().registerService(ReasonerTaxonomySnapshotStore.class, new ReasonerTaxonomySnapshotStore(env.getDataPath().resolve(TAXONOMY_SNAPSHOTS_FOLDER), 
+						snomedConfig.getReasonerTaxonomySnapshotBranches()));
+			}
+			
 			final ClassPathScanner scanner = env.service(ClassPathScanner.class);
 			env.services().registerService(IEquivalentConceptMerger.Registry.class, new IEquivalentConceptMerger.Registry(scanner));
 		}
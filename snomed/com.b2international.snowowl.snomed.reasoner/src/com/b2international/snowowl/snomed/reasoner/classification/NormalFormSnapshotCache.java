@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.util.concurrent.TimeUnit;
+
+import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormSnapshot;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the normal form snapshot of the last successful classification run per branch, so that subsequent classifications of the same
+ * branch only need to recompute the normal form of concepts affected by the changes made since.
+ * <p>
+ * Snapshots are held softly, so they are discarded under memory pressure instead of failing classification runs.
+ *
+ * @since 9.5
+ */
+public final class NormalFormSnapshotCache {
+
+	private final Cache<String, NormalFormSnapshot> snapshots;
+
+	public NormalFormSnapshotCache(final int maximumBranches) {
+		this.snapshots = CacheBuilder.newBuilder()
+				.maximumSize(maximumBranches)
+				.expireAfterAccess(1L, TimeUnit.HOURS)
+				.softValues()
+				.build();
+	}
+
+	public NormalFormSnapshot get(final String branchPath) {
+		return snapshots.getIfPresent(branchPath);
+	}
+
+	public void put(final String branchPath, final NormalFormSnapshot snapshot) {
+		if (snapshot == null) {
+			snapshots.invalidate(branchPath);
+		} else {
+			snapshots.put(branchPath, snapshot);
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomySnapshot;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Keeps the reasoner input collected for the latest classified state of each branch on disk, so that classifying the same branch again
+ * without any commits in between can skip collecting the taxonomy from the index.
+ * <p>
+ * Snapshots are identified by the branch path, the head timestamp of the branch and the settings that influence the contents of the
+ * taxonomy. Only the most recent snapshot is kept for each branch, and only for a limited number of recently used branches, so snapshots
+ * of deleted or abandoned branches are eventually removed. Failures (including corrupt or truncated files) are logged and reported as a
+ * missing snapshot, as the taxonomy can always be rebuilt from the index.
+ *
+ * @since 9.5
+ */
+public final class ReasonerTaxonomySnapshotStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner");
+
+	private static final String EXTENSION = ".taxonomy";
+
+	private final Path directory;
+	private final int maximumBranches;
+
+	public ReasonerTaxonomySnapshotStore(final Path directory, final int maximumBranches) {
+		this.directory = directory;
+		this.maximumBranches = maximumBranches;
+	}
+
+	/**
+	 * @param branchPath - the path of the classified branch
+	 * @param headTimestamp - the head timestamp of the branch the taxonomy reflects
+	 * @param excludedModuleIds - module IDs excluded from classification
+	 * @param concreteDomainSupported - whether concrete domain members were collected
+	 * @return the stored taxonomy, or <code>null</code> if no matching snapshot exists or it can not be read
+	 */
+	public ReasonerTaxonomy get(final String branchPath, final long headTimestamp, final Set<String> excludedModuleIds, final boolean concreteDomainSupported) {
+		final Path file = getFile(branchPath, headTimestamp, excludedModuleIds, concreteDomainSupported);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		try {
+			final ReasonerTaxonomy taxonomy = ReasonerTaxonomySnapshot.read(file);
+			touchQuietly(file);
+			LOGGER.info("Restored reasoner taxonomy of '{}' from snapshot in {}", branchPath, stopwatch);
+			return taxonomy;
+		} catch (final IOException | RuntimeException e) {
+			LOGGER.warn("Couldn't read reasoner taxonomy snapshot of '{}', discarding it.", branchPath, e);
+			deleteQuietly(file);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the given taxonomy as the latest snapshot of the branch, removing any earlier snapshots of the same branch, and snapshots of
+	 * the least recently used branches if the number of branches exceeds the limit.
+	 *
+	 * @param branchPath - the path of the classified branch
+	 * @param headTimestamp - the head timestamp of the branch the taxonomy reflects
+	 * @param excludedModuleIds - module IDs excluded from classification
+	 * @param concreteDomainSupported - whether concrete domain members were collected
+	 * @param taxonomy - the taxonomy to store
+	 */
+	public void put(final String branchPath, final long headTimestamp, final Set<String> excludedModuleIds, final boolean concreteDomainSupported, final ReasonerTaxonomy taxonomy) {
+		final Path file = getFile(branchPath, headTimestamp, excludedModuleIds, concreteDomainSupported);
+		final Path branchDirectory = file.getParent();
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		Path tempFile = null;
+		try {
+			Files.createDirectories(branchDirectory);
+			tempFile = Files.createTempFile(branchDirectory, "snapshot", ".tmp");
+			ReasonerTaxonomySnapshot.write(taxonomy, tempFile);
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			LOGGER.info("Stored reasoner taxonomy snapshot of '{}' in {}", branchPath, stopwatch);
+		} catch (final IOException | RuntimeException e) {
+			LOGGER.warn("Couldn't store reasoner taxonomy snapshot of '{}'.", branchPath, e);
+			if (tempFile != null) {
+				deleteQuietly(tempFile);
+			}
+			return;
+		}
+
+		try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(branchDirectory, "*" + EXTENSION)) {
+			for (final Path snapshot : snapshots) {
+				if (!snapshot.equals(file)) {
+					deleteQuietly(snapshot);
+				}
+			}
+		} catch (final IOException e) {
+			LOGGER.warn("Couldn't remove earlier reasoner taxonomy snapshots of '{}'.", branchPath, e);
+		}
+		
+		evictLeastRecentlyUsedBranches();
+	}
+
+	/*
+	 * Removes the snapshots of branches beyond the configured limit, starting with the branch whose snapshot was written or read least
+	 * recently.
+	 */
+	private synchronized void evictLeastRecentlyUsedBranches() {
+		final Map<Path, FileTime> lastUsedTimes = Maps.newHashMap();
+		try (DirectoryStream<Path> branchDirectories = Files.newDirectoryStream(directory, Files::isDirectory)) {
+			for (final Path branchDirectory : branchDirectories) {
+				lastUsedTimes.put(branchDirectory, getLastUsedTime(branchDirectory));
+			}
+		} catch (final IOException e) {
+			LOGGER.warn("Couldn't list reasoner taxonomy snapshots in '{}'.", directory, e);
+			return;
+		}
+		
+		if (lastUsedTimes.size() <= maximumBranches) {
+			return;
+		}
+		
+		final List<Path> branchDirectoriesToEvict = lastUsedTimes.keySet()
+				.stream()
+				.sorted(Comparator.comparing(lastUsedTimes::get))
+				.limit(lastUsedTimes.size() - maximumBranches)
+				.toList();
+		
+		for (final Path branchDirectory : branchDirectoriesToEvict) {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(branchDirectory)) {
+				for (final Path file : files) {
+					deleteQuietly(file);
+				}
+			} catch (final IOException e) {
+				LOGGER.warn("Couldn't remove reasoner taxonomy snapshots in '{}'.", branchDirectory, e);
+			}
+			deleteQuietly(branchDirectory);
+		}
+	}
+
+	private static FileTime getLastUsedTime(final Path branchDirectory) throws IOException {
+		FileTime lastUsedTime = FileTime.fromMillis(0L);
+		try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(branchDirectory, "*" + EXTENSION)) {
+			for (final Path snapshot : snapshots) {
+				final FileTime lastModifiedTime = Files.getLastModifiedTime(snapshot);
+				if (lastModifiedTime.compareTo(lastUsedTime) > 0) {
+					lastUsedTime = lastModifiedTime;
+				}
+			}
+		}
+		return lastUsedTime;
+	}
+
+	private Path getFile(final String branchPath, final long headTimestamp, final Set<String> excludedModuleIds, final boolean concreteDomainSupported) {
+		final String branchKey = Hashing.murmur3_128()
+				.hashString(branchPath, StandardCharsets.UTF_8)
+				.toString();
+
+		final Hasher settingsHasher = Hashing.murmur3_128().newHasher();
+		settingsHasher.putBoolean(concreteDomainSupported);
+		new TreeSet<>(excludedModuleIds).forEach(moduleId -> settingsHasher.putString(moduleId, StandardCharsets.UTF_8));
+
+		return directory.resolve(branchKey).resolve(headTimestamp + "-" + settingsHasher.hash() + EXTENSION);
+	}
+
+	private static void touchQuietly(final Path file) {
+		try {
+			// The modification time of the snapshot tracks when the branch was last used
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (final IOException e) {
+			LOGGER.debug("Couldn't update the modification time of '{}'.", file, e);
+		}
+	}
+
+	private static void deleteQuietly(final Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (final IOException e) {
+			// Files that are still mapped may not be deleted on some platforms; a later put will try again
+			LOGGER.debug("Couldn't delete '{}'.", file, e);
+		}
+	}
+}
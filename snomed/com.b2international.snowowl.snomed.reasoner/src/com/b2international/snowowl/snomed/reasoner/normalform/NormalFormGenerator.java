@@ -19,6 +19,7 @@
  */
 package com.b2international.snowowl.snomed.reasoner.normalform;
 
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
@@ -26,16 +27,24 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveLists;
 import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyIntMap;
+import com.b2international.collections.longs.LongKeyLongMap;
 import com.b2international.collections.longs.LongKeyMap;
 import com.b2international.collections.longs.LongList;
 import com.b2international.collections.longs.LongSet;
@@ -73,6 +82,9 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	private final LongKeyMap<Collection<ConcreteDomainFragment>> concreteDomainCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final Map<Long, NodeGraph> transitiveNodeGraphs = newHashMap();
 	private final boolean inferConcreteDomainRefsetMembers;
+	private final NormalFormSnapshot previousSnapshot;
+	private final int parallelism;
+	private NormalFormSnapshot snapshot;
 	
 	/**
 	 * Creates a new distribution normal form generator instance.
@@ -82,8 +94,60 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	 *                         contents of the branch (may not be {@code null})
 	 */
 	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final boolean inferConcreteDomainRefsetMembers) {
+		this(reasonerTaxonomy, inferConcreteDomainRefsetMembers, null);
+	}
+	
+	/**
+	 * Creates a new distribution normal form generator instance that computes
+	 * normal forms incrementally.
+	 *
+	 * @param reasonerTaxonomy used for querying the concept hierarchy inferred by
+	 *                         the reasoner, as well as the pre-classification
+	 *                         contents of the branch (may not be {@code null})
+	 * @param previousSnapshot the snapshot of an earlier run to reuse unaffected
+	 *                         normal forms from (may be {@code null})
+	 * @since 9.5
+	 */
+	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final boolean inferConcreteDomainRefsetMembers, final NormalFormSnapshot previousSnapshot) {
+		this(reasonerTaxonomy, inferConcreteDomainRefsetMembers, previousSnapshot, 1);
+	}
+	
+	/**
+	 * Creates a new distribution normal form generator instance that computes
+	 * normal forms incrementally, using multiple threads.
+	 * <p>
+	 * If parallelism is greater than one, concepts are processed in waves, where
+	 * each wave contains concepts whose inferred parents were all processed in
+	 * earlier waves. Normal forms within a wave are computed concurrently, while
+	 * caches and change processors are updated by the calling thread between
+	 * waves. Cached normal forms are dropped after the last wave that contains
+	 * any of the concept's children.
+	 *
+	 * @param reasonerTaxonomy used for querying the concept hierarchy inferred by
+	 *                         the reasoner, as well as the pre-classification
+	 *                         contents of the branch (may not be {@code null})
+	 * @param previousSnapshot the snapshot of an earlier run to reuse unaffected
+	 *                         normal forms from (may be {@code null})
+	 * @param parallelism      the number of threads to use for computing normal
+	 *                         forms
+	 * @since 9.5
+	 */
+	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final boolean inferConcreteDomainRefsetMembers, final NormalFormSnapshot previousSnapshot, final int parallelism) {
 		this.reasonerTaxonomy = reasonerTaxonomy;
 		this.inferConcreteDomainRefsetMembers = inferConcreteDomainRefsetMembers;
+		this.previousSnapshot = previousSnapshot;
+		this.parallelism = Math.max(1, parallelism);
+	}
+	
+	/**
+	 * @return the normal forms computed by the last {@link #computeChanges} call,
+	 *         or {@code null} if no changes were computed yet, or the taxonomy
+	 *         uses property chains (which are not supported by incremental
+	 *         computation)
+	 * @since 9.5
+	 */
+	public NormalFormSnapshot getSnapshot() {
+		return snapshot;
 	}
 
 	@Override
@@ -97,8 +161,15 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		final LongList entries = reasonerTaxonomy.getIterationOrder();
 		final SubMonitor subMonitor = SubMonitor.convert(monitor, "Generating distribution normal form...", entries.size() * 2);
 
+		final ForkJoinPool pool = (parallelism > 1) ? new ForkJoinPool(parallelism) : null;
+		
 		try {
 
+			final List<Wave> waves = (pool != null) ? computeWaves(entries) : null;
+			if (pool != null) {
+				LOGGER.info("--- Processing concepts in {} waves using {} threads", waves.size(), parallelism);
+			}
+			
 			LongSet previousLayer = null;
 			LongSet currentLayer = PrimitiveSets.newLongOpenHashSet();
 			
@@ -118,28 +189,33 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 			
 
 				// Round 1: build alternative hierarchies
-				for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
-					final long conceptId = itr.next();
-	
-					if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-						if (previousLayer != null) {
-							invalidate(previousLayer);
+				if (pool != null) {
+					for (final Wave wave : waves) {
+						final NormalForm[] normalForms = computeInParallel(pool, wave.conceptIds(), conceptId -> computeProperties(conceptId, false), NormalForm[]::new);
+						for (int i = 0; i < normalForms.length; i++) {
+							final long conceptId = wave.conceptIds().get(i);
+							putProperties(conceptId, normalForms[i]);
+							addToNodeGraphs(conceptId);
 						}
-	
-						previousLayer = currentLayer;
-						currentLayer = PrimitiveSets.newLongOpenHashSet();
-						continue;
+						invalidate(wave.expiredConceptIds());
+					}
+				} else {
+					for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
+						final long conceptId = itr.next();
+		
+						if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+							if (previousLayer != null) {
+								invalidate(previousLayer);
+							}
+		
+							previousLayer = currentLayer;
+							currentLayer = PrimitiveSets.newLongOpenHashSet();
+							continue;
+						}
+		
+						precomputeProperties(conceptId, false);
+						addToNodeGraphs(conceptId);
 					}
-	
-					precomputeProperties(conceptId, false);
-					
-					final Collection<StatementFragment> inferredNonIsAFragments = statementCache.get(conceptId);
-					inferredNonIsAFragments.stream()
-						.filter(r -> transitiveNodeGraphs.keySet().contains(r.getTypeId()))
-						.filter(StatementFragmentWithDestination.class::isInstance)
-						.map(StatementFragmentWithDestination.class::cast)
-						.forEachOrdered(r -> transitiveNodeGraphs.get(r.getTypeId())
-								.addParent(conceptId, r.getDestinationId()));
 				}
 				
 				// Clear the last layer of concepts
@@ -154,38 +230,171 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		
 			LOGGER.info("--- Use node graphs for hierarchy computation");
 			
+			/*
+			 * Normal forms are tracked (and reused from the previous snapshot, if possible) only if no property chains are present, as
+			 * those introduce dependencies between concepts that are not captured by the inferred hierarchy.
+			 */
+			final NormalFormSnapshot.Builder snapshotBuilder;
+			final NormalFormSnapshot reusableSnapshot;
+			final LongSet hierarchyChanges;
+			final LongSet recomputedConceptIds = PrimitiveSets.newLongOpenHashSet();
+			
+			if (!propertyChainsPresent) {
+				final long globalHash = NormalFormSnapshot.globalHash(reasonerTaxonomy, inferConcreteDomainRefsetMembers);
+				snapshotBuilder = NormalFormSnapshot.builder(globalHash, entries.size());
+				reusableSnapshot = (previousSnapshot != null && previousSnapshot.getGlobalHash() == globalHash) ? previousSnapshot : null;
+				hierarchyChanges = collectHierarchyChanges(entries, snapshotBuilder, reusableSnapshot);
+			} else {
+				snapshotBuilder = null;
+				reusableSnapshot = null;
+				hierarchyChanges = null;
+			}
+			
 			// Round 2: record changes using the hierarchies
-			for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
-				final long conceptId = itr.next();
-
-				if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-					if (previousLayer != null) {
-						invalidate(previousLayer);
+			if (pool != null) {
+				for (final Wave wave : waves) {
+					final ConceptNormalForm[] normalForms = computeInParallel(pool, wave.conceptIds(), 
+							conceptId -> computeConceptNormalForm(conceptId, propertyChainsPresent, snapshotBuilder != null, reusableSnapshot, hierarchyChanges, recomputedConceptIds), 
+							ConceptNormalForm[]::new);
+					for (final ConceptNormalForm normalForm : normalForms) {
+						recordChanges(normalForm, snapshotBuilder, recomputedConceptIds, statementProcessor, concreteDomainProcessor, subMonitor);
 					}
-
-					previousLayer = currentLayer;
-					currentLayer = PrimitiveSets.newLongOpenHashSet();
-					continue;
+					invalidate(wave.expiredConceptIds());
+				}
+			} else {
+				for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
+					final long conceptId = itr.next();
+	
+					if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+						if (previousLayer != null) {
+							invalidate(previousLayer);
+						}
+	
+						previousLayer = currentLayer;
+						currentLayer = PrimitiveSets.newLongOpenHashSet();
+						continue;
+					}
+	
+					final ConceptNormalForm normalForm = computeConceptNormalForm(conceptId, propertyChainsPresent, snapshotBuilder != null, reusableSnapshot, hierarchyChanges, recomputedConceptIds);
+					recordChanges(normalForm, snapshotBuilder, recomputedConceptIds, statementProcessor, concreteDomainProcessor, subMonitor);
 				}
-
-				// Run costly comparison of property chain hierarchies only if there are any
-				precomputeProperties(conceptId, propertyChainsPresent);
-
-				final Collection<StatementFragment> existingStatements = reasonerTaxonomy.getExistingInferredRelationships().get(conceptId);
-				final Collection<StatementFragment> targetStatements = getTargetRelationships(conceptId);
-				statementProcessor.apply(conceptId, existingStatements, targetStatements, StatementFragmentOrdering.INSTANCE, subMonitor.newChild(1));
-
-				final Collection<ConcreteDomainFragment> existingMembers = reasonerTaxonomy.getInferredConcreteDomainMembers().get(Long.toString(conceptId));
-				final Collection<ConcreteDomainFragment> targetMembers = getTargetMembers(conceptId);
-				concreteDomainProcessor.apply(conceptId, existingMembers, targetMembers, ConcreteDomainChangeOrdering.INSTANCE, subMonitor.newChild(1));
+			}
+			
+			snapshot = (snapshotBuilder != null) ? snapshotBuilder.build() : null;
+			
+			if (reusableSnapshot != null) {
+				LOGGER.info("--- Reused normal forms of {} concepts, recomputed {} concepts", snapshot.size() - recomputedConceptIds.size(), recomputedConceptIds.size());
 			}
 
 		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
 			subMonitor.done();
 			LOGGER.info("<<< Distribution normal form generation [{}]", stopwatch.toString());
 		}
 	}
 
+	/*
+	 * Records the inferred ancestor fingerprint of all concepts, and collects concepts whose set of inferred ancestors is different from (or
+	 * not present in) the reusable snapshot. Concepts that are no longer present are also included.
+	 */
+	private LongSet collectHierarchyChanges(final LongList entries, final NormalFormSnapshot.Builder snapshotBuilder, final NormalFormSnapshot reusableSnapshot) {
+		final LongSet hierarchyChanges = PrimitiveSets.newLongOpenHashSet();
+		final LongSet visitedConceptIds = PrimitiveSets.newLongOpenHashSetWithExpectedSize(entries.size());
+		
+		for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+				continue;
+			}
+			
+			final long ancestorHash = NormalFormSnapshot.ancestorHash(reasonerTaxonomy, conceptId);
+			snapshotBuilder.putAncestorHash(conceptId, ancestorHash);
+			visitedConceptIds.add(conceptId);
+			
+			if (reusableSnapshot != null) {
+				final LongKeyLongMap previousAncestorHashes = reusableSnapshot.getAncestorHashes();
+				if (!previousAncestorHashes.containsKey(conceptId) || previousAncestorHashes.get(conceptId) != ancestorHash) {
+					hierarchyChanges.add(conceptId);
+				}
+			}
+		}
+		
+		if (reusableSnapshot != null) {
+			for (final LongIterator itr = reusableSnapshot.getAncestorHashes().keySet().iterator(); itr.hasNext(); /* empty */) {
+				final long conceptId = itr.next();
+				if (!visitedConceptIds.contains(conceptId)) {
+					hierarchyChanges.add(conceptId);
+				}
+			}
+		}
+		
+		return hierarchyChanges;
+	}
+	
+	/*
+	 * The normal form of a concept can be reused if its own properties did not change, none of its parents had to be recomputed, and none of
+	 * the properties it is computed from refer to a concept (as type or destination) whose position in the inferred hierarchy changed.
+	 */
+	private boolean canReuse(final NormalFormSnapshot reusableSnapshot, 
+			final long conceptId, 
+			final long inputHash, 
+			final LongSet hierarchyChanges, 
+			final LongSet recomputedConceptIds) {
+		
+		if (!reusableSnapshot.contains(conceptId) || reusableSnapshot.getInputHash(conceptId) != inputHash) {
+			return false;
+		}
+		
+		if (hierarchyChanges.contains(conceptId)) {
+			return false;
+		}
+		
+		final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
+		for (final LongIterator itr = parentIds.iterator(); itr.hasNext(); /* empty */) {
+			if (recomputedConceptIds.contains(itr.next())) {
+				return false;
+			}
+		}
+		
+		if (hierarchyChanges.isEmpty()) {
+			return true;
+		}
+		
+		final String referencedComponentId = Long.toString(conceptId);
+		return !referencesAny(reasonerTaxonomy.getStatedRelationships().get(conceptId), hierarchyChanges)
+				&& !referencesAny(reasonerTaxonomy.getAxiomNonIsARelationships().get(conceptId), hierarchyChanges)
+				&& !referencesAny(reasonerTaxonomy.getAdditionalGroupedRelationships().get(conceptId), hierarchyChanges)
+				&& !referencesAny(reasonerTaxonomy.getExistingInferredRelationships().get(conceptId), hierarchyChanges)
+				&& !referencesAny(reusableSnapshot.getStatements(conceptId), hierarchyChanges)
+				&& !referencesAnyType(reasonerTaxonomy.getStatedConcreteDomainMembers().get(referencedComponentId), hierarchyChanges)
+				&& !referencesAnyType(reasonerTaxonomy.getAdditionalGroupedConcreteDomainMembers().get(referencedComponentId), hierarchyChanges)
+				&& !referencesAnyType(reasonerTaxonomy.getInferredConcreteDomainMembers().get(referencedComponentId), hierarchyChanges)
+				&& !referencesAnyType(reusableSnapshot.getMembers(conceptId), hierarchyChanges);
+	}
+	
+	private static boolean referencesAny(final Collection<StatementFragment> fragments, final LongSet conceptIds) {
+		for (final StatementFragment fragment : fragments) {
+			if (conceptIds.contains(fragment.getTypeId())) {
+				return true;
+			}
+			if (fragment instanceof StatementFragmentWithDestination withDestination && conceptIds.contains(withDestination.getDestinationId())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean referencesAnyType(final Collection<ConcreteDomainFragment> fragments, final LongSet conceptIds) {
+		for (final ConcreteDomainFragment fragment : fragments) {
+			if (conceptIds.contains(fragment.getTypeId()) || conceptIds.contains(fragment.getRefSetId())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Indicates that the breadth-first iteration has reached a new level in the tree.
 	 * Generators are free to drop caches associated with components in the previous
@@ -198,7 +407,134 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		concreteDomainCache.keySet().removeAll(keysToInvalidate);
 	}
 
+	/*
+	 * Computes the normal form of a single concept in round 2, reusing the result from the given snapshot if the concept is not affected
+	 * by any changes. Only reads shared state, so it can be called concurrently for concepts whose parents were all recorded already.
+	 */
+	private ConceptNormalForm computeConceptNormalForm(final long conceptId,
+			final boolean useNodeGraphs,
+			final boolean computeInputHash,
+			final NormalFormSnapshot reusableSnapshot,
+			final LongSet hierarchyChanges,
+			final LongSet recomputedConceptIds) {
+		
+		final long inputHash = computeInputHash ? NormalFormSnapshot.inputHash(reasonerTaxonomy, conceptId) : 0L;
+		
+		if (reusableSnapshot != null && canReuse(reusableSnapshot, conceptId, inputHash, hierarchyChanges, recomputedConceptIds)) {
+			final NormalForm normalForm = new NormalForm(reusableSnapshot.getStatements(conceptId), reusableSnapshot.getMembers(conceptId));
+			return new ConceptNormalForm(conceptId, inputHash, true, normalForm);
+		} else {
+			// Run costly comparison of property chain hierarchies only if there are any
+			return new ConceptNormalForm(conceptId, inputHash, false, computeProperties(conceptId, useNodeGraphs));
+		}
+	}
+	
+	/*
+	 * Places a computed normal form in the caches, and reports the differences compared to existing inferred properties to the processors.
+	 */
+	private void recordChanges(final ConceptNormalForm result,
+			final NormalFormSnapshot.Builder snapshotBuilder,
+			final LongSet recomputedConceptIds,
+			final OntologyChangeProcessor<StatementFragment> statementProcessor,
+			final OntologyChangeProcessor<ConcreteDomainFragment> concreteDomainProcessor,
+			final SubMonitor subMonitor) {
+		
+		final long conceptId = result.conceptId();
+		putProperties(conceptId, result.normalForm());
+		
+		if (!result.reused()) {
+			recomputedConceptIds.add(conceptId);
+		}
+		
+		if (snapshotBuilder != null) {
+			snapshotBuilder.put(conceptId, result.inputHash(), statementCache.get(conceptId), concreteDomainCache.get(conceptId));
+		}
+
+		final Collection<StatementFragment> existingStatements = reasonerTaxonomy.getExistingInferredRelationships().get(conceptId);
+		final Collection<StatementFragment> targetStatements = getTargetRelationships(conceptId);
+		statementProcessor.apply(conceptId, existingStatements, targetStatements, StatementFragmentOrdering.INSTANCE, subMonitor.newChild(1));
+
+		final Collection<ConcreteDomainFragment> existingMembers = reasonerTaxonomy.getInferredConcreteDomainMembers().get(Long.toString(conceptId));
+		final Collection<ConcreteDomainFragment> targetMembers = getTargetMembers(conceptId);
+		concreteDomainProcessor.apply(conceptId, existingMembers, targetMembers, ConcreteDomainChangeOrdering.INSTANCE, subMonitor.newChild(1));
+	}
+	
+	private void addToNodeGraphs(final long conceptId) {
+		final Collection<StatementFragment> inferredNonIsAFragments = statementCache.get(conceptId);
+		inferredNonIsAFragments.stream()
+			.filter(r -> transitiveNodeGraphs.keySet().contains(r.getTypeId()))
+			.filter(StatementFragmentWithDestination.class::isInstance)
+			.map(StatementFragmentWithDestination.class::cast)
+			.forEachOrdered(r -> transitiveNodeGraphs.get(r.getTypeId())
+					.addParent(conceptId, r.getDestinationId()));
+	}
+	
+	/*
+	 * Splits the iteration order into waves; each concept is placed in the wave following the last wave that contains any of its inferred
+	 * parents. Concepts within a single wave do not depend on each other and keep their relative iteration order. The cached normal form
+	 * of a concept expires with the last wave that contains the concept itself or any of its inferred children.
+	 */
+	private List<Wave> computeWaves(final LongList entries) {
+		final LongKeyIntMap waveIndexes = PrimitiveMaps.newLongKeyIntOpenHashMapWithExpectedSize(entries.size());
+		final LongKeyIntMap lastUsedWaveIndexes = PrimitiveMaps.newLongKeyIntOpenHashMapWithExpectedSize(entries.size());
+		final List<Wave> waves = newArrayList();
+		
+		for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+				continue;
+			}
+			
+			int waveIndex = 0;
+			final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
+			for (final LongIterator parentItr = parentIds.iterator(); parentItr.hasNext(); /* empty */) {
+				final long parentId = parentItr.next();
+				if (waveIndexes.containsKey(parentId)) {
+					waveIndex = Math.max(waveIndex, waveIndexes.get(parentId) + 1);
+				}
+			}
+			
+			waveIndexes.put(conceptId, waveIndex);
+			lastUsedWaveIndexes.put(conceptId, waveIndex);
+			for (final LongIterator parentItr = parentIds.iterator(); parentItr.hasNext(); /* empty */) {
+				final long parentId = parentItr.next();
+				if (lastUsedWaveIndexes.containsKey(parentId)) {
+					lastUsedWaveIndexes.put(parentId, Math.max(lastUsedWaveIndexes.get(parentId), waveIndex));
+				}
+			}
+			
+			if (waveIndex == waves.size()) {
+				waves.add(new Wave(PrimitiveLists.newLongArrayList(), PrimitiveSets.newLongOpenHashSet()));
+			}
+			waves.get(waveIndex).conceptIds().add(conceptId);
+		}
+		
+		for (final LongIterator itr = lastUsedWaveIndexes.keySet().iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+			waves.get(lastUsedWaveIndexes.get(conceptId)).expiredConceptIds().add(conceptId);
+		}
+		
+		return waves;
+	}
+	
+	private static <T> T[] computeInParallel(final ForkJoinPool pool, final LongList wave, final LongFunction<T> function, final IntFunction<T[]> arrayFactory) {
+		final T[] results = arrayFactory.apply(wave.size());
+		pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, results.length)
+				.parallel()
+				.forEach(i -> results[i] = function.apply(wave.get(i)))));
+		return results;
+	}
+	
 	private void precomputeProperties(final long conceptId, final boolean useNodeGraphs) {
+		putProperties(conceptId, computeProperties(conceptId, useNodeGraphs));
+	}
+	
+	private void putProperties(final long conceptId, final NormalForm normalForm) {
+		statementCache.put(conceptId, normalForm.statements());
+		concreteDomainCache.put(conceptId, normalForm.members());
+	}
+
+	private NormalForm computeProperties(final long conceptId, final boolean useNodeGraphs) {
 		final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
 
 		/*
@@ -260,9 +596,9 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 				candidateMembers,
 				useNodeGraphs);
 
-		// Extract results; place them in the cache, so following concepts can re-use it
-		statementCache.put(conceptId, ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)));
-		concreteDomainCache.put(conceptId, ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
+		// Extract results; these are placed in the cache, so following concepts can re-use it
+		return new NormalForm(ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)), 
+				ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
 	}
 
 	private NormalFormGroupSet getTargetGroupSet(final long conceptId,
@@ -569,4 +905,10 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	private Collection<ConcreteDomainFragment> getTargetMembers(final long conceptId) {
 		return concreteDomainCache.get(conceptId);
 	}
+
+	private record NormalForm(Collection<StatementFragment> statements, Collection<ConcreteDomainFragment> members) { }
+	
+	private record ConceptNormalForm(long conceptId, long inputHash, boolean reused, NormalForm normalForm) { }
+	
+	private record Wave(LongList conceptIds, LongSet expiredConceptIds) { }
 }
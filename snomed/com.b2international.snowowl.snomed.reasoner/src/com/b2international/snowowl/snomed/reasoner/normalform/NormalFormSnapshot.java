@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024 B2i Healthcare, https://b2ihealthcare.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.normalform;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.longs.LongKeyLongMap;
+import com.b2international.collections.longs.LongKeyMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Captures the distribution normal form computed for each concept in a classification run, along with fingerprints of the inputs that the
+ * normal form of each concept was computed from. A subsequent run can use the snapshot to skip normal form computation for concepts whose
+ * inputs did not change.
+ * <p>
+ * Reusing a snapshot is always safe: results are only reused if all fingerprints match, regardless of which branch or point in time the
+ * snapshot was taken on.
+ *
+ * @since 9.5
+ */
+public final class NormalFormSnapshot {
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final long globalHash;
+	private final LongKeyLongMap inputHashes;
+	private final LongKeyLongMap ancestorHashes;
+	private final LongKeyMap<Collection<StatementFragment>> statements;
+	private final LongKeyMap<Collection<ConcreteDomainFragment>> members;
+
+	private NormalFormSnapshot(final long globalHash,
+			final LongKeyLongMap inputHashes,
+			final LongKeyLongMap ancestorHashes,
+			final LongKeyMap<Collection<StatementFragment>> statements,
+			final LongKeyMap<Collection<ConcreteDomainFragment>> members) {
+		this.globalHash = globalHash;
+		this.inputHashes = inputHashes;
+		this.ancestorHashes = ancestorHashes;
+		this.statements = statements;
+		this.members = members;
+	}
+
+	long getGlobalHash() {
+		return globalHash;
+	}
+
+	boolean contains(final long conceptId) {
+		return inputHashes.containsKey(conceptId);
+	}
+
+	long getInputHash(final long conceptId) {
+		return inputHashes.get(conceptId);
+	}
+
+	LongKeyLongMap getAncestorHashes() {
+		return ancestorHashes;
+	}
+
+	Collection<StatementFragment> getStatements(final long conceptId) {
+		return statements.get(conceptId);
+	}
+
+	Collection<ConcreteDomainFragment> getMembers(final long conceptId) {
+		return members.get(conceptId);
+	}
+
+	public int size() {
+		return inputHashes.size();
+	}
+
+	/*
+	 * Fingerprints taxonomy-wide inputs; if any of these change, no result from a previous snapshot can be reused.
+	 */
+	static long globalHash(final ReasonerTaxonomy taxonomy, final boolean inferConcreteDomainRefsetMembers) {
+		final Hasher hasher = HASH_FUNCTION.newHasher();
+		hasher.putBoolean(inferConcreteDomainRefsetMembers);
+		final long[] exhaustiveConceptIds = taxonomy.getExhaustiveConcepts().toLongList().toArray();
+		Arrays.sort(exhaustiveConceptIds);
+		putLongs(hasher, exhaustiveConceptIds);
+		return hasher.hash().asLong();
+	}
+
+	/*
+	 * Fingerprints the stated and existing inferred properties of a single concept.
+	 */
+	static long inputHash(final ReasonerTaxonomy taxonomy, final long conceptId) {
+		final String referencedComponentId = Long.toString(conceptId);
+		final Hasher hasher = HASH_FUNCTION.newHasher();
+		putFragments(hasher, taxonomy.getStatedRelationships().get(conceptId));
+		putFragments(hasher, taxonomy.getAxiomNonIsARelationships().get(conceptId));
+		putFragments(hasher, taxonomy.getAdditionalGroupedRelationships().get(conceptId));
+		putFragments(hasher, taxonomy.getExistingInferredRelationships().get(conceptId));
+		putFragments(hasher, taxonomy.getStatedConcreteDomainMembers().get(referencedComponentId));
+		putFragments(hasher, taxonomy.getAdditionalGroupedConcreteDomainMembers().get(referencedComponentId));
+		putFragments(hasher, taxonomy.getInferredConcreteDomainMembers().get(referencedComponentId));
+		return hasher.hash().asLong();
+	}
+
+	/*
+	 * Fingerprints the set of inferred ancestors of a single concept.
+	 */
+	static long ancestorHash(final ReasonerTaxonomy taxonomy, final long conceptId) {
+		final LongSet ancestorIds = taxonomy.getInferredAncestors().getDestinations(conceptId, false);
+		final long[] sortedAncestorIds = ancestorIds.toArray();
+		Arrays.sort(sortedAncestorIds);
+		final Hasher hasher = HASH_FUNCTION.newHasher();
+		putLongs(hasher, sortedAncestorIds);
+		return hasher.hash().asLong();
+	}
+
+	private static void putLongs(final Hasher hasher, final long[] values) {
+		hasher.putInt(values.length);
+		for (final long value : values) {
+			hasher.putLong(value);
+		}
+	}
+
+	private static void putFragments(final Hasher hasher, final Collection<?> fragments) {
+		// Fragments are compared by their string representation (which includes all fields), independent of their order
+		final List<String> values = fragments.stream()
+				.map(Object::toString)
+				.sorted()
+				.toList();
+		hasher.putInt(values.size());
+		values.forEach(value -> hasher.putString(value, StandardCharsets.UTF_8));
+	}
+
+	static Builder builder(final long globalHash, final int expectedSize) {
+		return new Builder(globalHash, expectedSize);
+	}
+
+	static final class Builder {
+
+		private final long globalHash;
+		private final LongKeyLongMap inputHashes;
+		private final LongKeyLongMap ancestorHashes;
+		private final LongKeyMap<Collection<StatementFragment>> statements;
+		private final LongKeyMap<Collection<ConcreteDomainFragment>> members;
+
+		private Builder(final long globalHash, final int expectedSize) {
+			this.globalHash = globalHash;
+			this.inputHashes = PrimitiveMaps.newLongKeyLongOpenHashMapWithExpectedSize(expectedSize);
+			this.ancestorHashes = PrimitiveMaps.newLongKeyLongOpenHashMapWithExpectedSize(expectedSize);
+			this.statements = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(expectedSize);
+			this.members = PrimitiveMaps.newLongKeyOpenHashMapWithExpectedSize(expectedSize);
+		}
+
+		void putAncestorHash(final long conceptId, final long ancestorHash) {
+			ancestorHashes.put(conceptId, ancestorHash);
+		}
+
+		void put(final long conceptId,
+				final long inputHash,
+				final Collection<StatementFragment> conceptStatements,
+				final Collection<ConcreteDomainFragment> conceptMembers) {
+			inputHashes.put(conceptId, inputHash);
+			statements.put(conceptId, conceptStatements);
+			members.put(conceptId, conceptMembers);
+		}
+
+		NormalFormSnapshot build() {
+			return new NormalFormSnapshot(globalHash, inputHashes, ancestorHashes, statements, members);
+		}
+	}
+}
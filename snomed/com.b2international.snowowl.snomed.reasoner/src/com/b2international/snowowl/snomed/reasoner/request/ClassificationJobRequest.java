@@ -19,6 +19,7 @@ import static com.b2international.snowowl.snomed.common.SnomedTerminologyCompone
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -54,9 +55,12 @@ import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfigurati
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
+import com.b2international.snowowl.snomed.reasoner.classification.NormalFormSnapshotCache;
 import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomySnapshotStore;
 import com.b2international.snowowl.snomed.reasoner.exceptions.ReasonerApiException;
 import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGenerator;
+import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormSnapshot;
 import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
 import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntologyFactory;
 
@@ -135,11 +139,24 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		final SnomedCoreConfiguration configuration = context.service(SnomedCoreConfiguration.class);
 		final boolean concreteDomainSupported = configuration.isConcreteDomainSupported();
 
-		final ReasonerTaxonomy taxonomy;
-		try (Locks<BranchContext> locks = Locks.forContext(DatastoreLockContextDescriptions.CLASSIFY, parentLockContext).lock(context)) {
-			taxonomy = buildTaxonomy(revisionSearcher, reasonerExcludedModuleIds, concreteDomainSupported, PAGE_SIZE);
-		} catch (final LockedException e) {
-			throw new ReasonerApiException("Couldn't acquire exclusive access to terminology store for classification; %s", e.getMessage(), e);
+		// Snapshots only reflect branch content, additional concepts are always added to a freshly built taxonomy
+		final Optional<ReasonerTaxonomySnapshotStore> taxonomySnapshots = context.optionalService(ReasonerTaxonomySnapshotStore.class)
+				.filter(store -> additionalConcepts.isEmpty());
+		final long headTimestamp = revisionSearcher.ref().head();
+		
+		ReasonerTaxonomy taxonomy = taxonomySnapshots
+				.map(store -> store.get(context.path(), headTimestamp, reasonerExcludedModuleIds, concreteDomainSupported))
+				.orElse(null);
+		
+		if (taxonomy == null) {
+			try (Locks<BranchContext> locks = Locks.forContext(DatastoreLockContextDescriptions.CLASSIFY, parentLockContext).lock(context)) {
+				taxonomy = buildTaxonomy(revisionSearcher, reasonerExcludedModuleIds, concreteDomainSupported, PAGE_SIZE);
+			} catch (final LockedException e) {
+				throw new ReasonerApiException("Couldn't acquire exclusive access to terminology store for classification; %s", e.getMessage(), e);
+			}
+			
+			final ReasonerTaxonomy builtTaxonomy = taxonomy;
+			taxonomySnapshots.ifPresent(store -> store.put(context.path(), headTimestamp, reasonerExcludedModuleIds, concreteDomainSupported, builtTaxonomy));
 		}
 		
 		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
@@ -151,9 +168,16 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 			final DelegateOntology ontology = (DelegateOntology) ontologyManager.createOntology(ontologyIRI);
 			final ReasonerTaxonomyInferrer inferrer = new ReasonerTaxonomyInferrer(reasonerId, ontology, context);
 			final ReasonerTaxonomy inferredTaxonomy = inferrer.addInferences(taxonomy);
-			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy, concreteDomainSupported);
+			final Optional<NormalFormSnapshotCache> snapshotCache = context.optionalService(NormalFormSnapshotCache.class);
+			final NormalFormSnapshot previousSnapshot = snapshotCache.map(cache -> cache.get(context.path())).orElse(null);
+			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy, concreteDomainSupported, previousSnapshot, configuration.getNormalFormParallelism());
 			
 			tracker.classificationCompleted(classificationId, inferredTaxonomy, normalFormGenerator);
+			
+			// Additional concepts are not part of the branch content, results computed with them should not be reused on the next run
+			if (additionalConcepts.isEmpty()) {
+				snapshotCache.ifPresent(cache -> cache.put(context.path(), normalFormGenerator.getSnapshot()));
+			}
 
 		} catch (final OWLOntologyCreationException e) {
 			throw new ReasonerApiException("Exception caught while creating ontology instance.", e);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2023 B2i Healthcare, https://b2ihealthcare.com
+ * Copyright 2020-2024 B2i Healthcare, https://b2ihealthcare.com
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,7 @@ import com.b2international.snowowl.core.terminology.TerminologyRegistry;
 import com.b2international.snowowl.core.uri.ResourceURIPathResolver;
 import com.b2international.snowowl.core.validation.ValidateRequestBuilder;
 import com.b2international.snowowl.core.validation.ValidationRequests;
+import com.b2international.snowowl.core.validation.ValidationRuleCheckpoint;
 import com.b2international.snowowl.core.validation.issue.ValidationIssue;
 import com.b2international.snowowl.core.validation.issue.ValidationIssueDetailExtensionProvider;
 import com.b2international.snowowl.core.validation.issue.ValidationIssues;
@@ -167,7 +168,7 @@ public abstract class BaseValidationTest extends BaseRevisionIndexTest {
 	@Override
 	protected final Collection<Class<?>> getTypes() {
 		return ImmutableList.<Class<?>>builder()
-				.add(ValidationRule.class, ValidationIssue.class, ValidationWhiteList.class)
+				.add(ValidationRule.class, ValidationIssue.class, ValidationWhiteList.class, ValidationRuleCheckpoint.class)
 				.addAll(getAdditionalTypes())
 				.build();
 	}